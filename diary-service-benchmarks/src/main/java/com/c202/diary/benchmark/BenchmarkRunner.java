@@ -0,0 +1,29 @@
+package com.c202.diary.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * benchmarks.jar 진입점
+ * JMH 명령행 옵션을 그대로 받고, 연산당 할당량을 보기 위해 GC 프로파일러를 항상 붙입니다.
+ * 예) java -jar target/benchmarks.jar Clustering -p diaryCount=10000 -rf json -rff result.json
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        Options options = new OptionsBuilder()
+                .parent(commandLine)
+                .addProfiler(GCProfiler.class)
+                // 거리 커널이 Vector API 구현을 고를 수 있도록 포크 JVM에 모듈 추가
+                .jvmArgsAppend("--add-modules", "jdk.incubator.vector")
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,46 @@
+package com.c202.diary.benchmark;
+
+import com.c202.diary.util.coordinate.similarity.ConstellationClustering;
+import com.c202.diary.util.coordinate.similarity.TagSetTable;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 감정 하나 안의 별자리 클러스터링 (CoordinateResetService.clusterIntoConstellations의 계산 부분)
+ * 서비스와 같은 값(최소 3개, 최대 7개, 임계값 0.3)으로 ConstellationClustering을 직접 호출합니다.
+ * 태그 집합 테이블 생성도 재배치 때마다 일어나므로 측정에 포함합니다.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ClusteringBenchmark {
+
+    private static final int MIN_CLUSTER_SIZE = 3;
+    private static final int MAX_CLUSTER_SIZE = 7;
+    private static final double CLUSTERING_SIMILARITY_THRESHOLD = 0.3;
+
+    @Param({"10", "1000", "10000", "100000"})
+    public int diaryCount;
+
+    private SyntheticUniverse universe;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        universe = SyntheticUniverse.generate(diaryCount, 1, 42L);
+    }
+
+    @Benchmark
+    public int[][] cluster() {
+        TagSetTable table = TagSetTable.of(universe.tagsByDiary());
+        int[] setIds = new int[diaryCount];
+        for (int i = 0; i < diaryCount; i++) {
+            setIds[i] = table.setIdOf(i + 1);
+        }
+        return ConstellationClustering.cluster(table, setIds,
+                MIN_CLUSTER_SIZE, MAX_CLUSTER_SIZE, CLUSTERING_SIMILARITY_THRESHOLD);
+    }
+}
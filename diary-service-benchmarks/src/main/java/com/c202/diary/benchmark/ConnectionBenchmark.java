@@ -0,0 +1,39 @@
+package com.c202.diary.benchmark;
+
+import com.c202.diary.diary.entity.Diary;
+import com.c202.diary.util.coordinate.service.ConstellationConnectionService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 일기 간 연결 최적화 (태그 조회는 메모리 스텁으로 대체)
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ConnectionBenchmark {
+
+    @Param({"10", "1000", "10000"})
+    public int diaryCount;
+
+    private ConstellationConnectionService connectionService;
+    private List<Diary> diaries;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SyntheticUniverse universe = SyntheticUniverse.generate(diaryCount, 1, 42L);
+        connectionService = new ConstellationConnectionService(universe.tagService());
+        diaries = universe.diaries();
+    }
+
+    @Benchmark
+    public Map<Integer, List<Integer>> optimizeConnections() {
+        return connectionService.optimizeConnections(diaries);
+    }
+}
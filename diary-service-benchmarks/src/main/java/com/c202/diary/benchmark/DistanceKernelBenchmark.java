@@ -0,0 +1,71 @@
+package com.c202.diary.benchmark;
+
+import com.c202.diary.diary.entity.Diary;
+import com.c202.diary.util.coordinate.spatial.CoordinateBuffer;
+import com.c202.diary.util.coordinate.spatial.DistanceKernels;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 거리 커널의 스칼라 구현과 Vector API 구현 비교
+ * 커널은 JVM마다 한 번 고르므로, 포크마다 diary.simd.enabled를 바꿔 두 구현을 따로 측정합니다.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DistanceKernelBenchmark {
+
+    @Param({"64", "1024", "8192"})
+    public int pointCount;
+
+    @Param({"true", "false"})
+    public String simd;
+
+    private DistanceKernels kernels;
+    private CoordinateBuffer points;
+    private double[] distancesSq;
+    private double[] force;
+    private double[] probe;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        System.setProperty("diary.simd.enabled", simd);
+        kernels = DistanceKernels.get();
+
+        SyntheticUniverse universe = SyntheticUniverse.generate(pointCount, 1, 42L);
+        points = new CoordinateBuffer(pointCount);
+        for (Diary diary : universe.diaries()) {
+            points.add(diary.getX(), diary.getY(), diary.getZ());
+        }
+        distancesSq = new double[pointCount];
+        force = new double[3];
+        var emotion = universe.emotions().get(0);
+        probe = new double[]{emotion.getBaseX(), emotion.getBaseY(), emotion.getBaseZ()};
+    }
+
+    // 한 점의 정확한 반발력 (Force-Directed 정확 계산의 안쪽 반복)
+    @Benchmark
+    public double[] repulsion() {
+        force[0] = force[1] = force[2] = 0;
+        kernels.accumulateRepulsion(0, points, 1000.0, 0.01, force);
+        return force;
+    }
+
+    // 배치 거리 제곱
+    @Benchmark
+    public void squaredDistances(Blackhole blackhole) {
+        kernels.squaredDistances(probe[0], probe[1], probe[2], points, distancesSq);
+        blackhole.consume(distancesSq);
+    }
+
+    // 충돌 검사 (반경 안에 점이 없어 전체를 훑는 경우)
+    @Benchmark
+    public boolean anyWithinMiss() {
+        return kernels.anyWithin(probe[0] + 10_000, probe[1], probe[2], points, 5.0);
+    }
+}
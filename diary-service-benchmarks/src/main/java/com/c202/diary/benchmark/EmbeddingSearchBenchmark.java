@@ -0,0 +1,85 @@
+package com.c202.diary.benchmark;
+
+import com.c202.diary.diary.entity.Diary;
+import com.c202.diary.util.coordinate.similarity.HnswIndex;
+import com.c202.diary.util.coordinate.similarity.TextEmbedder;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 유사 일기 임베딩 검색: 전체 비교와 HNSW 근사 검색 비교
+ * 합성 일기에는 본문이 없으므로 태그마다 정해진 단어를 섞어 본문을 만들고, 태그 비중은 기본값(0.5)을 씁니다.
+ * diary.embedding.hnsw.min-size를 정할 때 두 검색 시간이 만나는 일기 수를 참고합니다.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EmbeddingSearchBenchmark {
+
+    private static final String[] SYLLABLES = {"바", "다", "숲", "길", "비", "꿈", "별", "밤", "집", "빛", "눈", "강"};
+    private static final int K = 5;
+
+    @Param({"500", "2000", "10000"})
+    public int diaryCount;
+
+    private float[][] vectors;
+    private HnswIndex index;
+    private float[] query;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SyntheticUniverse universe = SyntheticUniverse.generate(diaryCount, 1, 42L);
+        Random random = new Random(7L);
+        List<Diary> diaries = universe.diaries();
+        vectors = new float[diaries.size()][];
+        index = new HnswIndex(16, 100, 42L);
+        for (int i = 0; i < diaries.size(); i++) {
+            int[] tags = universe.tagsByDiary().get(diaries.get(i).getDiarySeq());
+            vectors[i] = TextEmbedder.embed(word(tags.length > 0 ? tags[0] : 0), content(tags, random), tags, 0.5);
+            index.put(i, vectors[i]);
+        }
+        query = vectors[random.nextInt(vectors.length)];
+    }
+
+    // 일기 수가 diary.embedding.hnsw.min-size보다 적을 때의 전체 비교 (SimilarDiaryIndexService와 같이 전부 점수를 매겨 정렬)
+    @Benchmark
+    public List<Integer> exactScan() {
+        List<HnswIndex.Result> ranked = new ArrayList<>(vectors.length);
+        for (int i = 0; i < vectors.length; i++) {
+            ranked.add(new HnswIndex.Result(i, TextEmbedder.similarity(query, vectors[i])));
+        }
+        ranked.sort(Comparator.comparingDouble(HnswIndex.Result::getSimilarity).reversed());
+        List<Integer> top = new ArrayList<>(K);
+        for (int i = 0; i < K && i < ranked.size(); i++) {
+            top.add(ranked.get(i).getId());
+        }
+        return top;
+    }
+
+    @Benchmark
+    public List<HnswIndex.Result> hnswSearch() {
+        return index.search(query, K, 64, id -> true);
+    }
+
+    // 태그 ID로 정해지는 두 음절 단어
+    private static String word(int tag) {
+        return SYLLABLES[tag % SYLLABLES.length] + SYLLABLES[(tag / SYLLABLES.length) % SYLLABLES.length];
+    }
+
+    private static String content(int[] tags, Random random) {
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 40; i++) {
+            int tag = tags.length > 0 && random.nextBoolean() ? tags[random.nextInt(tags.length)] : random.nextInt(500);
+            content.append(word(tag)).append(' ');
+        }
+        return content.toString();
+    }
+}
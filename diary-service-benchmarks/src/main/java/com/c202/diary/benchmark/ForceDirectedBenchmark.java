@@ -0,0 +1,60 @@
+package com.c202.diary.benchmark;
+
+import com.c202.diary.diary.entity.Diary;
+import com.c202.diary.util.coordinate.service.ForceDirectedLayoutService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Force-Directed 레이아웃의 정확 계산(theta = 0)과 Barnes–Hut 근사(theta = 0.5) 비교
+ * 두 결과가 엇갈리는 노드 수를 보고 diary.layout.barnes-hut.threshold를 정합니다.
+ * 병렬 처리는 끄고 단일 스레드 비용만 측정합니다.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ForceDirectedBenchmark {
+
+    @Param({"16", "64", "256", "1024", "4096"})
+    public int nodeCount;
+
+    @Param({"0.0", "0.5"})
+    public double theta;
+
+    private final ForceDirectedLayoutService layoutService = new ForceDirectedLayoutService(0.5, 256, 2048, 0.01);
+    private double[][] initial;
+    private double[][] positions;
+    private double[] center;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SyntheticUniverse universe = SyntheticUniverse.generate(nodeCount, 1, 42L);
+        List<Diary> diaries = universe.diaries();
+        initial = new double[nodeCount][];
+        for (int i = 0; i < nodeCount; i++) {
+            Diary diary = diaries.get(i);
+            initial[i] = new double[]{diary.getX(), diary.getY(), diary.getZ()};
+        }
+        var emotion = universe.emotions().get(0);
+        center = new double[]{emotion.getBaseX(), emotion.getBaseY(), emotion.getBaseZ()};
+        positions = new double[nodeCount][3];
+    }
+
+    // 레이아웃이 좌표를 덮어쓰므로 매 호출 전에 초기 좌표로 되돌림
+    @Setup(Level.Invocation)
+    public void reset() {
+        for (int i = 0; i < nodeCount; i++) {
+            System.arraycopy(initial[i], 0, positions[i], 0, 3);
+        }
+    }
+
+    @Benchmark
+    public double[][] layout() {
+        return layoutService.applyForceDirectedLayout(positions, center, theta, false);
+    }
+}
@@ -0,0 +1,41 @@
+package com.c202.diary.benchmark;
+
+import com.c202.diary.diary.entity.Diary;
+import com.c202.diary.util.coordinate.service.MSTService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 중심 일기와 나머지 일기의 최소 신장 트리 계산 (태그 조회는 메모리 스텁으로 대체)
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class MstBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int diaryCount;
+
+    private MSTService mstService;
+    private Diary center;
+    private List<Diary> rest;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SyntheticUniverse universe = SyntheticUniverse.generate(diaryCount, 1, 42L);
+        mstService = new MSTService(universe.tagService());
+        center = universe.diaries().get(0);
+        rest = universe.diaries().subList(1, diaryCount);
+    }
+
+    @Benchmark
+    public Map<Integer, List<Integer>> calculateMst() {
+        return mstService.calculateMST(center, rest);
+    }
+}
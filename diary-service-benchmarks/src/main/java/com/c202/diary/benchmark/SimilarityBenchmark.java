@@ -0,0 +1,69 @@
+package com.c202.diary.benchmark;
+
+import com.c202.diary.util.coordinate.similarity.TagSetTable;
+import com.c202.diary.util.coordinate.similarity.TagSimilarity;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 태그 유사도 계산 비용
+ * 정렬된 태그 배열의 자카드 직접 계산과, 태그 집합 테이블(같은 집합 묶음 + 메모)을 통한 계산을 비교합니다.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SimilarityBenchmark {
+
+    // 한 번의 호출에서 비교하는 일기 쌍 수
+    private static final int PAIRS = 1024;
+
+    @Param({"1000", "10000"})
+    public int diaryCount;
+
+    private int[][] tags;
+    private int[] setIds;
+    private int[] pairs;
+    private TagSetTable table;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SyntheticUniverse universe = SyntheticUniverse.generate(diaryCount, 7, 42L);
+        tags = new int[diaryCount][];
+        for (int i = 0; i < diaryCount; i++) {
+            tags[i] = universe.tagsByDiary().get(i + 1);
+        }
+        table = TagSetTable.of(universe.tagsByDiary());
+        setIds = new int[diaryCount];
+        for (int i = 0; i < diaryCount; i++) {
+            setIds[i] = table.setIdOf(i + 1);
+        }
+
+        Random random = new Random(7L);
+        pairs = new int[PAIRS * 2];
+        for (int i = 0; i < pairs.length; i++) {
+            pairs[i] = random.nextInt(diaryCount);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAIRS)
+    public void jaccard(Blackhole blackhole) {
+        for (int i = 0; i < pairs.length; i += 2) {
+            blackhole.consume(TagSimilarity.jaccard(tags[pairs[i]], tags[pairs[i + 1]]));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAIRS)
+    public void tagSetTable(Blackhole blackhole) {
+        for (int i = 0; i < pairs.length; i += 2) {
+            blackhole.consume(table.similarity(setIds[pairs[i]], setIds[pairs[i + 1]]));
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.c202.diary.benchmark;
+
+import com.c202.diary.diary.entity.Diary;
+import com.c202.diary.emotion.entity.Emotion;
+import com.c202.diary.tag.service.DiaryTagService;
+
+import java.util.*;
+
+/**
+ * 벤치마크용 가상 사용자 우주
+ * 태그는 실제 데이터처럼 소수의 인기 태그와 긴 꼬리를 갖도록 Zipf 분포(s = 1.1)로 뽑고,
+ * 일기당 태그 수는 0~5개(대부분 1~3개)입니다. 같은 시드면 항상 같은 데이터가 만들어집니다.
+ */
+public final class SyntheticUniverse {
+
+    public static final String[] EMOTION_NAMES = {"행복", "슬픔", "분노", "불안", "평화", "희망", "공포"};
+
+    // 일기당 태그 수 분포 (0개 ~ 5개)
+    private static final double[] TAG_COUNT_WEIGHTS = {0.10, 0.25, 0.30, 0.20, 0.10, 0.05};
+    private static final double ZIPF_EXPONENT = 1.1;
+
+    private final List<Diary> diaries;
+    private final Map<Integer, int[]> tagsByDiary;
+    private final List<Emotion> emotions;
+
+    private SyntheticUniverse(List<Diary> diaries, Map<Integer, int[]> tagsByDiary, List<Emotion> emotions) {
+        this.diaries = diaries;
+        this.tagsByDiary = tagsByDiary;
+        this.emotions = emotions;
+    }
+
+    /**
+     * @param diaryCount 일기 수
+     * @param emotionCount 감정 수 (1이면 모든 일기가 같은 감정, 감정 하나 단위의 클러스터링 측정용)
+     * @param seed 난수 시드
+     */
+    public static SyntheticUniverse generate(int diaryCount, int emotionCount, long seed) {
+        Random random = new Random(seed);
+
+        List<Emotion> emotions = new ArrayList<>(emotionCount);
+        for (int i = 0; i < emotionCount; i++) {
+            double angle = 2 * Math.PI * i / emotionCount;
+            emotions.add(Emotion.builder()
+                    .emotionSeq(i + 1)
+                    .name(EMOTION_NAMES[i % EMOTION_NAMES.length])
+                    .baseX(300 * Math.cos(angle))
+                    .baseY(0.0)
+                    .baseZ(300 * Math.sin(angle))
+                    .baseRadius(100.0)
+                    .diaryCount(0)
+                    .build());
+        }
+
+        // 어휘 크기는 일기 수에 비례 (최소 50개)
+        int vocabulary = Math.max(50, diaryCount / 20);
+        double[] zipfCdf = zipfCdf(vocabulary);
+
+        List<Diary> diaries = new ArrayList<>(diaryCount);
+        Map<Integer, int[]> tagsByDiary = new HashMap<>(diaryCount * 2);
+        for (int i = 0; i < diaryCount; i++) {
+            int diarySeq = i + 1;
+            Emotion emotion = emotions.get(random.nextInt(emotionCount));
+            double[] point = pointInSphere(random, emotion);
+            diaries.add(Diary.builder()
+                    .diarySeq(diarySeq)
+                    .userSeq(1)
+                    .emotionSeq(emotion.getEmotionSeq())
+                    .x(point[0])
+                    .y(point[1])
+                    .z(point[2])
+                    .isDeleted("N")
+                    .isPublic("Y")
+                    .build());
+
+            int tagCount = sample(random, TAG_COUNT_WEIGHTS);
+            TreeSet<Integer> tags = new TreeSet<>();
+            while (tags.size() < tagCount) {
+                tags.add(sampleZipf(random, zipfCdf) + 1);
+            }
+            tagsByDiary.put(diarySeq, tags.stream().mapToInt(Integer::intValue).toArray());
+        }
+        return new SyntheticUniverse(diaries, tagsByDiary, emotions);
+    }
+
+    public List<Diary> diaries() {
+        return diaries;
+    }
+
+    public Map<Integer, int[]> tagsByDiary() {
+        return tagsByDiary;
+    }
+
+    public List<Emotion> emotions() {
+        return emotions;
+    }
+
+    // 미리 만든 태그를 돌려주는 DiaryTagService (DB 없이 서비스 코드를 그대로 실행하기 위함)
+    public DiaryTagService tagService() {
+        return new DiaryTagService() {
+            @Override
+            public Map<Integer, int[]> preloadTags(Collection<Diary> diaries) {
+                Map<Integer, int[]> result = new HashMap<>(diaries.size() * 2);
+                for (Diary diary : diaries) {
+                    result.put(diary.getDiarySeq(), tagsByDiary.getOrDefault(diary.getDiarySeq(), new int[0]));
+                }
+                return result;
+            }
+
+            @Override
+            public Map<Integer, int[]> preloadTagSeqs(Collection<Integer> diarySeqs) {
+                Map<Integer, int[]> result = new HashMap<>(diarySeqs.size() * 2);
+                for (Integer diarySeq : diarySeqs) {
+                    result.put(diarySeq, tagsByDiary.getOrDefault(diarySeq, new int[0]));
+                }
+                return result;
+            }
+
+            @Override
+            public List<String> getTagNames(Diary diary) {
+                List<String> names = new ArrayList<>();
+                for (int tag : getTagSeqs(diary)) {
+                    names.add("tag" + tag);
+                }
+                return names;
+            }
+
+            @Override
+            public int[] getTagSeqs(Diary diary) {
+                return tagsByDiary.getOrDefault(diary.getDiarySeq(), new int[0]);
+            }
+
+            @Override
+            public int[] resolveTagSeqs(List<String> tagNames) {
+                return tagNames.stream()
+                        .mapToInt(name -> Integer.parseInt(name.substring(3)))
+                        .sorted()
+                        .distinct()
+                        .toArray();
+            }
+
+            @Override
+            public void evictTags(Integer diarySeq) {
+            }
+        };
+    }
+
+    private static double[] zipfCdf(int n) {
+        double[] cdf = new double[n];
+        double sum = 0;
+        for (int k = 0; k < n; k++) {
+            sum += 1.0 / Math.pow(k + 1, ZIPF_EXPONENT);
+            cdf[k] = sum;
+        }
+        for (int k = 0; k < n; k++) {
+            cdf[k] /= sum;
+        }
+        return cdf;
+    }
+
+    private static int sampleZipf(Random random, double[] cdf) {
+        int index = Arrays.binarySearch(cdf, random.nextDouble());
+        return index >= 0 ? index : Math.min(-index - 1, cdf.length - 1);
+    }
+
+    private static int sample(Random random, double[] weights) {
+        double r = random.nextDouble();
+        for (int i = 0; i < weights.length; i++) {
+            r -= weights[i];
+            if (r < 0) {
+                return i;
+            }
+        }
+        return weights.length - 1;
+    }
+
+    private static double[] pointInSphere(Random random, Emotion emotion) {
+        double radius = emotion.getBaseRadius() * Math.cbrt(random.nextDouble());
+        double theta = random.nextDouble() * 2 * Math.PI;
+        double phi = Math.acos(2 * random.nextDouble() - 1);
+        return new double[]{
+                emotion.getBaseX() + radius * Math.sin(phi) * Math.cos(theta),
+                emotion.getBaseY() + radius * Math.sin(phi) * Math.sin(theta),
+                emotion.getBaseZ() + radius * Math.cos(phi)
+        };
+    }
+}
@@ -0,0 +1,44 @@
+package com.c202.diary.benchmark;
+
+import com.c202.diary.emotion.entity.Emotion;
+import com.c202.diary.util.coordinate.service.ConstellationLayoutService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 별자리 템플릿 슬롯 좌표 계산 (일기 하나를 배치할 때마다 호출되는 경로)
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TemplateLayoutBenchmark {
+
+    @Param({"3", "5", "7"})
+    public int templateSize;
+
+    // 감정 조회 없이 템플릿 계산만 하므로 저장소는 필요 없음
+    private final ConstellationLayoutService layoutService = new ConstellationLayoutService(null);
+    private Emotion[] emotions;
+    private double[] out;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        emotions = SyntheticUniverse.generate(0, SyntheticUniverse.EMOTION_NAMES.length, 42L)
+                .emotions().toArray(new Emotion[0]);
+        out = new double[3 * 7];
+    }
+
+    @Benchmark
+    public void writeSlotPositions(Blackhole blackhole) {
+        Emotion emotion = emotions[next++ % emotions.length];
+        layoutService.writeSlotPositions(emotion, templateSize,
+                emotion.getBaseX(), emotion.getBaseY(), emotion.getBaseZ(), 30.0, out, 0);
+        blackhole.consume(out);
+    }
+}
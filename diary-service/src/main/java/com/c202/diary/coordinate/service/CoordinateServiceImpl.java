@@ -2,42 +2,56 @@ package com.c202.diary.coordinate.service;
 
 import com.c202.diary.coordinate.model.CoordinateDto;
 import com.c202.diary.diary.entity.Diary;
+import com.c202.diary.diary.model.DiaryCoordinateView;
 import com.c202.diary.diary.repository.DiaryRepository;
 import com.c202.diary.emotion.entity.Emotion;
 import com.c202.diary.emotion.repository.EmotionRepository;
-import com.c202.diary.tag.entity.DiaryTag;
-import com.c202.diary.tag.entity.Tag;
-import com.c202.diary.tag.repository.DiaryTagRepository;
-import com.c202.diary.tag.repository.TagRepository;
+import com.c202.diary.tag.service.DiaryTagService;
+import com.c202.diary.util.coordinate.similarity.TagSetTable;
+import com.c202.diary.util.coordinate.spatial.CollisionResolver;
+import com.c202.diary.util.coordinate.spatial.SpatialIndexService;
+import com.c202.diary.util.coordinate.spatial.StarSlotService;
 import com.c202.exception.CustomException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.*;
 import java.util.stream.Collectors;
 
 @Slf4j
-@Service
+@Service("legacyCoordinateService")
 @RequiredArgsConstructor
 public class CoordinateServiceImpl implements CoordinateService {
 
     private final EmotionRepository emotionRepository;
     private final DiaryRepository diaryRepository;
-    private final DiaryTagRepository diaryTagRepository;
-    private final TagRepository tagRepository;
+    private final DiaryTagService diaryTagService;
+    private final SpatialIndexService spatialIndexService;
+    private final StarSlotService starSlotService;
+
+    // 별 간 최소 거리와 충돌 조정 최대 반복 횟수 (빈 별 자리 후보가 없을 때만 사용)
+    private static final double COLLISION_MIN_DISTANCE = 1.0;
+    private static final int MAX_COLLISION_ATTEMPTS = 10;
 
     private final Random random = new Random();
 
     @Override
+    @Transactional(readOnly = true)
     public CoordinateDto generateCoordinates(String mainEmotion, List<String> tags, Integer diarySeq) {
         // 1. 감정 영역 정보 가져오기
         Emotion emotion = emotionRepository.findByName(mainEmotion)
                 .orElseThrow(() -> new CustomException("존재하지 않는 감정입니다: " + mainEmotion));
 
-        // 2. 같은 감정을 가진 일기 목록 조회
-        List<Diary> emotionDiaries = diaryRepository.findAll().stream()
-                .filter(d -> !d.getIsDeleted().equals("Y"))
+        // 2. 같은 사용자, 같은 감정을 가진 일기 목록 조회 (좌표 프로젝션만 조회)
+        // 새 일기는 아직 사용자 정보를 알 수 없으므로 비교 대상 없이 감정 중심 기준으로 배치
+        Integer userSeq = diarySeq != null
+                ? diaryRepository.findByDiarySeq(diarySeq).map(Diary::getUserSeq).orElse(null)
+                : null;
+        List<DiaryCoordinateView> emotionDiaries = userSeq == null ? new ArrayList<>()
+                : diaryRepository.findByUserSeqAndEmotionSeqAndIsDeleted(
+                        userSeq, emotion.getEmotionSeq(), "N", DiaryCoordinateView.class).stream()
                 .filter(d -> Objects.equals(d.getX(), emotion.getBaseX()) &&
                         Objects.equals(d.getY(), emotion.getBaseY()) &&
                         Objects.equals(d.getZ(), emotion.getBaseZ()))
@@ -54,10 +68,14 @@ public class CoordinateServiceImpl implements CoordinateService {
         }
 
         // 4. 태그 기반 유사도 계산
-        for (Diary diary : emotionDiaries) {
-            List<String> diaryTags = getDiaryTags(diary);
-            double similarity = calculateTagSimilarity(tags, diaryTags);
+        TagSetTable tagSets = TagSetTable.of(diaryTagService.preloadTagSeqs(
+                emotionDiaries.stream().map(DiaryCoordinateView::getDiarySeq).collect(Collectors.toList())));
+        int requestTagSet = tagSets.intern(diaryTagService.resolveTagSeqs(tags));
+        Map<Integer, DiaryCoordinateView> diaryBySeq = new HashMap<>();
+        for (DiaryCoordinateView diary : emotionDiaries) {
+            double similarity = tagSets.similarity(requestTagSet, tagSets.setIdOf(diary.getDiarySeq()));
             similarityScores.put(diary.getDiarySeq(), similarity);
+            diaryBySeq.put(diary.getDiarySeq(), diary);
         }
 
         // 5. 기준 위치 결정
@@ -71,8 +89,7 @@ public class CoordinateServiceImpl implements CoordinateService {
         if (!similarityScores.isEmpty()) {
             // 유사도가 가장 높은 일기 찾기
             Integer mostSimilarDiarySeq = Collections.max(similarityScores.entrySet(), Map.Entry.comparingByValue()).getKey();
-            Diary mostSimilarDiary = diaryRepository.findByDiarySeq(mostSimilarDiarySeq)
-                    .orElseThrow(() -> new CustomException("일기를 찾을 수 없습니다: " + mostSimilarDiarySeq));
+            DiaryCoordinateView mostSimilarDiary = diaryBySeq.get(mostSimilarDiarySeq);
 
             // 유사 일기 주변에 배치 (약간의 변동 추가)
             targetX = mostSimilarDiary.getX();
@@ -85,7 +102,7 @@ public class CoordinateServiceImpl implements CoordinateService {
             targetZ = baseZ;
         }
 
-        // 7. 최종 좌표 계산 (구면 좌표계 활용)
+        // 7. 희망 좌표 계산 (구면 좌표계 활용)
         double radius = emotion.getBaseRadius() * 0.8 * (0.5 + random.nextDouble() * 0.5); // 반경의 50%~100% 범위 내
         double theta = random.nextDouble() * 2 * Math.PI; // 0~2π
         double phi = random.nextDouble() * Math.PI;       // 0~π
@@ -95,15 +112,20 @@ public class CoordinateServiceImpl implements CoordinateService {
         double offsetY = radius * Math.sin(phi) * Math.sin(theta);
         double offsetZ = radius * Math.cos(phi);
 
-        // 최종 좌표 (목표 지점 + 오프셋)
-        double finalX = targetX + offsetX;
-        double finalY = targetY + offsetY;
-        double finalZ = targetZ + offsetZ;
+        // 희망 좌표 (목표 지점 + 오프셋)
+        double[] preferred = {targetX + offsetX, targetY + offsetY, targetZ + offsetZ};
 
-        // 8. 기존 일기들과의 충돌 검사 및 조정
-        finalX = adjustForCollisions(finalX, emotionDiaries, 0);
-        finalY = adjustForCollisions(finalY, emotionDiaries, 1);
-        finalZ = adjustForCollisions(finalZ, emotionDiaries, 2);
+        // 8. 희망 좌표에서 가장 가까운 빈 별 자리 조회 (후보끼리 최소 거리가 보장되므로 충돌 조정 불필요)
+        // 자리를 차지하는 것은 좌표를 일기에 적용하는 쪽(place)에서 하므로 미리보기는 사용 현황을 바꾸지 않음
+        // 빈 자리가 없을 때만 기존 일기들과의 충돌 검사 및 조정
+        double[] adjusted = userSeq == null ? null
+                : starSlotService.nearestFree(userSeq, emotion, preferred, diarySeq);
+        if (adjusted == null) {
+            adjusted = adjustForCollisions(preferred, userSeq, emotion.getEmotionSeq(), diarySeq);
+        }
+        double finalX = adjusted[0];
+        double finalY = adjusted[1];
+        double finalZ = adjusted[2];
 
         // 9. 결과 반환
         return CoordinateDto.builder()
@@ -166,25 +188,25 @@ public class CoordinateServiceImpl implements CoordinateService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Integer> findSimilarDiaries(Integer diarySeq, int maxResults) {
         Diary diary = diaryRepository.findByDiarySeq(diarySeq)
                 .orElseThrow(() -> new CustomException("일기를 찾을 수 없습니다: " + diarySeq));
 
-        List<String> diaryTags = getDiaryTags(diary);
-
-        // 감정이 같은 일기들 중에서 찾기
-        List<Diary> sameCategoryDiaries = diaryRepository.findAll().stream()
-                .filter(d -> !d.getIsDeleted().equals("Y"))
-                .filter(d -> !d.getDiarySeq().equals(diarySeq))
-                .filter(d -> Objects.equals(d.getEmotionSeq(), diary.getEmotionSeq()))
+        // 같은 사용자의 감정이 같은 일기들 중에서 찾기 (ID만 조회)
+        List<Integer> sameCategorySeqs = diaryRepository.findByUserSeqAndEmotionSeqAndIsDeleted(
+                        diary.getUserSeq(), diary.getEmotionSeq(), "N", DiaryCoordinateView.class).stream()
+                .map(DiaryCoordinateView::getDiarySeq)
+                .filter(seq -> !seq.equals(diarySeq))
                 .collect(Collectors.toList());
 
         // 태그 유사도 계산
+        TagSetTable tagSets = TagSetTable.of(diaryTagService.preloadTagSeqs(sameCategorySeqs));
+        int diaryTagSet = tagSets.intern(diaryTagService.getTagSeqs(diary));
         Map<Integer, Double> similarityScores = new HashMap<>();
-        for (Diary otherDiary : sameCategoryDiaries) {
-            List<String> otherTags = getDiaryTags(otherDiary);
-            double similarity = calculateTagSimilarity(diaryTags, otherTags);
-            similarityScores.put(otherDiary.getDiarySeq(), similarity);
+        for (Integer otherSeq : sameCategorySeqs) {
+            double similarity = tagSets.similarity(diaryTagSet, tagSets.setIdOf(otherSeq));
+            similarityScores.put(otherSeq, similarity);
         }
 
         // 유사도 순으로 정렬하여 상위 N개 반환
@@ -195,72 +217,24 @@ public class CoordinateServiceImpl implements CoordinateService {
                 .collect(Collectors.toList());
     }
 
-    // 일기의 태그 목록 가져오기
-    private List<String> getDiaryTags(Diary diary) {
-        List<DiaryTag> diaryTags = diaryTagRepository.findByDiary(diary);
-        return diaryTags.stream()
-                .map(diaryTag -> diaryTag.getTag().getName())
-                .collect(Collectors.toList());
-    }
-
-    // 태그 유사도 계산 (자카드 유사도 사용)
-    private double calculateTagSimilarity(List<String> tags1, List<String> tags2) {
-        if (tags1.isEmpty() || tags2.isEmpty()) {
-            return 0.0;
-        }
-
-        Set<String> union = new HashSet<>(tags1);
-        union.addAll(tags2);
-
-        Set<String> intersection = new HashSet<>(tags1);
-        intersection.retainAll(tags2);
-
-        return (double) intersection.size() / union.size();
-    }
-
     // 거리 계산
     private double calculateDistance(double x1, double y1, double z1, double x2, double y2, double z2) {
-        return Math.sqrt(Math.pow(x2 - x1, 2) + Math.pow(y2 - y1, 2) + Math.pow(z2 - z1, 2));
+        double dx = x2 - x1, dy = y2 - y1, dz = z2 - z1;
+        return Math.sqrt(dx * dx + dy * dy + dz * dz);
     }
 
     // 충돌 방지를 위한 좌표 조정 (같은 좌표에 일기가 겹치지 않도록)
-    private double adjustForCollisions(double coordinate, List<Diary> existingDiaries, int axis) {
-        // 최소 거리 설정
-        double minDistance = 1.0;
-
-        boolean hasCollision;
-        double adjustedCoordinate = coordinate;
-        int maxAttempts = 10;
-
-        do {
-            hasCollision = false;
-
-            for (Diary existingDiary : existingDiaries) {
-                double existingCoordinate;
-
-                if (axis == 0) existingCoordinate = existingDiary.getX();
-                else if (axis == 1) existingCoordinate = existingDiary.getY();
-                else existingCoordinate = existingDiary.getZ();
-
-                // 충돌 확인
-                if (Math.abs(adjustedCoordinate - existingCoordinate) < minDistance) {
-                    hasCollision = true;
-
-                    // 랜덤한 방향으로 조금 이동
-                    double adjustment = minDistance * (1.0 + random.nextDouble() * 0.5);
-                    if (random.nextBoolean()) {
-                        adjustedCoordinate += adjustment;
-                    } else {
-                        adjustedCoordinate -= adjustment;
-                    }
-
-                    break;
-                }
-            }
-
-            maxAttempts--;
-        } while (hasCollision && maxAttempts > 0);
-
-        return adjustedCoordinate;
+    // 공간 인덱스로 최소 거리 안의 별만 조회해 3차원으로 밀어냄
+    private double[] adjustForCollisions(double[] point, Integer userSeq, Integer emotionSeq, Integer diarySeq) {
+        if (userSeq == null) {
+            return point;
+        }
+        return CollisionResolver.resolve(
+                point,
+                COLLISION_MIN_DISTANCE,
+                MAX_COLLISION_ATTEMPTS,
+                p -> spatialIndexService.findStarsWithin(userSeq, emotionSeq, p, COLLISION_MIN_DISTANCE, diarySeq),
+                random
+        );
     }
-}
\ No newline at end of file
+}
@@ -1,6 +1,5 @@
 package com.c202.diary.diary.controller;
 
-import com.c202.diary.diary.model.response.UniverseDataResponseDto;
 import com.c202.diary.tag.service.TagService;
 import com.c202.dto.ResponseDto;
 import com.c202.diary.diary.model.request.DiaryCreateRequestDto;
@@ -8,12 +7,20 @@ import com.c202.diary.diary.model.request.DiaryUpdateRequestDto;
 import com.c202.diary.diary.model.response.DiaryDetailResponseDto;
 import com.c202.diary.diary.model.response.DiaryListResponseDto;
 import com.c202.diary.diary.service.DiaryService;
+import com.c202.diary.diary.service.DiaryStreamService;
+import com.c202.diary.diary.service.UniverseBinaryEncoder;
+import com.c202.diary.diary.service.UniverseSnapshotService;
 import com.c202.exception.CustomException;
 import jakarta.validation.constraints.NotNull;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Objects;
@@ -26,22 +33,26 @@ public class DiaryController {
 
     private final DiaryService diaryService;
     private final TagService tagService;
+    private final UniverseSnapshotService universeSnapshotService;
+    private final DiaryStreamService diaryStreamService;
 
     @PostMapping("")
     public ResponseEntity<ResponseDto<DiaryDetailResponseDto>> createDiary(
             @RequestHeader("X-User-Seq") @NotNull Integer userSeq,
+            @RequestHeader(value = "X-Layout-Engine", required = false) String layoutEngine,
             @RequestBody DiaryCreateRequestDto dto
     ) {
-        return ResponseEntity.ok(ResponseDto.success(201, "일기 작성 완료", diaryService.createDiary(userSeq, dto)));
+        return ResponseEntity.ok(ResponseDto.success(201, "일기 작성 완료", diaryService.createDiary(userSeq, dto, layoutEngine)));
     }
 
     @PutMapping("/{diarySeq}")
     public ResponseEntity<ResponseDto<DiaryDetailResponseDto>> updateDiary(
             @RequestHeader("X-User-Seq") @NotNull Integer userSeq,
+            @RequestHeader(value = "X-Layout-Engine", required = false) String layoutEngine,
             @RequestBody DiaryUpdateRequestDto dto,
             @PathVariable Integer diarySeq
     ) {
-        return ResponseEntity.ok(ResponseDto.success(200, "일기 수정 완료", diaryService.updateDiary(diarySeq, userSeq, dto)));
+        return ResponseEntity.ok(ResponseDto.success(200, "일기 수정 완료", diaryService.updateDiary(diarySeq, userSeq, dto, layoutEngine)));
     }
 
     @DeleteMapping("/{diarySeq}")
@@ -60,6 +71,14 @@ public class DiaryController {
         return ResponseEntity.ok(ResponseDto.success(200, "내 일기 조회 완료", diaryService.getMyDiaries(userSeq)));
     }
 
+    // Accept: application/x-ndjson이면 한 줄에 일기 하나씩 스트리밍
+    @GetMapping(value = "/me", produces = DiaryStreamService.MEDIA_TYPE)
+    public ResponseEntity<StreamingResponseBody> streamMyDiaries(
+            @RequestHeader("X-User-Seq") @NotNull Integer userSeq
+    ) {
+        return ndjson(out -> diaryStreamService.streamMyDiaries(userSeq, out));
+    }
+
     @GetMapping("/users/{userSeq}")
     public ResponseEntity<ResponseDto<List<DiaryListResponseDto>>> getUserDiaries(
             @PathVariable Integer userSeq
@@ -67,6 +86,13 @@ public class DiaryController {
         return ResponseEntity.ok(ResponseDto.success(200, "사용자 일기 조회 완료", diaryService.getUserDiaries(userSeq)));
     }
 
+    @GetMapping(value = "/users/{userSeq}", produces = DiaryStreamService.MEDIA_TYPE)
+    public ResponseEntity<StreamingResponseBody> streamUserDiaries(
+            @PathVariable Integer userSeq
+    ) {
+        return ndjson(out -> diaryStreamService.streamUserDiaries(userSeq, out));
+    }
+
     @GetMapping("/{diarySeq}")
     public ResponseEntity<ResponseDto<DiaryDetailResponseDto>> getDiary(
             @PathVariable Integer diarySeq
@@ -74,6 +100,15 @@ public class DiaryController {
         return ResponseEntity.ok(ResponseDto.success(200, "일기 상세 조회 완료", diaryService.getDiary(diarySeq)));
     }
 
+    @GetMapping("/{diarySeq}/nearby")
+    public ResponseEntity<ResponseDto<List<DiaryListResponseDto>>> getNearbyDiaries(
+            @RequestHeader("X-User-Seq") @NotNull Integer userSeq,
+            @PathVariable Integer diarySeq,
+            @RequestParam(defaultValue = "5") int limit
+    ) {
+        return ResponseEntity.ok(ResponseDto.success(200, "주변 일기 조회 완료", diaryService.getNearbyDiaries(diarySeq, userSeq, limit)));
+    }
+
     @PutMapping("/{diarySeq}/visibility")
     public ResponseEntity<ResponseDto<DiaryDetailResponseDto>> toggleDiaryIsPublic(
             @RequestHeader("X-User-Seq") @NotNull Integer userSeq,
@@ -83,10 +118,65 @@ public class DiaryController {
     }
 
     @GetMapping("/universe")
-    public ResponseEntity<ResponseDto<UniverseDataResponseDto>> getUniverseData(
+    public ResponseEntity<byte[]> getUniverseData(
+            @RequestHeader("X-User-Seq") @NotNull Integer userSeq,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @RequestParam(defaultValue = "false") boolean quantized
+    ) {
+        // Accept로 바이너리 형식을 요청하면 TypedArray용 바이너리, 아니면 기존 JSON
+        boolean binary = accept != null && accept.contains(UniverseBinaryEncoder.MEDIA_TYPE);
+        UniverseSnapshotService.Format format;
+        if (binary) {
+            format = quantized ? UniverseSnapshotService.Format.BINARY_QUANTIZED : UniverseSnapshotService.Format.BINARY;
+        } else {
+            format = acceptEncoding != null && acceptEncoding.contains("gzip")
+                    ? UniverseSnapshotService.Format.JSON_GZIP
+                    : UniverseSnapshotService.Format.JSON;
+        }
+
+        UniverseSnapshotService.Snapshot snapshot = universeSnapshotService.getSnapshot(userSeq);
+        CacheControl cacheControl = CacheControl.noCache().cachePrivate();
+
+        // 우주 버전이 바뀌지 않았으면 본문 없이 304
+        if (snapshot.matches(ifNoneMatch, format)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(snapshot.getEtag(format))
+                    .cacheControl(cacheControl)
+                    .build();
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(snapshot.getEtag(format))
+                .cacheControl(cacheControl)
+                .varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING)
+                .contentType(binary ? MediaType.parseMediaType(UniverseBinaryEncoder.MEDIA_TYPE) : MediaType.APPLICATION_JSON);
+        if (format == UniverseSnapshotService.Format.JSON_GZIP) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(snapshot.getBody(format));
+    }
+
+    @GetMapping(value = "/universe", produces = DiaryStreamService.MEDIA_TYPE)
+    public ResponseEntity<StreamingResponseBody> streamUniverseData(
             @RequestHeader("X-User-Seq") @NotNull Integer userSeq
     ) {
-        return ResponseEntity.ok(ResponseDto.success(200, "우주 데이터 조회 완료", diaryService.getUniverseData(userSeq)));
+        return ndjson(out -> diaryStreamService.streamUniverse(userSeq, out));
+    }
+
+    @PostMapping("/relayout")
+    public ResponseEntity<ResponseDto<Objects>> relayoutUniverse(
+            @RequestHeader("X-User-Seq") @NotNull Integer userSeq
+    ) {
+        diaryService.relayoutUniverse(userSeq);
+        return ResponseEntity.accepted().body(ResponseDto.success(202, "우주 재배치 요청 완료"));
+    }
+
+    private static ResponseEntity<StreamingResponseBody> ndjson(StreamingResponseBody body) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(DiaryStreamService.MEDIA_TYPE))
+                .body(body);
     }
 
 }
@@ -8,6 +8,10 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_diary_user_emotion_deleted", columnList = "userSeq, emotionSeq, isDeleted"),
+        @Index(name = "idx_diary_constellation_deleted", columnList = "constellationSeq, isDeleted")
+})
 @Getter
 @NoArgsConstructor
 @AllArgsConstructor
@@ -59,6 +63,13 @@ public class Diary {
     @Column(nullable = true)
     private Integer emotionSeq;
 
+    // 소속 별자리와 별자리 템플릿 내 슬롯 위치
+    @Column(nullable = true)
+    private Integer constellationSeq;
+
+    @Column(nullable = true)
+    private Integer slotIndex;
+
     @OneToMany(mappedBy = "diary", cascade = CascadeType.ALL, orphanRemoval = true) // DiaryTag와 연결
     @Builder.Default
     private List<DiaryTag> diaryTags = new ArrayList<>();
@@ -80,4 +91,14 @@ public class Diary {
         this.z = z;
         this.emotionSeq = emotionSeq;
     }
+
+    public void assignConstellation(Integer constellationSeq, Integer slotIndex) {
+        this.constellationSeq = constellationSeq;
+        this.slotIndex = slotIndex;
+    }
+
+    public void releaseConstellation() {
+        this.constellationSeq = null;
+        this.slotIndex = null;
+    }
 }
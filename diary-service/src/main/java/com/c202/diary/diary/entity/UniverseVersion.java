@@ -0,0 +1,21 @@
+package com.c202.diary.diary.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+// 사용자 우주 데이터의 버전 (일기·태그·감정·좌표가 바뀔 때마다 1씩 증가)
+// 우주 데이터 응답의 캐시 키와 ETag로 사용합니다.
+@Entity
+@Table(name = "universe_version")
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UniverseVersion {
+
+    @Id
+    private Integer userSeq;
+
+    @Column(nullable = false)
+    private Long version;
+}
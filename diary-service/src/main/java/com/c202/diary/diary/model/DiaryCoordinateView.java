@@ -0,0 +1,16 @@
+package com.c202.diary.diary.model;
+
+// 좌표 계산용 일기 요약 프로젝션
+// 본문 등 나머지 컬럼은 읽지 않습니다. 태그 ID는 DiaryTagService.preloadTagSeqs로 함께 조회합니다.
+public interface DiaryCoordinateView {
+
+    Integer getDiarySeq();
+
+    Integer getEmotionSeq();
+
+    Double getX();
+
+    Double getY();
+
+    Double getZ();
+}
@@ -0,0 +1,24 @@
+package com.c202.diary.diary.model;
+
+// 목록·우주 화면용 일기 요약 프로젝션 (스트리밍 조회용)
+// 엔티티로 읽지 않으므로 영속성 컨텍스트에 쌓이지 않습니다.
+public interface DiaryListView {
+
+    Integer getDiarySeq();
+
+    String getTitle();
+
+    String getDreamDate();
+
+    String getCreatedAt();
+
+    String getIsPublic();
+
+    Double getX();
+
+    Double getY();
+
+    Double getZ();
+
+    Integer getEmotionSeq();
+}
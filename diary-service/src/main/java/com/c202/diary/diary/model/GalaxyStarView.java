@@ -0,0 +1,17 @@
+package com.c202.diary.diary.model;
+
+// 공개 은하 타일용 별 프로젝션
+public interface GalaxyStarView {
+
+    Integer getDiarySeq();
+
+    Integer getUserSeq();
+
+    Integer getEmotionSeq();
+
+    Double getX();
+
+    Double getY();
+
+    Double getZ();
+}
@@ -1,6 +1,7 @@
 package com.c202.diary.diary.model.response;
 
 import com.c202.diary.diary.entity.Diary;
+import com.c202.diary.diary.model.DiaryListView;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
@@ -62,6 +63,22 @@ public class DiaryListResponseDto {
                 .build();
     }
 
+    // 스트리밍 조회 프로젝션으로 DTO 생성
+    public static DiaryListResponseDto toDto(DiaryListView diary, String emotionName) {
+        return DiaryListResponseDto.builder()
+                .diarySeq(diary.getDiarySeq())
+                .title(diary.getTitle())
+                .dreamDate(diary.getDreamDate())
+                .createdAt(diary.getCreatedAt())
+                .isPublic(diary.getIsPublic())
+                .x(diary.getX())
+                .y(diary.getY())
+                .z(diary.getZ())
+                .emotionSeq(diary.getEmotionSeq())
+                .emotionName(emotionName)
+                .build();
+    }
+
     // 감정 이름을 포함한 목록 DTO 생성 메서드 추가
     public static List<DiaryListResponseDto> toDto(List<Diary> diaries, List<String> emotionNames) {
         // 일기 목록과 감정 이름 목록의 크기가 같아야 함
@@ -1,10 +1,18 @@
 package com.c202.diary.diary.repository;
 
 import com.c202.diary.diary.entity.Diary;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 public interface DiaryRepository extends JpaRepository<Diary, Integer> {
 
@@ -14,5 +22,49 @@ public interface DiaryRepository extends JpaRepository<Diary, Integer> {
 
     List<Diary> findByUserSeqAndIsDeleted(Integer userSeq, String isDeleted);
 
+    // 사용자의 일기를 프로젝션으로 조회 (엔티티 전체가 필요 없는 색인 생성용)
+    <T> List<T> findByUserSeqAndIsDeleted(Integer userSeq, String isDeleted, Class<T> type);
+
     List<Diary> findByUserSeqAndIsPublicAndIsDeleted(Integer userSeq, String isPublic, String isDeleted);
+
+    // 목록을 한 번에 메모리에 올리지 않고 커서로 읽습니다. (트랜잭션 안에서 사용하고 반드시 닫아야 함)
+    // MySQL 드라이버는 fetch size가 Integer.MIN_VALUE일 때 행 단위 스트리밍을 합니다.
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE))
+    <T> Stream<T> streamByUserSeqAndIsDeletedOrderByDiarySeq(Integer userSeq, String isDeleted, Class<T> type);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE))
+    <T> Stream<T> streamByUserSeqAndIsPublicAndIsDeletedOrderByDiarySeq(Integer userSeq, String isPublic,
+                                                                      String isDeleted, Class<T> type);
+
+    // 사용자·감정 범위의 일기 조회 (idx_diary_user_emotion_deleted 인덱스 사용)
+    // type에 Diary.class 또는 DiaryCoordinateView.class를 넘겨 필요한 만큼만 조회합니다.
+    <T> List<T> findByUserSeqAndEmotionSeqAndIsDeleted(Integer userSeq, Integer emotionSeq, String isDeleted,
+                                                       Class<T> type);
+
+    // 공개 범위 전체를 일기 ID 순으로 나눠 읽음 (마지막으로 읽은 ID 다음부터, 트랜잭션 없이 사용 가능)
+    <T> List<T> findTop1000ByIsPublicAndIsDeletedAndDiarySeqGreaterThanOrderByDiarySeqAsc(String isPublic,
+                                                                                     String isDeleted,
+                                                                                     Integer diarySeq,
+                                                                                     Class<T> type);
+
+    List<Diary> findByConstellationSeqAndIsDeleted(Integer constellationSeq, String isDeleted);
+
+    long countByUserSeqAndIsDeleted(Integer userSeq, String isDeleted);
+
+    // 일기가 있는 사용자를 사용자 ID 순으로 나눠 읽음 (마지막으로 읽은 사용자 다음부터, 전체 재배치 작업용)
+    @Query("SELECT DISTINCT d.userSeq FROM Diary d WHERE d.isDeleted = 'N' AND d.userSeq > :userSeq " +
+            "ORDER BY d.userSeq")
+    List<Integer> findUserSeqsAfter(@Param("userSeq") Integer userSeq, Pageable pageable);
+
+    @Query("SELECT COUNT(DISTINCT d.userSeq) FROM Diary d WHERE d.isDeleted = 'N' AND d.userSeq > :userSeq")
+    long countUserSeqsAfter(@Param("userSeq") Integer userSeq);
+
+    // 좌표가 비어 있는 일기를 가진 사용자만 나눠 읽음 (좌표 보정 작업용)
+    @Query("SELECT DISTINCT d.userSeq FROM Diary d WHERE d.isDeleted = 'N' AND d.userSeq > :userSeq " +
+            "AND (d.x IS NULL OR d.y IS NULL OR d.z IS NULL) ORDER BY d.userSeq")
+    List<Integer> findUserSeqsWithMissingCoordinatesAfter(@Param("userSeq") Integer userSeq, Pageable pageable);
+
+    @Query("SELECT COUNT(DISTINCT d.userSeq) FROM Diary d WHERE d.isDeleted = 'N' AND d.userSeq > :userSeq " +
+            "AND (d.x IS NULL OR d.y IS NULL OR d.z IS NULL)")
+    long countUserSeqsWithMissingCoordinatesAfter(@Param("userSeq") Integer userSeq);
 }
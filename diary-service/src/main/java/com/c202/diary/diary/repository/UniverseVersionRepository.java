@@ -0,0 +1,15 @@
+package com.c202.diary.diary.repository;
+
+import com.c202.diary.diary.entity.UniverseVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+public interface UniverseVersionRepository extends JpaRepository<UniverseVersion, Integer> {
+
+    // 버전을 1 올립니다. (행이 없으면 1로 생성)
+    @Modifying
+    @Query(value = "INSERT INTO universe_version (userSeq, version) VALUES (:userSeq, 1) " +
+            "ON DUPLICATE KEY UPDATE version = version + 1", nativeQuery = true)
+    void increment(Integer userSeq);
+}
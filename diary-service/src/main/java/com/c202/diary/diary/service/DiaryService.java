@@ -10,9 +10,19 @@ import java.util.List;
 
 public interface DiaryService {
 
-    DiaryDetailResponseDto createDiary(Integer userSeq, DiaryCreateRequestDto request);
+    default DiaryDetailResponseDto createDiary(Integer userSeq, DiaryCreateRequestDto request) {
+        return createDiary(userSeq, request, null);
+    }
 
-    DiaryDetailResponseDto updateDiary(Integer diarySeq, Integer userSeq, DiaryUpdateRequestDto request);
+    // layoutEngine: 요청에서 지정한 배치 엔진 이름 (없으면 null, 허용된 경우에만 적용)
+    DiaryDetailResponseDto createDiary(Integer userSeq, DiaryCreateRequestDto request, String layoutEngine);
+
+    default DiaryDetailResponseDto updateDiary(Integer diarySeq, Integer userSeq, DiaryUpdateRequestDto request) {
+        return updateDiary(diarySeq, userSeq, request, null);
+    }
+
+    DiaryDetailResponseDto updateDiary(Integer diarySeq, Integer userSeq, DiaryUpdateRequestDto request,
+                                       String layoutEngine);
 
     void deleteDiary(Integer diaryId, Integer userSeq);
 
@@ -25,4 +35,8 @@ public interface DiaryService {
     DiaryDetailResponseDto toggleDiaryIsPublic(Integer diarySeq, Integer userSeq);
 
     UniverseDataResponseDto getUniverseData(Integer userSeq);
+
+    void relayoutUniverse(Integer userSeq);
+
+    List<DiaryListResponseDto> getNearbyDiaries(Integer diarySeq, Integer userSeq, int limit);
 }
\ No newline at end of file
@@ -1,7 +1,5 @@
 package com.c202.diary.diary.service;
 
-import com.c202.diary.coordinate.model.CoordinateDto;
-import com.c202.diary.coordinate.service.CoordinateService;
 import com.c202.diary.diary.entity.Diary;
 import com.c202.diary.diary.model.request.DiaryCreateRequestDto;
 import com.c202.diary.diary.model.request.DiaryUpdateRequestDto;
@@ -13,10 +11,18 @@ import com.c202.diary.emotion.entity.Emotion;
 import com.c202.diary.emotion.model.response.EmotionResponseDto;
 import com.c202.diary.emotion.repository.EmotionRepository;
 import com.c202.diary.emotion.service.EmotionService;
+import com.c202.diary.galaxy.service.GalaxyTileService;
 import com.c202.diary.tag.entity.DiaryTag;
 import com.c202.diary.tag.model.response.TagResponseDto;
 import com.c202.diary.tag.repository.DiaryTagRepository;
+import com.c202.diary.tag.service.DiaryTagService;
 import com.c202.diary.tag.service.TagService;
+import com.c202.diary.util.coordinate.engine.LayoutEngineRouter;
+import com.c202.diary.util.coordinate.service.CoordinateService;
+import com.c202.diary.util.coordinate.service.RelayoutScheduler;
+import com.c202.diary.util.coordinate.similarity.SimilarDiaryIndexService;
+import com.c202.diary.util.coordinate.spatial.SpatialIndexService;
+import com.c202.diary.util.coordinate.spatial.UniformGrid;
 import com.c202.exception.CustomException;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
@@ -35,16 +41,24 @@ import java.util.stream.Collectors;
 public class DiaryServiceImpl implements DiaryService {
 
     private final TagService tagService;
+    private final DiaryTagService diaryTagService;
     private final DiaryRepository diaryRepository;
     private final DiaryTagRepository diaryTagRepository;
     private final EmotionRepository emotionRepository;
     private final EmotionService emotionService;
     private final CoordinateService coordinateService;
+    private final RelayoutScheduler relayoutScheduler;
+    private final LayoutEngineRouter layoutEngineRouter;
+    private final SpatialIndexService spatialIndexService;
+    private final UniverseVersionService universeVersionService;
+    private final GalaxyTileService galaxyTileService;
+    private final SimilarDiaryIndexService similarDiaryIndexService;
+    private static final int MAX_NEARBY_LIMIT = 20;
     private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMdd HHmmss");
 
     @Transactional
     @Override
-    public DiaryDetailResponseDto createDiary(Integer userSeq, DiaryCreateRequestDto request) {
+    public DiaryDetailResponseDto createDiary(Integer userSeq, DiaryCreateRequestDto request, String layoutEngine) {
 
         String now = LocalDateTime.now().format(DATE_TIME_FORMATTER);
 
@@ -52,10 +66,6 @@ public class DiaryServiceImpl implements DiaryService {
         Emotion emotion = emotionRepository.findByName(request.getMainEmotion())
                 .orElseThrow(() -> new CustomException("존재하지 않는 감정입니다: " + request.getMainEmotion()));
 
-        // 좌표 생성
-        CoordinateDto coordinates = coordinateService.generateCoordinates(
-                request.getMainEmotion(), request.getTags(), null);
-
         Diary diary = Diary.builder()
                 .userSeq(userSeq)
                 .title(request.getTitle())
@@ -65,10 +75,7 @@ public class DiaryServiceImpl implements DiaryService {
                 .createdAt(now)
                 .updatedAt(now)
                 .isDeleted("N")
-                .x(coordinates.getX())
-                .y(coordinates.getY())
-                .z(coordinates.getZ())
-                .emotionSeq(coordinates.getEmotionSeq())
+                .emotionSeq(emotion.getEmotionSeq())
                 .build();
 
         emotionService.incrementDiaryCount(emotion.getEmotionSeq());
@@ -80,12 +87,19 @@ public class DiaryServiceImpl implements DiaryService {
             tagDtos = tagService.processTags(diary, request.getTags(), now);
         }
 
+        // 저장된 일기를 가장 가까운 별자리의 빈 슬롯에 배치 (해당 별자리만 갱신)
+        // 어울리는 별자리가 없을 때만 배치 서비스가 커밋 이후 전체 재배치를 요청함
+        layoutEngineRouter.place(diary, emotion.getEmotionSeq(), request.getTags(), layoutEngine);
+
+        universeVersionService.bump(userSeq);
+
         return DiaryDetailResponseDto.toDto(diary, tagDtos);
     }
 
     @Transactional
     @Override
-    public DiaryDetailResponseDto updateDiary(Integer diarySeq, Integer userSeq, DiaryUpdateRequestDto request) {
+    public DiaryDetailResponseDto updateDiary(Integer diarySeq, Integer userSeq, DiaryUpdateRequestDto request,
+                                              String layoutEngine) {
         Diary diary = validateDiary(diarySeq, userSeq);
         String now = LocalDateTime.now().format(DATE_TIME_FORMATTER);
 
@@ -109,30 +123,23 @@ public class DiaryServiceImpl implements DiaryService {
 
         tagDtos = tagService.processTags(diary, request.getTags(), now);
 
-        // 좌표 업데이트
-        CoordinateDto coordinates;
         if (emotionChanged) {
             // 이전 감정 카운트 감소
             if (oldEmotionSeq != null) {
                 emotionService.decrementDiaryCount(oldEmotionSeq);
             }
 
-            // 새 감정에 좌표 생성
-            coordinates = coordinateService.generateCoordinates(
-                    request.getMainEmotion(), request.getTags(), diary.getDiarySeq());
-
             // 새 감정 카운트 증가
             emotionService.incrementDiaryCount(newEmotion.getEmotionSeq());
-        } else {
-            // 같은 감정 내에서 위치 조정
-            coordinates = coordinateService.updateCoordinates(diary, request.getMainEmotion(), request.getTags());
         }
 
-        diary.setCoordinates(coordinates.getX(), coordinates.getY(), coordinates.getZ(), coordinates.getEmotionSeq());
+        // 별자리 배치 갱신 (감정이 바뀌었거나 태그가 어울리지 않으면 이전 슬롯을 비우고 새 슬롯에 배치)
+        layoutEngineRouter.place(diary, newEmotion.getEmotionSeq(), request.getTags(), layoutEngine);
 
         diaryRepository.save(diary);
+        universeVersionService.bump(userSeq);
 
-        List<Integer> connectedDiaries = coordinateService.findSimilarDiaries(diary.getDiarySeq(), 5);
+        List<Integer> connectedDiaries = coordinateService.getConnectedDiaries(diary);
 
         return DiaryDetailResponseDto.toDto(diary, tagDtos, newEmotion.getName(), connectedDiaries);
     }
@@ -145,7 +152,13 @@ public class DiaryServiceImpl implements DiaryService {
         if (diary.getEmotionSeq() != null) {
             emotionService.decrementDiaryCount(diary.getEmotionSeq());
         }
+
+        // 별자리 슬롯 반환 (이후 같은 별자리에 들어오는 일기가 재사용)
+        coordinateService.releaseDiary(diary);
+        similarDiaryIndexService.onDiaryDeleted(userSeq, diarySeq);
         diary.deleteDiary();
+        universeVersionService.bump(userSeq);
+        galaxyTileService.onDiaryChanged(diary);
     }
 
     @Transactional
@@ -201,7 +214,7 @@ public class DiaryServiceImpl implements DiaryService {
         }
 
         // 연결된 일기 목록 찾기
-        List<Integer> connectedDiaries = coordinateService.findSimilarDiaries(diary.getDiarySeq(), 5);
+        List<Integer> connectedDiaries = coordinateService.getConnectedDiaries(diary);
 
         return DiaryDetailResponseDto.toDto(diary, tagDtos, emotionName, connectedDiaries);
     }
@@ -220,6 +233,8 @@ public class DiaryServiceImpl implements DiaryService {
             diary.setPublic("Y");
         }
         diaryRepository.save(diary);
+        universeVersionService.bump(userSeq);
+        galaxyTileService.onDiaryChanged(diary);
 
         List<TagResponseDto> tagDtos = getTagsForDiary(diary);
 
@@ -232,7 +247,7 @@ public class DiaryServiceImpl implements DiaryService {
         }
 
         // 연결된 일기 목록 찾기
-        List<Integer> connectedDiaries = coordinateService.findSimilarDiaries(diary.getDiarySeq(), 5);
+        List<Integer> connectedDiaries = coordinateService.getConnectedDiaries(diary);
 
         return DiaryDetailResponseDto.toDto(diary, tagDtos, emotionName, connectedDiaries);
     }
@@ -262,11 +277,18 @@ public class DiaryServiceImpl implements DiaryService {
         // 모든 감정 영역 정보 가져오기
         List<EmotionResponseDto> emotions = emotionService.getAllEmotions();
 
-        // 일기 연결 정보 생성
-        Map<Integer, List<Integer>> connections = new HashMap<>();
+        // 저장된 일기 연결 정보를 한 번에 조회
+        Map<Integer, List<Integer>> connections = coordinateService.getConnections(userSeq);
+        if (connections.isEmpty() && diaries.size() > 1) {
+            // 연결선이 아직 저장되지 않은 사용자(재배치 이전 데이터)는 유사 일기로 대체
+            // 태그를 한 번에 미리 조회해 일기별 태그 쿼리 방지
+            diaryTagService.preloadTags(diaries);
+            for (Diary diary : diaries) {
+                connections.put(diary.getDiarySeq(), coordinateService.findSimilarDiaries(diary.getDiarySeq(), 5));
+            }
+        }
         for (Diary diary : diaries) {
-            List<Integer> connected = coordinateService.findSimilarDiaries(diary.getDiarySeq(), 5);
-            connections.put(diary.getDiarySeq(), connected);
+            connections.putIfAbsent(diary.getDiarySeq(), new ArrayList<>());
         }
 
         // 우주 데이터 DTO 반환
@@ -278,6 +300,45 @@ public class DiaryServiceImpl implements DiaryService {
     }
 
 
+    @Override
+    public void relayoutUniverse(Integer userSeq) {
+        relayoutScheduler.requestRelayout(userSeq);
+    }
+
+
+    @Transactional
+    @Override
+    public List<DiaryListResponseDto> getNearbyDiaries(Integer diarySeq, Integer userSeq, int limit) {
+        Diary diary = diaryRepository.findByDiarySeqAndIsDeleted(diarySeq, "N")
+                .orElseThrow(() -> new CustomException("해당 일기를 찾을 수 없습니다."));
+
+        limit = Math.min(Math.max(limit, 1), MAX_NEARBY_LIMIT);
+
+        // 다른 사용자의 우주에서는 공개 일기만 보여주므로 여유 있게 조회
+        boolean isOwner = diary.getUserSeq().equals(userSeq);
+        int candidateCount = isOwner ? limit : limit * 3;
+        List<UniformGrid.Neighbor> neighbors = spatialIndexService.findNearest(diary, candidateCount);
+
+        Map<Integer, Diary> diariesBySeq = diaryRepository.findAllById(
+                        neighbors.stream().map(UniformGrid.Neighbor::getId).collect(Collectors.toList()))
+                .stream()
+                .collect(Collectors.toMap(Diary::getDiarySeq, d -> d));
+
+        String emotionName = diary.getEmotionSeq() == null ? "" : emotionRepository.findById(diary.getEmotionSeq())
+                .map(Emotion::getName)
+                .orElse("");
+
+        // 거리 순서 유지
+        return neighbors.stream()
+                .map(neighbor -> diariesBySeq.get(neighbor.getId()))
+                .filter(d -> d != null && d.getIsDeleted().equals("N"))
+                .filter(d -> isOwner || d.getIsPublic().equals("Y"))
+                .limit(limit)
+                .map(d -> DiaryListResponseDto.toDto(d, emotionName))
+                .collect(Collectors.toList());
+    }
+
+
     // 일기 유효성 검증
     private Diary validateDiary(Integer diarySeq, Integer userSeq) {
         Diary diary = diaryRepository.findByDiarySeqAndIsDeleted(diarySeq, "N")
@@ -0,0 +1,157 @@
+package com.c202.diary.diary.service;
+
+import com.c202.diary.diary.model.DiaryListView;
+import com.c202.diary.diary.model.response.DiaryListResponseDto;
+import com.c202.diary.diary.repository.DiaryRepository;
+import com.c202.diary.emotion.entity.Emotion;
+import com.c202.diary.emotion.model.response.EmotionResponseDto;
+import com.c202.diary.emotion.repository.EmotionRepository;
+import com.c202.diary.util.coordinate.repository.DiaryConnectionRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+// 일기 목록과 우주 데이터를 NDJSON(줄마다 JSON 하나)으로 흘려보내는 서비스
+// DB 커서로 한 행씩 읽어 바로 직렬화하므로 일기 수와 관계없이 요청당 메모리 사용량이 일정합니다.
+// 응답 스트림은 별도 스레드에서 쓰이므로 각 메서드가 자체 읽기 전용 트랜잭션을 엽니다.
+@Slf4j
+@Service
+public class DiaryStreamService {
+
+    public static final String MEDIA_TYPE = "application/x-ndjson";
+
+    // 이만큼 쓸 때마다 응답 버퍼를 내보냄
+    private static final int FLUSH_EVERY = 256;
+
+    private final DiaryRepository diaryRepository;
+    private final EmotionRepository emotionRepository;
+    private final DiaryConnectionRepository connectionRepository;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter writer;
+
+    public DiaryStreamService(DiaryRepository diaryRepository,
+                              EmotionRepository emotionRepository,
+                              DiaryConnectionRepository connectionRepository,
+                              ObjectMapper objectMapper) {
+        this.diaryRepository = diaryRepository;
+        this.emotionRepository = emotionRepository;
+        this.connectionRepository = connectionRepository;
+        this.objectMapper = objectMapper;
+        // 원소마다 flush하지 않고 FLUSH_EVERY 단위로만 내보냄
+        this.writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    // 내 일기 목록 (한 줄에 일기 하나)
+    @Transactional(readOnly = true)
+    public void streamMyDiaries(Integer userSeq, OutputStream out) {
+        // MySQL 스트리밍 조회가 열려 있는 동안은 같은 연결로 다른 쿼리를 실행할 수 없으므로 감정 이름을 먼저 읽음
+        Map<Integer, String> emotionNames = emotionNames(emotionRepository.findAll());
+        try (Stream<DiaryListView> diaries = diaryRepository.streamByUserSeqAndIsDeletedOrderByDiarySeq(
+                userSeq, "N", DiaryListView.class)) {
+            writeDiaries(diaries, emotionNames, out);
+        }
+    }
+
+    // 다른 사용자의 공개 일기 목록 (한 줄에 일기 하나)
+    @Transactional(readOnly = true)
+    public void streamUserDiaries(Integer userSeq, OutputStream out) {
+        Map<Integer, String> emotionNames = emotionNames(emotionRepository.findAll());
+        try (Stream<DiaryListView> diaries = diaryRepository.streamByUserSeqAndIsPublicAndIsDeletedOrderByDiarySeq(
+                userSeq, "Y", "N", DiaryListView.class)) {
+            writeDiaries(diaries, emotionNames, out);
+        }
+    }
+
+    // 우주 데이터
+    // 줄마다 {"type": "emotion" | "diary" | "edge", "data": {...}} 형식이며 감정 → 일기 → 연결 순서로 씁니다.
+    // 연결은 저장된 연결선을 한 방향으로 한 번씩만 씁니다. ({"a": 일기 ID, "b": 일기 ID})
+    @Transactional(readOnly = true)
+    public void streamUniverse(Integer userSeq, OutputStream out) {
+        List<Emotion> emotions = emotionRepository.findAll();
+        Map<Integer, String> emotionNames = emotionNames(emotions);
+
+        try (JsonGenerator generator = createGenerator(out)) {
+            int written = 0;
+            for (Emotion emotion : emotions) {
+                writeLine(generator, "emotion", EmotionResponseDto.toDto(emotion));
+                written++;
+            }
+
+            try (Stream<DiaryListView> diaries = diaryRepository.streamByUserSeqAndIsDeletedOrderByDiarySeq(
+                    userSeq, "N", DiaryListView.class)) {
+                for (DiaryListView diary : (Iterable<DiaryListView>) diaries::iterator) {
+                    writeLine(generator, "diary",
+                            DiaryListResponseDto.toDto(diary, emotionNames.getOrDefault(diary.getEmotionSeq(), "")));
+                    written = flushIfNeeded(generator, written + 1);
+                }
+            }
+
+            try (Stream<DiaryConnectionRepository.EdgeView> edges = connectionRepository.streamEdgesByUserSeq(userSeq)) {
+                for (DiaryConnectionRepository.EdgeView edge : (Iterable<DiaryConnectionRepository.EdgeView>) edges::iterator) {
+                    writeLine(generator, "edge", Map.of("a", edge.getDiarySeq(), "b", edge.getConnectedDiarySeq()));
+                    written = flushIfNeeded(generator, written + 1);
+                }
+            }
+            log.debug("우주 데이터 스트리밍 완료: user={}, lines={}", userSeq, written);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeDiaries(Stream<DiaryListView> diaries, Map<Integer, String> emotionNames, OutputStream out) {
+        try (JsonGenerator generator = createGenerator(out)) {
+            int written = 0;
+            for (DiaryListView diary : (Iterable<DiaryListView>) diaries::iterator) {
+                writer.writeValue(generator,
+                        DiaryListResponseDto.toDto(diary, emotionNames.getOrDefault(diary.getEmotionSeq(), "")));
+                generator.writeRaw('\n');
+                written = flushIfNeeded(generator, written + 1);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // 줄 구분은 직접 쓰는 '\n'으로만 하므로 최상위 값 사이의 기본 구분자(공백)는 끔
+    private JsonGenerator createGenerator(OutputStream out) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+        generator.setRootValueSeparator(null);
+        return generator;
+    }
+
+    private void writeLine(JsonGenerator generator, String type, Object data) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("type", type);
+        generator.writeFieldName("data");
+        writer.writeValue(generator, data);
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+
+    private static int flushIfNeeded(JsonGenerator generator, int written) throws IOException {
+        if (written % FLUSH_EVERY == 0) {
+            generator.flush();
+        }
+        return written;
+    }
+
+    private static Map<Integer, String> emotionNames(List<Emotion> emotions) {
+        Map<Integer, String> names = new HashMap<>();
+        for (Emotion emotion : emotions) {
+            names.put(emotion.getEmotionSeq(), emotion.getName());
+        }
+        return names;
+    }
+}
@@ -0,0 +1,257 @@
+package com.c202.diary.diary.service;
+
+import com.c202.diary.diary.model.response.DiaryListResponseDto;
+import com.c202.diary.diary.model.response.UniverseDataResponseDto;
+import com.c202.diary.emotion.model.response.EmotionResponseDto;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * 우주 데이터를 3D 클라이언트용 리틀 엔디언 바이너리로 인코딩합니다.
+ * 모든 배열 구역은 4바이트 경계에서 시작하므로 클라이언트는 복사 없이 TypedArray로 바로 읽을 수 있습니다.
+ *
+ * <pre>
+ * [헤더 20B]   "UNIV" | u16 포맷 버전 | u16 플래그(bit0: int16 양자화 좌표) | u32 일기 수(n) | u32 연결 수(e) | u32 감정 수(m)
+ * [양자화 24B] (플래그가 있을 때만) f32 minX, minY, minZ, stepX, stepY, stepZ  → 좌표 = min + (q + 32767) * step
+ * [감정 24B*m] i32 emotionSeq | f32 baseX | f32 baseY | f32 baseZ | f32 baseRadius | i32 diaryCount
+ * [일기 ID]    i32[n]
+ * [좌표]       f32[3n] 또는 i16[3n] (x, y, z 순서로 반복, 좌표가 없으면 NaN 또는 -32768)
+ * [꿈 날짜]    i32[n] (yyyyMMdd 숫자, 없으면 0)
+ * [감정 번호]  u8[n] 감정 구역의 순서 (없으면 255)
+ * [상태]       u8[n] bit0: 공개 여부
+ * [연결]       i32[2e] 일기 배열 순서 쌍 (a &lt; b, 중복 없음)
+ * [문자열]     u16 길이 + UTF-8: 감정 이름 m개, 이어서 일기마다 제목, 작성 시각
+ * </pre>
+ */
+public final class UniverseBinaryEncoder {
+
+    public static final String MEDIA_TYPE = "application/vnd.c202.universe";
+
+    private static final int MAGIC = 0x56494E55; // "UNIV" (리틀 엔디언)
+    private static final short FORMAT_VERSION = 1;
+    private static final short FLAG_QUANTIZED = 1;
+
+    private static final int NO_EMOTION = 255;
+    private static final short MISSING_COORDINATE = Short.MIN_VALUE;
+    private static final int QUANTIZATION_STEPS = 65534; // -32767 ~ 32767
+
+    private UniverseBinaryEncoder() {
+    }
+
+    /**
+     * @param universe 우주 데이터
+     * @param quantize true면 좌표를 일기 범위 기준 int16으로 양자화
+     */
+    public static byte[] encode(UniverseDataResponseDto universe, boolean quantize) {
+        List<DiaryListResponseDto> diaries = universe.getDiaries() != null ? universe.getDiaries() : List.of();
+        List<EmotionResponseDto> emotions = universe.getEmotions() != null ? universe.getEmotions() : List.of();
+        int n = diaries.size();
+        int m = Math.min(emotions.size(), NO_EMOTION);
+
+        Map<Integer, Integer> indexByDiary = new HashMap<>();
+        for (int i = 0; i < n; i++) {
+            indexByDiary.put(diaries.get(i).getDiarySeq(), i);
+        }
+        Map<Integer, Integer> indexByEmotion = new HashMap<>();
+        for (int i = 0; i < m; i++) {
+            indexByEmotion.put(emotions.get(i).getEmotionSeq(), i);
+        }
+        int[] edges = dedupeEdges(universe.getConnections(), indexByDiary);
+        int e = edges.length / 2;
+
+        List<byte[]> strings = new ArrayList<>(m + 2 * n);
+        int stringBytes = 0;
+        for (int i = 0; i < m; i++) {
+            stringBytes += addString(strings, emotions.get(i).getName());
+        }
+        for (DiaryListResponseDto diary : diaries) {
+            stringBytes += addString(strings, diary.getTitle());
+            stringBytes += addString(strings, diary.getCreatedAt());
+        }
+
+        int coordinateBytes = quantize ? align(6 * n) : 12 * n;
+        int size = 20
+                + (quantize ? 24 : 0)
+                + 24 * m
+                + 4 * n
+                + coordinateBytes
+                + 4 * n
+                + align(n)
+                + align(n)
+                + 8 * e
+                + stringBytes;
+
+        ByteBuffer buffer = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC);
+        buffer.putShort(FORMAT_VERSION);
+        buffer.putShort(quantize ? FLAG_QUANTIZED : 0);
+        buffer.putInt(n);
+        buffer.putInt(e);
+        buffer.putInt(m);
+
+        float[] quantization = quantize ? quantizationOf(diaries) : null;
+        if (quantize) {
+            for (float value : quantization) {
+                buffer.putFloat(value);
+            }
+        }
+
+        for (int i = 0; i < m; i++) {
+            EmotionResponseDto emotion = emotions.get(i);
+            buffer.putInt(emotion.getEmotionSeq());
+            buffer.putFloat(toFloat(emotion.getBaseX()));
+            buffer.putFloat(toFloat(emotion.getBaseY()));
+            buffer.putFloat(toFloat(emotion.getBaseZ()));
+            buffer.putFloat(toFloat(emotion.getBaseRadius()));
+            buffer.putInt(emotion.getDiaryCount() != null ? emotion.getDiaryCount() : 0);
+        }
+
+        for (DiaryListResponseDto diary : diaries) {
+            buffer.putInt(diary.getDiarySeq());
+        }
+
+        for (DiaryListResponseDto diary : diaries) {
+            if (!quantize) {
+                buffer.putFloat(toFloat(diary.getX()));
+                buffer.putFloat(toFloat(diary.getY()));
+                buffer.putFloat(toFloat(diary.getZ()));
+            } else if (hasCoordinates(diary)) {
+                buffer.putShort(quantize(diary.getX(), quantization[0], quantization[3]));
+                buffer.putShort(quantize(diary.getY(), quantization[1], quantization[4]));
+                buffer.putShort(quantize(diary.getZ(), quantization[2], quantization[5]));
+            } else {
+                buffer.putShort(MISSING_COORDINATE);
+                buffer.putShort(MISSING_COORDINATE);
+                buffer.putShort(MISSING_COORDINATE);
+            }
+        }
+        pad(buffer);
+
+        for (DiaryListResponseDto diary : diaries) {
+            buffer.putInt(parseDate(diary.getDreamDate()));
+        }
+
+        for (DiaryListResponseDto diary : diaries) {
+            Integer emotionIndex = diary.getEmotionSeq() != null ? indexByEmotion.get(diary.getEmotionSeq()) : null;
+            buffer.put((byte) (emotionIndex != null ? emotionIndex : NO_EMOTION));
+        }
+        pad(buffer);
+
+        for (DiaryListResponseDto diary : diaries) {
+            buffer.put((byte) ("Y".equals(diary.getIsPublic()) ? 1 : 0));
+        }
+        pad(buffer);
+
+        for (int edge : edges) {
+            buffer.putInt(edge);
+        }
+
+        for (byte[] string : strings) {
+            buffer.putShort((short) string.length);
+            buffer.put(string);
+        }
+        return buffer.array();
+    }
+
+    // 일기 좌표 범위로 양자화 기준(min x/y/z, step x/y/z)을 계산합니다.
+    // 클라이언트는 float32로 받은 값으로 복원하므로 float32로 반올림한 값을 기준으로 사용합니다.
+    private static float[] quantizationOf(List<DiaryListResponseDto> diaries) {
+        double[] min = {Double.MAX_VALUE, Double.MAX_VALUE, Double.MAX_VALUE};
+        double[] max = {-Double.MAX_VALUE, -Double.MAX_VALUE, -Double.MAX_VALUE};
+        for (DiaryListResponseDto diary : diaries) {
+            if (!hasCoordinates(diary)) continue;
+            double[] point = {diary.getX(), diary.getY(), diary.getZ()};
+            for (int axis = 0; axis < 3; axis++) {
+                min[axis] = Math.min(min[axis], point[axis]);
+                max[axis] = Math.max(max[axis], point[axis]);
+            }
+        }
+
+        float[] quantization = new float[6];
+        for (int axis = 0; axis < 3; axis++) {
+            if (min[axis] > max[axis]) {
+                min[axis] = 0;
+                max[axis] = 0;
+            }
+            quantization[axis] = (float) min[axis];
+            quantization[3 + axis] = (float) Math.max((max[axis] - quantization[axis]) / QUANTIZATION_STEPS, 1e-6);
+        }
+        return quantization;
+    }
+
+    private static short quantize(double value, float min, float step) {
+        long q = Math.round((value - min) / step) - 32767;
+        return (short) Math.max(-32767, Math.min(32767, q));
+    }
+
+    // 양방향으로 두 번 들어 있는 연결을 (작은 순서, 큰 순서) 쌍 하나로 줄임
+    private static int[] dedupeEdges(Map<Integer, List<Integer>> connections, Map<Integer, Integer> indexByDiary) {
+        if (connections == null || connections.isEmpty()) {
+            return new int[0];
+        }
+        Set<Long> seen = new HashSet<>();
+        List<int[]> pairs = new ArrayList<>();
+        for (Map.Entry<Integer, List<Integer>> entry : connections.entrySet()) {
+            Integer from = indexByDiary.get(entry.getKey());
+            if (from == null) continue;
+            for (Integer connectedSeq : entry.getValue()) {
+                Integer to = indexByDiary.get(connectedSeq);
+                if (to == null || to.equals(from)) continue;
+                int a = Math.min(from, to);
+                int b = Math.max(from, to);
+                if (seen.add(((long) a << 32) | b)) {
+                    pairs.add(new int[]{a, b});
+                }
+            }
+        }
+        pairs.sort(Comparator.<int[]>comparingInt(p -> p[0]).thenComparingInt(p -> p[1]));
+
+        int[] edges = new int[pairs.size() * 2];
+        for (int i = 0; i < pairs.size(); i++) {
+            edges[2 * i] = pairs.get(i)[0];
+            edges[2 * i + 1] = pairs.get(i)[1];
+        }
+        return edges;
+    }
+
+    private static int addString(List<byte[]> strings, String value) {
+        byte[] bytes = value != null ? value.getBytes(StandardCharsets.UTF_8) : new byte[0];
+        if (bytes.length > 0xFFFF) {
+            bytes = Arrays.copyOf(bytes, 0xFFFF);
+        }
+        strings.add(bytes);
+        return 2 + bytes.length;
+    }
+
+    private static boolean hasCoordinates(DiaryListResponseDto diary) {
+        return diary.getX() != null && diary.getY() != null && diary.getZ() != null;
+    }
+
+    private static float toFloat(Double value) {
+        return value != null ? value.floatValue() : Float.NaN;
+    }
+
+    private static int parseDate(String date) {
+        if (date == null || date.length() != 8) {
+            return 0;
+        }
+        try {
+            return Integer.parseInt(date);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static int align(int bytes) {
+        return (bytes + 3) & ~3;
+    }
+
+    private static void pad(ByteBuffer buffer) {
+        while ((buffer.position() & 3) != 0) {
+            buffer.put((byte) 0);
+        }
+    }
+}
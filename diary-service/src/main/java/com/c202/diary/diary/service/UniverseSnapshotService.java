@@ -0,0 +1,162 @@
+package com.c202.diary.diary.service;
+
+import com.c202.diary.diary.model.response.UniverseDataResponseDto;
+import com.c202.dto.ResponseDto;
+import com.c202.exception.CustomException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.GZIPOutputStream;
+
+// 사용자 우주 데이터 응답을 직렬화·압축된 상태로 캐시하는 서비스 (JSON과 3D 클라이언트용 바이너리)
+// 우주 버전이 그대로면 DB에서 버전 하나만 읽고 캐시된 응답(또는 304)을 돌려줍니다.
+// 감정 영역의 일기 수는 다른 사용자의 쓰기로도 바뀌므로, 버전이 같아도 max-age가 지나면 다시 만듭니다.
+// ETag는 버전과 응답 내용의 체크섬으로 만들어 내용이 같으면 다시 만들어도 바뀌지 않습니다.
+@Slf4j
+@Service
+public class UniverseSnapshotService {
+
+    private final DiaryService diaryService;
+    private final UniverseVersionService universeVersionService;
+    private final ObjectMapper objectMapper;
+    private final long maxAgeMillis;
+
+    // 사용자 → 스냅샷, 오래 쓰지 않은 사용자부터 제거
+    private final Map<Integer, Snapshot> snapshots;
+
+    public UniverseSnapshotService(DiaryService diaryService,
+                                   UniverseVersionService universeVersionService,
+                                   ObjectMapper objectMapper,
+                                   @Value("${diary.universe-cache.max-users:1000}") int maxUsers,
+                                   @Value("${diary.universe-cache.max-age-ms:60000}") long maxAgeMillis) {
+        this.diaryService = diaryService;
+        this.universeVersionService = universeVersionService;
+        this.objectMapper = objectMapper;
+        this.maxAgeMillis = maxAgeMillis;
+        this.snapshots = Collections.synchronizedMap(
+                new LinkedHashMap<Integer, Snapshot>(16, 0.75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<Integer, Snapshot> eldest) {
+                        return size() > maxUsers;
+                    }
+                });
+    }
+
+    // 현재 버전의 우주 데이터 스냅샷을 반환합니다. (없거나 오래됐으면 새로 만듦)
+    public Snapshot getSnapshot(Integer userSeq) {
+        long version = universeVersionService.current(userSeq);
+        Snapshot cached = snapshots.get(userSeq);
+        if (cached != null && cached.version == version
+                && System.currentTimeMillis() - cached.createdAt < maxAgeMillis) {
+            return cached;
+        }
+
+        // 버전을 먼저 읽고 만들기 때문에, 만드는 도중 바뀐 내용은 다음 요청에서 새 버전으로 다시 만들어짐
+        Snapshot snapshot = build(userSeq, version);
+        snapshots.put(userSeq, snapshot);
+        return snapshot;
+    }
+
+    private Snapshot build(Integer userSeq, long version) {
+        UniverseDataResponseDto universe = diaryService.getUniverseData(userSeq);
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(ResponseDto.success(200, "우주 데이터 조회 완료", universe));
+        } catch (JsonProcessingException e) {
+            throw new CustomException("우주 데이터를 만들 수 없습니다.");
+        }
+
+        CRC32 checksum = new CRC32();
+        checksum.update(json);
+        String tag = version + "-" + Long.toHexString(checksum.getValue());
+
+        Map<Format, byte[]> bodies = new EnumMap<>(Format.class);
+        bodies.put(Format.JSON, json);
+        bodies.put(Format.JSON_GZIP, gzip(json));
+        bodies.put(Format.BINARY, UniverseBinaryEncoder.encode(universe, false));
+        bodies.put(Format.BINARY_QUANTIZED, UniverseBinaryEncoder.encode(universe, true));
+
+        log.debug("우주 스냅샷 생성: user={}, version={}, jsonBytes={}, binaryBytes={}",
+                userSeq, version, json.length, bodies.get(Format.BINARY).length);
+        return new Snapshot(version, tag, bodies, System.currentTimeMillis());
+    }
+
+    private static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, data.length / 4));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return out.toByteArray();
+    }
+
+    // 응답 표현 형식 (같은 버전이라도 형식마다 ETag가 다름)
+    public enum Format {
+        JSON(""),
+        JSON_GZIP("-gz"),
+        BINARY("-bin"),
+        BINARY_QUANTIZED("-bin16");
+
+        private final String etagSuffix;
+
+        Format(String etagSuffix) {
+            this.etagSuffix = etagSuffix;
+        }
+    }
+
+    // 직렬화된 우주 데이터 응답 (JSON, gzip 압축 JSON, 바이너리 형식)
+    public static final class Snapshot {
+        private final long version;
+        private final String tag;
+        private final Map<Format, byte[]> bodies;
+        private final long createdAt;
+
+        private Snapshot(long version, String tag, Map<Format, byte[]> bodies, long createdAt) {
+            this.version = version;
+            this.tag = tag;
+            this.bodies = bodies;
+            this.createdAt = createdAt;
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        public String getEtag(Format format) {
+            return "\"" + tag + format.etagSuffix + "\"";
+        }
+
+        public byte[] getBody(Format format) {
+            return bodies.get(format);
+        }
+
+        // If-None-Match 헤더 값이 이 스냅샷의 해당 형식을 가리키는지 확인 (여러 값, 약한 ETag, * 허용)
+        public boolean matches(String ifNoneMatch, Format format) {
+            if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+                return false;
+            }
+            String etag = getEtag(format);
+            for (String candidate : ifNoneMatch.split(",")) {
+                String value = candidate.trim();
+                if (value.startsWith("W/")) {
+                    value = value.substring(2);
+                }
+                if (value.equals("*") || value.equals(etag)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.c202.diary.diary.service;
+
+import com.c202.diary.diary.entity.UniverseVersion;
+import com.c202.diary.diary.repository.UniverseVersionRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+// 사용자별 우주 버전 관리
+// 우주 화면에 보이는 데이터를 바꾸는 모든 쓰기 트랜잭션에서 bump를 호출해야 합니다.
+@Service
+@RequiredArgsConstructor
+public class UniverseVersionService {
+
+    private final UniverseVersionRepository universeVersionRepository;
+
+    // 우주 버전을 올립니다. (호출한 트랜잭션과 함께 커밋/롤백)
+    @Transactional
+    public void bump(Integer userSeq) {
+        universeVersionRepository.increment(userSeq);
+    }
+
+    // 현재 우주 버전 (한 번도 변경되지 않은 사용자는 0)
+    @Transactional(readOnly = true)
+    public long current(Integer userSeq) {
+        return universeVersionRepository.findById(userSeq)
+                .map(UniverseVersion::getVersion)
+                .orElse(0L);
+    }
+}
@@ -0,0 +1,62 @@
+package com.c202.diary.galaxy.controller;
+
+import com.c202.diary.galaxy.model.response.GalaxyTileResponseDto;
+import com.c202.diary.galaxy.service.GalaxyTileService;
+import com.c202.dto.ResponseDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/galaxy")
+@RequiredArgsConstructor
+public class GalaxyController {
+
+    private final GalaxyTileService galaxyTileService;
+
+    // 경계 상자 안의 타일 목록 (별이 있는 타일만)
+    @GetMapping("/tiles")
+    public ResponseEntity<ResponseDto<List<GalaxyTileResponseDto>>> getTiles(
+            @RequestParam int level,
+            @RequestParam double minX,
+            @RequestParam double minY,
+            @RequestParam double minZ,
+            @RequestParam double maxX,
+            @RequestParam double maxY,
+            @RequestParam double maxZ
+    ) {
+        List<GalaxyTileResponseDto> tiles = galaxyTileService.getTiles(level,
+                new double[]{minX, minY, minZ}, new double[]{maxX, maxY, maxZ});
+        return ResponseEntity.ok(ResponseDto.success(200, "은하 타일 조회 완료", tiles));
+    }
+
+    // 타일 하나 (타일이 바뀌지 않았으면 304)
+    @GetMapping("/tiles/{level}/{x}/{y}/{z}")
+    public ResponseEntity<ResponseDto<GalaxyTileResponseDto>> getTile(
+            @PathVariable int level,
+            @PathVariable int x,
+            @PathVariable int y,
+            @PathVariable int z,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
+        GalaxyTileResponseDto tile = galaxyTileService.getTile(level, x, y, z);
+        String etag = "\"" + tile.getGeneration() + "-" + tile.getVersion() + "\"";
+        CacheControl cacheControl = CacheControl.noCache();
+
+        if (etag.equals(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(cacheControl)
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(cacheControl)
+                .body(ResponseDto.success(200, "은하 타일 조회 완료", tile));
+    }
+}
@@ -0,0 +1,58 @@
+package com.c202.diary.galaxy.model.response;
+
+import com.c202.diary.util.coordinate.spatial.GalaxyTileIndex;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.Collections;
+import java.util.List;
+
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class GalaxyTileResponseDto {
+
+    private Integer level;
+    private Integer x;
+    private Integer y;
+    private Integer z;
+    // 타일 인덱스를 만든 시각과 그 안에서 타일이 마지막으로 바뀐 버전 (별이 없으면 0)
+    // 두 값이 모두 같으면 타일 내용도 같음
+    private Long generation;
+    private Long version;
+    private Integer count;
+    // 별이 많은 타일은 군집(무게중심, 별 수, 가장 많은 감정)으로, 적은 타일은 별 그대로
+    private List<GalaxyTileIndex.Cluster> clusters;
+    private List<GalaxyTileIndex.Star> stars;
+
+    public static GalaxyTileResponseDto toDto(GalaxyTileIndex.Tile tile, long generation) {
+        return GalaxyTileResponseDto.builder()
+                .level(tile.getLevel())
+                .x(tile.getX())
+                .y(tile.getY())
+                .z(tile.getZ())
+                .generation(generation)
+                .version(tile.getVersion())
+                .count(tile.getCount())
+                .clusters(tile.getClusters())
+                .stars(tile.getStars())
+                .build();
+    }
+
+    public static GalaxyTileResponseDto empty(int level, int x, int y, int z, long generation) {
+        return GalaxyTileResponseDto.builder()
+                .level(level)
+                .x(x)
+                .y(y)
+                .z(z)
+                .generation(generation)
+                .version(0L)
+                .count(0)
+                .clusters(Collections.emptyList())
+                .stars(Collections.emptyList())
+                .build();
+    }
+}
@@ -0,0 +1,276 @@
+package com.c202.diary.galaxy.service;
+
+import com.c202.diary.diary.entity.Diary;
+import com.c202.diary.diary.model.GalaxyStarView;
+import com.c202.diary.diary.repository.DiaryRepository;
+import com.c202.diary.galaxy.model.response.GalaxyTileResponseDto;
+import com.c202.diary.util.coordinate.spatial.GalaxyTileIndex;
+import com.c202.exception.CustomException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+// 모든 사용자의 공개 일기를 모은 "공개 은하"를 레벨별 타일로 제공하는 서비스
+// 타일 피라미드(GalaxyTileIndex)는 메모리에 유지하며 일기 작성·수정·삭제·공개 전환은 커밋 이후 해당 별의 경로만 갱신합니다.
+// 만든 타일 응답은 타일 버전과 함께 캐시하고, 다른 인스턴스의 변경을 놓치지 않도록 일정 시간마다 DB에서 새로 만듭니다.
+// 다시 만드는 작업은 별도 스레드에서 한 번에 하나만 돌고, 끝날 때까지 요청은 이전 인덱스로 응답합니다.
+@Slf4j
+@Service
+public class GalaxyTileService {
+
+    // DiaryRepository.findTop1000By... 한 번에 읽는 수
+    private static final int PAGE_SIZE = 1000;
+
+    private final DiaryRepository diaryRepository;
+    private final int starLimit;
+    private final int maxTilesPerRequest;
+    private final long rebuildMillis;
+
+    // 타일 키 → 마지막으로 만든 타일 응답, 오래 쓰지 않은 타일부터 제거
+    private final Map<Long, GalaxyTileResponseDto> tileCache;
+
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private final AtomicBoolean rebuildScheduled = new AtomicBoolean();
+    private final ExecutorService rebuildExecutor;
+
+    // 아래 필드는 this로 동기화
+    private GalaxyTileIndex index;
+    private long builtAt;
+    // 다시 만드는 동안 들어온 변경 (새 인덱스에 다시 적용)
+    private List<Consumer<GalaxyTileIndex>> pendingChanges;
+
+    public GalaxyTileService(DiaryRepository diaryRepository,
+                             @Value("${diary.galaxy.star-limit:512}") int starLimit,
+                             @Value("${diary.galaxy.max-tiles-per-request:512}") int maxTilesPerRequest,
+                             @Value("${diary.galaxy.max-cached-tiles:20000}") int maxCachedTiles,
+                             @Value("${diary.galaxy.rebuild-ms:600000}") long rebuildMillis) {
+        this.diaryRepository = diaryRepository;
+        this.starLimit = starLimit;
+        this.maxTilesPerRequest = maxTilesPerRequest;
+        this.rebuildMillis = rebuildMillis;
+        this.tileCache = Collections.synchronizedMap(
+                new LinkedHashMap<Long, GalaxyTileResponseDto>(16, 0.75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<Long, GalaxyTileResponseDto> eldest) {
+                        return size() > maxCachedTiles;
+                    }
+                });
+        this.rebuildExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "galaxy-tile-rebuild");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // 타일 하나를 조회합니다. (별이 없으면 빈 타일)
+    public GalaxyTileResponseDto getTile(int level, int x, int y, int z) {
+        validateTile(level, x, y, z);
+        ensureIndex();
+        synchronized (this) {
+            return tileOf(level, x, y, z);
+        }
+    }
+
+    // 경계 상자와 겹치는 레벨 L의 타일 중 별이 있는 타일만 조회합니다.
+    public List<GalaxyTileResponseDto> getTiles(int level, double[] min, double[] max) {
+        validateLevel(level);
+        int[] range = GalaxyTileIndex.tileRange(level, min, max);
+        long tileCount = (long) (range[3] - range[0] + 1) * (range[4] - range[1] + 1) * (range[5] - range[2] + 1);
+        if (tileCount > maxTilesPerRequest) {
+            throw new CustomException("요청한 범위의 타일이 너무 많습니다. 범위를 줄이거나 더 낮은 레벨로 요청해주세요.");
+        }
+
+        ensureIndex();
+        List<GalaxyTileResponseDto> tiles = new ArrayList<>();
+        synchronized (this) {
+            for (int x = range[0]; x <= range[3]; x++) {
+                for (int y = range[1]; y <= range[4]; y++) {
+                    for (int z = range[2]; z <= range[5]; z++) {
+                        if (index.tileVersion(level, x, y, z) != 0L) {
+                            tiles.add(tileOf(level, x, y, z));
+                        }
+                    }
+                }
+            }
+        }
+        return tiles;
+    }
+
+    // 일기의 공개 여부·삭제·좌표 변경을 은하에 반영합니다. (트랜잭션 안이면 커밋 이후에 반영)
+    public void onDiaryChanged(Diary diary) {
+        Integer diarySeq = diary.getDiarySeq();
+        if (diarySeq == null) {
+            return;
+        }
+        boolean visible = "Y".equals(diary.getIsPublic()) && "N".equals(diary.getIsDeleted())
+                && diary.getEmotionSeq() != null
+                && diary.getX() != null && diary.getY() != null && diary.getZ() != null;
+
+        Consumer<GalaxyTileIndex> change;
+        if (visible) {
+            int userSeq = diary.getUserSeq();
+            int emotionSeq = diary.getEmotionSeq();
+            double x = diary.getX(), y = diary.getY(), z = diary.getZ();
+            change = target -> target.put(diarySeq, userSeq, emotionSeq, x, y, z);
+        } else {
+            change = target -> target.remove(diarySeq);
+        }
+        afterCommit(() -> apply(change));
+    }
+
+    private synchronized void apply(Consumer<GalaxyTileIndex> change) {
+        if (index != null) {
+            change.accept(index);
+        }
+        if (pendingChanges != null) {
+            pendingChanges.add(change);
+        }
+    }
+
+    // 호출 전에 this로 동기화해야 함
+    private GalaxyTileResponseDto tileOf(int level, int x, int y, int z) {
+        long key = GalaxyTileIndex.tileKey(level, x, y, z);
+        long version = index.tileVersion(level, x, y, z);
+        GalaxyTileResponseDto cached = tileCache.get(key);
+        if (cached != null && cached.getVersion() == version) {
+            return cached;
+        }
+
+        GalaxyTileIndex.Tile tile = index.tile(level, x, y, z, starLimit);
+        if (tile == null) {
+            tileCache.remove(key);
+            return GalaxyTileResponseDto.empty(level, x, y, z, builtAt);
+        }
+        GalaxyTileResponseDto dto = GalaxyTileResponseDto.toDto(tile, builtAt);
+        tileCache.put(key, dto);
+        return dto;
+    }
+
+    // 인덱스가 없으면 만들 때까지 기다리고, 오래됐으면 이전 인덱스를 그대로 쓰면서 백그라운드에서 다시 만듦
+    private void ensureIndex() {
+        synchronized (this) {
+            if (index != null) {
+                if (System.currentTimeMillis() - builtAt >= rebuildMillis) {
+                    scheduleRebuild();
+                }
+                return;
+            }
+        }
+        rebuildIfStale();
+    }
+
+    // 다시 만드는 작업은 동시에 하나만 예약함
+    private void scheduleRebuild() {
+        if (!rebuildScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            rebuildExecutor.execute(() -> {
+                try {
+                    rebuildIfStale();
+                } catch (RuntimeException e) {
+                    // 다음 요청이 다시 예약함
+                    log.warn("공개 은하 타일 재생성 실패", e);
+                } finally {
+                    rebuildScheduled.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rebuildScheduled.set(false);
+        }
+    }
+
+    private void rebuildIfStale() {
+        rebuildLock.lock();
+        try {
+            synchronized (this) {
+                if (index != null && System.currentTimeMillis() - builtAt < rebuildMillis) {
+                    return;
+                }
+                pendingChanges = new ArrayList<>();
+            }
+            rebuild();
+        } finally {
+            synchronized (this) {
+                pendingChanges = null;
+            }
+            rebuildLock.unlock();
+        }
+    }
+
+    private void rebuild() {
+        long startedAt = System.currentTimeMillis();
+        GalaxyTileIndex fresh = new GalaxyTileIndex();
+
+        // 공개 일기를 일기 ID 순으로 나눠 읽음
+        int lastSeq = 0;
+        while (true) {
+            List<GalaxyStarView> page = diaryRepository
+                    .findTop1000ByIsPublicAndIsDeletedAndDiarySeqGreaterThanOrderByDiarySeqAsc(
+                            "Y", "N", lastSeq, GalaxyStarView.class);
+            for (GalaxyStarView star : page) {
+                if (star.getEmotionSeq() != null && star.getX() != null && star.getY() != null && star.getZ() != null) {
+                    fresh.put(star.getDiarySeq(), star.getUserSeq(), star.getEmotionSeq(),
+                            star.getX(), star.getY(), star.getZ());
+                }
+                lastSeq = star.getDiarySeq();
+            }
+            if (page.size() < PAGE_SIZE) {
+                break;
+            }
+        }
+
+        synchronized (this) {
+            for (Consumer<GalaxyTileIndex> change : pendingChanges) {
+                change.accept(fresh);
+            }
+            index = fresh;
+            builtAt = System.currentTimeMillis();
+            tileCache.clear();
+        }
+        log.info("공개 은하 타일 생성: stars={}, elapsed={}ms", fresh.size(), System.currentTimeMillis() - startedAt);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuildExecutor.shutdownNow();
+    }
+
+    private static void validateLevel(int level) {
+        if (level < 0 || level > GalaxyTileIndex.MAX_TILE_LEVEL) {
+            throw new CustomException("타일 레벨은 0 ~ " + GalaxyTileIndex.MAX_TILE_LEVEL + " 사이여야 합니다.");
+        }
+    }
+
+    private static void validateTile(int level, int x, int y, int z) {
+        validateLevel(level);
+        int cells = 1 << level;
+        if (x < 0 || y < 0 || z < 0 || x >= cells || y >= cells || z >= cells) {
+            throw new CustomException("존재하지 않는 타일입니다.");
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+            return;
+        }
+        action.run();
+    }
+}
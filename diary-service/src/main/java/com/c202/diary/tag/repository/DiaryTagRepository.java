@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -23,4 +24,9 @@ public interface DiaryTagRepository extends JpaRepository<DiaryTag, Integer> {
     void deleteByDiary(Diary diary);
 
     List<DiaryTag> findByDiary(Diary diary);
+
+    // 여러 일기의 태그를 태그 이름까지 한 번에 조회 (좌표 계산용 일괄 조회)
+    @Query("SELECT dt FROM DiaryTag dt JOIN FETCH dt.tag " +
+            "WHERE dt.diary.diarySeq IN :diarySeqs")
+    List<DiaryTag> findWithTagByDiarySeqIn(Collection<Integer> diarySeqs);
 }
@@ -1,5 +1,32 @@
 package com.c202.diary.tag.service;
 
+import com.c202.diary.diary.entity.Diary;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
 // 일기와 연결된 태그
 public interface DiaryTagService {
+
+    // 여러 일기의 태그를 한 번의 쿼리로 미리 조회합니다.
+    // 트랜잭션 안에서 호출되면 결과는 트랜잭션이 끝날 때까지 재사용됩니다.
+    // 반환값은 일기 ID → 정렬된 태그 ID(tagSeq) 배열입니다.
+    Map<Integer, int[]> preloadTags(Collection<Diary> diaries);
+
+    // 일기 ID 목록으로 태그를 미리 조회합니다. (프로젝션 조회 결과용)
+    Map<Integer, int[]> preloadTagSeqs(Collection<Integer> diarySeqs);
+
+    // 일기의 태그 이름 목록을 조회합니다. (미리 조회된 경우 쿼리 없이 반환)
+    List<String> getTagNames(Diary diary);
+
+    // 일기의 정렬된 태그 ID 배열을 조회합니다. (미리 조회된 경우 쿼리 없이 반환)
+    int[] getTagSeqs(Diary diary);
+
+    // 아직 저장되지 않은 태그 이름 목록을 태그 ID 배열로 변환합니다.
+    // 존재하지 않는 태그는 어떤 일기와도 겹치지 않는 음수 ID로 변환됩니다.
+    int[] resolveTagSeqs(List<String> tagNames);
+
+    // 태그가 변경된 일기의 캐시를 비웁니다.
+    void evictTags(Integer diarySeq);
 }
@@ -1,4 +1,182 @@
 package com.c202.diary.tag.service;
 
+import com.c202.diary.diary.entity.Diary;
+import com.c202.diary.tag.entity.DiaryTag;
+import com.c202.diary.tag.entity.Tag;
+import com.c202.diary.tag.repository.DiaryTagRepository;
+import com.c202.diary.tag.repository.TagRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+
+@Service
+@RequiredArgsConstructor
 public class DiaryTagServiceImpl implements DiaryTagService {
+
+    // 트랜잭션에 바인딩되는 태그 캐시의 키
+    private static final Object TAG_CACHE_KEY = DiaryTagServiceImpl.class.getName() + ".TAG_CACHE";
+
+    private static final int[] NO_TAGS = new int[0];
+
+    private final DiaryTagRepository diaryTagRepository;
+    private final TagRepository tagRepository;
+
+    @Override
+    public Map<Integer, int[]> preloadTags(Collection<Diary> diaries) {
+        List<Integer> diarySeqs = new ArrayList<>(diaries.size());
+        for (Diary diary : diaries) {
+            diarySeqs.add(diary.getDiarySeq());
+        }
+        return preloadTagSeqs(diarySeqs);
+    }
+
+    @Override
+    public Map<Integer, int[]> preloadTagSeqs(Collection<Integer> diarySeqs) {
+        Map<Integer, CachedTags> cache = currentCache();
+
+        Set<Integer> missing = new HashSet<>();
+        for (Integer diarySeq : diarySeqs) {
+            if (diarySeq != null && !cache.containsKey(diarySeq)) {
+                missing.add(diarySeq);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            loadInto(cache, missing);
+        }
+
+        Map<Integer, int[]> tagSeqsByDiary = new HashMap<>();
+        for (Integer diarySeq : diarySeqs) {
+            CachedTags cached = diarySeq != null ? cache.get(diarySeq) : null;
+            if (cached != null) {
+                tagSeqsByDiary.put(diarySeq, cached.tagSeqs);
+            }
+        }
+        return tagSeqsByDiary;
+    }
+
+    @Override
+    public List<String> getTagNames(Diary diary) {
+        CachedTags cached = getCachedTags(diary);
+        return cached != null ? cached.names : Collections.emptyList();
+    }
+
+    @Override
+    public int[] getTagSeqs(Diary diary) {
+        CachedTags cached = getCachedTags(diary);
+        return cached != null ? cached.tagSeqs : NO_TAGS;
+    }
+
+    @Override
+    public int[] resolveTagSeqs(List<String> tagNames) {
+        if (tagNames == null || tagNames.isEmpty()) {
+            return NO_TAGS;
+        }
+
+        Map<String, Integer> tagSeqByName = new HashMap<>();
+        for (Tag tag : tagRepository.findByNameIn(tagNames)) {
+            tagSeqByName.put(tag.getName(), tag.getTagSeq());
+        }
+
+        // 아직 없는 태그는 서로 다른 음수 ID로 구분 (합집합 크기에는 포함, 교집합에는 불포함)
+        int unknownSeq = 0;
+        Set<Integer> tagSeqs = new HashSet<>();
+        for (String tagName : tagNames) {
+            Integer tagSeq = tagSeqByName.get(tagName);
+            tagSeqs.add(tagSeq != null ? tagSeq : --unknownSeq);
+        }
+        return toSortedArray(tagSeqs);
+    }
+
+    @Override
+    public void evictTags(Integer diarySeq) {
+        if (diarySeq != null && TransactionSynchronizationManager.hasResource(TAG_CACHE_KEY)) {
+            currentCache().remove(diarySeq);
+        }
+    }
+
+    private CachedTags getCachedTags(Diary diary) {
+        Integer diarySeq = diary.getDiarySeq();
+        if (diarySeq == null) {
+            return null;
+        }
+
+        Map<Integer, CachedTags> cache = currentCache();
+        CachedTags cached = cache.get(diarySeq);
+        if (cached == null) {
+            loadInto(cache, Collections.singleton(diarySeq));
+            cached = cache.get(diarySeq);
+        }
+        return cached;
+    }
+
+    // IN 쿼리 한 번으로 태그 이름까지 함께 조회하여 캐시에 채웁니다.
+    private void loadInto(Map<Integer, CachedTags> cache, Collection<Integer> diarySeqs) {
+        Map<Integer, List<Tag>> tagsByDiary = new HashMap<>();
+        for (Integer diarySeq : diarySeqs) {
+            tagsByDiary.put(diarySeq, new ArrayList<>(3));
+        }
+        for (DiaryTag diaryTag : diaryTagRepository.findWithTagByDiarySeqIn(diarySeqs)) {
+            tagsByDiary.get(diaryTag.getDiary().getDiarySeq()).add(diaryTag.getTag());
+        }
+
+        for (Map.Entry<Integer, List<Tag>> entry : tagsByDiary.entrySet()) {
+            List<String> names = new ArrayList<>(entry.getValue().size());
+            Set<Integer> tagSeqs = new HashSet<>();
+            for (Tag tag : entry.getValue()) {
+                names.add(tag.getName());
+                tagSeqs.add(tag.getTagSeq());
+            }
+            cache.put(entry.getKey(), new CachedTags(toSortedArray(tagSeqs), names));
+        }
+    }
+
+    private static int[] toSortedArray(Set<Integer> values) {
+        if (values.isEmpty()) {
+            return NO_TAGS;
+        }
+        int[] array = new int[values.size()];
+        int i = 0;
+        for (Integer value : values) {
+            array[i++] = value;
+        }
+        Arrays.sort(array);
+        return array;
+    }
+
+    // 현재 트랜잭션의 캐시를 반환합니다. 트랜잭션 밖에서는 매번 새 맵을 사용합니다.
+    @SuppressWarnings("unchecked")
+    private Map<Integer, CachedTags> currentCache() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return new HashMap<>();
+        }
+
+        Map<Integer, CachedTags> cache =
+                (Map<Integer, CachedTags>) TransactionSynchronizationManager.getResource(TAG_CACHE_KEY);
+        if (cache == null) {
+            cache = new HashMap<>();
+            TransactionSynchronizationManager.bindResource(TAG_CACHE_KEY, cache);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(TAG_CACHE_KEY);
+                }
+            });
+        }
+        return cache;
+    }
+
+    // 일기 하나의 태그 (정렬된 태그 ID 배열과 이름 목록)
+    private static class CachedTags {
+        private final int[] tagSeqs;
+        private final List<String> names;
+
+        CachedTags(int[] tagSeqs, List<String> names) {
+            this.tagSeqs = tagSeqs;
+            this.names = Collections.unmodifiableList(names);
+        }
+    }
 }
@@ -22,6 +22,7 @@ public class TagServiceImpl implements TagService {
 
     private final TagRepository tagRepository;
     private final DiaryTagRepository diaryTagRepository;
+    private final DiaryTagService diaryTagService;
 
     @Override
     public List<TagResponseDto> getRecentTags(Integer userSeq, Integer limit) {
@@ -43,6 +44,9 @@ public class TagServiceImpl implements TagService {
     @Transactional
     public List<TagResponseDto> processTags(Diary diary, List<String> tagNames, String now) {
 
+        // 태그가 바뀌므로 좌표 계산용 태그 캐시 무효화
+        diaryTagService.evictTags(diary.getDiarySeq());
+
         if (tagNames == null || tagNames.isEmpty()) {
             return new ArrayList<>();
         }
@@ -0,0 +1,37 @@
+package com.c202.diary.util.coordinate.backfill;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+// 전체 재배치 작업 관리용 actuator 엔드포인트 (/actuator/relayoutbackfill)
+// GET: 진행 상황, POST {"mode": "ALL" | "MISSING_COORDINATES", "restart": false}: 시작, DELETE: 중지
+@Component
+@Endpoint(id = "relayoutbackfill")
+@RequiredArgsConstructor
+public class RelayoutBackfillEndpoint {
+
+    private final RelayoutBackfillService backfillService;
+
+    @ReadOperation
+    public RelayoutBackfillService.BackfillStatus status() {
+        return backfillService.status();
+    }
+
+    @WriteOperation
+    public RelayoutBackfillService.BackfillStatus start(@Nullable String mode, @Nullable Boolean restart) {
+        RelayoutBackfillService.Mode jobMode = mode == null
+                ? RelayoutBackfillService.Mode.ALL
+                : RelayoutBackfillService.Mode.valueOf(mode);
+        return backfillService.start(jobMode, Boolean.TRUE.equals(restart));
+    }
+
+    @DeleteOperation
+    public RelayoutBackfillService.BackfillStatus stop() {
+        return backfillService.stop();
+    }
+}
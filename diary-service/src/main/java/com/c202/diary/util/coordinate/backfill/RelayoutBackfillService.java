@@ -0,0 +1,347 @@
+package com.c202.diary.util.coordinate.backfill;
+
+import com.c202.diary.diary.repository.DiaryRepository;
+import com.c202.diary.util.coordinate.entity.RelayoutCheckpoint;
+import com.c202.diary.util.coordinate.repository.RelayoutCheckpointRepository;
+import com.c202.diary.util.coordinate.service.RelayoutScheduler;
+import com.c202.exception.CustomException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+// 모든 사용자의 우주를 백그라운드에서 차례로 재배치하는 작업
+// - 배치 상수나 템플릿을 바꾼 뒤 전체 재배치(ALL), 또는 좌표가 빈 예전 일기의 보정(MISSING_COORDINATES)에 사용합니다.
+// - 사용자 ID 순으로 나눠 읽고, 사용자 하나를 끝낼 때마다 진행 위치를 저장하므로 재시작 후 이어서 처리합니다.
+// - 온라인 요청에 영향을 주지 않도록 CPU 사용 비율과 초당 사용자·일기 수로 속도를 제한합니다.
+// 한 인스턴스에서만 실행해야 합니다. (작업 시작은 actuator의 relayoutbackfill 엔드포인트로)
+// 진행 위치에 소유자 정보가 없어 여러 인스턴스가 기동 시 이어서 실행하면 같은 작업이 중복되므로,
+// 기동 시 재개(diary.backfill.resume-on-startup)는 기본으로 꺼 두고 작업을 돌리는 한 인스턴스에서만 켭니다.
+@Slf4j
+@Service
+public class RelayoutBackfillService {
+
+    private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMdd HHmmss");
+
+    public static final String STATUS_RUNNING = "RUNNING";
+    public static final String STATUS_STOPPED = "STOPPED";
+    public static final String STATUS_COMPLETED = "COMPLETED";
+
+    public enum Mode {
+        // 일기가 있는 모든 사용자
+        ALL,
+        // 좌표가 비어 있는 일기가 있는 사용자만
+        MISSING_COORDINATES
+    }
+
+    private final DiaryRepository diaryRepository;
+    private final RelayoutCheckpointRepository checkpointRepository;
+    private final RelayoutScheduler relayoutScheduler;
+
+    private final int batchSize;
+    private final double usersPerSecond;
+    private final double diariesPerSecond;
+    private final double cpuDuty;
+    private final boolean resumeOnStartup;
+
+    private final ExecutorService executor;
+    private final Counter userCounter;
+    private final Counter diaryCounter;
+    private final Counter failureCounter;
+
+    // 아래 필드는 this로 동기화 (진행 수치는 작업 스레드가 사용자 하나를 끝낼 때마다 갱신)
+    private boolean running;
+    private volatile boolean stopRequested;
+    private volatile boolean shuttingDown;
+    private RelayoutCheckpoint checkpoint;
+    private long runStartedNanos;
+    private long runUsers;
+    private long runDiaries;
+    private long remainingAtStart;
+    // 기동 시 재개를 기다리는 작업 (한 번에 하나씩 실행)
+    private final Deque<Mode> pendingResumes = new ArrayDeque<>();
+
+    public RelayoutBackfillService(DiaryRepository diaryRepository,
+                                   RelayoutCheckpointRepository checkpointRepository,
+                                   RelayoutScheduler relayoutScheduler,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${diary.backfill.batch-size:100}") int batchSize,
+                                   @Value("${diary.backfill.users-per-second:5}") double usersPerSecond,
+                                   @Value("${diary.backfill.diaries-per-second:2000}") double diariesPerSecond,
+                                   @Value("${diary.backfill.cpu-duty:0.5}") double cpuDuty,
+                                   @Value("${diary.backfill.resume-on-startup:false}") boolean resumeOnStartup) {
+        if (cpuDuty <= 0 || cpuDuty > 1) {
+            throw new IllegalArgumentException("diary.backfill.cpu-duty는 0보다 크고 1 이하여야 합니다.");
+        }
+        this.diaryRepository = diaryRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.relayoutScheduler = relayoutScheduler;
+        this.batchSize = batchSize;
+        this.usersPerSecond = usersPerSecond;
+        this.diariesPerSecond = diariesPerSecond;
+        this.cpuDuty = cpuDuty;
+        this.resumeOnStartup = resumeOnStartup;
+
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "relayout-backfill");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        this.userCounter = Counter.builder("diary.backfill.users")
+                .description("전체 재배치 작업이 처리한 사용자 수")
+                .register(meterRegistry);
+        this.diaryCounter = Counter.builder("diary.backfill.diaries")
+                .description("전체 재배치 작업이 처리한 일기 수")
+                .register(meterRegistry);
+        this.failureCounter = Counter.builder("diary.backfill.failures")
+                .description("전체 재배치 작업에서 실패한 사용자 수")
+                .register(meterRegistry);
+    }
+
+    // 재시작 전에 실행 중이던 작업을 모두 차례로 이어서 실행합니다.
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterrupted() {
+        if (!resumeOnStartup) {
+            return;
+        }
+        List<RelayoutCheckpoint> interrupted = checkpointRepository.findByStatus(STATUS_RUNNING);
+        synchronized (this) {
+            for (RelayoutCheckpoint saved : interrupted) {
+                log.info("중단된 전체 재배치 작업 재개 예정: mode={}, lastUserSeq={}",
+                        saved.getMode(), saved.getLastUserSeq());
+                pendingResumes.add(Mode.valueOf(saved.getMode()));
+            }
+            resumeNext();
+        }
+    }
+
+    // 실행 중인 작업이 없으면 재개를 기다리는 다음 작업을 시작합니다.
+    private synchronized void resumeNext() {
+        if (running || shuttingDown) {
+            return;
+        }
+        Mode next = pendingResumes.poll();
+        if (next != null) {
+            start(next, false);
+        }
+    }
+
+    // 작업을 시작합니다.
+    // @param mode 작업 종류
+    // @param restart true면 저장된 진행 위치를 무시하고 처음부터, false면 이어서 (완료된 작업은 처음부터)
+    public synchronized BackfillStatus start(Mode mode, boolean restart) {
+        if (running) {
+            throw new CustomException("이미 전체 재배치 작업이 실행 중입니다.");
+        }
+        pendingResumes.remove(mode);
+        String now = LocalDateTime.now().format(DATE_TIME_FORMATTER);
+
+        RelayoutCheckpoint saved = checkpointRepository.findById(mode.name()).orElse(null);
+        if (saved == null || restart || STATUS_COMPLETED.equals(saved.getStatus())) {
+            saved = RelayoutCheckpoint.builder()
+                    .mode(mode.name())
+                    .lastUserSeq(0)
+                    .processedUsers(0L)
+                    .processedDiaries(0L)
+                    .failedUsers(0L)
+                    .status(STATUS_RUNNING)
+                    .startedAt(now)
+                    .updatedAt(now)
+                    .build();
+        } else {
+            saved.updateStatus(STATUS_RUNNING, now);
+        }
+        checkpoint = checkpointRepository.save(saved);
+
+        running = true;
+        stopRequested = false;
+        runStartedNanos = System.nanoTime();
+        runUsers = 0;
+        runDiaries = 0;
+        remainingAtStart = countRemaining(mode, checkpoint.getLastUserSeq());
+
+        executor.execute(() -> run(mode));
+        log.info("전체 재배치 작업 시작: mode={}, lastUserSeq={}, 남은 사용자={}",
+                mode, checkpoint.getLastUserSeq(), remainingAtStart);
+        return status();
+    }
+
+    // 작업을 멈춥니다. (처리 중인 사용자까지 끝내고 멈춤, 다시 시작하면 이어서 처리)
+    // 재개를 기다리던 작업도 멈춘 상태로 바꿉니다.
+    public synchronized BackfillStatus stop() {
+        if (running) {
+            stopRequested = true;
+        }
+        String now = LocalDateTime.now().format(DATE_TIME_FORMATTER);
+        for (Mode mode : pendingResumes) {
+            checkpointRepository.findById(mode.name()).ifPresent(saved -> {
+                saved.updateStatus(STATUS_STOPPED, now);
+                checkpointRepository.save(saved);
+            });
+        }
+        pendingResumes.clear();
+        return status();
+    }
+
+    // 진행 상황과 처리 속도, 남은 시간 추정치를 반환합니다.
+    public synchronized BackfillStatus status() {
+        if (checkpoint == null) {
+            return BackfillStatus.builder().status("IDLE").build();
+        }
+        double elapsedSeconds = (System.nanoTime() - runStartedNanos) / 1e9;
+        double userRate = running && elapsedSeconds > 0 ? runUsers / elapsedSeconds : 0.0;
+        double diaryRate = running && elapsedSeconds > 0 ? runDiaries / elapsedSeconds : 0.0;
+        long remaining = Math.max(0L, remainingAtStart - runUsers);
+        Long etaSeconds = userRate > 0 ? (long) Math.ceil(remaining / userRate) : null;
+
+        return BackfillStatus.builder()
+                .mode(checkpoint.getMode())
+                .status(running && stopRequested ? "STOPPING" : checkpoint.getStatus())
+                .lastUserSeq(checkpoint.getLastUserSeq())
+                .processedUsers(checkpoint.getProcessedUsers())
+                .processedDiaries(checkpoint.getProcessedDiaries())
+                .failedUsers(checkpoint.getFailedUsers())
+                .remainingUsers(remaining)
+                .usersPerSecond(userRate)
+                .diariesPerSecond(diaryRate)
+                .etaSeconds(etaSeconds)
+                .startedAt(checkpoint.getStartedAt())
+                .updatedAt(checkpoint.getUpdatedAt())
+                .build();
+    }
+
+    private void run(Mode mode) {
+        String finalStatus = STATUS_STOPPED;
+        try {
+            while (!stopRequested) {
+                Integer lastUserSeq;
+                synchronized (this) {
+                    lastUserSeq = checkpoint.getLastUserSeq();
+                }
+                List<Integer> userSeqs = fetchUsers(mode, lastUserSeq);
+                if (userSeqs.isEmpty()) {
+                    finalStatus = STATUS_COMPLETED;
+                    break;
+                }
+                for (Integer userSeq : userSeqs) {
+                    if (stopRequested) {
+                        break;
+                    }
+                    processUser(userSeq);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.error("전체 재배치 작업 중단", e);
+        } finally {
+            synchronized (this) {
+                // 종료 중이면 진행 위치를 RUNNING으로 남겨 두고 다음 기동 때 이어서 처리
+                if (!shuttingDown) {
+                    checkpoint.updateStatus(finalStatus, LocalDateTime.now().format(DATE_TIME_FORMATTER));
+                    checkpoint = checkpointRepository.save(checkpoint);
+                }
+                running = false;
+            }
+            log.info("전체 재배치 작업 종료: mode={}, status={}, 이번 실행 사용자={}, 일기={}",
+                    mode, finalStatus, runUsers, runDiaries);
+            if (!stopRequested) {
+                resumeNext();
+            }
+        }
+    }
+
+    private void processUser(Integer userSeq) throws InterruptedException {
+        long startedAt = System.nanoTime();
+        long diaryCount = diaryRepository.countByUserSeqAndIsDeleted(userSeq, "N");
+
+        boolean failed = false;
+        try {
+            // 온라인 재배치가 이미 실행 중이면 그 결과가 최신이므로 건너뜀
+            relayoutScheduler.relayoutNow(userSeq);
+        } catch (Exception e) {
+            failed = true;
+            failureCounter.increment();
+            log.warn("전체 재배치 작업: 사용자 {} 재배치 실패", userSeq, e);
+        }
+        long workNanos = System.nanoTime() - startedAt;
+
+        synchronized (this) {
+            checkpoint.advance(userSeq, diaryCount, failed, LocalDateTime.now().format(DATE_TIME_FORMATTER));
+            checkpoint = checkpointRepository.save(checkpoint);
+            runUsers++;
+            runDiaries += diaryCount;
+        }
+        userCounter.increment();
+        diaryCounter.increment(diaryCount);
+
+        throttle(workNanos, diaryCount);
+    }
+
+    // 작업 시간 비율이 cpuDuty를 넘지 않고, 초당 사용자·일기 수가 한도를 넘지 않도록 쉽니다.
+    private void throttle(long workNanos, long diaryCount) throws InterruptedException {
+        long dutySleep = (long) (workNanos * (1.0 - cpuDuty) / cpuDuty);
+        long minNanos = Math.max(
+                usersPerSecond > 0 ? (long) (1e9 / usersPerSecond) : 0L,
+                diariesPerSecond > 0 ? (long) (diaryCount * 1e9 / diariesPerSecond) : 0L);
+        long sleepNanos = Math.max(dutySleep, minNanos - workNanos);
+        if (sleepNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(sleepNanos);
+        }
+    }
+
+    private List<Integer> fetchUsers(Mode mode, Integer lastUserSeq) {
+        PageRequest page = PageRequest.of(0, batchSize);
+        return mode == Mode.ALL
+                ? diaryRepository.findUserSeqsAfter(lastUserSeq, page)
+                : diaryRepository.findUserSeqsWithMissingCoordinatesAfter(lastUserSeq, page);
+    }
+
+    private long countRemaining(Mode mode, Integer lastUserSeq) {
+        return mode == Mode.ALL
+                ? diaryRepository.countUserSeqsAfter(lastUserSeq)
+                : diaryRepository.countUserSeqsWithMissingCoordinatesAfter(lastUserSeq);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        shuttingDown = true;
+        stopRequested = true;
+        executor.shutdownNow();
+    }
+
+    // 작업 진행 상황
+    @Getter
+    @Builder
+    public static class BackfillStatus {
+        private String mode;
+        private String status;
+        private Integer lastUserSeq;
+        private Long processedUsers;
+        private Long processedDiaries;
+        private Long failedUsers;
+        private Long remainingUsers;
+        private Double usersPerSecond;
+        private Double diariesPerSecond;
+        private Long etaSeconds;
+        private String startedAt;
+        private String updatedAt;
+    }
+}
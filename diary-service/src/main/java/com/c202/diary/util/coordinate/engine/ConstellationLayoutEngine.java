@@ -0,0 +1,39 @@
+package com.c202.diary.util.coordinate.engine;
+
+import com.c202.diary.diary.entity.Diary;
+import com.c202.diary.tag.service.DiaryTagService;
+import com.c202.diary.util.coordinate.model.CoordinateDto;
+import com.c202.diary.util.coordinate.service.ConstellationAssignmentService;
+import com.c202.diary.util.coordinate.service.CoordinateService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// 별자리 슬롯 배치 엔진 (기본 엔진)
+@Component
+@RequiredArgsConstructor
+public class ConstellationLayoutEngine implements LayoutEngine {
+
+    public static final String NAME = "constellation";
+
+    private final CoordinateService coordinateService;
+    private final ConstellationAssignmentService assignmentService;
+    private final DiaryTagService diaryTagService;
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public CoordinateDto place(Diary diary, Integer emotionSeq, List<String> tags) {
+        return coordinateService.placeDiary(diary, emotionSeq, tags);
+    }
+
+    // place와 같은 별자리 선택·슬롯 규칙으로 계산만 함
+    @Override
+    public CoordinateDto preview(Diary diary, Integer emotionSeq, List<String> tags) {
+        return assignmentService.plan(diary, emotionSeq, diaryTagService.resolveTagSeqs(tags));
+    }
+}
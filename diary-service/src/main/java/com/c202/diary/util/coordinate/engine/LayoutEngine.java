@@ -0,0 +1,21 @@
+package com.c202.diary.util.coordinate.engine;
+
+import com.c202.diary.diary.entity.Diary;
+import com.c202.diary.util.coordinate.model.CoordinateDto;
+
+import java.util.List;
+
+// 일기 좌표 배치 엔진 SPI
+// 구현체를 스프링 빈으로 등록하면 LayoutEngineRouter에서 이름으로 선택하거나 섀도로 실행할 수 있습니다.
+public interface LayoutEngine {
+
+    // 설정과 지표 태그에 쓰는 엔진 이름
+    String name();
+
+    // 저장된 일기를 배치하고 좌표를 반영합니다. (요청 트랜잭션 안에서 호출)
+    CoordinateDto place(Diary diary, Integer emotionSeq, List<String> tags);
+
+    // 아무것도 저장하지 않고 배치될 좌표만 계산합니다. (섀도 실행용)
+    // diary에는 diarySeq, userSeq, emotionSeq만 채워져 있을 수 있습니다.
+    CoordinateDto preview(Diary diary, Integer emotionSeq, List<String> tags);
+}
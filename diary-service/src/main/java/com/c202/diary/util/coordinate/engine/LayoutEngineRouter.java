@@ -0,0 +1,271 @@
+package com.c202.diary.util.coordinate.engine;
+
+import com.c202.diary.diary.entity.Diary;
+import com.c202.diary.emotion.entity.Emotion;
+import com.c202.diary.emotion.repository.EmotionRepository;
+import com.c202.diary.util.coordinate.model.CoordinateDto;
+import com.c202.diary.util.coordinate.spatial.SpatialIndexService;
+import com.c202.diary.util.coordinate.spatial.UniformGrid;
+import com.c202.exception.CustomException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+// 일기 배치에 쓸 LayoutEngine을 고르고, 후보 엔진을 섀도로 실행해 비교 지표를 남기는 서비스
+// 엔진 선택 순서: 요청 헤더(X-Layout-Engine, 허용된 경우) → 사용자 코호트 → 기본 엔진
+// 섀도 실행은 커밋 이후 별도 스레드에서 같은 입력으로 preview만 호출하므로 요청 지연과 데이터에 영향이 없습니다.
+// 지표 (engine, role=primary|shadow 태그):
+// - diary.layout.engine.latency / diary.layout.engine.allocation: 실행 시간과 실행 스레드의 할당 바이트
+// - diary.layout.engine.nearest: 배치된 좌표에서 가장 가까운 다른 별까지의 거리 (너무 가까우면 겹쳐 보임)
+// - diary.layout.engine.region-offset: 감정 중심에서의 거리 / 감정 반경 (1을 넘으면 감정 영역 밖)
+// - diary.layout.engine.displacement: 기본 엔진과 섀도 엔진 좌표 사이 거리
+@Slf4j
+@Service
+public class LayoutEngineRouter {
+
+    private static final String ROLE_PRIMARY = "primary";
+    private static final String ROLE_SHADOW = "shadow";
+
+    private final Map<String, LayoutEngine> engines = new LinkedHashMap<>();
+    private final EmotionRepository emotionRepository;
+    private final SpatialIndexService spatialIndexService;
+    private final MeterRegistry meterRegistry;
+
+    private final String defaultEngine;
+    private final String cohortEngine;
+    private final int cohortPercent;
+    private final boolean requestOverride;
+    private final String shadowEngine;
+    private final double shadowSampleRate;
+
+    private final ThreadPoolExecutor shadowExecutor;
+    private final Counter shadowDropped;
+    private final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+
+    public LayoutEngineRouter(List<LayoutEngine> engineBeans,
+                              EmotionRepository emotionRepository,
+                              SpatialIndexService spatialIndexService,
+                              MeterRegistry meterRegistry,
+                              @Value("${diary.layout.engine.default:constellation}") String defaultEngine,
+                              @Value("${diary.layout.engine.cohort-engine:}") String cohortEngine,
+                              @Value("${diary.layout.engine.cohort-percent:0}") int cohortPercent,
+                              @Value("${diary.layout.engine.request-override:false}") boolean requestOverride,
+                              @Value("${diary.layout.engine.shadow:}") String shadowEngine,
+                              @Value("${diary.layout.engine.shadow-sample-rate:0.1}") double shadowSampleRate,
+                              @Value("${diary.layout.engine.shadow-queue:100}") int shadowQueue) {
+        for (LayoutEngine engine : engineBeans) {
+            engines.put(engine.name(), engine);
+        }
+        this.emotionRepository = emotionRepository;
+        this.spatialIndexService = spatialIndexService;
+        this.meterRegistry = meterRegistry;
+        this.defaultEngine = requireEngine(defaultEngine);
+        this.cohortEngine = cohortEngine.isEmpty() ? null : requireEngine(cohortEngine);
+        this.cohortPercent = cohortPercent;
+        this.requestOverride = requestOverride;
+        this.shadowEngine = shadowEngine.isEmpty() ? null : requireEngine(shadowEngine);
+        this.shadowSampleRate = shadowSampleRate;
+
+        this.shadowDropped = Counter.builder("diary.layout.engine.shadow.dropped")
+                .description("큐가 가득 차 버려진 섀도 실행 수")
+                .register(meterRegistry);
+        // 섀도 작업이 밀리면 버림 (요청 경로를 막지 않음)
+        this.shadowExecutor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(shadowQueue), runnable -> {
+            Thread thread = new Thread(runnable, "layout-shadow");
+            thread.setDaemon(true);
+            return thread;
+        }, (runnable, executor) -> shadowDropped.increment());
+
+        if (threadMXBean instanceof com.sun.management.ThreadMXBean sunBean
+                && sunBean.isThreadAllocatedMemorySupported()) {
+            sunBean.setThreadAllocatedMemoryEnabled(true);
+        }
+    }
+
+    // 선택된 엔진으로 일기를 배치하고, 섀도 엔진이 설정되어 있으면 커밋 이후 같은 입력으로 비교 실행을 예약합니다.
+    // @param requestedEngine 요청 헤더로 받은 엔진 이름 (없으면 null, request-override가 꺼져 있으면 무시)
+    public CoordinateDto place(Diary diary, Integer emotionSeq, List<String> tags, String requestedEngine) {
+        LayoutEngine engine = select(diary.getUserSeq(), requestedEngine);
+        List<String> tagSnapshot = tags == null ? new ArrayList<>() : new ArrayList<>(tags);
+
+        CoordinateDto placed = measure(engine.name(), ROLE_PRIMARY, () -> engine.place(diary, emotionSeq, tagSnapshot));
+
+        if (shadowEngine != null && !shadowEngine.equals(engine.name())
+                && ThreadLocalRandom.current().nextDouble() < shadowSampleRate) {
+            Diary input = Diary.builder()
+                    .diarySeq(diary.getDiarySeq())
+                    .userSeq(diary.getUserSeq())
+                    .emotionSeq(emotionSeq)
+                    .build();
+            String primaryName = engine.name();
+            afterCommit(() -> shadowExecutor.execute(() -> runShadow(primaryName, input, tagSnapshot, placed)));
+        }
+        return placed;
+    }
+
+    private LayoutEngine select(Integer userSeq, String requestedEngine) {
+        if (requestOverride && requestedEngine != null && !requestedEngine.isBlank()) {
+            LayoutEngine requested = engines.get(requestedEngine);
+            if (requested == null) {
+                throw new CustomException("존재하지 않는 배치 엔진입니다: " + requestedEngine);
+            }
+            return requested;
+        }
+        if (cohortEngine != null && userSeq != null && Math.floorMod(cohortHash(userSeq), 100) < cohortPercent) {
+            return engines.get(cohortEngine);
+        }
+        return engines.get(defaultEngine);
+    }
+
+    private void runShadow(String primaryName, Diary input, List<String> tags, CoordinateDto placed) {
+        LayoutEngine shadow = engines.get(shadowEngine);
+        try {
+            CoordinateDto proposed = measure(shadow.name(), ROLE_SHADOW,
+                    () -> shadow.preview(input, input.getEmotionSeq(), tags));
+
+            Emotion emotion = emotionRepository.findById(input.getEmotionSeq()).orElse(null);
+            recordQuality(primaryName, ROLE_PRIMARY, input, placed, emotion);
+            recordQuality(shadow.name(), ROLE_SHADOW, input, proposed, emotion);
+
+            if (hasPoint(placed) && hasPoint(proposed)) {
+                DistributionSummary.builder("diary.layout.engine.displacement")
+                        .description("기본 엔진과 섀도 엔진 좌표 사이 거리")
+                        .tag("primary", primaryName)
+                        .tag("shadow", shadow.name())
+                        .register(meterRegistry)
+                        .record(distance(placed.getX(), placed.getY(), placed.getZ(),
+                                proposed.getX(), proposed.getY(), proposed.getZ()));
+            }
+        } catch (Exception e) {
+            Counter.builder("diary.layout.engine.shadow.failures")
+                    .tag("engine", shadow.name())
+                    .register(meterRegistry)
+                    .increment();
+            log.warn("섀도 배치 엔진 실행 실패: engine={}, diary={}", shadow.name(), input.getDiarySeq(), e);
+        }
+    }
+
+    private void recordQuality(String engineName, String role, Diary input, CoordinateDto point, Emotion emotion) {
+        if (!hasPoint(point)) {
+            return;
+        }
+        Diary probe = Diary.builder()
+                .diarySeq(input.getDiarySeq())
+                .userSeq(input.getUserSeq())
+                .emotionSeq(input.getEmotionSeq())
+                .x(point.getX())
+                .y(point.getY())
+                .z(point.getZ())
+                .build();
+        List<UniformGrid.Neighbor> nearest = spatialIndexService.findNearest(probe, 1);
+        if (!nearest.isEmpty()) {
+            DistributionSummary.builder("diary.layout.engine.nearest")
+                    .description("배치된 좌표에서 가장 가까운 다른 별까지의 거리")
+                    .tag("engine", engineName)
+                    .tag("role", role)
+                    .register(meterRegistry)
+                    .record(nearest.get(0).getDistance());
+        }
+        if (emotion != null && emotion.getBaseRadius() != null && emotion.getBaseRadius() > 0) {
+            DistributionSummary.builder("diary.layout.engine.region-offset")
+                    .description("감정 중심에서의 거리 / 감정 반경")
+                    .tag("engine", engineName)
+                    .tag("role", role)
+                    .register(meterRegistry)
+                    .record(distance(point.getX(), point.getY(), point.getZ(),
+                            emotion.getBaseX(), emotion.getBaseY(), emotion.getBaseZ()) / emotion.getBaseRadius());
+        }
+    }
+
+    // 실행 시간과 실행 스레드의 할당 바이트를 기록합니다.
+    private <T> T measure(String engineName, String role, Supplier<T> action) {
+        long allocatedBefore = allocatedBytes();
+        long startedAt = System.nanoTime();
+        try {
+            return action.get();
+        } finally {
+            Timer.builder("diary.layout.engine.latency")
+                    .description("배치 엔진 실행 시간")
+                    .tag("engine", engineName)
+                    .tag("role", role)
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+            long allocatedAfter = allocatedBytes();
+            if (allocatedBefore >= 0 && allocatedAfter >= allocatedBefore) {
+                DistributionSummary.builder("diary.layout.engine.allocation")
+                        .description("배치 엔진 실행 중 할당한 바이트")
+                        .baseUnit("bytes")
+                        .tag("engine", engineName)
+                        .tag("role", role)
+                        .register(meterRegistry)
+                        .record(allocatedAfter - allocatedBefore);
+            }
+        }
+    }
+
+    // 현재 스레드가 지금까지 할당한 바이트 (지원하지 않는 JVM이면 -1)
+    private long allocatedBytes() {
+        if (threadMXBean instanceof com.sun.management.ThreadMXBean sunBean
+                && sunBean.isThreadAllocatedMemoryEnabled()) {
+            return sunBean.getCurrentThreadAllocatedBytes();
+        }
+        return -1L;
+    }
+
+    private String requireEngine(String name) {
+        if (!engines.containsKey(name)) {
+            throw new IllegalArgumentException("등록되지 않은 배치 엔진입니다: " + name + " (사용 가능: " + engines.keySet() + ")");
+        }
+        return name;
+    }
+
+    // 사용자 ID가 연속이어도 코호트가 고르게 나뉘도록 섞음
+    private static int cohortHash(int userSeq) {
+        int h = userSeq * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private static boolean hasPoint(CoordinateDto point) {
+        return point != null && point.getX() != null && point.getY() != null && point.getZ() != null;
+    }
+
+    private static double distance(double x1, double y1, double z1, double x2, double y2, double z2) {
+        double dx = x1 - x2, dy = y1 - y2, dz = z1 - z2;
+        return Math.sqrt(dx * dx + dy * dy + dz * dz);
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+            return;
+        }
+        action.run();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        shadowExecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,100 @@
+package com.c202.diary.util.coordinate.engine;
+
+import com.c202.diary.diary.entity.Diary;
+import com.c202.diary.emotion.entity.Emotion;
+import com.c202.diary.emotion.repository.EmotionRepository;
+import com.c202.diary.galaxy.service.GalaxyTileService;
+import com.c202.diary.tag.service.DiaryTagService;
+import com.c202.diary.util.coordinate.model.CoordinateDto;
+import com.c202.diary.util.coordinate.service.CoordinateService;
+import com.c202.diary.util.coordinate.service.RelayoutNeededEvent;
+import com.c202.diary.util.coordinate.similarity.SimilarDiaryIndexService;
+import com.c202.diary.util.coordinate.spatial.SpatialIndexService;
+import com.c202.diary.util.coordinate.spatial.StarSlotService;
+import com.c202.exception.types.NotFoundException;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// 감정 중심에서 임의로 흩뿌리는 예전 좌표 엔진 (com.c202.diary.coordinate)
+// 별자리에 속하지 않고 연결선도 없는 좌표를 만들므로, 배치할 때마다 전체 재배치를 요청해 별자리로 다시 정리합니다.
+@Component
+public class LegacyLayoutEngine implements LayoutEngine {
+
+    public static final String NAME = "legacy";
+
+    private final com.c202.diary.coordinate.service.CoordinateService legacyCoordinateService;
+    private final CoordinateService coordinateService;
+    private final EmotionRepository emotionRepository;
+    private final DiaryTagService diaryTagService;
+    private final SpatialIndexService spatialIndexService;
+    private final StarSlotService starSlotService;
+    private final SimilarDiaryIndexService similarDiaryIndexService;
+    private final GalaxyTileService galaxyTileService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public LegacyLayoutEngine(
+            @Qualifier("legacyCoordinateService") com.c202.diary.coordinate.service.CoordinateService legacyCoordinateService,
+            CoordinateService coordinateService,
+            EmotionRepository emotionRepository,
+            DiaryTagService diaryTagService,
+            SpatialIndexService spatialIndexService,
+            StarSlotService starSlotService,
+            SimilarDiaryIndexService similarDiaryIndexService,
+            GalaxyTileService galaxyTileService,
+            ApplicationEventPublisher eventPublisher) {
+        this.legacyCoordinateService = legacyCoordinateService;
+        this.coordinateService = coordinateService;
+        this.emotionRepository = emotionRepository;
+        this.diaryTagService = diaryTagService;
+        this.spatialIndexService = spatialIndexService;
+        this.starSlotService = starSlotService;
+        this.similarDiaryIndexService = similarDiaryIndexService;
+        this.galaxyTileService = galaxyTileService;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public CoordinateDto place(Diary diary, Integer emotionSeq, List<String> tags) {
+        CoordinateDto coordinates = preview(diary, emotionSeq, tags);
+
+        // 별자리 슬롯을 쓰지 않으므로 차지하던 슬롯은 반환
+        if (diary.getConstellationSeq() != null) {
+            coordinateService.releaseDiary(diary);
+        }
+        diary.setCoordinates(coordinates.getX(), coordinates.getY(), coordinates.getZ(), emotionSeq);
+
+        spatialIndexService.onDiaryMoved(diary);
+        // 조회만 한 별 자리를 여기서 차지함
+        starSlotService.claim(diary);
+        galaxyTileService.onDiaryChanged(diary);
+        similarDiaryIndexService.onDiaryChanged(diary, emotionSeq, diaryTagService.resolveTagSeqs(tags));
+
+        // 슬롯 반환으로 저장된 연결선도 지워졌으므로 전체 재배치로 별자리와 연결선을 다시 만듦
+        eventPublisher.publishEvent(new RelayoutNeededEvent(diary.getUserSeq(), "legacy placement"));
+        return coordinates;
+    }
+
+    @Override
+    public CoordinateDto preview(Diary diary, Integer emotionSeq, List<String> tags) {
+        Emotion emotion = emotionRepository.findById(emotionSeq)
+                .orElseThrow(() -> new NotFoundException("감정을 찾을 수 없습니다 (seq: " + emotionSeq + ")"));
+        com.c202.diary.coordinate.model.CoordinateDto legacy =
+                legacyCoordinateService.generateCoordinates(emotion.getName(), tags, diary.getDiarySeq());
+
+        return CoordinateDto.builder()
+                .x(legacy.getX())
+                .y(legacy.getY())
+                .z(legacy.getZ())
+                .emotionSeq(emotion.getEmotionSeq())
+                .emotionName(emotion.getName())
+                .build();
+    }
+}
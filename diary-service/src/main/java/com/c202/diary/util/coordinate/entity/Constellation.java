@@ -0,0 +1,87 @@
+package com.c202.diary.util.coordinate.entity;
+
+import com.c202.diary.util.coordinate.similarity.TagSimilarity;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+// 사용자별, 감정별 별자리 정보
+// 일기는 constellationSeq와 slotIndex로 별자리의 템플릿 슬롯을 차지합니다.
+@Entity
+@Table(name = "constellation", indexes = {
+        @Index(name = "idx_constellation_user_emotion", columnList = "userSeq, emotionSeq")
+})
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class Constellation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer constellationSeq;
+
+    @Column(nullable = false)
+    private Integer userSeq;
+
+    @Column(nullable = false)
+    private Integer emotionSeq;
+
+    @Column(nullable = false)
+    private Double centerX;
+
+    @Column(nullable = false)
+    private Double centerY;
+
+    @Column(nullable = false)
+    private Double centerZ;
+
+    @Column(nullable = false)
+    private Double scale;
+
+    // 현재 사용 중인 템플릿의 슬롯 수 (3~7)
+    @Column(nullable = false)
+    private Integer templateSize;
+
+    @Column(nullable = false)
+    private Integer memberCount;
+
+    // 소속 일기들의 태그 ID 합집합 (쉼표 구분, 정렬됨)
+    @Column(nullable = false, length = 255)
+    private String tagSeqs;
+
+    @Column(nullable = false, length = 15)
+    private String createdAt;
+
+    @Column(nullable = false, length = 15)
+    private String updatedAt;
+
+    public int[] getTagSeqArray() {
+        if (tagSeqs == null || tagSeqs.isEmpty()) {
+            return TagSimilarity.EMPTY;
+        }
+        return Arrays.stream(tagSeqs.split(","))
+                .mapToInt(Integer::parseInt)
+                .toArray();
+    }
+
+    public void updateTags(int[] tags, String updatedAt) {
+        this.tagSeqs = Arrays.stream(tags)
+                .mapToObj(String::valueOf)
+                .collect(Collectors.joining(","));
+        this.updatedAt = updatedAt;
+    }
+
+    public void updateMemberCount(int memberCount, String updatedAt) {
+        this.memberCount = memberCount;
+        this.updatedAt = updatedAt;
+    }
+
+    public void resize(int templateSize, double scale, String updatedAt) {
+        this.templateSize = templateSize;
+        this.scale = scale;
+        this.updatedAt = updatedAt;
+    }
+}
@@ -0,0 +1,35 @@
+package com.c202.diary.util.coordinate.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+// 우주 화면에 그려지는 일기 간 연결선 (양방향을 각각 한 행으로 저장)
+// 전체 재배치 때 통째로 교체되고, 일기 배치가 바뀌면 해당 별자리의 연결만 다시 만듭니다.
+@Entity
+@Table(name = "diary_connection", indexes = {
+        @Index(name = "idx_diary_connection_user", columnList = "userSeq"),
+        @Index(name = "idx_diary_connection_diary", columnList = "diarySeq"),
+        @Index(name = "idx_diary_connection_connected", columnList = "connectedDiarySeq")
+})
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DiaryConnection {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer connectionSeq;
+
+    @Column(nullable = false)
+    private Integer userSeq;
+
+    @Column(nullable = false)
+    private Integer diarySeq;
+
+    @Column(nullable = false)
+    private Integer connectedDiarySeq;
+
+    @Column(nullable = false, length = 15)
+    private String createdAt;
+}
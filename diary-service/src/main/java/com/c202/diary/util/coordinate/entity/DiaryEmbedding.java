@@ -0,0 +1,39 @@
+package com.c202.diary.util.coordinate.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+// 일기 제목·본문·태그의 임베딩 벡터 (TextEmbedder, float 리틀 엔디언 바이트)
+// 일기를 작성·수정할 때 함께 갱신하고, 유사 일기 색인을 만들 때 본문을 다시 읽지 않고 사용합니다.
+// 계산 방식이 바뀌면(modelVersion이 다르면) 저장된 값은 쓰지 않고 다시 계산합니다.
+@Entity
+@Table(name = "diary_embedding", indexes = {
+        @Index(name = "idx_diary_embedding_user", columnList = "userSeq")
+})
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DiaryEmbedding {
+
+    @Id
+    private Integer diarySeq;
+
+    @Column(nullable = false)
+    private Integer userSeq;
+
+    @Column(nullable = false)
+    private Integer modelVersion;
+
+    @Column(nullable = false, length = 2048)
+    private byte[] vector;
+
+    @Column(nullable = false, length = 15)
+    private String updatedAt;
+
+    public void update(byte[] vector, Integer modelVersion, String updatedAt) {
+        this.vector = vector;
+        this.modelVersion = modelVersion;
+        this.updatedAt = updatedAt;
+    }
+}
@@ -0,0 +1,58 @@
+package com.c202.diary.util.coordinate.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+// 전체 사용자 재배치 작업의 진행 위치
+// 사용자 ID 순으로 처리하므로 마지막으로 끝낸 사용자 ID만 있으면 재시작 후 이어서 처리할 수 있습니다.
+@Entity
+@Table(name = "relayout_checkpoint")
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RelayoutCheckpoint {
+
+    // 작업 종류 (ALL: 전체 재배치, MISSING_COORDINATES: 좌표가 빈 일기가 있는 사용자만)
+    @Id
+    @Column(length = 30)
+    private String mode;
+
+    // 마지막으로 처리를 끝낸 사용자 ID (0이면 처음부터)
+    @Column(nullable = false)
+    private Integer lastUserSeq;
+
+    @Column(nullable = false)
+    private Long processedUsers;
+
+    @Column(nullable = false)
+    private Long processedDiaries;
+
+    @Column(nullable = false)
+    private Long failedUsers;
+
+    // RUNNING, STOPPED, COMPLETED
+    @Column(nullable = false, length = 10)
+    private String status;
+
+    @Column(nullable = false, length = 15)
+    private String startedAt;
+
+    @Column(nullable = false, length = 15)
+    private String updatedAt;
+
+    public void advance(Integer userSeq, long diaryCount, boolean failed, String updatedAt) {
+        this.lastUserSeq = userSeq;
+        this.processedUsers++;
+        this.processedDiaries += diaryCount;
+        if (failed) {
+            this.failedUsers++;
+        }
+        this.updatedAt = updatedAt;
+    }
+
+    public void updateStatus(String status, String updatedAt) {
+        this.status = status;
+        this.updatedAt = updatedAt;
+    }
+}
@@ -0,0 +1,107 @@
+package com.c202.diary.util.coordinate.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+// 재배치 단계별 실행 시간과 처리량 기록
+// 단계마다 diary.relayout.phase 타이머(operation, phase, emotion 태그)와 JFR 이벤트를 함께 남깁니다.
+// 감정별 단계는 작업 스레드에서 실행되므로 JFR 이벤트도 실제로 일한 스레드에 기록됩니다.
+@Component
+@RequiredArgsConstructor
+public class RelayoutMetrics {
+
+    public static final String OPERATION_RESET = "reset";
+    public static final String OPERATION_PLACE = "place";
+
+    // 감정과 관계없는 단계의 emotion 태그 값
+    public static final String ALL_EMOTIONS = "all";
+    private static final String NO_EMOTION = "none";
+
+    private final MeterRegistry meterRegistry;
+
+    // 단계 하나를 실행하고 시간을 기록합니다.
+    // @param items 결과로 처리량을 구하는 함수 (null이면 0)
+    public <T> T phase(String operation, RelayoutPhase phase, Integer userSeq, String emotion,
+                       ToIntFunction<T> items, Supplier<T> work) {
+        RelayoutPhaseEvent event = new RelayoutPhaseEvent();
+        event.begin();
+        long startedAt = System.nanoTime();
+        T result = null;
+        try {
+            result = work.get();
+            return result;
+        } finally {
+            long elapsed = System.nanoTime() - startedAt;
+            Timer.builder("diary.relayout.phase")
+                    .description("재배치 단계별 실행 시간")
+                    .tag("operation", operation)
+                    .tag("phase", phase.tagValue())
+                    .tag("emotion", emotion)
+                    .register(meterRegistry)
+                    .record(elapsed, TimeUnit.NANOSECONDS);
+
+            event.end();
+            if (event.shouldCommit()) {
+                event.operation = operation;
+                event.phase = phase.tagValue();
+                event.userSeq = userSeq == null ? -1 : userSeq;
+                event.emotion = emotion;
+                event.items = result == null || items == null ? 0 : items.applyAsInt(result);
+                event.commit();
+            }
+        }
+    }
+
+    public void phase(String operation, RelayoutPhase phase, Integer userSeq, String emotion, Runnable work) {
+        phase(operation, phase, userSeq, emotion, null, () -> {
+            work.run();
+            return Boolean.TRUE;
+        });
+    }
+
+    // 감정 하나의 재배치 규모 (일기 수, 만든 클러스터 수, 만든 연결 수)
+    public void recordEmotion(String emotion, int diaries, int clusters, int edges) {
+        summary("diary.relayout.emotion.diaries", "감정별 재배치 일기 수", emotion).record(diaries);
+        summary("diary.relayout.emotion.clusters", "감정별로 만든 별자리 클러스터 수", emotion).record(clusters);
+        summary("diary.relayout.emotion.edges", "감정별로 만든 연결선 수", emotion).record(edges);
+    }
+
+    // 저장한 행 수 (table: constellation, diary, diary_connection)
+    public void recordRowsWritten(String table, int rows) {
+        DistributionSummary.builder("diary.relayout.rows.written")
+                .description("재배치 한 번에 저장한 행 수")
+                .tag("table", table)
+                .register(meterRegistry)
+                .record(rows);
+    }
+
+    // emotion 태그 값 (감정 조회 없이 쓸 수 있도록 감정 시퀀스를 그대로 사용)
+    public static String emotionTag(Integer emotionSeq) {
+        return emotionSeq == null ? NO_EMOTION : String.valueOf(emotionSeq);
+    }
+
+    // 연결 맵의 연결선 수 (양방향이 모두 들어 있으므로 목록 길이 합의 절반)
+    public static int edgeCount(Map<Integer, List<Integer>> connections) {
+        int ends = 0;
+        for (List<Integer> connected : connections.values()) {
+            ends += connected.size();
+        }
+        return ends / 2;
+    }
+
+    private DistributionSummary summary(String name, String description, String emotion) {
+        return DistributionSummary.builder(name)
+                .description(description)
+                .tag("emotion", emotion)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,29 @@
+package com.c202.diary.util.coordinate.metrics;
+
+// 재배치 단계 (메트릭 태그와 JFR 이벤트에 쓰는 이름)
+public enum RelayoutPhase {
+    // 일기 조회와 기존 별자리 소속 초기화
+    LOAD("load"),
+    // 태그 일괄 조회
+    TAG_FETCH("tag-fetch"),
+    // 태그 유사도 클러스터링 (작은 클러스터 병합 포함)
+    CLUSTERING("clustering"),
+    // 별자리 배치 계산
+    LAYOUT("layout"),
+    // 별자리 연결 관계 생성
+    CONNECTIONS("connections"),
+    // 감정별 결과 합치기
+    MERGE("merge"),
+    // 별자리·일기·연결선 저장
+    SAVE("save");
+
+    private final String tagValue;
+
+    RelayoutPhase(String tagValue) {
+        this.tagValue = tagValue;
+    }
+
+    public String tagValue() {
+        return tagValue;
+    }
+}
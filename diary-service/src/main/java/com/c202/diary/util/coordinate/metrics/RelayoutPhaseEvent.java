@@ -0,0 +1,39 @@
+package com.c202.diary.util.coordinate.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * 재배치 단계 하나의 JFR 이벤트
+ * 상시 JFR 기록(jdk.jfr 설정에서 com.c202.diary.RelayoutPhase 활성화)으로 느린 재배치의 시간이
+ * 어느 단계·감정에서 쓰였는지, 같은 구간의 GC·락 이벤트와 함께 볼 수 있습니다.
+ * 기록이 꺼져 있으면 begin/commit은 거의 비용이 없습니다.
+ */
+@Name("com.c202.diary.RelayoutPhase")
+@Label("Relayout Phase")
+@Category({"Diary", "Relayout"})
+@Description("우주 재배치 단계별 실행 구간")
+@StackTrace(false)
+public class RelayoutPhaseEvent extends Event {
+
+    @Label("Operation")
+    @Description("reset: 전체 재배치, place: 단일 일기 좌표 생성")
+    String operation;
+
+    @Label("Phase")
+    String phase;
+
+    @Label("User")
+    int userSeq;
+
+    @Label("Emotion")
+    String emotion;
+
+    @Label("Items")
+    @Description("단계가 처리한 항목 수 (일기·클러스터·연결·저장 행)")
+    int items;
+}
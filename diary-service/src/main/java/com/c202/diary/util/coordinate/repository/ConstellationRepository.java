@@ -0,0 +1,25 @@
+package com.c202.diary.util.coordinate.repository;
+
+import com.c202.diary.util.coordinate.entity.Constellation;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ConstellationRepository extends JpaRepository<Constellation, Integer> {
+
+    List<Constellation> findByUserSeqAndEmotionSeq(Integer userSeq, Integer emotionSeq);
+
+    // 별자리 행을 잠그고 조회 (같은 별자리에 동시에 배정할 때 슬롯이 겹치지 않도록, 트랜잭션 안에서 사용)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM Constellation c WHERE c.constellationSeq = :constellationSeq")
+    Optional<Constellation> findByIdForUpdate(@Param("constellationSeq") Integer constellationSeq);
+
+    void deleteByUserSeq(Integer userSeq);
+}
@@ -0,0 +1,51 @@
+package com.c202.diary.util.coordinate.repository;
+
+import com.c202.diary.util.coordinate.entity.DiaryConnection;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+
+@Repository
+public interface DiaryConnectionRepository extends JpaRepository<DiaryConnection, Integer> {
+
+    List<DiaryConnection> findByUserSeq(Integer userSeq);
+
+    List<DiaryConnection> findByDiarySeq(Integer diarySeq);
+
+    // 연결을 한 방향(diarySeq < connectedDiarySeq)으로만 커서 조회 (스트리밍 응답용)
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE))
+    @Query("SELECT c.diarySeq AS diarySeq, c.connectedDiarySeq AS connectedDiarySeq FROM DiaryConnection c " +
+            "WHERE c.userSeq = :userSeq AND c.diarySeq < c.connectedDiarySeq ORDER BY c.diarySeq")
+    Stream<EdgeView> streamEdgesByUserSeq(Integer userSeq);
+
+    interface EdgeView {
+        Integer getDiarySeq();
+
+        Integer getConnectedDiarySeq();
+    }
+
+    boolean existsByUserSeq(Integer userSeq);
+
+    @Modifying
+    @Query("DELETE FROM DiaryConnection c WHERE c.userSeq = :userSeq")
+    void deleteByUserSeq(Integer userSeq);
+
+    // 일기가 한쪽 끝인 연결을 모두 삭제
+    @Modifying
+    @Query("DELETE FROM DiaryConnection c WHERE c.diarySeq = :diarySeq OR c.connectedDiarySeq = :diarySeq")
+    void deleteTouching(Integer diarySeq);
+
+    // 주어진 일기들 사이의 연결만 삭제 (별자리 내부 연결 교체용)
+    @Modifying
+    @Query("DELETE FROM DiaryConnection c WHERE c.diarySeq IN :diarySeqs AND c.connectedDiarySeq IN :diarySeqs")
+    void deleteAmong(Collection<Integer> diarySeqs);
+}
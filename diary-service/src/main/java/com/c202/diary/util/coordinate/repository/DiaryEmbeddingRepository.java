@@ -0,0 +1,14 @@
+package com.c202.diary.util.coordinate.repository;
+
+import com.c202.diary.util.coordinate.entity.DiaryEmbedding;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface DiaryEmbeddingRepository extends JpaRepository<DiaryEmbedding, Integer> {
+
+    // 삭제 처리 전에 남은 벡터가 있을 수 있으므로 호출하는 쪽에서 살아 있는 일기만 골라 씁니다.
+    List<DiaryEmbedding> findByUserSeq(Integer userSeq);
+}
@@ -0,0 +1,13 @@
+package com.c202.diary.util.coordinate.repository;
+
+import com.c202.diary.util.coordinate.entity.RelayoutCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface RelayoutCheckpointRepository extends JpaRepository<RelayoutCheckpoint, String> {
+
+    List<RelayoutCheckpoint> findByStatus(String status);
+}
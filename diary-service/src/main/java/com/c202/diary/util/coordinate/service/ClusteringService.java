@@ -1,71 +1,98 @@
 package com.c202.diary.util.coordinate.service;
 
 import com.c202.diary.emotion.entity.Emotion;
-import com.c202.diary.tag.entity.DiaryTag;
-import com.c202.diary.tag.repository.DiaryTagRepository;
+import com.c202.diary.tag.service.DiaryTagService;
 import com.c202.diary.util.coordinate.model.ClusterDto;
+import com.c202.diary.util.coordinate.similarity.TagCandidateGraph;
+import com.c202.diary.util.coordinate.similarity.TagSetTable;
+import com.c202.diary.util.coordinate.similarity.TagSimilarity;
 import com.c202.diary.diary.entity.Diary;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class ClusteringService {
 
-    private final DiaryTagRepository diaryTagRepository;
+    private final DiaryTagService diaryTagService;
     private static final double CLUSTER_SIMILARITY_THRESHOLD = 0.3;
 
+    @Transactional(readOnly = true)
     public List<ClusterDto> formClusters(List<Diary> diaries, List<String> newDiaryTags) {
         if (diaries.isEmpty()) {
             return new ArrayList<>();
         }
+        TagSetTable tagSets = TagSetTable.of(diaryTagService.preloadTags(diaries));
+        int[] newTags = diaryTagService.resolveTagSeqs(newDiaryTags);
         List<ClusterDto> clusters = new ArrayList<>();
-        Set<Integer> assignedDiaries = new HashSet<>();
 
-        for (Diary diary : diaries) {
-            if (assignedDiaries.contains(diary.getDiarySeq())) {
-                continue;
-            }
-            ClusterDto cluster = new ClusterDto();
-            cluster.getDiaries().add(diary);
+        int n = diaries.size();
+        int[] setIds = new int[n];
+        for (int i = 0; i < n; i++) {
+            setIds[i] = tagSets.setIdOf(diaries.get(i));
+        }
 
-            List<String> diaryTags = getDiaryTags(diary);
+        // 유사도가 임계값 이상인 일기는 태그를 공유하므로 후보 그래프의 이웃만 확인하면 됨
+        TagCandidateGraph graph = TagCandidateGraph.build(tagSets, setIds);
+        int[][] neighbors = graph.neighborsAtLeast(CLUSTER_SIMILARITY_THRESHOLD);
+        int[] groupOf = new int[n];
+        Arrays.fill(groupOf, -1);
+        for (int group = 0; group < graph.groupCount(); group++) {
+            for (int member : graph.membersOf(group)) {
+                groupOf[member] = group;
+            }
+        }
 
-            for (Diary otherDiary : diaries) {
-                if (otherDiary.getDiarySeq().equals(diary.getDiarySeq()) ||
-                        assignedDiaries.contains(otherDiary.getDiarySeq())) {
-                    continue;
-                }
-                List<String> otherTags = getDiaryTags(otherDiary);
-                double similarity = calculateTagSimilarity(diaryTags, otherTags);
-                if (similarity >= CLUSTER_SIMILARITY_THRESHOLD) {
-                    cluster.getDiaries().add(otherDiary);
-                    assignedDiaries.add(otherDiary.getDiarySeq());
+        boolean[] assigned = new boolean[n];
+        for (int i = 0; i < n; i++) {
+            if (assigned[i]) {
+                continue;
+            }
+            assigned[i] = true;
+
+            // 기준 일기와 태그 집합이 같은 일기(유사도 1.0)와 임계값 이상인 이웃 그룹의 일기를 모음
+            List<Integer> members = new ArrayList<>();
+            int group = groupOf[i];
+            if (group >= 0) {
+                collectUnassigned(graph.membersOf(group), assigned, members);
+                for (int neighbor : neighbors[group]) {
+                    collectUnassigned(graph.membersOf(neighbor), assigned, members);
                 }
             }
+            Collections.sort(members);
+
+            ClusterDto cluster = new ClusterDto();
+            cluster.getDiaries().add(diaries.get(i));
+            for (int member : members) {
+                cluster.getDiaries().add(diaries.get(member));
+            }
 
             calculateClusterCenter(cluster);
 
             // 새 일기와의 유사도 계산 (클러스터의 전체 태그 집합으로)
-            cluster.setSimilarityToNewDiary(
-                    calculateTagSimilarity(
-                            cluster.getDiaries().stream()
-                                    .flatMap(d -> getDiaryTags(d).stream())
-                                    .distinct()
-                                    .collect(Collectors.toList()),
-                            newDiaryTags
-                    )
-            );
+            int[] clusterTags = TagSimilarity.EMPTY;
+            for (Diary member : cluster.getDiaries()) {
+                clusterTags = TagSimilarity.union(clusterTags, tagSets.tagsOf(member));
+            }
+            cluster.setSimilarityToNewDiary(calculateTagSimilarity(clusterTags, newTags));
 
             clusters.add(cluster);
-            assignedDiaries.add(diary.getDiarySeq());
         }
         return clusters;
     }
 
+    private static void collectUnassigned(int[] nodes, boolean[] assigned, List<Integer> out) {
+        for (int node : nodes) {
+            if (!assigned[node]) {
+                assigned[node] = true;
+                out.add(node);
+            }
+        }
+    }
+
     public void calculateClusterCenter(ClusterDto cluster) {
         double sumX = 0, sumY = 0, sumZ = 0;
         int count = 0;
@@ -107,20 +134,10 @@ public class ClusteringService {
 
     // 공개 메서드로 노트의 태그와 유사도 계산 기능 제공
     public List<String> getDiaryTags(Diary diary) {
-        List<DiaryTag> diaryTags = diaryTagRepository.findByDiary(diary);
-        return diaryTags.stream()
-                .map(diaryTag -> diaryTag.getTag().getName())
-                .collect(Collectors.toList());
+        return diaryTagService.getTagNames(diary);
     }
 
-    public double calculateTagSimilarity(List<String> tags1, List<String> tags2) {
-        if (tags1.isEmpty() || tags2.isEmpty()) {
-            return 0.0;
-        }
-        Set<String> union = new HashSet<>(tags1);
-        union.addAll(tags2);
-        Set<String> intersection = new HashSet<>(tags1);
-        intersection.retainAll(tags2);
-        return (double) intersection.size() / union.size();
+    public double calculateTagSimilarity(int[] tags1, int[] tags2) {
+        return TagSimilarity.jaccard(tags1, tags2);
     }
 }
@@ -0,0 +1,502 @@
+package com.c202.diary.util.coordinate.service;
+
+import com.c202.diary.diary.entity.Diary;
+import com.c202.diary.diary.repository.DiaryRepository;
+import com.c202.diary.emotion.entity.Emotion;
+import com.c202.diary.emotion.repository.EmotionRepository;
+import com.c202.diary.galaxy.service.GalaxyTileService;
+import com.c202.diary.tag.service.DiaryTagService;
+import com.c202.diary.util.coordinate.entity.Constellation;
+import com.c202.diary.util.coordinate.model.CoordinateDto;
+import com.c202.diary.util.coordinate.repository.ConstellationRepository;
+import com.c202.diary.util.coordinate.similarity.TagSetTable;
+import com.c202.diary.util.coordinate.similarity.TagSimilarity;
+import com.c202.diary.util.coordinate.spatial.SpatialIndexService;
+import com.c202.diary.util.coordinate.spatial.StarSlotService;
+import com.c202.exception.types.NotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.stream.Collectors;
+
+// 별자리 소속(별자리 ID, 슬롯, 템플릿 크기)을 저장해 두고 일기 단위로 증분 배치하는 서비스
+// 일기 생성/수정/삭제 시 해당 일기가 속한 별자리만 갱신합니다.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ConstellationAssignmentService {
+
+    private final ConstellationRepository constellationRepository;
+    private final DiaryRepository diaryRepository;
+    private final EmotionRepository emotionRepository;
+    private final DiaryTagService diaryTagService;
+    private final ConstellationLayoutService layoutService;
+    private final ConstellationLayoutCache layoutCache;
+    private final SpatialIndexService spatialIndexService;
+    private final StarSlotService starSlotService;
+    private final GalaxyTileService galaxyTileService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // 기존 별자리에 합류하기 위한 태그 유사도 기준 (전체 재배치 클러스터링 기준과 동일)
+    private static final double ASSIGN_SIMILARITY_THRESHOLD = 0.3;
+
+    private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMdd HHmmss");
+
+    // 일기를 가장 가까운 별자리의 빈 슬롯에 배치합니다.
+    // 이미 같은 감정의 별자리에 속해 있고 태그가 여전히 어울리면 자리를 유지합니다.
+    // @param diary 저장된 일기
+    // @param emotionSeq 배치할 감정 시퀀스
+    // @param diaryTags 일기의 정렬된 태그 ID 배열
+    // @return 배정된 좌표
+    @Transactional
+    public CoordinateDto assign(Diary diary, Integer emotionSeq, int[] diaryTags) {
+        Emotion emotion = emotionRepository.findById(emotionSeq)
+                .orElseThrow(() -> new NotFoundException("감정을 찾을 수 없습니다 (seq: " + emotionSeq + ")"));
+        String now = LocalDateTime.now().format(DATE_TIME_FORMATTER);
+
+        // 1. 현재 별자리에 그대로 남을 수 있는지 확인
+        if (diary.getConstellationSeq() != null) {
+            Constellation current = constellationRepository.findByIdForUpdate(diary.getConstellationSeq())
+                    .orElse(null);
+            if (current != null && current.getEmotionSeq().equals(emotionSeq) && diary.getSlotIndex() != null
+                    && diary.getSlotIndex() < layoutService.slotCount(current.getTemplateSize())) {
+                int[] otherTags = unionTags(findMembers(current, diary));
+                if (otherTags.length == 0 || TagSimilarity.jaccard(otherTags, diaryTags) >= ASSIGN_SIMILARITY_THRESHOLD) {
+                    current.updateTags(TagSimilarity.union(otherTags, diaryTags), now);
+                    return placeInSlot(diary, current, emotion);
+                }
+            }
+            release(diary);
+        }
+
+        // 2. 태그가 가장 비슷한 별자리 선택 (없으면 새 별자리 생성)
+        List<Constellation> constellations =
+                constellationRepository.findByUserSeqAndEmotionSeq(diary.getUserSeq(), emotionSeq);
+        Constellation target = selectConstellation(constellations, diaryTags);
+        boolean similarFound = target != null
+                && TagSimilarity.jaccard(target.getTagSeqArray(), diaryTags) >= ASSIGN_SIMILARITY_THRESHOLD;
+        List<Diary> members = Collections.emptyList();
+        int slotIndex = -1;
+        if (target != null) {
+            // 같은 별자리에 동시에 배정되지 않도록 행을 잠근 뒤 실제 구성원으로 빈 슬롯을 찾음
+            // (memberCount는 비정규화된 값이라 실제 구성원 수와 어긋날 수 있음)
+            target = constellationRepository.findByIdForUpdate(target.getConstellationSeq()).orElse(null);
+        }
+        if (target != null) {
+            // 3. 빈 슬롯 배정 (삭제로 비워진 슬롯부터 재사용)
+            members = findMembers(target, diary);
+            slotIndex = findFreeSlot(members, target.getTemplateSize());
+            if (slotIndex < 0 && canGrow(target, members)) {
+                // 슬롯이 모두 찼으면 템플릿을 한 단계 키우고 이 별자리만 다시 배치
+                growConstellation(target, emotion, members, now);
+                slotIndex = findFreeSlot(members, target.getTemplateSize());
+            }
+        }
+        if (slotIndex < 0) {
+            // 합류할 별자리가 없거나 최대 크기까지 찼으면 새 별자리를 만듦
+            target = createConstellation(diary.getUserSeq(), emotion, constellations, now);
+            members = Collections.emptyList();
+            slotIndex = 0;
+        }
+        if (!similarFound && !constellations.isEmpty()) {
+            // 어울리는 별자리가 없어 작은 별자리를 채우거나 새로 만든 경우에만 나중에 전체를 다시 묶음
+            eventPublisher.publishEvent(new RelayoutNeededEvent(diary.getUserSeq(), "no similar constellation"));
+        }
+
+        diary.assignConstellation(target.getConstellationSeq(), slotIndex);
+        target.updateMemberCount(members.size() + 1, now);
+        target.updateTags(TagSimilarity.union(target.getTagSeqArray(), diaryTags), now);
+
+        log.info("별자리 배정: diary={}, constellation={}, slot={}/{}",
+                diary.getDiarySeq(), target.getConstellationSeq(), slotIndex, target.getTemplateSize());
+
+        return placeInSlot(diary, target, emotion);
+    }
+
+    // assign과 같은 규칙으로 일기가 배정될 좌표만 계산합니다.
+    // 행을 잠그거나 별자리·일기·인덱스를 바꾸지 않으므로 섀도 실행처럼 결과만 비교할 때 사용합니다.
+    // @param diary 일기 (diarySeq, userSeq만 있어도 됨)
+    // @param emotionSeq 배치할 감정 시퀀스
+    // @param diaryTags 일기의 정렬된 태그 ID 배열
+    // @return 배정될 좌표
+    @Transactional(readOnly = true)
+    public CoordinateDto plan(Diary diary, Integer emotionSeq, int[] diaryTags) {
+        Emotion emotion = emotionRepository.findById(emotionSeq)
+                .orElseThrow(() -> new NotFoundException("감정을 찾을 수 없습니다 (seq: " + emotionSeq + ")"));
+
+        // 1. 현재 별자리에 그대로 남을 수 있는지 확인
+        if (diary.getConstellationSeq() != null) {
+            Constellation current = constellationRepository.findById(diary.getConstellationSeq()).orElse(null);
+            if (current != null && current.getEmotionSeq().equals(emotionSeq) && diary.getSlotIndex() != null
+                    && diary.getSlotIndex() < layoutService.slotCount(current.getTemplateSize())) {
+                int[] otherTags = unionTags(findMembers(current, diary));
+                if (otherTags.length == 0 || TagSimilarity.jaccard(otherTags, diaryTags) >= ASSIGN_SIMILARITY_THRESHOLD) {
+                    return coordinatesOf(slotPositions(current, emotion), diary.getSlotIndex(), emotion);
+                }
+            }
+        }
+
+        // 2. 태그가 가장 비슷한 별자리의 빈 슬롯 (다 찼으면 한 단계 키운 템플릿의 슬롯)
+        List<Constellation> constellations =
+                constellationRepository.findByUserSeqAndEmotionSeq(diary.getUserSeq(), emotionSeq);
+        Constellation target = selectConstellation(constellations, diaryTags);
+        if (target != null) {
+            List<Diary> members = findMembers(target, diary);
+            int slotIndex = findFreeSlot(members, target.getTemplateSize());
+            if (slotIndex >= 0) {
+                return coordinatesOf(slotPositions(target, emotion), slotIndex, emotion);
+            }
+            if (canGrow(target, members)) {
+                int templateSize = target.getTemplateSize() + 1;
+                slotIndex = findFreeSlot(members, templateSize);
+                if (slotIndex >= 0) {
+                    double[] positions = slotPositions(emotion, templateSize,
+                            target.getCenterX(), target.getCenterY(), target.getCenterZ(),
+                            layoutService.constellationScale(emotion, templateSize));
+                    return coordinatesOf(positions, slotIndex, emotion);
+                }
+            }
+        }
+
+        // 3. 새 별자리의 첫 슬롯
+        double[] center = newConstellationCenter(diary.getUserSeq(), emotion, constellations);
+        int templateSize = ConstellationLayoutService.MIN_DIARIES_PER_CONSTELLATION;
+        double[] positions = slotPositions(emotion, templateSize, center[0], center[1], center[2],
+                layoutService.constellationScale(emotion, templateSize));
+        return coordinatesOf(positions, 0, emotion);
+    }
+
+    // 일기가 차지하던 슬롯을 비웁니다.
+    // 별자리에 남은 일기가 없으면 별자리를 삭제합니다.
+    // @param diary 일기
+    @Transactional
+    public void release(Diary diary) {
+        Integer constellationSeq = diary.getConstellationSeq();
+        if (constellationSeq == null) {
+            return;
+        }
+        diary.releaseConstellation();
+
+        constellationRepository.findByIdForUpdate(constellationSeq).ifPresent(constellation -> {
+            List<Diary> remaining = findMembers(constellation, diary);
+            if (remaining.isEmpty()) {
+                constellationRepository.delete(constellation);
+                return;
+            }
+
+            String now = LocalDateTime.now().format(DATE_TIME_FORMATTER);
+            constellation.updateMemberCount(remaining.size(), now);
+            constellation.updateTags(unionTags(remaining), now);
+            if (remaining.size() < ConstellationLayoutService.MIN_DIARIES_PER_CONSTELLATION) {
+                // 최소 크기보다 작아진 별자리는 나중에 전체 재배치로 다른 별자리와 합침
+                eventPublisher.publishEvent(
+                        new RelayoutNeededEvent(constellation.getUserSeq(), "constellation below minimum"));
+            }
+        });
+    }
+
+    // 전체 재배치로 만들어진 별자리 그룹을 저장하고 좌표를 적용합니다.
+    // 기존 별자리 정리는 호출하는 쪽에서 처리합니다.
+    // @param userSeq 사용자 시퀀스
+    // @param emotion 감정 엔티티
+    // @param constellationGroups 별자리 그룹 목록 (그룹당 최대 7개)
+    // @param tagSets 태그 집합 테이블
+    @Transactional
+    public void saveConstellationGroups(Integer userSeq, Emotion emotion,
+                                        List<List<Diary>> constellationGroups, TagSetTable tagSets) {
+        savePlannedConstellations(userSeq, planConstellations(userSeq, emotion, constellationGroups, tagSets));
+    }
+
+    // 재배치 그룹의 별자리 배치를 계산합니다. (DB를 사용하지 않으므로 감정별로 다른 스레드에서 호출해도 됨)
+    // 슬롯은 일기 ID 순서로 배정하고, 배치는 (감정, 구성 일기, 템플릿 크기)로 캐시하므로
+    // 구성이 바뀌지 않은 별자리는 다른 그룹이 늘거나 줄어도 다시 재배치했을 때 같은 좌표가 됩니다.
+    // 같은 감정의 별자리끼리는 중심이 최소 거리 이상 떨어지도록, 캐시된 배치 중 겹치지 않는 것을 먼저 놓고
+    // 나머지는 이미 놓인 중심들을 피해 새로 계산합니다.
+    // @param tagSets 이 감정의 일기들만 담은 태그 집합 테이블 (스레드 간에 공유하지 않음)
+    public List<PlannedConstellation> planConstellations(Integer userSeq, Emotion emotion,
+                                                         List<List<Diary>> constellationGroups, TagSetTable tagSets) {
+        int groupCount = constellationGroups.size();
+        List<List<Diary>> groups = new ArrayList<>(groupCount);
+        long[] keys = new long[groupCount];
+        ConstellationLayoutCache.Layout[] layouts = new ConstellationLayoutCache.Layout[groupCount];
+        List<double[]> centers = new ArrayList<>(groupCount);
+
+        // 1. 캐시된 배치 중 이미 놓인 별자리와 겹치지 않는 것은 그대로 사용
+        for (int i = 0; i < groupCount; i++) {
+            List<Diary> group = new ArrayList<>(constellationGroups.get(i));
+            group.sort(Comparator.comparing(Diary::getDiarySeq));
+            groups.add(group);
+            keys[i] = layoutKeyOf(emotion, group, templateSizeOf(group));
+
+            ConstellationLayoutCache.Layout cached = layoutCache.get(keys[i]);
+            if (cached != null && layoutService.isSeparated(
+                    cached.getCenterX(), cached.getCenterY(), cached.getCenterZ(), centers)) {
+                layouts[i] = cached;
+                centers.add(new double[]{cached.getCenterX(), cached.getCenterY(), cached.getCenterZ()});
+            }
+        }
+
+        // 2. 나머지는 놓인 별자리 중심들을 피해 새로 계산
+        for (int i = 0; i < groupCount; i++) {
+            if (layouts[i] != null) {
+                continue;
+            }
+            int templateSize = templateSizeOf(groups.get(i));
+            ConstellationLayoutCache.Layout layout = layoutCache.compute(keys[i],
+                    random -> layoutService.constellationLayout(emotion, templateSize, centers, random));
+            layouts[i] = layout;
+            centers.add(new double[]{layout.getCenterX(), layout.getCenterY(), layout.getCenterZ()});
+        }
+
+        List<PlannedConstellation> planned = new ArrayList<>(groupCount);
+        for (int i = 0; i < groupCount; i++) {
+            List<Diary> group = groups.get(i);
+            int[] groupTags = TagSimilarity.EMPTY;
+            for (Diary diary : group) {
+                groupTags = TagSimilarity.union(groupTags, tagSets.tagsOf(diary));
+            }
+            planned.add(new PlannedConstellation(emotion.getEmotionSeq(), group, templateSizeOf(group),
+                    layouts[i], groupTags));
+        }
+        return planned;
+    }
+
+    // 계산된 별자리들을 한 번에 저장하고 일기에 슬롯과 좌표를 적용합니다.
+    @Transactional
+    public void savePlannedConstellations(Integer userSeq, List<PlannedConstellation> planned) {
+        String now = LocalDateTime.now().format(DATE_TIME_FORMATTER);
+
+        List<Constellation> constellations = new ArrayList<>(planned.size());
+        for (PlannedConstellation plan : planned) {
+            ConstellationLayoutCache.Layout layout = plan.layout;
+            Constellation constellation = Constellation.builder()
+                    .userSeq(userSeq)
+                    .emotionSeq(plan.emotionSeq)
+                    .centerX(layout.getCenterX())
+                    .centerY(layout.getCenterY())
+                    .centerZ(layout.getCenterZ())
+                    .scale(layout.getScale())
+                    .templateSize(plan.templateSize)
+                    .memberCount(plan.members.size())
+                    .tagSeqs("")
+                    .createdAt(now)
+                    .updatedAt(now)
+                    .build();
+            constellation.updateTags(plan.tagSeqs, now);
+            constellations.add(constellation);
+        }
+        constellationRepository.saveAll(constellations);
+
+        for (int i = 0; i < planned.size(); i++) {
+            PlannedConstellation plan = planned.get(i);
+            Integer constellationSeq = constellations.get(i).getConstellationSeq();
+            for (int slot = 0; slot < plan.members.size(); slot++) {
+                Diary diary = plan.members.get(slot);
+                diary.assignConstellation(constellationSeq, slot);
+                diary.setCoordinates(plan.layout.slotX(slot), plan.layout.slotY(slot), plan.layout.slotZ(slot),
+                        plan.emotionSeq);
+            }
+        }
+    }
+
+    // 합류할 별자리를 선택합니다.
+    // 유사한 별자리가 없으면 아직 최소 크기에 못 미친 별자리를 채웁니다.
+    private Constellation selectConstellation(List<Constellation> constellations, int[] diaryTags) {
+        Constellation best = null;
+        double bestSimilarity = -1;
+        Constellation smallest = null;
+
+        for (Constellation constellation : constellations) {
+            int memberCount = constellation.getMemberCount();
+            if (memberCount >= ConstellationLayoutService.MAX_DIARIES_PER_CONSTELLATION) {
+                continue;
+            }
+
+            double similarity = TagSimilarity.jaccard(constellation.getTagSeqArray(), diaryTags);
+            if (similarity > bestSimilarity) {
+                bestSimilarity = similarity;
+                best = constellation;
+            }
+
+            if (memberCount < ConstellationLayoutService.MIN_DIARIES_PER_CONSTELLATION
+                    && (smallest == null || memberCount < smallest.getMemberCount())) {
+                smallest = constellation;
+            }
+        }
+
+        if (best != null && bestSimilarity >= ASSIGN_SIMILARITY_THRESHOLD) {
+            return best;
+        }
+        return smallest;
+    }
+
+    // 기존 별자리와 겹치지 않는 위치에 새 별자리를 만듭니다.
+    private Constellation createConstellation(Integer userSeq, Emotion emotion,
+                                              List<Constellation> existing, String now) {
+        double[] center = newConstellationCenter(userSeq, emotion, existing);
+        int templateSize = ConstellationLayoutService.MIN_DIARIES_PER_CONSTELLATION;
+
+        Constellation constellation = Constellation.builder()
+                .userSeq(userSeq)
+                .emotionSeq(emotion.getEmotionSeq())
+                .centerX(center[0])
+                .centerY(center[1])
+                .centerZ(center[2])
+                .scale(layoutService.constellationScale(emotion, templateSize))
+                .templateSize(templateSize)
+                .memberCount(0)
+                .tagSeqs("")
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+
+        return constellationRepository.save(constellation);
+    }
+
+    // 기존 별자리와 겹치지 않는 새 별자리 중심
+    private double[] newConstellationCenter(Integer userSeq, Emotion emotion, List<Constellation> existing) {
+        List<double[]> centers = existing.stream()
+                .map(c -> new double[]{c.getCenterX(), c.getCenterY(), c.getCenterZ()})
+                .collect(Collectors.toList());
+        // 같은 사용자·감정에서 몇 번째로 만드는 별자리인지로 시드를 정해 배치를 재현할 수 있게 함
+        long seed = ConstellationLayoutCache.seedOf(userSeq, emotion.getEmotionSeq(), existing.size());
+        return layoutService.pickConstellationCenter(emotion, centers, layoutCache.randomFor(seed));
+    }
+
+    // 템플릿을 한 단계 더 키울 수 있는지 (최대 크기 미만이고 실제 구성원도 최대 크기 미만)
+    private boolean canGrow(Constellation constellation, List<Diary> members) {
+        return constellation.getTemplateSize() < ConstellationLayoutService.MAX_DIARIES_PER_CONSTELLATION
+                && members.size() < ConstellationLayoutService.MAX_DIARIES_PER_CONSTELLATION;
+    }
+
+    // 템플릿 크기를 한 단계 키우고 별자리 구성원들의 좌표를 새 템플릿에 맞게 다시 계산합니다.
+    private void growConstellation(Constellation constellation, Emotion emotion, List<Diary> members, String now) {
+        int templateSize = constellation.getTemplateSize() + 1;
+        constellation.resize(templateSize, layoutService.constellationScale(emotion, templateSize), now);
+
+        double[] positions = slotPositions(constellation, emotion);
+        for (Diary member : members) {
+            Integer slot = member.getSlotIndex();
+            if (slot == null || 3 * slot >= positions.length) {
+                continue;
+            }
+            member.setCoordinates(positions[3 * slot], positions[3 * slot + 1], positions[3 * slot + 2],
+                    member.getEmotionSeq());
+            spatialIndexService.onDiaryMoved(member);
+            starSlotService.onDiaryMoved(member);
+            galaxyTileService.onDiaryChanged(member);
+        }
+    }
+
+    // 일기를 배정된 슬롯 좌표에 놓습니다.
+    private CoordinateDto placeInSlot(Diary diary, Constellation constellation, Emotion emotion) {
+        double[] positions = slotPositions(constellation, emotion);
+        int offset = 3 * diary.getSlotIndex();
+        diary.setCoordinates(positions[offset], positions[offset + 1], positions[offset + 2],
+                emotion.getEmotionSeq());
+        spatialIndexService.onDiaryMoved(diary);
+        starSlotService.onDiaryMoved(diary);
+        galaxyTileService.onDiaryChanged(diary);
+        return coordinatesOf(positions, diary.getSlotIndex(), emotion);
+    }
+
+    // 슬롯 좌표 배열에서 한 슬롯의 좌표
+    private static CoordinateDto coordinatesOf(double[] positions, int slotIndex, Emotion emotion) {
+        int offset = 3 * slotIndex;
+        return CoordinateDto.builder()
+                .x(positions[offset])
+                .y(positions[offset + 1])
+                .z(positions[offset + 2])
+                .emotionSeq(emotion.getEmotionSeq())
+                .emotionName(emotion.getName())
+                .build();
+    }
+
+    // 재배치 그룹의 배치 키 (같은 구성이면 같은 키)
+    private static long layoutKeyOf(Emotion emotion, List<Diary> group, int templateSize) {
+        int[] diarySeqs = new int[group.size()];
+        for (int i = 0; i < diarySeqs.length; i++) {
+            diarySeqs[i] = group.get(i).getDiarySeq();
+        }
+        return ConstellationLayoutCache.keyOf(emotion.getEmotionSeq(), diarySeqs, templateSize);
+    }
+
+    private static int templateSizeOf(List<Diary> group) {
+        return Math.max(group.size(), ConstellationLayoutService.MIN_DIARIES_PER_CONSTELLATION);
+    }
+
+    // 슬롯별 좌표를 (x, y, z) 순서로 이어 붙인 배열 (슬롯 i는 3i부터)
+    private double[] slotPositions(Constellation constellation, Emotion emotion) {
+        return slotPositions(emotion, constellation.getTemplateSize(), constellation.getCenterX(),
+                constellation.getCenterY(), constellation.getCenterZ(), constellation.getScale());
+    }
+
+    private double[] slotPositions(Emotion emotion, int templateSize,
+                                   double centerX, double centerY, double centerZ, double scale) {
+        double[] positions = new double[3 * layoutService.slotCount(templateSize)];
+        layoutService.writeSlotPositions(emotion, templateSize, centerX, centerY, centerZ, scale, positions, 0);
+        return positions;
+    }
+
+    // 사용 중이지 않은 가장 작은 슬롯 번호를 찾습니다. (없으면 -1)
+    // 구성원이 이미 최대 크기이면 템플릿에 빈 슬롯이 있어 보여도 -1을 반환합니다.
+    private int findFreeSlot(List<Diary> members, int templateSize) {
+        if (members.size() >= ConstellationLayoutService.MAX_DIARIES_PER_CONSTELLATION) {
+            return -1;
+        }
+        int slotCount = layoutService.slotCount(templateSize);
+        boolean[] used = new boolean[slotCount];
+        for (Diary member : members) {
+            Integer slot = member.getSlotIndex();
+            if (slot != null && slot >= 0 && slot < slotCount) {
+                used[slot] = true;
+            }
+        }
+        for (int slot = 0; slot < slotCount; slot++) {
+            if (!used[slot]) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    // 별자리 구성원 목록 (대상 일기 제외)
+    private List<Diary> findMembers(Constellation constellation, Diary excluded) {
+        return diaryRepository.findByConstellationSeqAndIsDeleted(constellation.getConstellationSeq(), "N").stream()
+                .filter(d -> !d.getDiarySeq().equals(excluded.getDiarySeq()))
+                .collect(Collectors.toList());
+    }
+
+    // 일기들의 태그 ID 합집합
+    private int[] unionTags(List<Diary> diaries) {
+        int[] tags = TagSimilarity.EMPTY;
+        for (int[] diaryTags : diaryTagService.preloadTags(diaries).values()) {
+            tags = TagSimilarity.union(tags, diaryTags);
+        }
+        return tags;
+    }
+
+    // 저장 전 별자리 하나의 배치 결과 (멤버는 슬롯 순서)
+    public static final class PlannedConstellation {
+        private final Integer emotionSeq;
+        private final List<Diary> members;
+        private final int templateSize;
+        private final ConstellationLayoutCache.Layout layout;
+        private final int[] tagSeqs;
+
+        private PlannedConstellation(Integer emotionSeq, List<Diary> members, int templateSize,
+                                     ConstellationLayoutCache.Layout layout, int[] tagSeqs) {
+            this.emotionSeq = emotionSeq;
+            this.members = members;
+            this.templateSize = templateSize;
+            this.layout = layout;
+            this.tagSeqs = tagSeqs;
+        }
+    }
+}
@@ -1,14 +1,13 @@
 package com.c202.diary.util.coordinate.service;
 
 import com.c202.diary.diary.entity.Diary;
-import com.c202.diary.tag.entity.DiaryTag;
-import com.c202.diary.tag.repository.DiaryTagRepository;
+import com.c202.diary.tag.service.DiaryTagService;
+import com.c202.diary.util.coordinate.similarity.TagSetTable;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 // 별자리 연결 관계를 생성하고 최적화하는 서비스
 // 일기 간의 태그 유사도를 기반으로 최적의 연결 관계를 만들어 별자리처럼 보이도록 합니다.
@@ -17,7 +16,7 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class ConstellationConnectionService {
 
-    private final DiaryTagRepository diaryTagRepository;
+    private final DiaryTagService diaryTagService;
 
     // 일기별 최대 연결 수 (시각적으로 복잡해지지 않도록 제한)
     private static final int MAX_CONNECTIONS_PER_DIARY = 2;
@@ -31,6 +30,17 @@ public class ConstellationConnectionService {
      * @return 일기 ID를 키로, 연결된 일기 ID 목록을 값으로 하는 맵
      */
     public Map<Integer, List<Integer>> optimizeConnections(List<Diary> diaries) {
+        // 유사도 계산 전에 태그를 한 번에 조회
+        return optimizeConnections(diaries, TagSetTable.of(diaryTagService.preloadTags(diaries)));
+    }
+
+    /**
+     * 미리 만들어진 태그 집합 테이블로 연결 관계를 생성합니다.
+     * @param diaries 일기 목록
+     * @param tagSets 일기들의 태그 집합 테이블
+     * @return 일기 ID를 키로, 연결된 일기 ID 목록을 값으로 하는 맵
+     */
+    public Map<Integer, List<Integer>> optimizeConnections(List<Diary> diaries, TagSetTable tagSets) {
         Map<Integer, List<Integer>> connections = new HashMap<>();
 
         // 각 일기에 빈 연결 목록 초기화
@@ -44,7 +54,7 @@ public class ConstellationConnectionService {
         }
 
         // 기존 복잡한 연결 대신 단순 연결 구조 적용
-        createSimpleConnections(diaries, connections);
+        createSimpleConnections(diaries, connections, tagSets);
 
         return connections;
     }
@@ -78,6 +88,20 @@ public class ConstellationConnectionService {
         return connections;
     }
 
+    /**
+     * 별자리 하나의 내부 연결 관계를 생성합니다. (증분 배치용)
+     * @param members 슬롯 순서대로 정렬된 별자리 구성원
+     * @return 일기 ID를 키로, 연결된 일기 ID 목록을 값으로 하는 맵
+     */
+    public Map<Integer, List<Integer>> connectConstellation(List<Diary> members) {
+        Map<Integer, List<Integer>> connections = new HashMap<>();
+        for (Diary diary : members) {
+            connections.put(diary.getDiarySeq(), new ArrayList<>());
+        }
+        applyConstellationPattern(members, connections);
+        return connections;
+    }
+
     /**
      * 일기 그룹에 별자리 패턴을 적용합니다.
      * @param diaries 일기 그룹
@@ -190,7 +214,8 @@ public class ConstellationConnectionService {
     /**
      * 간단한 연결 구조를 만듭니다 (일반 목적용)
      */
-    private void createSimpleConnections(List<Diary> diaries, Map<Integer, List<Integer>> connections) {
+    private void createSimpleConnections(List<Diary> diaries, Map<Integer, List<Integer>> connections,
+                                         TagSetTable tagSets) {
         if (diaries.size() <= 3) {
             // 2-3개 일기는 모두 직접 연결
             for (int i = 0; i < diaries.size(); i++) {
@@ -207,7 +232,7 @@ public class ConstellationConnectionService {
         // 각 일기마다 태그 유사도가 가장 높은 1-2개와 연결
         for (int i = 0; i < diaries.size(); i++) {
             Diary current = diaries.get(i);
-            List<String> currentTags = getDiaryTags(current);
+            int currentTagSet = tagSets.setIdOf(current);
 
             // 현재 일기와 다른 일기들 간의 유사도 계산
             List<DiaryConnection> similarities = new ArrayList<>();
@@ -215,8 +240,7 @@ public class ConstellationConnectionService {
                 if (i == j) continue;
 
                 Diary other = diaries.get(j);
-                List<String> otherTags = getDiaryTags(other);
-                double similarity = calculateTagSimilarity(currentTags, otherTags);
+                double similarity = tagSets.similarity(currentTagSet, tagSets.setIdOf(other));
 
                 if (similarity >= MIN_SIMILARITY_THRESHOLD) {
                     similarities.add(new DiaryConnection(
@@ -244,13 +268,15 @@ public class ConstellationConnectionService {
         }
 
         // 모든 일기가 최소 하나의 연결을 가지도록 보장
-        ensureMinimalConnections(diaries, connections);
+        ensureMinimalConnections(diaries, connections, tagSets);
     }
 
     /**
      * 모든 일기가 최소 하나의 연결을 가지도록 보장합니다.
+     * 태그가 겹치는 일기가 없으면 첫 번째 다른 일기와 연결합니다.
      */
-    private void ensureMinimalConnections(List<Diary> diaries, Map<Integer, List<Integer>> connections) {
+    private void ensureMinimalConnections(List<Diary> diaries, Map<Integer, List<Integer>> connections,
+                                         TagSetTable tagSets) {
         for (Diary diary : diaries) {
             int diarySeq = diary.getDiarySeq();
 
@@ -258,12 +284,12 @@ public class ConstellationConnectionService {
             if (connections.get(diarySeq).isEmpty()) {
                 // 가장 가까운(태그 유사도 기준) 다른 일기 찾기
                 Diary closestDiary = null;
-                double highestSimilarity = 0;
+                double highestSimilarity = -1;
 
                 for (Diary other : diaries) {
                     if (other.getDiarySeq().equals(diarySeq)) continue;
 
-                    double similarity = calculateDiarySimilarity(diary, other);
+                    double similarity = tagSets.similarity(diary, other);
                     if (similarity > highestSimilarity) {
                         highestSimilarity = similarity;
                         closestDiary = other;
@@ -302,47 +328,6 @@ public class ConstellationConnectionService {
         }
     }
 
-    /**
-     * 두 일기 간의 유사도를 계산합니다. (태그 기반)
-     */
-    private double calculateDiarySimilarity(Diary diary1, Diary diary2) {
-        List<String> tags1 = getDiaryTags(diary1);
-        List<String> tags2 = getDiaryTags(diary2);
-
-        return calculateTagSimilarity(tags1, tags2);
-    }
-
-    /**
-     * 일기의 태그 목록을 조회합니다.
-     */
-    private List<String> getDiaryTags(Diary diary) {
-        List<DiaryTag> diaryTags = diaryTagRepository.findByDiary(diary);
-        return diaryTags.stream()
-                .map(diaryTag -> diaryTag.getTag().getName())
-                .collect(Collectors.toList());
-    }
-
-    /**
-     * 두 태그 목록 간의 자카드 유사도를 계산합니다.
-     */
-    private double calculateTagSimilarity(List<String> tags1, List<String> tags2) {
-        if (tags1.isEmpty() && tags2.isEmpty()) {
-            return 0.0;
-        }
-
-        if (tags1.isEmpty() || tags2.isEmpty()) {
-            return 0.1;
-        }
-
-        Set<String> union = new HashSet<>(tags1);
-        union.addAll(tags2);
-
-        Set<String> intersection = new HashSet<>(tags1);
-        intersection.retainAll(tags2);
-
-        return (double) intersection.size() / union.size();
-    }
-
     /**
      * 내부 클래스: 두 일기 간의 연결 정보
      */
@@ -0,0 +1,156 @@
+package com.c202.diary.util.coordinate.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+
+/**
+ * 결정적 별자리 배치와 그 결과의 메모이제이션
+ * 결정적 모드에서는 난수 시드를 (감정, 정렬된 일기 ID, 템플릿 크기·버전)의 해시에서 만들므로
+ * 같은 입력은 항상 같은 좌표가 되고, 그 결과를 같은 해시를 키로 캐시합니다.
+ * 결정적 모드를 끄면 매번 새 난수를 쓰고 캐시하지 않습니다.
+ */
+@Component
+public class ConstellationLayoutCache {
+
+    private final boolean deterministic;
+
+    // 배치 키 → 배치 결과, 오래 쓰지 않은 키부터 제거
+    private final Map<Long, Layout> layouts;
+
+    public ConstellationLayoutCache(@Value("${diary.layout.deterministic:true}") boolean deterministic,
+                                    @Value("${diary.layout.cache-size:10000}") int maxEntries) {
+        this.deterministic = deterministic;
+        this.layouts = Collections.synchronizedMap(
+                new LinkedHashMap<Long, Layout>(16, 0.75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<Long, Layout> eldest) {
+                        return size() > maxEntries;
+                    }
+                });
+    }
+
+    public boolean isDeterministic() {
+        return deterministic;
+    }
+
+    /**
+     * 키에 캐시된 배치를 반환합니다. (없거나 결정적 모드가 아니면 null)
+     */
+    public Layout get(long key) {
+        return deterministic ? layouts.get(key) : null;
+    }
+
+    /**
+     * 키에서 만든 난수로 배치를 새로 계산해 저장합니다. (캐시된 배치를 쓸 수 없을 때)
+     * @param key keyOf로 만든 배치 키
+     * @param compute 난수 생성기를 받아 배치를 계산하는 함수
+     */
+    public Layout compute(long key, Function<Random, Layout> compute) {
+        if (!deterministic) {
+            return compute.apply(ThreadLocalRandom.current());
+        }
+        Layout layout = compute.apply(new Random(key));
+        layouts.put(key, layout);
+        return layout;
+    }
+
+    /**
+     * 키에서 만든 난수 생성기를 반환합니다. (결정적 모드가 아니면 스레드별 난수)
+     * 캐시할 필요 없이 재현만 되면 되는 배치에 사용합니다.
+     */
+    public Random randomFor(long key) {
+        return deterministic ? new Random(key) : ThreadLocalRandom.current();
+    }
+
+    /**
+     * 별자리 배치 키를 만듭니다.
+     * 구성 일기와 템플릿 크기만으로 정해지므로 재배치에서 그룹 순서나 그룹 수가 바뀌어도 같은 키가 됩니다.
+     * @param emotionSeq 감정 시퀀스
+     * @param diarySeqs 별자리 구성 일기 ID (순서와 무관하게 같은 키가 되도록 정렬해서 사용)
+     * @param templateSize 템플릿 크기
+     */
+    public static long keyOf(int emotionSeq, int[] diarySeqs, int templateSize) {
+        int[] sorted = diarySeqs.clone();
+        Arrays.sort(sorted);
+
+        long hash = mix(ConstellationTemplates.VERSION);
+        hash = mix(hash ^ emotionSeq);
+        hash = mix(hash ^ templateSize);
+        hash = mix(hash ^ sorted.length);
+        for (int diarySeq : sorted) {
+            hash = mix(hash ^ diarySeq);
+        }
+        return hash;
+    }
+
+    /**
+     * 구성 일기가 아직 없는 배치(새 별자리 중심 등)에 쓸 시드를 만듭니다.
+     * @param userSeq 사용자 시퀀스
+     * @param emotionSeq 감정 시퀀스
+     * @param ordinal 같은 사용자·감정에서의 순번
+     */
+    public static long seedOf(int userSeq, int emotionSeq, int ordinal) {
+        long hash = mix(ConstellationTemplates.VERSION);
+        hash = mix(hash ^ userSeq);
+        hash = mix(hash ^ emotionSeq);
+        return mix(hash ^ ordinal);
+    }
+
+    // splitmix64 마무리 함수
+    private static long mix(long z) {
+        z += 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * 별자리 하나의 배치 결과 (읽기 전용으로 사용)
+     */
+    public static final class Layout {
+        private final double centerX, centerY, centerZ;
+        private final double scale;
+        // 슬롯별 좌표 (x, y, z 순서, 슬롯 i는 3i부터)
+        private final double[] slots;
+
+        public Layout(double centerX, double centerY, double centerZ, double scale, double[] slots) {
+            this.centerX = centerX;
+            this.centerY = centerY;
+            this.centerZ = centerZ;
+            this.scale = scale;
+            this.slots = slots;
+        }
+
+        public double getCenterX() {
+            return centerX;
+        }
+
+        public double getCenterY() {
+            return centerY;
+        }
+
+        public double getCenterZ() {
+            return centerZ;
+        }
+
+        public double getScale() {
+            return scale;
+        }
+
+        public double slotX(int slot) {
+            return slots[3 * slot];
+        }
+
+        public double slotY(int slot) {
+            return slots[3 * slot + 1];
+        }
+
+        public double slotZ(int slot) {
+            return slots[3 * slot + 2];
+        }
+    }
+}
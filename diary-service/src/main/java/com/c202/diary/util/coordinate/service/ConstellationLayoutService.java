@@ -9,6 +9,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * 별자리 형태의 일기 좌표 배치를 담당하는 서비스
@@ -25,13 +26,16 @@ public class ConstellationLayoutService {
     private static final double BASE_SCALE = 30.0;
 
     // 별자리 간 최소 거리
-    private static final double MIN_CONSTELLATION_DISTANCE = 15.0;
+    static final double MIN_CONSTELLATION_DISTANCE = 15.0;
 
     // 클러스터별 최대 일기 수 (이보다 많으면 여러 별자리로 분할)
-    private static final int MAX_DIARIES_PER_CONSTELLATION = 7;
+    static final int MAX_DIARIES_PER_CONSTELLATION = 7;
 
     // 클러스터별 최소 일기 수 (이보다 적으면 특별한 패턴 적용)
-    private static final int MIN_DIARIES_PER_CONSTELLATION = 3;
+    static final int MIN_DIARIES_PER_CONSTELLATION = 3;
+
+    // 새 별자리 중심을 찾을 때 시도할 최대 횟수
+    private static final int CENTER_PLACEMENT_ATTEMPTS = 30;
 
     /**
      * 감정에 맞는 별자리 좌표 템플릿을 생성합니다.
@@ -42,12 +46,10 @@ public class ConstellationLayoutService {
     public double[][] generateConstellationLayout(Emotion emotion, List<Diary> diaries) {
         int count = diaries.size();
 
-        // 일기 수에 따라 적절한 템플릿 선택
-        double[][] templatePositions = selectConstellationTemplate(emotion.getName(), count);
-
-        // 템플릿 좌표를 감정 영역에 맞게 스케일링 및 위치 조정
-        return adjustTemplateToCenterAndRadius(
-                templatePositions,
+        // 일기 수에 맞는 템플릿을 감정 영역에 맞게 스케일링 및 위치 조정
+        return placeTemplate(
+                emotion.getName(),
+                count,
                 emotion.getBaseX(),
                 emotion.getBaseY(),
                 emotion.getBaseZ(),
@@ -56,173 +58,170 @@ public class ConstellationLayoutService {
     }
 
     /**
-     * 여러 그룹의 일기들에 대한 별자리 좌표를 생성합니다.
-     * 감정 영역 내에 여러 개의 별자리를 배치합니다.
+     * 별자리 템플릿 크기에 맞는 스케일을 계산합니다.
      * @param emotion 감정 엔티티
-     * @param constellationGroups 별자리 그룹 목록 (각 그룹은 하나의 별자리를 형성)
-     * @return 그룹별 좌표 배열 맵
+     * @param templateSize 템플릿 슬롯 수
+     * @return 별자리 스케일
      */
-    public Map<Integer, double[][]> generateMultipleConstellations(
-            Emotion emotion,
-            List<List<Diary>> constellationGroups) {
-
-        Map<Integer, double[][]> constellationCoordinates = new HashMap<>();
-        int groupCount = constellationGroups.size();
-
-        // 감정 영역 내에 그룹 수만큼 중심점 배치
-        double[][] centerPoints = distributePointsInSphere(
-                emotion.getBaseX(),
-                emotion.getBaseY(),
-                emotion.getBaseZ(),
-                emotion.getBaseRadius() * 0.7,  // 영역 반경의 70%까지 사용
-                groupCount
+    public double constellationScale(Emotion emotion, int templateSize) {
+        return Math.min(
+                emotion.getBaseRadius() * 0.3,
+                BASE_SCALE * Math.log10(templateSize + 1)
         );
-
-        // 각 그룹별로 별자리 좌표 생성
-        for (int i = 0; i < groupCount; i++) {
-            List<Diary> group = constellationGroups.get(i);
-            double[] centerPoint = centerPoints[i];
-
-            // 개별 별자리의 크기는 그룹 크기에 비례하되 일정 범위 내로 제한
-            double constellationScale = Math.min(
-                    emotion.getBaseRadius() * 0.3,  // 최대 크기
-                    BASE_SCALE * Math.log10(group.size() + 1)  // 로그 스케일로 크기 조정
-            );
-
-            // 별자리 템플릿 선택 및 좌표 생성
-            double[][] templatePositions = selectConstellationTemplate(emotion.getName(), group.size());
-            double[][] adjustedPositions = adjustTemplateToCenterAndRadius(
-                    templatePositions,
-                    centerPoint[0],
-                    centerPoint[1],
-                    centerPoint[2],
-                    constellationScale
-            );
-
-            // 그룹 내 첫 번째 일기의 ID를 키로 사용
-            int groupKey = group.get(0).getDiarySeq();
-            constellationCoordinates.put(groupKey, adjustedPositions);
-        }
-
-        return constellationCoordinates;
     }
 
     /**
-     * 감정 이름과 일기 수에 따라 적절한 별자리 템플릿을 선택합니다.
-     * @param emotionName 감정 이름
-     * @param count 일기 수
-     * @return 선택된 템플릿 좌표 배열
+     * 저장된 별자리의 슬롯별 좌표를 생성합니다.
+     * 슬롯 i의 좌표는 템플릿의 i번째 점입니다.
+     * @param emotion 감정 엔티티
+     * @param templateSize 템플릿 슬롯 수
+     * @param centerX 별자리 중심 X 좌표
+     * @param centerY 별자리 중심 Y 좌표
+     * @param centerZ 별자리 중심 Z 좌표
+     * @param scale 별자리 스케일
+     * @return 슬롯별 좌표 배열
      */
-    private double[][] selectConstellationTemplate(String emotionName, int count) {
-        // 일기 수가 정해진 범위를 벗어나면 조정
-        count = Math.min(Math.max(count, MIN_DIARIES_PER_CONSTELLATION), MAX_DIARIES_PER_CONSTELLATION);
+    public double[][] generateSlotPositions(
+            Emotion emotion,
+            int templateSize,
+            double centerX,
+            double centerY,
+            double centerZ,
+            double scale) {
 
-        // 감정별로 특색 있는 템플릿 선택
-        switch (emotionName) {
-            case "행복":
-                return count <= 5 ? pentagonTemplate(count) : crownTemplate(count);
-            case "슬픔":
-                return count <= 4 ? tearsTemplate(count) : riverTemplate(count);
-            case "분노":
-                return count <= 5 ? spikeTemplate(count) : explosionTemplate(count);
-            case "불안":
-                return count <= 4 ? zigzagTemplate(count) : spiralTemplate(count);
-            case "평화":
-                return count <= 5 ? circleTemplate(count) : balanceTemplate(count);
-            case "희망":
-                return count <= 4 ? arrowTemplate(count) : riseTemplate(count);
-            case "공포":
-                return count <= 5 ? scatterTemplate(count) : chaosTemplate(count);
-            default:
-                // 기본값으로 삼각형이나 원형 사용
-                return count <= 4 ? triangleTemplate(count) : circleTemplate(count);
-        }
+        return placeTemplate(emotion.getName(), templateSize, centerX, centerY, centerZ, scale);
     }
 
     /**
-     * 템플릿 좌표를 중심점과 반경에 맞게 조정합니다.
-     * @param template 원본 템플릿 좌표
-     * @param centerX 중심 X 좌표
-     * @param centerY 중심 Y 좌표
-     * @param centerZ 중심 Z 좌표
-     * @param radius 반경
-     * @return 조정된 좌표 배열
+     * 저장된 별자리의 슬롯별 좌표를 out에 (x, y, z) 순서로 씁니다.
+     * 슬롯 i의 좌표는 out[offset + 3i .. offset + 3i + 2]입니다.
+     * @param out 좌표를 쓸 배열 (offset부터 3 * slotCount(templateSize)칸 필요)
      */
-    private double[][] adjustTemplateToCenterAndRadius(
-            double[][] template,
+    public void writeSlotPositions(
+            Emotion emotion,
+            int templateSize,
             double centerX,
             double centerY,
             double centerZ,
-            double radius) {
+            double scale,
+            double[] out,
+            int offset) {
 
-        int count = template.length;
-        double[][] adjusted = new double[count][3];
-
-        // 템플릿의 최대 거리 계산 (정규화를 위해)
-        double maxDistance = 0;
-        for (double[] point : template) {
-            double distance = Math.sqrt(point[0] * point[0] + point[1] * point[1] + point[2] * point[2]);
-            maxDistance = Math.max(maxDistance, distance);
-        }
+        ConstellationTemplates.place(ConstellationTemplates.templateOf(emotion.getName()),
+                ConstellationTemplates.clampCount(templateSize), centerX, centerY, centerZ, scale, out, offset);
+    }
 
-        // 템플릿을 지정된 반경 내로 스케일링하고 중심으로 이동
-        for (int i = 0; i < count; i++) {
-            double scale = radius / Math.max(maxDistance, 1);
-            adjusted[i][0] = centerX + template[i][0] * scale;
-            adjusted[i][1] = centerY + template[i][1] * scale;
-            adjusted[i][2] = centerZ + template[i][2] * scale;
-        }
+    /**
+     * 템플릿 크기에 대해 실제로 좌표가 있는 슬롯 수를 반환합니다. (3~7개)
+     */
+    public int slotCount(int templateSize) {
+        return ConstellationTemplates.clampCount(templateSize);
+    }
 
-        return adjusted;
+    /**
+     * 별자리 하나의 중심·스케일·슬롯 좌표를 계산합니다.
+     * 중심은 이미 놓인 별자리들과 최소 거리 이상 떨어진 임의 위치로 고릅니다. (pickConstellationCenter)
+     * @param emotion 감정 엔티티
+     * @param templateSize 템플릿 크기
+     * @param existingCenters 같은 감정 영역에 이미 놓인 별자리 중심점 목록
+     * @param random 난수 생성기 (시드와 기존 중심점이 같으면 같은 배치)
+     * @return 배치 결과
+     */
+    public ConstellationLayoutCache.Layout constellationLayout(Emotion emotion, int templateSize,
+                                                               List<double[]> existingCenters, Random random) {
+        double[] center = pickConstellationCenter(emotion, existingCenters, random);
+        double scale = constellationScale(emotion, templateSize);
+        double[] slots = new double[3 * slotCount(templateSize)];
+        writeSlotPositions(emotion, templateSize, center[0], center[1], center[2], scale, slots, 0);
+        return new ConstellationLayoutCache.Layout(center[0], center[1], center[2], scale, slots);
     }
 
     /**
-     * 구 내부에 균등하게 분포된 점들을 생성합니다.
-     * 별자리 중심점 배치에 사용됩니다.
-     * @param centerX 구의 중심 X 좌표
-     * @param centerY 구의 중심 Y 좌표
-     * @param centerZ 구의 중심 Z 좌표
-     * @param radius 구의 반경
-     * @param count 생성할 점의 개수
-     * @return 생성된 점들의 좌표 배열
+     * 기존 별자리와 겹치지 않는 새 별자리 중심점을 찾습니다.
+     * 최소 거리를 만족하는 위치가 없으면 가장 멀리 떨어진 후보를 사용합니다.
+     * @param emotion 감정 엔티티
+     * @param existingCenters 기존 별자리 중심점 목록
+     * @return 새 중심점 좌표
      */
-    private double[][] distributePointsInSphere(
-            double centerX,
-            double centerY,
-            double centerZ,
-            double radius,
-            int count) {
+    public double[] pickConstellationCenter(Emotion emotion, List<double[]> existingCenters) {
+        return pickConstellationCenter(emotion, existingCenters, ThreadLocalRandom.current());
+    }
 
-        if (count == 1) {
-            // 한 개만 필요하면 중앙에 배치
-            return new double[][]{{centerX, centerY, centerZ}};
+    /**
+     * pickConstellationCenter와 같지만 후보 위치에 쓸 난수를 호출하는 쪽에서 넘깁니다.
+     * @param random 난수 생성기 (시드가 같으면 같은 중심점)
+     */
+    public double[] pickConstellationCenter(Emotion emotion, List<double[]> existingCenters, Random random) {
+        if (existingCenters.isEmpty()) {
+            return new double[]{emotion.getBaseX(), emotion.getBaseY(), emotion.getBaseZ()};
         }
 
-        double[][] points = new double[count][3];
-        Random random = new Random();
+        double radius = emotion.getBaseRadius() * 0.7;
+        double[] bestCenter = null;
+        double bestDistance = -1;
 
-        // 피보나치 나선 알고리즘으로 구 표면에 균등하게 점 분포
-        double goldenRatio = (1 + Math.sqrt(5)) / 2;
+        for (int attempt = 0; attempt < CENTER_PLACEMENT_ATTEMPTS; attempt++) {
+            double[] candidate = randomPointInSphere(emotion, radius, random);
 
-        for (int i = 0; i < count; i++) {
-            double t = (double) i / count;
-            double inclination = Math.acos(1 - 2 * t);
-            double azimuth = 2 * Math.PI * i / goldenRatio;
+            double nearest = nearestDistance(candidate[0], candidate[1], candidate[2], existingCenters);
+            if (nearest >= MIN_CONSTELLATION_DISTANCE) {
+                return candidate;
+            }
+            if (nearest > bestDistance) {
+                bestDistance = nearest;
+                bestCenter = candidate;
+            }
+        }
 
-            // 구면 좌표를 3D 직교 좌표로 변환
-            double x = Math.sin(inclination) * Math.cos(azimuth);
-            double y = Math.sin(inclination) * Math.sin(azimuth);
-            double z = Math.cos(inclination);
+        return bestCenter;
+    }
 
-            // 반경 내 랜덤한 깊이로 조정 (표면이 아닌 내부에도 배치)
-            double depth = 0.3 + 0.7 * random.nextDouble(); // 30%~100% 깊이
+    /**
+     * 중심점이 기존 별자리들과 최소 거리 이상 떨어져 있는지 확인합니다.
+     * @param existingCenters 기존 별자리 중심점 목록
+     */
+    public boolean isSeparated(double centerX, double centerY, double centerZ, List<double[]> existingCenters) {
+        return nearestDistance(centerX, centerY, centerZ, existingCenters) >= MIN_CONSTELLATION_DISTANCE;
+    }
 
-            points[i][0] = centerX + radius * x * depth;
-            points[i][1] = centerY + radius * y * depth;
-            points[i][2] = centerZ + radius * z * depth;
+    // 가장 가까운 기존 중심점까지의 거리 (기존 중심점이 없으면 Double.MAX_VALUE)
+    private static double nearestDistance(double x, double y, double z, List<double[]> centers) {
+        double nearest = Double.MAX_VALUE;
+        for (double[] center : centers) {
+            double dx = x - center[0];
+            double dy = y - center[1];
+            double dz = z - center[2];
+            nearest = Math.min(nearest, Math.sqrt(dx * dx + dy * dy + dz * dz));
         }
+        return nearest;
+    }
 
-        return points;
+    /**
+     * 감정에 맞는 템플릿을 중심점과 반경에 맞게 배치합니다.
+     * 미리 정규화해 둔 템플릿에 스케일과 이동만 적용하므로 결과 배열 외에는 할당하지 않습니다.
+     * @param emotionName 감정 이름
+     * @param count 일기 수 (3~7개 범위로 조정됨)
+     * @return 배치된 좌표 배열
+     */
+    private double[][] placeTemplate(String emotionName, int count,
+                                     double centerX, double centerY, double centerZ, double radius) {
+        int templateCount = ConstellationTemplates.clampCount(count);
+        double[][] positions = new double[templateCount][3];
+        ConstellationTemplates.place(ConstellationTemplates.templateOf(emotionName), templateCount,
+                centerX, centerY, centerZ, radius, positions);
+        return positions;
+    }
+
+    // 감정 영역 중심에서 radius 안의 균등한 임의 점
+    private static double[] randomPointInSphere(Emotion emotion, double radius, Random random) {
+        double r = radius * Math.cbrt(random.nextDouble());
+        double theta = 2 * Math.PI * random.nextDouble();
+        double phi = Math.acos(2 * random.nextDouble() - 1);
+        return new double[]{
+                emotion.getBaseX() + r * Math.sin(phi) * Math.cos(theta),
+                emotion.getBaseY() + r * Math.sin(phi) * Math.sin(theta),
+                emotion.getBaseZ() + r * Math.cos(phi)
+        };
     }
 
     /**
@@ -244,326 +243,4 @@ public class ConstellationLayoutService {
         return emotionRepository.findById(emotionSeq)
                 .orElseThrow(() -> new NotFoundException("존재하지 않는 감정입니다 (seq: " + emotionSeq + ")"));
     }
-
-    /*
-     * 여기부터는 다양한 별자리 템플릿 정의
-     * 각 템플릿은 원점(0,0,0)을 중심으로 정규화된 좌표 반환
-     * 이후 실제 위치와 크기에 맞게 변환됨
-     */
-
-    // 1. 삼각형 템플릿 (3-4개 일기)
-    private double[][] triangleTemplate(int count) {
-        double[][] template = new double[count][3];
-
-        // 기본 삼각형 위치
-        template[0] = new double[]{0, 0, 0};       // 중심
-        template[1] = new double[]{1, 0, 0};       // 우측
-        template[2] = new double[]{-0.5, 0.866, 0}; // 좌측 상단
-
-        if (count >= 4) {
-            template[3] = new double[]{-0.5, -0.866, 0}; // 좌측 하단
-        }
-
-        return template;
-    }
-
-    // 2. 원형 템플릿 (5-7개 일기)
-    private double[][] circleTemplate(int count) {
-        double[][] template = new double[count][3];
-
-        // 중심점
-        template[0] = new double[]{0, 0, 0};
-
-        // 원형으로 배치
-        for (int i = 1; i < count; i++) {
-            double angle = 2 * Math.PI * (i - 1) / (count - 1);
-            template[i] = new double[]{
-                    Math.cos(angle),
-                    Math.sin(angle),
-                    0
-            };
-        }
-
-        return template;
-    }
-
-    // 3. 오각형 템플릿 (행복 감정용, 5개 이하)
-    private double[][] pentagonTemplate(int count) {
-        double[][] template = new double[count][3];
-
-        // 중심점
-        template[0] = new double[]{0, 0, 0};
-
-        // 나머지 점들을 정오각형 꼭지점에 배치
-        int placed = 1;
-        for (int i = 0; i < 5 && placed < count; i++) {
-            double angle = 2 * Math.PI * i / 5;
-            template[placed++] = new double[]{
-                    Math.cos(angle),
-                    Math.sin(angle),
-                    0
-            };
-        }
-
-        return template;
-    }
-
-    // 4. 왕관 템플릿 (행복 감정용, 6-7개)
-    private double[][] crownTemplate(int count) {
-        double[][] template = new double[count][3];
-
-        // 중심점
-        template[0] = new double[]{0, 0, 0};
-
-        // 아래 라인 (반원)
-        for (int i = 1; i <= 3; i++) {
-            double angle = Math.PI * (i - 1) / 2;
-            template[i] = new double[]{
-                    Math.cos(angle),
-                    -0.5,
-                    Math.sin(angle) * 0.3
-            };
-        }
-
-        // 위쪽 포인트 (왕관 모양)
-        for (int i = 4; i < count; i++) {
-            int idx = i - 4;
-            double angle = Math.PI * idx / (count - 4);
-            template[i] = new double[]{
-                    Math.cos(angle) * 0.8,
-                    0.8,
-                    Math.sin(angle) * 0.2
-            };
-        }
-
-        return template;
-    }
-
-    // 5. 눈물 템플릿 (슬픔 감정용, 4개 이하)
-    private double[][] tearsTemplate(int count) {
-        double[][] template = new double[count][3];
-
-        // 기본 눈물 모양
-        template[0] = new double[]{0, 0, 0};      // 상단
-        template[1] = new double[]{-0.3, -0.5, 0}; // 좌측
-
-        if (count >= 3) {
-            template[2] = new double[]{0.3, -0.5, 0}; // 우측
-        }
-
-        if (count >= 4) {
-            template[3] = new double[]{0, -1, 0};    // 하단
-        }
-
-        return template;
-    }
-
-    // 6. 강 템플릿 (슬픔 감정용, 5-7개)
-    private double[][] riverTemplate(int count) {
-        double[][] template = new double[count][3];
-
-        // 곡선 형태의 강 모양
-        for (int i = 0; i < count; i++) {
-            double t = (double) i / (count - 1);
-            // 사인 곡선으로 흐르는 강 형태
-            template[i] = new double[]{
-                    t * 2 - 1,
-                    Math.sin(t * Math.PI) * 0.5,
-                    Math.cos(t * Math.PI * 2) * 0.2
-            };
-        }
-
-        return template;
-    }
-
-    // 7. 뾰족한 템플릿 (분노 감정용, 5개 이하)
-    private double[][] spikeTemplate(int count) {
-        double[][] template = new double[count][3];
-
-        // 중앙점
-        template[0] = new double[]{0, 0, 0};
-
-        // 방사형으로 뻗은 뾰족한 점들
-        for (int i = 1; i < count; i++) {
-            double angle = 2 * Math.PI * (i - 1) / (count - 1);
-            double length = 0.8 + 0.4 * Math.random(); // 불규칙한 길이
-            template[i] = new double[]{
-                    Math.cos(angle) * length,
-                    Math.sin(angle) * length,
-                    (Math.random() - 0.5) * 0.3 // Z축 변화
-            };
-        }
-
-        return template;
-    }
-
-    // 8. 폭발 템플릿 (분노 감정용, 6-7개)
-    private double[][] explosionTemplate(int count) {
-        double[][] template = new double[count][3];
-
-        // 중앙점
-        template[0] = new double[]{0, 0, 0};
-
-        // 불규칙한 폭발 형태
-        for (int i = 1; i < count; i++) {
-            double phi = Math.acos(2 * Math.random() - 1); // 균등 분포 각도
-            double theta = 2 * Math.PI * Math.random();
-            double r = 0.5 + 0.5 * Math.random(); // 다양한 거리
-
-            template[i] = new double[]{
-                    r * Math.sin(phi) * Math.cos(theta),
-                    r * Math.sin(phi) * Math.sin(theta),
-                    r * Math.cos(phi)
-            };
-        }
-
-        return template;
-    }
-
-    // 9. 지그재그 템플릿 (불안 감정용, 4개 이하)
-    private double[][] zigzagTemplate(int count) {
-        double[][] template = new double[count][3];
-
-        // 지그재그 패턴
-        for (int i = 0; i < count; i++) {
-            double t = (double) i / (count - 1);
-            template[i] = new double[]{
-                    t * 2 - 1,
-                    (i % 2 == 0) ? 0.5 : -0.5,
-                    0
-            };
-        }
-
-        return template;
-    }
-
-    // 10. 나선형 템플릿 (불안 감정용, 5-7개)
-    private double[][] spiralTemplate(int count) {
-        double[][] template = new double[count][3];
-
-        // 나선형 패턴
-        for (int i = 0; i < count; i++) {
-            double t = (double) i / (count - 1);
-            double radius = t * 0.8;
-            double angle = t * 4 * Math.PI;
-
-            template[i] = new double[]{
-                    radius * Math.cos(angle),
-                    radius * Math.sin(angle),
-                    t * 0.5 - 0.25
-            };
-        }
-
-        return template;
-    }
-
-    // 11. 화살표 템플릿 (희망 감정용, 4개 이하)
-    private double[][] arrowTemplate(int count) {
-        double[][] template = new double[count][3];
-
-        // 화살표 형태
-        template[0] = new double[]{0, 1, 0};   // 화살촉
-        template[1] = new double[]{0, 0, 0};   // 중앙
-
-        if (count >= 3) {
-            template[2] = new double[]{-0.5, 0.5, 0}; // 좌측 날개
-        }
-
-        if (count >= 4) {
-            template[3] = new double[]{0.5, 0.5, 0};  // 우측 날개
-        }
-
-        return template;
-    }
-
-    // 12. 상승 템플릿 (희망 감정용, 5-7개)
-    private double[][] riseTemplate(int count) {
-        double[][] template = new double[count][3];
-
-        // 상승 곡선
-        for (int i = 0; i < count; i++) {
-            double t = (double) i / (count - 1);
-            template[i] = new double[]{
-                    t * 2 - 1,
-                    t * t,
-                    (i % 2 == 0) ? 0.2 : -0.2
-            };
-        }
-
-        return template;
-    }
-
-    // 13. 균형 템플릿 (평화 감정용, 6-7개)
-    private double[][] balanceTemplate(int count) {
-        double[][] template = new double[count][3];
-
-        // 균형 있는 형태 (음양)
-        template[0] = new double[]{0, 0, 0}; // 중앙
-
-        int half = (count - 1) / 2;
-
-        // 윗부분 곡선
-        for (int i = 1; i <= half; i++) {
-            double t = (double) (i - 1) / half;
-            template[i] = new double[]{
-                    Math.cos(t * Math.PI) * 0.5,
-                    0.5,
-                    Math.sin(t * Math.PI) * 0.3
-            };
-        }
-
-        // 아랫부분 곡선
-        for (int i = half + 1; i < count; i++) {
-            double t = (double) (i - half - 1) / (count - half - 1);
-            template[i] = new double[]{
-                    -Math.cos(t * Math.PI) * 0.5,
-                    -0.5,
-                    -Math.sin(t * Math.PI) * 0.3
-            };
-        }
-
-        return template;
-    }
-
-    // 14. 흩어진 템플릿 (공포 감정용, 5개 이하)
-    private double[][] scatterTemplate(int count) {
-        double[][] template = new double[count][3];
-
-        // 중앙에 하나, 나머지는 비규칙적으로 흩어짐
-        template[0] = new double[]{0, 0, 0};
-
-        Random random = new Random(42); // 일관된 결과를 위한 시드값
-        for (int i = 1; i < count; i++) {
-            // 비교적 넓게 퍼진 형태
-            template[i] = new double[]{
-                    (random.nextDouble() - 0.5) * 2,
-                    (random.nextDouble() - 0.5) * 2,
-                    (random.nextDouble() - 0.5) * 0.5
-            };
-        }
-
-        return template;
-    }
-
-    // 15. 혼돈 템플릿 (공포 감정용, 6-7개)
-    private double[][] chaosTemplate(int count) {
-        double[][] template = new double[count][3];
-
-        // 불규칙한 3D 구조
-        Random random = new Random(43); // 일관된 결과를 위한 시드값
-        for (int i = 0; i < count; i++) {
-            // 3D 공간에 불규칙하게 분포
-            double phi = Math.acos(2 * random.nextDouble() - 1);
-            double theta = 2 * Math.PI * random.nextDouble();
-            double r = 0.2 + 0.8 * random.nextDouble();
-
-            template[i] = new double[]{
-                    r * Math.sin(phi) * Math.cos(theta),
-                    r * Math.sin(phi) * Math.sin(theta),
-                    r * Math.cos(phi)
-            };
-        }
-
-        return template;
-    }
-}
\ No newline at end of file
+}
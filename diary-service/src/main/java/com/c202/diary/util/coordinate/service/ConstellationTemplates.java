@@ -0,0 +1,457 @@
+package com.c202.diary.util.coordinate.service;
+
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * 감정별·크기별 별자리 템플릿을 미리 계산해 둔 읽기 전용 테이블
+ * 템플릿은 원점을 중심으로 가장 먼 점까지의 거리가 1 이하가 되도록 정규화해 평탄한 배열 하나에 (x, y, z) 순서로 담습니다.
+ * 감정 7개(+ 기본) × 크기 3~7개 = 40개뿐이므로 클래스 로딩 시 한 번만 만들고, 이후 배치는 스케일·이동만 합니다.
+ */
+final class ConstellationTemplates {
+
+    // 템플릿 모양이 바뀌면 올림 (ConstellationLayoutCache의 배치 키에 포함되어 이전 배치를 무효화)
+    static final int VERSION = 1;
+
+    private static final int MIN_COUNT = ConstellationLayoutService.MIN_DIARIES_PER_CONSTELLATION;
+    private static final int MAX_COUNT = ConstellationLayoutService.MAX_DIARIES_PER_CONSTELLATION;
+    private static final int COUNT_RANGE = MAX_COUNT - MIN_COUNT + 1;
+
+    // 감정 이름 → 템플릿 번호 (목록에 없는 감정은 DEFAULT_TEMPLATE)
+    private static final Map<String, Integer> TEMPLATE_BY_EMOTION = Map.of(
+            "행복", 0, "슬픔", 1, "분노", 2, "불안", 3, "평화", 4, "희망", 5, "공포", 6);
+    private static final int DEFAULT_TEMPLATE = 7;
+    private static final int TEMPLATE_COUNT = 8;
+
+    // (템플릿 번호, 크기)별 시작 위치 → 정규화된 좌표
+    private static final int[] OFFSETS = new int[TEMPLATE_COUNT * COUNT_RANGE];
+    private static final double[] POINTS;
+
+    static {
+        int size = 0;
+        for (int template = 0; template < TEMPLATE_COUNT; template++) {
+            for (int count = MIN_COUNT; count <= MAX_COUNT; count++) {
+                OFFSETS[slot(template, count)] = size;
+                size += 3 * count;
+            }
+        }
+        POINTS = new double[size];
+        for (int template = 0; template < TEMPLATE_COUNT; template++) {
+            for (int count = MIN_COUNT; count <= MAX_COUNT; count++) {
+                normalizeInto(build(template, count), POINTS, OFFSETS[slot(template, count)]);
+            }
+        }
+    }
+
+    private ConstellationTemplates() {
+    }
+
+    /**
+     * 감정 이름에 맞는 템플릿 번호를 반환합니다.
+     */
+    static int templateOf(String emotionName) {
+        return emotionName != null ? TEMPLATE_BY_EMOTION.getOrDefault(emotionName, DEFAULT_TEMPLATE) : DEFAULT_TEMPLATE;
+    }
+
+    /**
+     * 일기 수를 템플릿 크기 범위(3~7)로 맞춥니다.
+     */
+    static int clampCount(int count) {
+        return Math.min(Math.max(count, MIN_COUNT), MAX_COUNT);
+    }
+
+    /**
+     * 정규화된 템플릿을 반경만큼 늘리고 중심으로 옮겨 out에 (x, y, z) 순서로 씁니다.
+     * @param count 템플릿 크기 (clampCount를 거친 값)
+     * @param out 좌표를 쓸 배열 (offset부터 3 * count칸 필요)
+     */
+    static void place(int template, int count, double centerX, double centerY, double centerZ, double radius,
+                      double[] out, int offset) {
+        int from = OFFSETS[slot(template, count)];
+        for (int i = 0; i < 3 * count; i += 3) {
+            out[offset + i] = centerX + POINTS[from + i] * radius;
+            out[offset + i + 1] = centerY + POINTS[from + i + 1] * radius;
+            out[offset + i + 2] = centerZ + POINTS[from + i + 2] * radius;
+        }
+    }
+
+    /**
+     * place와 같지만 결과를 점마다 [x, y, z] 배열로 씁니다.
+     * @param out 길이가 count 이상이고 각 원소가 길이 3 이상인 배열
+     */
+    static void place(int template, int count, double centerX, double centerY, double centerZ, double radius,
+                      double[][] out) {
+        int from = OFFSETS[slot(template, count)];
+        for (int i = 0; i < count; i++) {
+            double[] point = out[i];
+            point[0] = centerX + POINTS[from + 3 * i] * radius;
+            point[1] = centerY + POINTS[from + 3 * i + 1] * radius;
+            point[2] = centerZ + POINTS[from + 3 * i + 2] * radius;
+        }
+    }
+
+    private static int slot(int template, int count) {
+        return template * COUNT_RANGE + (count - MIN_COUNT);
+    }
+
+    // 가장 먼 점까지의 거리(최소 1)로 나눠 반경 1 안에 들어오게 함
+    private static void normalizeInto(double[][] template, double[] out, int offset) {
+        double maxDistance = 0;
+        for (double[] point : template) {
+            maxDistance = Math.max(maxDistance,
+                    Math.sqrt(point[0] * point[0] + point[1] * point[1] + point[2] * point[2]));
+        }
+        double scale = 1.0 / Math.max(maxDistance, 1);
+        for (int i = 0; i < template.length; i++) {
+            out[offset + 3 * i] = template[i][0] * scale;
+            out[offset + 3 * i + 1] = template[i][1] * scale;
+            out[offset + 3 * i + 2] = template[i][2] * scale;
+        }
+    }
+
+    // 감정별로 특색 있는 템플릿 선택
+    private static double[][] build(int template, int count) {
+        switch (template) {
+            case 0: // 행복
+                return count <= 5 ? pentagonTemplate(count) : crownTemplate(count);
+            case 1: // 슬픔
+                return count <= 4 ? tearsTemplate(count) : riverTemplate(count);
+            case 2: // 분노
+                return count <= 5 ? spikeTemplate(count) : explosionTemplate(count);
+            case 3: // 불안
+                return count <= 4 ? zigzagTemplate(count) : spiralTemplate(count);
+            case 4: // 평화
+                return count <= 5 ? circleTemplate(count) : balanceTemplate(count);
+            case 5: // 희망
+                return count <= 4 ? arrowTemplate(count) : riseTemplate(count);
+            case 6: // 공포
+                return count <= 5 ? scatterTemplate(count) : chaosTemplate(count);
+            default:
+                // 기본값으로 삼각형이나 원형 사용
+                return count <= 4 ? triangleTemplate(count) : circleTemplate(count);
+        }
+    }
+
+    /*
+     * 여기부터는 다양한 별자리 템플릿 정의
+     * 각 템플릿은 원점(0,0,0)을 중심으로 한 좌표 반환 (정규화는 normalizeInto에서)
+     */
+
+    // 1. 삼각형 템플릿 (3-4개 일기)
+    private static double[][] triangleTemplate(int count) {
+        double[][] template = new double[count][3];
+
+        // 기본 삼각형 위치
+        template[0] = new double[]{0, 0, 0};       // 중심
+        template[1] = new double[]{1, 0, 0};       // 우측
+        template[2] = new double[]{-0.5, 0.866, 0}; // 좌측 상단
+
+        if (count >= 4) {
+            template[3] = new double[]{-0.5, -0.866, 0}; // 좌측 하단
+        }
+
+        return template;
+    }
+
+    // 2. 원형 템플릿 (5-7개 일기)
+    private static double[][] circleTemplate(int count) {
+        double[][] template = new double[count][3];
+
+        // 중심점
+        template[0] = new double[]{0, 0, 0};
+
+        // 원형으로 배치
+        for (int i = 1; i < count; i++) {
+            double angle = 2 * Math.PI * (i - 1) / (count - 1);
+            template[i] = new double[]{
+                    Math.cos(angle),
+                    Math.sin(angle),
+                    0
+            };
+        }
+
+        return template;
+    }
+
+    // 3. 오각형 템플릿 (행복 감정용, 5개 이하)
+    private static double[][] pentagonTemplate(int count) {
+        double[][] template = new double[count][3];
+
+        // 중심점
+        template[0] = new double[]{0, 0, 0};
+
+        // 나머지 점들을 정오각형 꼭지점에 배치
+        int placed = 1;
+        for (int i = 0; i < 5 && placed < count; i++) {
+            double angle = 2 * Math.PI * i / 5;
+            template[placed++] = new double[]{
+                    Math.cos(angle),
+                    Math.sin(angle),
+                    0
+            };
+        }
+
+        return template;
+    }
+
+    // 4. 왕관 템플릿 (행복 감정용, 6-7개)
+    private static double[][] crownTemplate(int count) {
+        double[][] template = new double[count][3];
+
+        // 중심점
+        template[0] = new double[]{0, 0, 0};
+
+        // 아래 라인 (반원)
+        for (int i = 1; i <= 3; i++) {
+            double angle = Math.PI * (i - 1) / 2;
+            template[i] = new double[]{
+                    Math.cos(angle),
+                    -0.5,
+                    Math.sin(angle) * 0.3
+            };
+        }
+
+        // 위쪽 포인트 (왕관 모양)
+        for (int i = 4; i < count; i++) {
+            int idx = i - 4;
+            double angle = Math.PI * idx / (count - 4);
+            template[i] = new double[]{
+                    Math.cos(angle) * 0.8,
+                    0.8,
+                    Math.sin(angle) * 0.2
+            };
+        }
+
+        return template;
+    }
+
+    // 5. 눈물 템플릿 (슬픔 감정용, 4개 이하)
+    private static double[][] tearsTemplate(int count) {
+        double[][] template = new double[count][3];
+
+        // 기본 눈물 모양
+        template[0] = new double[]{0, 0, 0};      // 상단
+        template[1] = new double[]{-0.3, -0.5, 0}; // 좌측
+
+        if (count >= 3) {
+            template[2] = new double[]{0.3, -0.5, 0}; // 우측
+        }
+
+        if (count >= 4) {
+            template[3] = new double[]{0, -1, 0};    // 하단
+        }
+
+        return template;
+    }
+
+    // 6. 강 템플릿 (슬픔 감정용, 5-7개)
+    private static double[][] riverTemplate(int count) {
+        double[][] template = new double[count][3];
+
+        // 곡선 형태의 강 모양
+        for (int i = 0; i < count; i++) {
+            double t = (double) i / (count - 1);
+            // 사인 곡선으로 흐르는 강 형태
+            template[i] = new double[]{
+                    t * 2 - 1,
+                    Math.sin(t * Math.PI) * 0.5,
+                    Math.cos(t * Math.PI * 2) * 0.2
+            };
+        }
+
+        return template;
+    }
+
+    // 7. 뾰족한 템플릿 (분노 감정용, 5개 이하)
+    private static double[][] spikeTemplate(int count) {
+        double[][] template = new double[count][3];
+
+        // 중앙점
+        template[0] = new double[]{0, 0, 0};
+
+        // 방사형으로 뻗은 뾰족한 점들
+        Random random = new Random(44); // 슬롯 좌표가 호출마다 바뀌지 않도록 시드 고정
+        for (int i = 1; i < count; i++) {
+            double angle = 2 * Math.PI * (i - 1) / (count - 1);
+            double length = 0.8 + 0.4 * random.nextDouble(); // 불규칙한 길이
+            template[i] = new double[]{
+                    Math.cos(angle) * length,
+                    Math.sin(angle) * length,
+                    (random.nextDouble() - 0.5) * 0.3 // Z축 변화
+            };
+        }
+
+        return template;
+    }
+
+    // 8. 폭발 템플릿 (분노 감정용, 6-7개)
+    private static double[][] explosionTemplate(int count) {
+        double[][] template = new double[count][3];
+
+        // 중앙점
+        template[0] = new double[]{0, 0, 0};
+
+        // 불규칙한 폭발 형태
+        Random random = new Random(45); // 슬롯 좌표가 호출마다 바뀌지 않도록 시드 고정
+        for (int i = 1; i < count; i++) {
+            double phi = Math.acos(2 * random.nextDouble() - 1); // 균등 분포 각도
+            double theta = 2 * Math.PI * random.nextDouble();
+            double r = 0.5 + 0.5 * random.nextDouble(); // 다양한 거리
+
+            template[i] = new double[]{
+                    r * Math.sin(phi) * Math.cos(theta),
+                    r * Math.sin(phi) * Math.sin(theta),
+                    r * Math.cos(phi)
+            };
+        }
+
+        return template;
+    }
+
+    // 9. 지그재그 템플릿 (불안 감정용, 4개 이하)
+    private static double[][] zigzagTemplate(int count) {
+        double[][] template = new double[count][3];
+
+        // 지그재그 패턴
+        for (int i = 0; i < count; i++) {
+            double t = (double) i / (count - 1);
+            template[i] = new double[]{
+                    t * 2 - 1,
+                    (i % 2 == 0) ? 0.5 : -0.5,
+                    0
+            };
+        }
+
+        return template;
+    }
+
+    // 10. 나선형 템플릿 (불안 감정용, 5-7개)
+    private static double[][] spiralTemplate(int count) {
+        double[][] template = new double[count][3];
+
+        // 나선형 패턴
+        for (int i = 0; i < count; i++) {
+            double t = (double) i / (count - 1);
+            double radius = t * 0.8;
+            double angle = t * 4 * Math.PI;
+
+            template[i] = new double[]{
+                    radius * Math.cos(angle),
+                    radius * Math.sin(angle),
+                    t * 0.5 - 0.25
+            };
+        }
+
+        return template;
+    }
+
+    // 11. 화살표 템플릿 (희망 감정용, 4개 이하)
+    private static double[][] arrowTemplate(int count) {
+        double[][] template = new double[count][3];
+
+        // 화살표 형태
+        template[0] = new double[]{0, 1, 0};   // 화살촉
+        template[1] = new double[]{0, 0, 0};   // 중앙
+
+        if (count >= 3) {
+            template[2] = new double[]{-0.5, 0.5, 0}; // 좌측 날개
+        }
+
+        if (count >= 4) {
+            template[3] = new double[]{0.5, 0.5, 0};  // 우측 날개
+        }
+
+        return template;
+    }
+
+    // 12. 상승 템플릿 (희망 감정용, 5-7개)
+    private static double[][] riseTemplate(int count) {
+        double[][] template = new double[count][3];
+
+        // 상승 곡선
+        for (int i = 0; i < count; i++) {
+            double t = (double) i / (count - 1);
+            template[i] = new double[]{
+                    t * 2 - 1,
+                    t * t,
+                    (i % 2 == 0) ? 0.2 : -0.2
+            };
+        }
+
+        return template;
+    }
+
+    // 13. 균형 템플릿 (평화 감정용, 6-7개)
+    private static double[][] balanceTemplate(int count) {
+        double[][] template = new double[count][3];
+
+        // 균형 있는 형태 (음양)
+        template[0] = new double[]{0, 0, 0}; // 중앙
+
+        int half = (count - 1) / 2;
+
+        // 윗부분 곡선
+        for (int i = 1; i <= half; i++) {
+            double t = (double) (i - 1) / half;
+            template[i] = new double[]{
+                    Math.cos(t * Math.PI) * 0.5,
+                    0.5,
+                    Math.sin(t * Math.PI) * 0.3
+            };
+        }
+
+        // 아랫부분 곡선
+        for (int i = half + 1; i < count; i++) {
+            double t = (double) (i - half - 1) / (count - half - 1);
+            template[i] = new double[]{
+                    -Math.cos(t * Math.PI) * 0.5,
+                    -0.5,
+                    -Math.sin(t * Math.PI) * 0.3
+            };
+        }
+
+        return template;
+    }
+
+    // 14. 흩어진 템플릿 (공포 감정용, 5개 이하)
+    private static double[][] scatterTemplate(int count) {
+        double[][] template = new double[count][3];
+
+        // 중앙에 하나, 나머지는 비규칙적으로 흩어짐
+        template[0] = new double[]{0, 0, 0};
+
+        Random random = new Random(42); // 일관된 결과를 위한 시드값
+        for (int i = 1; i < count; i++) {
+            // 비교적 넓게 퍼진 형태
+            template[i] = new double[]{
+                    (random.nextDouble() - 0.5) * 2,
+                    (random.nextDouble() - 0.5) * 2,
+                    (random.nextDouble() - 0.5) * 0.5
+            };
+        }
+
+        return template;
+    }
+
+    // 15. 혼돈 템플릿 (공포 감정용, 6-7개)
+    private static double[][] chaosTemplate(int count) {
+        double[][] template = new double[count][3];
+
+        // 불규칙한 3D 구조
+        Random random = new Random(43); // 일관된 결과를 위한 시드값
+        for (int i = 0; i < count; i++) {
+            // 3D 공간에 불규칙하게 분포
+            double phi = Math.acos(2 * random.nextDouble() - 1);
+            double theta = 2 * Math.PI * random.nextDouble();
+            double r = 0.2 + 0.8 * random.nextDouble();
+
+            template[i] = new double[]{
+                    r * Math.sin(phi) * Math.cos(theta),
+                    r * Math.sin(phi) * Math.sin(theta),
+                    r * Math.cos(phi)
+            };
+        }
+
+        return template;
+    }
+}
@@ -2,6 +2,9 @@ package com.c202.diary.util.coordinate.service;
 
 import com.c202.diary.emotion.entity.Emotion;
 import com.c202.diary.util.coordinate.model.ClusterDto;
+import com.c202.diary.util.coordinate.spatial.CollisionResolver;
+import com.c202.diary.util.coordinate.spatial.CoordinateBuffer;
+import com.c202.diary.util.coordinate.spatial.UniformGrid;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
@@ -16,8 +19,14 @@ public class CoordinateGenerator {
     private static final double MAX_CLUSTER_RADIUS = 20.0;
     private static final double COLLISION_MIN_DISTANCE = 5.0;
     private static final int MAX_ADJUSTMENT_ATTEMPTS = 10;
+    private static final int MAX_ADJUSTMENT_ITERATIONS = 20;
 
     public double[] generateCoordinatesInCluster(ClusterDto cluster, Emotion emotion) {
+        return generateCoordinatesInCluster(cluster, emotion, random);
+    }
+
+    // 난수 생성기를 넘기면 같은 시드에서 항상 같은 좌표를 만듦 (ConstellationLayoutCache.randomFor)
+    public double[] generateCoordinatesInCluster(ClusterDto cluster, Emotion emotion, Random random) {
         double clusterRadius = DEFAULT_CLUSTER_RADIUS;
         if (!cluster.getDiaries().isEmpty()) {
             clusterRadius = Math.min(MAX_CLUSTER_RADIUS, 5.0 + 2.0 * cluster.getDiaries().size());
@@ -50,53 +59,33 @@ public class CoordinateGenerator {
     }
 
     public double[] adjustCoordinates(double[] coordinates, List<double[]> existingCoordinates) {
-        double[] adjusted = coordinates.clone();
-        int maxIterations = 20;  // 최대 반복 횟수
-        double minDistance = COLLISION_MIN_DISTANCE;  // 최소 충돌 간격 (예: 5.0)
-        double tolerance = 0.01;  // 반복 종료 기준 (총 조정량이 이보다 작으면 종료)
+        // 한 번만 쓰는 목록이라 격자를 만드는 대신 축별 배열로 옮겨 벡터 커널로 전체를 훑음
+        return CollisionResolver.resolve(
+                coordinates,
+                COLLISION_MIN_DISTANCE,
+                MAX_ADJUSTMENT_ITERATIONS,
+                CoordinateBuffer.of(existingCoordinates),
+                random
+        );
+    }
 
-        for (int iter = 0; iter < maxIterations; iter++) {
-            double totalAdjustment = 0.0;
-            // 모든 기존 좌표와 비교하여 충돌 체크
-            for (double[] other : existingCoordinates) {
-                double dx = adjusted[0] - other[0];
-                double dy = adjusted[1] - other[1];
-                double dz = adjusted[2] - other[2];
-                double dist = Math.sqrt(dx * dx + dy * dy + dz * dz);
+    public double[] adjustCoordinates(double[] coordinates, UniformGrid existing) {
+        return adjustCoordinates(coordinates, existing, random);
+    }
 
-                // 충돌 발생 시 (거리가 최소 요구 거리보다 작은 경우)
-                if (dist < minDistance) {
-                    double overlap = minDistance - dist;
-                    // 단위 벡터 계산 (dist가 0이면 무작위 벡터 선택)
-                    if (dist == 0) {
-                        dx = (random.nextDouble() - 0.5);
-                        dy = (random.nextDouble() - 0.5);
-                        dz = (random.nextDouble() - 0.5);
-                        dist = Math.sqrt(dx * dx + dy * dy + dz * dz);
-                    }
-                    double ux = dx / dist;
-                    double uy = dy / dist;
-                    double uz = dz / dist;
-                    // 전체 오버랩의 절반 정도만 이동 (점진적 조정)
-                    double adjustment = overlap * 0.5;
-                    adjusted[0] += ux * adjustment;
-                    adjusted[1] += uy * adjustment;
-                    adjusted[2] += uz * adjustment;
-                    totalAdjustment += adjustment;
-                }
-            }
-            // 총 조정량이 작으면 반복 종료
-            if (totalAdjustment < tolerance) {
-                break;
-            }
-        }
-        return adjusted;
+    public double[] adjustCoordinates(double[] coordinates, UniformGrid existing, Random random) {
+        return CollisionResolver.resolve(
+                coordinates,
+                COLLISION_MIN_DISTANCE,
+                MAX_ADJUSTMENT_ITERATIONS,
+                point -> existing.within(point[0], point[1], point[2], COLLISION_MIN_DISTANCE, null),
+                random
+        );
     }
 
 
     public double calculateDistance(double x1, double y1, double z1, double x2, double y2, double z2) {
-        return Math.sqrt(Math.pow(x2 - x1, 2)
-                + Math.pow(y2 - y1, 2)
-                + Math.pow(z2 - z1, 2));
+        double dx = x2 - x1, dy = y2 - y1, dz = z2 - z1;
+        return Math.sqrt(dx * dx + dy * dy + dz * dz);
     }
 }
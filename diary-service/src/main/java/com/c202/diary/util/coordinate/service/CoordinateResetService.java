@@ -2,17 +2,29 @@ package com.c202.diary.util.coordinate.service;
 
 import com.c202.diary.diary.entity.Diary;
 import com.c202.diary.diary.repository.DiaryRepository;
+import com.c202.diary.diary.service.UniverseVersionService;
 import com.c202.diary.emotion.entity.Emotion;
 import com.c202.diary.emotion.repository.EmotionRepository;
-import com.c202.diary.tag.entity.DiaryTag;
-import com.c202.diary.tag.repository.DiaryTagRepository;
+import com.c202.diary.galaxy.service.GalaxyTileService;
+import com.c202.diary.tag.service.DiaryTagService;
+import com.c202.diary.util.coordinate.metrics.RelayoutMetrics;
+import com.c202.diary.util.coordinate.metrics.RelayoutPhase;
 import com.c202.diary.util.coordinate.model.CoordinateDto;
+import com.c202.diary.util.coordinate.repository.ConstellationRepository;
+import com.c202.diary.util.coordinate.similarity.ConstellationClustering;
+import com.c202.diary.util.coordinate.similarity.TagSetTable;
+import com.c202.diary.util.coordinate.similarity.TagSimilarity;
+import com.c202.diary.util.coordinate.spatial.SpatialIndexService;
+import com.c202.diary.util.coordinate.spatial.StarSlotService;
 import com.c202.exception.types.NotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.*;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
 import java.util.stream.Collectors;
 
 // 우주 좌표계를 별자리 형태로 재설정하는 서비스
@@ -24,9 +36,18 @@ public class CoordinateResetService {
 
     private final DiaryRepository diaryRepository;
     private final EmotionRepository emotionRepository;
-    private final DiaryTagRepository diaryTagRepository;
+    private final DiaryTagService diaryTagService;
     private final ConstellationLayoutService layoutService;
     private final ConstellationConnectionService connectionService;
+    private final DiaryConnectionService diaryConnectionService;
+    private final ConstellationAssignmentService assignmentService;
+    private final ConstellationRepository constellationRepository;
+    private final SpatialIndexService spatialIndexService;
+    private final StarSlotService starSlotService;
+    private final UniverseVersionService universeVersionService;
+    private final GalaxyTileService galaxyTileService;
+    private final RelayoutWorkerPool workerPool;
+    private final RelayoutMetrics relayoutMetrics;
 
     // 별자리 클러스터의 최소 크기 (너무 작은 클러스터는 의미 없음)
     private static final int MIN_CLUSTER_SIZE = 3;
@@ -39,54 +60,92 @@ public class CoordinateResetService {
 
     // 전체 우주를 재배치합니다.
     // 모든 일기를 별자리 패턴으로 재배치하고 연결 관계를 최적화합니다.
+    // 저장된 별자리 소속도 재배치 결과로 교체합니다.
+    // 단계별 시간은 diary.relayout.phase 타이머와 JFR 이벤트(com.c202.diary.RelayoutPhase)로 남깁니다.
     // @param userSeq 사용자 시퀀스
     // @return 연결 관계 맵 (일기 ID → 연결된 일기 ID 목록)
+    @Transactional
     public Map<Integer, List<Integer>> resetEntireUniverse(Integer userSeq) {
-        // 사용자의 모든 일기 조회
-        List<Diary> diaries = diaryRepository.findByUserSeqAndIsDeleted(userSeq, "N");
+        List<Diary> diaries = phase(RelayoutPhase.LOAD, userSeq, List::size, () -> {
+            // 사용자의 모든 일기 조회
+            List<Diary> found = diaryRepository.findByUserSeqAndIsDeleted(userSeq, "N");
+
+            // 기존 별자리 소속 초기화
+            if (!found.isEmpty()) {
+                constellationRepository.deleteByUserSeq(userSeq);
+                found.forEach(Diary::releaseConstellation);
+            }
+            return found;
+        });
 
         if (diaries.isEmpty()) {
             log.info("재배치할 일기가 없습니다. 사용자: {}", userSeq);
             return new HashMap<>();
         }
 
+        // 모든 일기의 태그를 한 번에 조회 (이후 유사도 계산은 태그 ID 기반)
+        Map<Integer, int[]> tagSeqsByDiary = phase(RelayoutPhase.TAG_FETCH, userSeq, Map::size,
+                () -> diaryTagService.preloadTags(diaries));
+
         // 감정별로 일기 그룹화
         Map<Integer, List<Diary>> diariesByEmotion = groupDiariesByEmotion(diaries);
 
-        // 각 감정별로 별자리 클러스터 생성 및 좌표 설정
-        Map<Integer, List<Integer>> allConnections = new HashMap<>();
-
-        for (Integer emotionSeq : diariesByEmotion.keySet()) {
-            List<Diary> emotionDiaries = diariesByEmotion.get(emotionSeq);
-
-            // 감정 정보 조회
+        // 감정 정보 조회 (DB 작업은 트랜잭션 스레드에서)
+        List<EmotionRelayout> tasks = new ArrayList<>(diariesByEmotion.size());
+        for (Map.Entry<Integer, List<Diary>> entry : diariesByEmotion.entrySet()) {
+            Integer emotionSeq = entry.getKey();
             Emotion emotion = emotionRepository.findById(emotionSeq)
                     .orElseThrow(() -> new NotFoundException("감정을 찾을 수 없습니다 (seq: " + emotionSeq + ")"));
+            tasks.add(new EmotionRelayout(emotion, entry.getValue()));
+        }
 
-            // 별자리 클러스터 그룹화
-            List<List<Diary>> constellationGroups = clusterIntoConstellations(emotionDiaries);
-
-            // 각 별자리 좌표 생성
-            Map<Integer, double[][]> constellationCoordinates =
-                    layoutService.generateMultipleConstellations(emotion, constellationGroups);
-
-            // 좌표 적용
-            applyCoordinatesToDiaries(constellationGroups, constellationCoordinates);
-
-            // 별자리 연결 관계 생성
-            Map<Integer, List<Integer>> emotionConnections =
-                    connectionService.optimizeConstellationConnections(constellationGroups);
+        // 감정끼리는 서로 독립적이므로 클러스터링·배치·연결 계산을 나눠 실행
+        List<EmotionRelayout> results = workerPool.map(tasks,
+                task -> task.run(userSeq, tagSeqsByDiary));
 
-            // 전체 연결 관계에 추가
-            allConnections.putAll(emotionConnections);
+        // 감정별 결과 합치기 (감정마다 일기가 겹치지 않으므로 키 충돌 없음)
+        Map<Integer, List<Integer>> allConnections = new HashMap<>();
+        List<ConstellationAssignmentService.PlannedConstellation> planned = new ArrayList<>();
+        relayoutMetrics.phase(RelayoutMetrics.OPERATION_RESET, RelayoutPhase.MERGE, userSeq,
+                RelayoutMetrics.ALL_EMOTIONS, () -> {
+                    for (EmotionRelayout result : results) {
+                        planned.addAll(result.planned);
+                        allConnections.putAll(result.connections);
+                    }
+                });
+
+        int connectionRows = phase(RelayoutPhase.SAVE, userSeq, rows -> rows, () -> {
+            // 별자리 저장 및 슬롯 좌표 적용 (한 번에)
+            assignmentService.savePlannedConstellations(userSeq, planned);
+
+            // 변경된 일기들 저장
+            diaryRepository.saveAll(diaries);
+
+            // 연결선 저장 (조회 시 다시 계산하지 않도록)
+            return diaryConnectionService.replaceUserConnections(userSeq, allConnections);
+        });
+        relayoutMetrics.recordRowsWritten("constellation", planned.size());
+        relayoutMetrics.recordRowsWritten("diary", diaries.size());
+        relayoutMetrics.recordRowsWritten("diary_connection", connectionRows);
+        universeVersionService.bump(userSeq);
+
+        // 좌표가 모두 바뀌었으므로 공간 인덱스와 별 자리 사용 현황은 다음 조회 때 다시 생성
+        spatialIndexService.invalidateUser(userSeq);
+        starSlotService.invalidateUser(userSeq);
+        // 공개 은하에는 공개 일기의 새 좌표만 반영
+        for (Diary diary : diaries) {
+            galaxyTileService.onDiaryChanged(diary);
         }
 
-        // 변경된 일기들 저장
-        diaryRepository.saveAll(diaries);
-
         return allConnections;
     }
 
+    // 감정과 관계없는 전체 재배치 단계를 기록합니다.
+    private <T> T phase(RelayoutPhase phase, Integer userSeq, ToIntFunction<T> items, Supplier<T> work) {
+        return relayoutMetrics.phase(RelayoutMetrics.OPERATION_RESET, phase, userSeq,
+                RelayoutMetrics.ALL_EMOTIONS, items, work);
+    }
+
     // 일기를 감정별로 그룹화합니다.
     // @param diaries 전체 일기 목록
     // @return 감정별 일기 목록 맵
@@ -101,8 +160,16 @@ public class CoordinateResetService {
     // @param diaries 동일 감정의 일기 목록
     // @return 별자리 클러스터 목록
     public List<List<Diary>> clusterIntoConstellations(List<Diary> diaries) {
+        return clusterIntoConstellations(diaries, TagSetTable.of(diaryTagService.preloadTags(diaries)));
+    }
+
+    // 미리 만들어진 태그 집합 테이블로 클러스터링합니다.
+    // 태그를 공유하는 후보 쌍만 보고 크기 제한 union-find로 묶은 뒤, 작은 클러스터는 유사도 순으로 합칩니다.
+    // @param diaries 동일 감정의 일기 목록
+    // @param tagSets 일기들의 태그 집합 테이블
+    // @return 별자리 클러스터 목록
+    public List<List<Diary>> clusterIntoConstellations(List<Diary> diaries, TagSetTable tagSets) {
         List<List<Diary>> clusters = new ArrayList<>();
-        Set<Integer> assignedDiaries = new HashSet<>();
 
         // 일기 수가 적으면 하나의 클러스터로 처리
         if (diaries.size() <= MAX_CLUSTER_SIZE) {
@@ -110,177 +177,47 @@ public class CoordinateResetService {
             return clusters;
         }
 
-        // 유사도 기반 클러스터링
-        for (Diary diary : diaries) {
-            if (assignedDiaries.contains(diary.getDiarySeq())) {
-                continue;
-            }
-
-            List<Diary> cluster = new ArrayList<>();
-            cluster.add(diary);
-            assignedDiaries.add(diary.getDiarySeq());
-
-            List<String> diaryTags = getDiaryTags(diary);
-
-            // 유사도가 높은 일기들 추가
-            List<DiaryWithSimilarity> similarities = new ArrayList<>();
-            for (Diary otherDiary : diaries) {
-                if (otherDiary.getDiarySeq().equals(diary.getDiarySeq()) ||
-                        assignedDiaries.contains(otherDiary.getDiarySeq())) {
-                    continue;
-                }
-
-                List<String> otherTags = getDiaryTags(otherDiary);
-                double similarity = calculateTagSimilarity(diaryTags, otherTags);
-
-                if (similarity >= CLUSTERING_SIMILARITY_THRESHOLD) {
-                    similarities.add(new DiaryWithSimilarity(otherDiary, similarity));
-                }
-            }
-
-            // 유사도 높은 순으로 정렬
-            similarities.sort(Comparator.comparing(DiaryWithSimilarity::getSimilarity).reversed());
-
-            // 클러스터 크기 제한 내에서 추가
-            for (DiaryWithSimilarity sim : similarities) {
-                if (cluster.size() >= MAX_CLUSTER_SIZE) {
-                    break;
-                }
-                cluster.add(sim.getDiary());
-                assignedDiaries.add(sim.getDiary().getDiarySeq());
-            }
-
-            clusters.add(cluster);
+        int[] setIds = new int[diaries.size()];
+        for (int i = 0; i < setIds.length; i++) {
+            setIds[i] = tagSets.setIdOf(diaries.get(i));
         }
 
-        // 아직 할당되지 않은 일기들 처리
-        List<Diary> unassigned = diaries.stream()
-                .filter(d -> !assignedDiaries.contains(d.getDiarySeq()))
-                .collect(Collectors.toList());
-
-        if (!unassigned.isEmpty()) {
-            // 작은 클러스터들 먼저 채우기
-            for (Diary diary : unassigned) {
-                // 가장 작은 클러스터 찾기
-                List<Diary> smallestCluster = clusters.stream()
-                        .filter(c -> c.size() < MAX_CLUSTER_SIZE)
-                        .min(Comparator.comparing(List::size))
-                        .orElse(null);
-
-                if (smallestCluster != null) {
-                    smallestCluster.add(diary);
-                } else {
-                    // 모든 클러스터가 가득 찼다면 새 클러스터 생성
-                    List<Diary> newCluster = new ArrayList<>();
-                    newCluster.add(diary);
-                    clusters.add(newCluster);
-                }
+        int[][] groups = ConstellationClustering.cluster(tagSets, setIds,
+                MIN_CLUSTER_SIZE, MAX_CLUSTER_SIZE, CLUSTERING_SIMILARITY_THRESHOLD);
+        for (int[] group : groups) {
+            List<Diary> cluster = new ArrayList<>(group.length);
+            for (int index : group) {
+                cluster.add(diaries.get(index));
             }
+            clusters.add(cluster);
         }
-
-        // 너무 작은 클러스터들 병합
-        mergeSmallClusters(clusters);
-
         return clusters;
     }
 
-    // 너무 작은 클러스터들을 병합합니다.
-    // @param clusters 클러스터 목록
-    private void mergeSmallClusters(List<List<Diary>> clusters) {
-        if (clusters.size() <= 1) {
-            return;
-        }
-
-        boolean mergeOccurred;
-        do {
-            mergeOccurred = false;
-
-            // 크기 순으로 정렬 (작은 것부터)
-            clusters.sort(Comparator.comparing(List::size));
-
-            List<Diary> smallestCluster = clusters.get(0);
-            if (smallestCluster.size() < MIN_CLUSTER_SIZE) {
-                // 병합 대상 찾기 (가장 유사한 다른 클러스터)
-                int bestTargetIdx = -1;
-                double bestSimilarity = -1;
-
-                for (int i = 1; i < clusters.size(); i++) {
-                    List<Diary> targetCluster = clusters.get(i);
-
-                    // 병합 후 크기가 최대 크기를 넘지 않는지 확인
-                    if (smallestCluster.size() + targetCluster.size() <= MAX_CLUSTER_SIZE) {
-                        double similarity = calculateClusterSimilarity(smallestCluster, targetCluster);
-                        if (similarity > bestSimilarity) {
-                            bestSimilarity = similarity;
-                            bestTargetIdx = i;
-                        }
-                    }
-                }
-
-                // 병합 가능한 대상이 있으면 병합
-                if (bestTargetIdx != -1) {
-                    clusters.get(bestTargetIdx).addAll(smallestCluster);
-                    clusters.remove(0);
-                    mergeOccurred = true;
-                } else {
-                    // 병합할 대상이 없으면 종료
-                    break;
-                }
-            } else {
-                // 가장 작은 클러스터도 최소 크기 이상이면 종료
-                break;
-            }
-        } while (mergeOccurred && clusters.size() > 1);
-    }
-
-    // 생성된 좌표를 일기들에 적용합니다.
-    // @param constellationGroups 별자리 그룹 목록
-    // @param constellationCoordinates 그룹별 좌표 맵
-    private void applyCoordinatesToDiaries(
-            List<List<Diary>> constellationGroups,
-            Map<Integer, double[][]> constellationCoordinates) {
-
-        for (List<Diary> group : constellationGroups) {
-            if (group.isEmpty()) {
-                continue;
-            }
-
-            int groupKey = group.get(0).getDiarySeq();
-            double[][] coordinates = constellationCoordinates.get(groupKey);
-
-            if (coordinates == null || coordinates.length < group.size()) {
-                log.warn("좌표 배열이 없거나 크기가 부족합니다. 그룹: {}, 좌표: {}",
-                        groupKey, coordinates != null ? coordinates.length : "null");
-                continue;
-            }
-
-            // 각 일기에 좌표 적용
-            for (int i = 0; i < group.size(); i++) {
-                Diary diary = group.get(i);
-                diary.setCoordinates(
-                        coordinates[i][0],
-                        coordinates[i][1],
-                        coordinates[i][2],
-                        diary.getEmotionSeq()
-                );
-            }
-        }
-    }
-
     // 단일 일기에 대한 최적의 좌표를 생성합니다.
-    // 새 일기를 추가할 때 사용됩니다.
+    // 같은 감정의 일기를 모두 다시 클러스터링하는 방식으로, 별자리 소속이 없는 경우의 대체 경로입니다.
     // @param diary 일기
     // @return 생성된 좌표
+    @Transactional(readOnly = true)
     public CoordinateDto generateOptimalCoordinates(Diary diary) {
+        return generateOptimalCoordinates(diary, diaryTagService.getTagSeqs(diary));
+    }
+
+    // 태그가 아직 저장되지 않은 일기의 좌표를 생성합니다.
+    // @param diary 일기
+    // @param diaryTags 일기의 정렬된 태그 ID 배열
+    // @return 생성된 좌표
+    @Transactional(readOnly = true)
+    public CoordinateDto generateOptimalCoordinates(Diary diary, int[] diaryTags) {
         if (diary.getEmotionSeq() == null) {
             throw new IllegalArgumentException("일기에 감정이 설정되어 있지 않습니다.");
         }
 
-        // 같은 감정의 다른 일기들 조회
-        List<Diary> sameCategoryDiaries = diaryRepository.findAll().stream()
-                .filter(d -> !d.getIsDeleted().equals("Y"))
+        // 같은 사용자, 같은 감정의 다른 일기들 조회 (사용자를 모르면 비교 대상 없음)
+        List<Diary> sameCategoryDiaries = diary.getUserSeq() == null ? new ArrayList<>()
+                : diaryRepository.findByUserSeqAndEmotionSeqAndIsDeleted(
+                        diary.getUserSeq(), diary.getEmotionSeq(), "N", Diary.class).stream()
                 .filter(d -> !d.getDiarySeq().equals(diary.getDiarySeq()))
-                .filter(d -> Objects.equals(d.getEmotionSeq(), diary.getEmotionSeq()))
                 .collect(Collectors.toList());
 
         // 감정 정보 조회
@@ -288,15 +225,15 @@ public class CoordinateResetService {
                 .orElseThrow(() -> new NotFoundException("감정을 찾을 수 없습니다."));
 
         // 태그 유사도 기반으로 가장 가까운 별자리 찾기
-        List<String> diaryTags = getDiaryTags(diary);
-        List<List<Diary>> constellationGroups = clusterIntoConstellations(sameCategoryDiaries);
+        TagSetTable tagSets = TagSetTable.of(diaryTagService.preloadTags(sameCategoryDiaries));
+        List<List<Diary>> constellationGroups = clusterIntoConstellations(sameCategoryDiaries, tagSets);
 
         // 가장 유사한 클러스터 찾기
         List<Diary> bestCluster = null;
         double bestSimilarity = -1;
 
         for (List<Diary> cluster : constellationGroups) {
-            double similarity = calculateClusterTagSimilarity(cluster, diaryTags);
+            double similarity = calculateClusterTagSimilarity(cluster, diaryTags, tagSets);
             if (similarity > bestSimilarity) {
                 bestSimilarity = similarity;
                 bestCluster = cluster;
@@ -336,118 +273,74 @@ public class CoordinateResetService {
                 .build();
     }
 
-    // 두 클러스터 간의 유사도를 계산합니다.
-    // @param cluster1 첫 번째 클러스터
-    // @param cluster2 두 번째 클러스터
+    // 클러스터와 태그 목록 간의 유사도를 계산합니다.
+    // @param cluster 클러스터
+    // @param tags 정렬된 태그 ID 배열
+    // @param tagSets 태그 집합 테이블
     // @return 유사도
-    private double calculateClusterSimilarity(List<Diary> cluster1, List<Diary> cluster2) {
-        if (cluster1.isEmpty() || cluster2.isEmpty()) {
+    private double calculateClusterTagSimilarity(List<Diary> cluster, int[] tags, TagSetTable tagSets) {
+        if (cluster.isEmpty() || tags.length == 0) {
             return 0.0;
         }
 
-        // 각 클러스터의 모든 태그를 모음
-        Set<String> tags1 = new HashSet<>();
-        Set<String> tags2 = new HashSet<>();
-
-        for (Diary diary : cluster1) {
-            tags1.addAll(getDiaryTags(diary));
-        }
-
-        for (Diary diary : cluster2) {
-            tags2.addAll(getDiaryTags(diary));
-        }
-
-        // 자카드 유사도 계산
-        Set<String> union = new HashSet<>(tags1);
-        union.addAll(tags2);
-
-        if (union.isEmpty()) {
-            return 0.1; // 기본 유사도
-        }
-
-        Set<String> intersection = new HashSet<>(tags1);
-        intersection.retainAll(tags2);
-
-        return (double) intersection.size() / union.size();
+        return TagSimilarity.jaccard(clusterTags(cluster, tagSets), tags);
     }
 
-    // 클러스터와 태그 목록 간의 유사도를 계산합니다.
+    // 클러스터에 속한 일기들의 태그 합집합을 구합니다.
     // @param cluster 클러스터
-    // @param tags 태그 목록
-    // @return 유사도
-    private double calculateClusterTagSimilarity(List<Diary> cluster, List<String> tags) {
-        if (cluster.isEmpty() || tags.isEmpty()) {
-            return 0.0;
-        }
-
-        // 클러스터의 모든 태그를 모음
-        Set<String> clusterTags = new HashSet<>();
+    // @param tagSets 태그 집합 테이블
+    // @return 정렬된 태그 ID 배열
+    private int[] clusterTags(List<Diary> cluster, TagSetTable tagSets) {
+        int[] tags = TagSimilarity.EMPTY;
         for (Diary diary : cluster) {
-            clusterTags.addAll(getDiaryTags(diary));
+            tags = TagSimilarity.union(tags, tagSets.tagsOf(diary));
         }
-
-        // 자카드 유사도 계산
-        Set<String> union = new HashSet<>(clusterTags);
-        union.addAll(tags);
-
-        if (union.isEmpty()) {
-            return 0.1; // 기본 유사도
-        }
-
-        Set<String> intersection = new HashSet<>(clusterTags);
-        intersection.retainAll(tags);
-
-        return (double) intersection.size() / union.size();
+        return tags;
     }
 
-    // 일기의 태그 목록을 조회합니다.
-    // @param diary 일기
-    // @return 태그 이름 목록
-    private List<String> getDiaryTags(Diary diary) {
-        List<DiaryTag> diaryTags = diaryTagRepository.findByDiary(diary);
-        return diaryTags.stream()
-                .map(diaryTag -> diaryTag.getTag().getName())
-                .collect(Collectors.toList());
-    }
-
-    // 두 태그 목록 간의 자카드 유사도를 계산합니다.
-    // @param tags1 첫 번째 태그 목록
-    // @param tags2 두 번째 태그 목록
-    // @return 유사도 (0~1)
-    private double calculateTagSimilarity(List<String> tags1, List<String> tags2) {
-        if (tags1.isEmpty() && tags2.isEmpty()) {
-            return 0.1; // 기본 유사도
-        }
+    // 감정 하나의 재배치 계산 (DB를 사용하지 않으므로 작업 스레드에서 실행)
+    private class EmotionRelayout {
+        private final Emotion emotion;
+        private final List<Diary> diaries;
+        private List<ConstellationAssignmentService.PlannedConstellation> planned;
+        private Map<Integer, List<Integer>> connections;
 
-        if (tags1.isEmpty() || tags2.isEmpty()) {
-            return 0.0;
+        private EmotionRelayout(Emotion emotion, List<Diary> diaries) {
+            this.emotion = emotion;
+            this.diaries = diaries;
         }
 
-        Set<String> union = new HashSet<>(tags1);
-        union.addAll(tags2);
-
-        Set<String> intersection = new HashSet<>(tags1);
-        intersection.retainAll(tags2);
+        private EmotionRelayout run(Integer userSeq, Map<Integer, int[]> tagSeqsByDiary) {
+            // 태그 집합 테이블은 유사도 메모 때문에 스레드 간에 공유하지 않고 감정마다 만듦
+            Map<Integer, int[]> emotionTags = new HashMap<>(diaries.size() * 2);
+            for (Diary diary : diaries) {
+                int[] tags = tagSeqsByDiary.get(diary.getDiarySeq());
+                if (tags != null) {
+                    emotionTags.put(diary.getDiarySeq(), tags);
+                }
+            }
+            TagSetTable tagSets = TagSetTable.of(emotionTags);
 
-        return (double) intersection.size() / union.size();
-    }
+            // 별자리 클러스터 그룹화
+            List<List<Diary>> constellationGroups = phase(RelayoutPhase.CLUSTERING, userSeq, List::size,
+                    () -> clusterIntoConstellations(diaries, tagSets));
 
-    // 내부 클래스: 일기와 유사도를 함께 저장
-    private static class DiaryWithSimilarity {
-        private final Diary diary;
-        private final double similarity;
+            // 별자리 배치 계산
+            planned = phase(RelayoutPhase.LAYOUT, userSeq, List::size,
+                    () -> assignmentService.planConstellations(userSeq, emotion, constellationGroups, tagSets));
 
-        public DiaryWithSimilarity(Diary diary, double similarity) {
-            this.diary = diary;
-            this.similarity = similarity;
-        }
+            // 별자리 연결 관계 생성
+            connections = phase(RelayoutPhase.CONNECTIONS, userSeq, RelayoutMetrics::edgeCount,
+                    () -> connectionService.optimizeConstellationConnections(constellationGroups));
 
-        public Diary getDiary() {
-            return diary;
+            relayoutMetrics.recordEmotion(RelayoutMetrics.emotionTag(emotion.getEmotionSeq()),
+                    diaries.size(), constellationGroups.size(), RelayoutMetrics.edgeCount(connections));
+            return this;
         }
 
-        public double getSimilarity() {
-            return similarity;
+        private <T> T phase(RelayoutPhase phase, Integer userSeq, ToIntFunction<T> items, Supplier<T> work) {
+            return relayoutMetrics.phase(RelayoutMetrics.OPERATION_RESET, phase, userSeq,
+                    RelayoutMetrics.emotionTag(emotion.getEmotionSeq()), items, work);
         }
     }
-}
\ No newline at end of file
+}
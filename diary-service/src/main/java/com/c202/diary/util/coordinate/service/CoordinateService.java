@@ -15,6 +15,18 @@ public interface CoordinateService {
 
     List<Integer> findSimilarDiaries(Integer diarySeq, int maxResults);
 
+    // 저장된 일기를 별자리의 빈 슬롯에 배치합니다. (해당 별자리만 갱신)
+    CoordinateDto placeDiary(Diary diary, Integer emotionSeq, List<String> tags);
+
+    // 일기가 차지하던 별자리 슬롯을 비웁니다.
+    void releaseDiary(Diary diary);
+
+    // 저장된 사용자의 연결선을 조회합니다. (일기 ID → 연결된 일기 ID 목록)
+    Map<Integer, List<Integer>> getConnections(Integer userSeq);
+
+    // 일기의 저장된 연결선을 조회합니다.
+    List<Integer> getConnectedDiaries(Diary diary);
+
     default Map<Integer, List<Integer>> relayoutUniverse(Integer userSeq) {
         throw new UnsupportedOperationException("구현이 필요합니다");
     }
@@ -5,14 +5,19 @@ import com.c202.diary.diary.entity.Diary;
 import com.c202.diary.diary.repository.DiaryRepository;
 import com.c202.diary.emotion.entity.Emotion;
 import com.c202.diary.emotion.repository.EmotionRepository;
+import com.c202.diary.tag.service.DiaryTagService;
+import com.c202.diary.util.coordinate.metrics.RelayoutMetrics;
+import com.c202.diary.util.coordinate.metrics.RelayoutPhase;
+import com.c202.diary.util.coordinate.similarity.SimilarDiaryIndexService;
+import com.c202.diary.util.coordinate.spatial.SpatialIndexService;
+import com.c202.diary.util.coordinate.spatial.StarSlotService;
 import com.c202.exception.types.NotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.*;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 @Slf4j
 @Service
@@ -23,7 +28,13 @@ public class CoordinateServiceImpl implements CoordinateService {
     private final DiaryRepository diaryRepository;
     private final ConstellationLayoutService layoutService;
     private final CoordinateResetService coordinateResetService;
-    private final ConstellationConnectionService connectionService;
+    private final DiaryTagService diaryTagService;
+    private final ConstellationAssignmentService assignmentService;
+    private final SpatialIndexService spatialIndexService;
+    private final StarSlotService starSlotService;
+    private final SimilarDiaryIndexService similarDiaryIndexService;
+    private final DiaryConnectionService diaryConnectionService;
+    private final RelayoutMetrics relayoutMetrics;
 
     @Override
     public CoordinateDto generateCoordinates(String mainEmotion, List<String> tags, Integer diarySeq) {
@@ -31,14 +42,19 @@ public class CoordinateServiceImpl implements CoordinateService {
         Emotion emotion = emotionRepository.findByName(mainEmotion)
                 .orElseThrow(() -> new NotFoundException("존재하지 않는 감정입니다: " + mainEmotion));
 
-        // 2. 임시 일기 객체 생성 (좌표 생성용)
+        // 2. 임시 일기 객체 생성 (좌표 생성용, 수정 시에는 같은 사용자의 일기만 비교)
+        Integer userSeq = diarySeq != null
+                ? diaryRepository.findByDiarySeq(diarySeq).map(Diary::getUserSeq).orElse(null)
+                : null;
         Diary tempDiary = Diary.builder()
                 .diarySeq(diarySeq != null ? diarySeq : -1) // 임시 ID 사용
+                .userSeq(userSeq)
                 .emotionSeq(emotion.getEmotionSeq())
                 .build();
 
-        // 3. 별자리 패턴에 맞는 최적의 좌표 생성
-        CoordinateDto coordinates = coordinateResetService.generateOptimalCoordinates(tempDiary);
+        // 3. 별자리 패턴에 맞는 최적의 좌표 생성 (요청으로 받은 태그 기준)
+        CoordinateDto coordinates = coordinateResetService.generateOptimalCoordinates(
+                tempDiary, diaryTagService.resolveTagSeqs(tags));
 
         log.info("새 일기 좌표 생성 완료: emotion={}, x={}, y={}, z={}",
                 mainEmotion, coordinates.getX(), coordinates.getY(), coordinates.getZ());
@@ -70,6 +86,7 @@ public class CoordinateServiceImpl implements CoordinateService {
         // 임시 복제 객체 생성
         Diary tempDiary = Diary.builder()
                 .diarySeq(diary.getDiarySeq())
+                .userSeq(diary.getUserSeq())
                 .emotionSeq(targetEmotion.getEmotionSeq())
                 .x(diary.getX())
                 .y(diary.getY())
@@ -77,7 +94,8 @@ public class CoordinateServiceImpl implements CoordinateService {
                 .build();
 
         // 최적 위치 계산
-        CoordinateDto optimizedCoordinates = coordinateResetService.generateOptimalCoordinates(tempDiary);
+        CoordinateDto optimizedCoordinates = coordinateResetService.generateOptimalCoordinates(
+                tempDiary, diaryTagService.resolveTagSeqs(tags));
 
         log.info("일기 좌표 업데이트 완료: diary={}, emotion={}, x={}, y={}, z={}",
                 diary.getDiarySeq(), mainEmotion,
@@ -89,40 +107,72 @@ public class CoordinateServiceImpl implements CoordinateService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Integer> findSimilarDiaries(Integer diarySeq, int maxResults) {
         // 1. 일기 조회
         Diary diary = diaryRepository.findByDiarySeq(diarySeq)
                 .orElseThrow(() -> new NotFoundException("일기를 찾을 수 없습니다: " + diarySeq));
 
-        // 2. 같은 감정의 다른 일기들 조회
-        List<Diary> sameCategoryDiaries = diaryRepository.findByUserSeqAndIsDeleted(diary.getUserSeq(), "N").stream()
-                .filter(d -> !d.getIsDeleted().equals("Y"))
-                .filter(d -> !d.getDiarySeq().equals(diarySeq))
-                .filter(d -> Objects.equals(d.getEmotionSeq(), diary.getEmotionSeq()))
-                .collect(Collectors.toList());
+        // 2. 제목·본문·태그 임베딩 색인에서 같은 감정의 유사 일기 top-k 조회
+        return similarDiaryIndexService.findSimilar(diary, diaryTagService.getTagSeqs(diary), maxResults);
+    }
 
-        if (sameCategoryDiaries.isEmpty()) {
-            return Collections.emptyList();
+    @Override
+    @Transactional
+    public CoordinateDto placeDiary(Diary diary, Integer emotionSeq, List<String> tags) {
+        Integer userSeq = diary.getUserSeq();
+        String emotion = RelayoutMetrics.emotionTag(emotionSeq);
+        int[] tagSeqs = relayoutMetrics.phase(RelayoutMetrics.OPERATION_PLACE, RelayoutPhase.TAG_FETCH, userSeq,
+                emotion, seqs -> seqs.length, () -> diaryTagService.resolveTagSeqs(tags));
+        Integer previousConstellationSeq = diary.getConstellationSeq();
+        CoordinateDto coordinates = relayoutMetrics.phase(RelayoutMetrics.OPERATION_PLACE, RelayoutPhase.LAYOUT,
+                userSeq, emotion, null, () -> assignmentService.assign(diary, emotionSeq, tagSeqs));
+        similarDiaryIndexService.onDiaryChanged(diary, emotionSeq, tagSeqs);
+
+        // 별자리가 바뀌었으면 이전·새 별자리의 연결선만 다시 저장
+        if (!Objects.equals(previousConstellationSeq, diary.getConstellationSeq())) {
+            relayoutMetrics.phase(RelayoutMetrics.OPERATION_PLACE, RelayoutPhase.CONNECTIONS, userSeq, emotion, () -> {
+                diaryConnectionService.removeDiary(diary.getDiarySeq());
+                diaryConnectionService.refreshConstellation(userSeq, previousConstellationSeq);
+                diaryConnectionService.refreshConstellation(userSeq, diary.getConstellationSeq());
+            });
         }
 
-        // 3. 일기 간 연결 관계 계산
-        Map<Integer, List<Integer>> connections = connectionService.optimizeConnections(
-                Stream.concat(Stream.of(diary), sameCategoryDiaries.stream())
-                        .collect(Collectors.toList())
-        );
+        log.info("일기 별자리 배치 완료: diary={}, constellation={}, slot={}, x={}, y={}, z={}",
+                diary.getDiarySeq(), diary.getConstellationSeq(), diary.getSlotIndex(),
+                coordinates.getX(), coordinates.getY(), coordinates.getZ());
 
-        // 4. 현재 일기의 연결 목록 반환
-        List<Integer> connectedDiaries = connections.getOrDefault(diarySeq, Collections.emptyList());
+        return coordinates;
+    }
 
-        // 개수 제한 적용
-        if (connectedDiaries.size() <= maxResults) {
-            return connectedDiaries;
-        }
+    @Override
+    @Transactional
+    public void releaseDiary(Diary diary) {
+        Integer previousConstellationSeq = diary.getConstellationSeq();
+        assignmentService.release(diary);
+        spatialIndexService.onDiaryRemoved(diary);
+        starSlotService.onDiaryRemoved(diary);
+        similarDiaryIndexService.onDiaryRemoved(diary.getUserSeq(), diary.getDiarySeq());
+
+        diaryConnectionService.removeDiary(diary.getDiarySeq());
+        diaryConnectionService.refreshConstellation(diary.getUserSeq(), previousConstellationSeq);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Integer, List<Integer>> getConnections(Integer userSeq) {
+        return diaryConnectionService.getUserConnections(userSeq);
+    }
 
-        // 유사도 순으로 정렬하여 반환
-        return connectedDiaries.stream()
-                .limit(maxResults)
-                .collect(Collectors.toList());
+    @Override
+    @Transactional(readOnly = true)
+    public List<Integer> getConnectedDiaries(Diary diary) {
+        List<Integer> connected = diaryConnectionService.getConnectedDiaries(diary.getDiarySeq());
+        if (connected.isEmpty() && !diaryConnectionService.hasConnections(diary.getUserSeq())) {
+            // 연결선이 아직 저장되지 않은 사용자(재배치 이전 데이터)는 유사 일기로 대체
+            return findSimilarDiaries(diary.getDiarySeq(), 5);
+        }
+        return connected;
     }
 
     @Override
@@ -0,0 +1,109 @@
+package com.c202.diary.util.coordinate.service;
+
+import com.c202.diary.diary.entity.Diary;
+import com.c202.diary.diary.repository.DiaryRepository;
+import com.c202.diary.util.coordinate.entity.DiaryConnection;
+import com.c202.diary.util.coordinate.repository.DiaryConnectionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.stream.Collectors;
+
+// 일기 간 연결선을 diary_connection 테이블에 저장하고 조회하는 서비스
+// 연결 계산은 재배치/배치 시점에만 하고, 조회는 인덱스를 타는 쿼리 한 번으로 처리합니다.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DiaryConnectionService {
+
+    private final DiaryConnectionRepository connectionRepository;
+    private final DiaryRepository diaryRepository;
+    private final ConstellationConnectionService connectionService;
+
+    private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMdd HHmmss");
+
+    // 사용자의 연결 관계를 통째로 교체합니다. (전체 재배치 결과 저장)
+    // @param userSeq 사용자 시퀀스
+    // @param connections 일기 ID → 연결된 일기 ID 목록 (양방향이 모두 들어 있어야 함)
+    // @return 저장한 행 수
+    @Transactional
+    public int replaceUserConnections(Integer userSeq, Map<Integer, List<Integer>> connections) {
+        connectionRepository.deleteByUserSeq(userSeq);
+        List<DiaryConnection> entities = toEntities(userSeq, connections);
+        connectionRepository.saveAll(entities);
+        return entities.size();
+    }
+
+    // 별자리에 속한 일기가 바뀐 뒤 그 별자리의 내부 연결을 다시 만듭니다.
+    // 별자리 간 연결은 건드리지 않습니다.
+    // @param constellationSeq 별자리 시퀀스 (null이면 무시)
+    @Transactional
+    public void refreshConstellation(Integer userSeq, Integer constellationSeq) {
+        if (constellationSeq == null) {
+            return;
+        }
+        // 전체 재배치와 같은 순서(슬롯 순)로 패턴 적용
+        List<Diary> members = diaryRepository.findByConstellationSeqAndIsDeleted(constellationSeq, "N").stream()
+                .sorted(Comparator.comparing(Diary::getSlotIndex, Comparator.nullsLast(Comparator.naturalOrder())))
+                .collect(Collectors.toList());
+        if (members.isEmpty()) {
+            return;
+        }
+
+        List<Integer> memberSeqs = members.stream().map(Diary::getDiarySeq).collect(Collectors.toList());
+        connectionRepository.deleteAmong(memberSeqs);
+        connectionRepository.saveAll(toEntities(userSeq, connectionService.connectConstellation(members)));
+    }
+
+    // 일기가 한쪽 끝인 연결을 모두 지웁니다. (별자리 이동·삭제 시)
+    @Transactional
+    public void removeDiary(Integer diarySeq) {
+        connectionRepository.deleteTouching(diarySeq);
+    }
+
+    // 사용자의 모든 연결을 한 번에 조회합니다.
+    // @return 일기 ID → 연결된 일기 ID 목록 (연결이 없는 일기는 키가 없음)
+    @Transactional(readOnly = true)
+    public Map<Integer, List<Integer>> getUserConnections(Integer userSeq) {
+        Map<Integer, List<Integer>> connections = new HashMap<>();
+        for (DiaryConnection connection : connectionRepository.findByUserSeq(userSeq)) {
+            connections.computeIfAbsent(connection.getDiarySeq(), key -> new ArrayList<>())
+                    .add(connection.getConnectedDiarySeq());
+        }
+        return connections;
+    }
+
+    @Transactional(readOnly = true)
+    public List<Integer> getConnectedDiaries(Integer diarySeq) {
+        return connectionRepository.findByDiarySeq(diarySeq).stream()
+                .map(DiaryConnection::getConnectedDiarySeq)
+                .collect(Collectors.toList());
+    }
+
+    @Transactional(readOnly = true)
+    public boolean hasConnections(Integer userSeq) {
+        return connectionRepository.existsByUserSeq(userSeq);
+    }
+
+    private List<DiaryConnection> toEntities(Integer userSeq, Map<Integer, List<Integer>> connections) {
+        String now = LocalDateTime.now().format(DATE_TIME_FORMATTER);
+        List<DiaryConnection> entities = new ArrayList<>();
+        for (Map.Entry<Integer, List<Integer>> entry : connections.entrySet()) {
+            // 패턴끼리 겹쳐 같은 연결이 두 번 들어간 경우 한 번만 저장
+            for (Integer connectedSeq : new LinkedHashSet<>(entry.getValue())) {
+                entities.add(DiaryConnection.builder()
+                        .userSeq(userSeq)
+                        .diarySeq(entry.getKey())
+                        .connectedDiarySeq(connectedSeq)
+                        .createdAt(now)
+                        .build());
+            }
+        }
+        return entities;
+    }
+}
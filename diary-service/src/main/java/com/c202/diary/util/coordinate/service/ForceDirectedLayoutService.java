@@ -1,8 +1,13 @@
 package com.c202.diary.util.coordinate.service;
 
+import com.c202.diary.util.coordinate.spatial.BarnesHutOctree;
+import com.c202.diary.util.coordinate.spatial.CoordinateBuffer;
+import com.c202.diary.util.coordinate.spatial.DistanceKernels;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.util.Random;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
 
 @Service
 public class ForceDirectedLayoutService {
@@ -10,15 +15,34 @@ public class ForceDirectedLayoutService {
     // 물리 시뮬레이션 관련 상수 (필요에 따라 조정)
     private static final double REPULSION_CONSTANT = 1000.0;
     private static final double ATTRACTION_CONSTANT = 0.1;
-    private static final int ITERATIONS = 50;
+    private static final int MAX_ITERATIONS = 50;
     private static final double DAMPING = 0.85;
     private static final double MIN_DISTANCE_EPSILON = 0.01; // 0에 가까운 값 방지
 
-    private final Random random = new Random();
+    // Barnes–Hut 근사 기준 (0이면 항상 정확 계산)
+    private final double theta;
+    // 이 노드 수 이상이면 Barnes–Hut 근사 사용 (작은 클러스터는 정확 계산이 더 빠름)
+    private final int barnesHutThreshold;
+    // 이 노드 수 이상이면 힘 계산을 여러 코어로 병렬 처리
+    private final int parallelThreshold;
+    // 한 반복의 최대 이동 거리가 이보다 작으면 수렴한 것으로 보고 종료
+    private final double convergenceTolerance;
+
+    public ForceDirectedLayoutService(
+            @Value("${diary.layout.barnes-hut.theta:0.5}") double theta,
+            @Value("${diary.layout.barnes-hut.threshold:256}") int barnesHutThreshold,
+            @Value("${diary.layout.parallel-threshold:2048}") int parallelThreshold,
+            @Value("${diary.layout.convergence-tolerance:0.01}") double convergenceTolerance) {
+        this.theta = theta;
+        this.barnesHutThreshold = barnesHutThreshold;
+        this.parallelThreshold = parallelThreshold;
+        this.convergenceTolerance = convergenceTolerance;
+    }
 
     /**
      * 클러스터 내 여러 노드의 초기 좌표 배열과 클러스터 중심을 입력받아,
      * Force-Directed Layout 알고리즘을 적용한 후 새로운 좌표 배열을 반환합니다.
+     * 노드 수에 따라 정확 계산 / Barnes–Hut 근사, 단일 스레드 / 병렬 계산을 자동으로 선택합니다.
      *
      * @param positions     [n][3] 형태의 초기 좌표 배열
      * @param clusterCenter 클러스터 중심 좌표 (배열 길이 3)
@@ -26,49 +50,93 @@ public class ForceDirectedLayoutService {
      */
     public double[][] applyForceDirectedLayout(double[][] positions, double[] clusterCenter) {
         int n = positions.length;
-        double[][] velocities = new double[n][3]; // 초기 속도는 모두 0
+        return applyForceDirectedLayout(positions, clusterCenter,
+                n >= barnesHutThreshold ? theta : 0.0,
+                n >= parallelThreshold);
+    }
+
+    /**
+     * 근사 기준과 병렬 여부를 직접 지정해 레이아웃을 적용합니다. (벤치마크·튜닝용)
+     *
+     * @param positions     [n][3] 형태의 초기 좌표 배열 (결과로 덮어씀)
+     * @param clusterCenter 클러스터 중심 좌표 (배열 길이 3)
+     * @param theta         Barnes–Hut 근사 기준 (0 이하면 모든 쌍을 정확히 계산)
+     * @param parallel      힘 계산을 병렬로 수행할지 여부
+     * @return 재배치된 좌표 배열
+     */
+    public double[][] applyForceDirectedLayout(double[][] positions, double[] clusterCenter,
+                                               double theta, boolean parallel) {
+        int n = positions.length;
+        if (n == 0) {
+            return positions;
+        }
+
+        // 좌표를 축별 배열로 펼쳐서 계산 (캐시 효율, 정확 계산은 벡터 커널 사용)
+        CoordinateBuffer buffer = CoordinateBuffer.of(positions);
+        double[] xs = buffer.xs(), ys = buffer.ys(), zs = buffer.zs();
+        DistanceKernels kernels = DistanceKernels.get();
+        double[] vx = new double[n], vy = new double[n], vz = new double[n]; // 초기 속도는 모두 0
+        double[] fx = new double[n], fy = new double[n], fz = new double[n];
 
-        // 지정된 횟수만큼 반복하여 힘을 적용
-        for (int iter = 0; iter < ITERATIONS; iter++) {
-            // 각 노드별로 힘 계산
+        for (int iter = 0; iter < MAX_ITERATIONS; iter++) {
+            // 반발력: 모든 노드가 같은 시점의 위치를 보고 계산하므로 노드별로 독립적
+            if (theta > 0) {
+                BarnesHutOctree tree = BarnesHutOctree.build(xs, ys, zs, n);
+                forEachNode(n, parallel, i -> {
+                    double[] force = new double[3];
+                    tree.accumulateRepulsion(i, theta, REPULSION_CONSTANT, MIN_DISTANCE_EPSILON, force);
+                    fx[i] = force[0];
+                    fy[i] = force[1];
+                    fz[i] = force[2];
+                });
+            } else {
+                forEachNode(n, parallel, i -> {
+                    double[] force = new double[3];
+                    kernels.accumulateRepulsion(i, buffer, REPULSION_CONSTANT, MIN_DISTANCE_EPSILON, force);
+                    fx[i] = force[0];
+                    fy[i] = force[1];
+                    fz[i] = force[2];
+                });
+            }
+
+            // 클러스터 중심으로의 끌림(인력) 적용 후 속도·위치 갱신
+            double maxDisplacementSq = 0;
             for (int i = 0; i < n; i++) {
-                double forceX = 0, forceY = 0, forceZ = 0;
-                // 다른 노드들과의 상호작용 (반발력)
-                for (int j = 0; j < n; j++) {
-                    if (i == j) continue;
-                    double dx = positions[i][0] - positions[j][0];
-                    double dy = positions[i][1] - positions[j][1];
-                    double dz = positions[i][2] - positions[j][2];
-                    double distance = Math.sqrt(dx * dx + dy * dy + dz * dz);
-                    if (distance < MIN_DISTANCE_EPSILON) distance = MIN_DISTANCE_EPSILON;  // 너무 가까워지지 않게 함
-                    double repulsion = REPULSION_CONSTANT / (distance * distance);
-                    forceX += (dx / distance) * repulsion;
-                    forceY += (dy / distance) * repulsion;
-                    forceZ += (dz / distance) * repulsion;
-                }
-                // 클러스터 중심으로의 끌림 (인력)
-                double dxCenter = clusterCenter[0] - positions[i][0];
-                double dyCenter = clusterCenter[1] - positions[i][1];
-                double dzCenter = clusterCenter[2] - positions[i][2];
+                double dxCenter = clusterCenter[0] - xs[i];
+                double dyCenter = clusterCenter[1] - ys[i];
+                double dzCenter = clusterCenter[2] - zs[i];
                 double distCenter = Math.sqrt(dxCenter * dxCenter + dyCenter * dyCenter + dzCenter * dzCenter);
                 if (distCenter < MIN_DISTANCE_EPSILON) distCenter = MIN_DISTANCE_EPSILON;
                 double attraction = ATTRACTION_CONSTANT * distCenter;
-                forceX += (dxCenter / distCenter) * attraction;
-                forceY += (dyCenter / distCenter) * attraction;
-                forceZ += (dzCenter / distCenter) * attraction;
 
                 // 업데이트: 현재 속도에 힘을 더하고 감쇠 효과 적용
-                velocities[i][0] = (velocities[i][0] + forceX) * DAMPING;
-                velocities[i][1] = (velocities[i][1] + forceY) * DAMPING;
-                velocities[i][2] = (velocities[i][2] + forceZ) * DAMPING;
+                vx[i] = (vx[i] + fx[i] + (dxCenter / distCenter) * attraction) * DAMPING;
+                vy[i] = (vy[i] + fy[i] + (dyCenter / distCenter) * attraction) * DAMPING;
+                vz[i] = (vz[i] + fz[i] + (dzCenter / distCenter) * attraction) * DAMPING;
+
+                xs[i] += vx[i];
+                ys[i] += vy[i];
+                zs[i] += vz[i];
+                maxDisplacementSq = Math.max(maxDisplacementSq, vx[i] * vx[i] + vy[i] * vy[i] + vz[i] * vz[i]);
             }
-            // 속도에 따라 위치 업데이트
-            for (int i = 0; i < n; i++) {
-                positions[i][0] += velocities[i][0];
-                positions[i][1] += velocities[i][1];
-                positions[i][2] += velocities[i][2];
+
+            // 가장 많이 움직인 노드도 허용 오차 이내면 수렴
+            if (maxDisplacementSq < convergenceTolerance * convergenceTolerance) {
+                break;
             }
         }
+
+        buffer.copyTo(positions);
         return positions;
     }
+
+    private static void forEachNode(int n, boolean parallel, IntConsumer action) {
+        if (parallel) {
+            IntStream.range(0, n).parallel().forEach(action);
+        } else {
+            for (int i = 0; i < n; i++) {
+                action.accept(i);
+            }
+        }
+    }
 }
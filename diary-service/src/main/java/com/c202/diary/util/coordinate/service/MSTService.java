@@ -1,10 +1,13 @@
 package com.c202.diary.util.coordinate.service;
 
 import com.c202.diary.diary.entity.Diary;
-import com.c202.diary.tag.entity.DiaryTag;
-import com.c202.diary.tag.repository.DiaryTagRepository;
+import com.c202.diary.tag.service.DiaryTagService;
+import com.c202.diary.util.coordinate.similarity.TagCandidateGraph;
+import com.c202.diary.util.coordinate.similarity.TagSetTable;
+import com.c202.diary.util.coordinate.similarity.UnionFind;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.*;
 import java.util.stream.Collectors;
@@ -13,80 +16,90 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class MSTService {
 
-    private final DiaryTagRepository diaryTagRepository;
-    private static final double MAX_CONNECTION_WEIGHT = 100.0;
+    private final DiaryTagService diaryTagService;
     private static final int DEFAULT_MAX_CONNECTIONS_PER_DIARY = 3;
 
+    @Transactional(readOnly = true)
     public Map<Integer, List<Integer>> calculateMST(Diary centerDiary, List<Diary> diaries) {
         List<Diary> allDiaries = new ArrayList<>(diaries);
         allDiaries.add(0, centerDiary);
         int n = allDiaries.size();
+        TagSetTable tagSets = TagSetTable.of(diaryTagService.preloadTags(allDiaries));
 
-        double[][] distMatrix = new double[n][n];
+        int[] setIds = new int[n];
         for (int i = 0; i < n; i++) {
-            for (int j = 0; j < n; j++) {
-                if (i == j) {
-                    distMatrix[i][j] = Double.MAX_VALUE;
-                } else {
-                    double similarity = calculateTagSimilarity(
-                            getDiaryTags(allDiaries.get(i)),
-                            getDiaryTags(allDiaries.get(j))
-                    );
-                    distMatrix[i][j] = similarity > 0 ? 1.0 / similarity : MAX_CONNECTION_WEIGHT;
-                }
-            }
+            setIds[i] = tagSets.setIdOf(allDiaries.get(i));
         }
 
-        boolean[] inMST = new boolean[n];
-        double[] key = new double[n];
-        int[] parent = new int[n];
-        Arrays.fill(key, Double.MAX_VALUE);
-        Arrays.fill(parent, -1);
-        key[0] = 0;
+        // 태그를 공유하는 쌍만 후보 간선으로 사용 (전체 거리 행렬 없이 O(간선 수) 메모리)
+        TagCandidateGraph graph = TagCandidateGraph.build(tagSets, setIds);
+        UnionFind components = new UnionFind(n);
 
-        for (int count = 0; count < n; count++) {
-            int u = -1;
-            double minKey = Double.MAX_VALUE;
-            for (int i = 0; i < n; i++) {
-                if (!inMST[i] && key[i] < minKey) {
-                    minKey = key[i];
-                    u = i;
-                }
-            }
-            if (u == -1) break;
-            inMST[u] = true;
-            for (int v = 0; v < n; v++) {
-                if (!inMST[v] && distMatrix[u][v] < key[v]) {
-                    parent[v] = u;
-                    key[v] = distMatrix[u][v];
-                }
+        Map<Integer, List<Integer>> connections = new HashMap<>();
+        for (Diary diary : allDiaries) {
+            connections.put(diary.getDiarySeq(), new ArrayList<>());
+        }
+
+        // 1. 태그 집합이 같은 일기들은 유사도 1.0으로 가장 가까우므로 먼저 사슬로 연결
+        for (int group = 0; group < graph.groupCount(); group++) {
+            int[] members = graph.membersOf(group);
+            for (int k = 1; k < members.length; k++) {
+                connect(members[k - 1], members[k], allDiaries, components, connections);
             }
         }
 
-        Map<Integer, List<Integer>> connections = new HashMap<>();
-        for (int i = 0; i < n; i++) {
-            connections.put(allDiaries.get(i).getDiarySeq(), new ArrayList<>());
+        // 2. Kruskal: 유사도가 높은(거리 1/유사도가 짧은) 간선부터 사이클 없이 추가
+        // 그룹 간 간선의 끝점은 그룹 구성원을 돌아가며 골라 연결이 한 일기에 몰리지 않도록 함
+        int[] cursor = new int[graph.groupCount()];
+        for (int edge : graph.edgesBySimilarityDesc()) {
+            if (components.componentCount() == 1) {
+                break;
+            }
+            int from = graph.edgeFrom(edge);
+            int to = graph.edgeTo(edge);
+            int[] fromMembers = graph.membersOf(from);
+            int[] toMembers = graph.membersOf(to);
+            if (components.connected(fromMembers[0], toMembers[0])) {
+                continue;
+            }
+            connect(fromMembers[cursor[from]++ % fromMembers.length],
+                    toMembers[cursor[to]++ % toMembers.length],
+                    allDiaries, components, connections);
         }
-        for (int i = 1; i < n; i++) {
-            if (parent[i] != -1) {
-                int diary1Seq = allDiaries.get(parent[i]).getDiarySeq();
-                int diary2Seq = allDiaries.get(i).getDiarySeq();
-                connections.get(diary1Seq).add(diary2Seq);
-                connections.get(diary2Seq).add(diary1Seq);
+
+        // 3. 태그를 공유하지 않아 떨어진 컴포넌트는 최대 가중치 간선으로 차례로 이어붙임
+        int last = 0;
+        for (int i = 1; i < n && components.componentCount() > 1; i++) {
+            if (!components.connected(last, i)) {
+                connect(last, i, allDiaries, components, connections);
+                last = i;
             }
         }
 
-        return limitConnectionsInMST(connections, centerDiary, diaries, DEFAULT_MAX_CONNECTIONS_PER_DIARY);
+        return limitConnectionsInMST(connections, centerDiary, diaries, tagSets, DEFAULT_MAX_CONNECTIONS_PER_DIARY);
+    }
+
+    private void connect(int a, int b, List<Diary> allDiaries, UnionFind components,
+                         Map<Integer, List<Integer>> connections) {
+        components.union(a, b);
+        int diary1Seq = allDiaries.get(a).getDiarySeq();
+        int diary2Seq = allDiaries.get(b).getDiarySeq();
+        connections.get(diary1Seq).add(diary2Seq);
+        connections.get(diary2Seq).add(diary1Seq);
     }
 
     private Map<Integer, List<Integer>> limitConnectionsInMST(Map<Integer, List<Integer>> mstConnections,
                                                               Diary centerDiary,
                                                               List<Diary> diaries,
+                                                              TagSetTable tagSets,
                                                               int maxConnectionsPerDiary) {
         Map<Integer, List<Integer>> limitedConnections = new HashMap<>();
-        List<Diary> allDiaries = new ArrayList<>(diaries);
-        allDiaries.add(0, centerDiary);
-        for (Diary diary : allDiaries) {
+        Map<Integer, Diary> diaryBySeq = new HashMap<>();
+        diaryBySeq.put(centerDiary.getDiarySeq(), centerDiary);
+        for (Diary diary : diaries) {
+            diaryBySeq.put(diary.getDiarySeq(), diary);
+        }
+        for (Diary diary : diaryBySeq.values()) {
             Integer diarySeq = diary.getDiarySeq();
             List<Integer> connections = mstConnections.getOrDefault(diarySeq, new ArrayList<>());
             if (connections.size() <= maxConnectionsPerDiary) {
@@ -95,15 +108,9 @@ public class MSTService {
             }
             Map<Integer, Double> similarityScores = new HashMap<>();
             for (Integer connectedDiarySeq : connections) {
-                Diary connectedDiary = allDiaries.stream()
-                        .filter(d -> d.getDiarySeq().equals(connectedDiarySeq))
-                        .findFirst()
-                        .orElse(null);
+                Diary connectedDiary = diaryBySeq.get(connectedDiarySeq);
                 if (connectedDiary != null) {
-                    double similarity = calculateTagSimilarity(
-                            getDiaryTags(diary),
-                            getDiaryTags(connectedDiary)
-                    );
+                    double similarity = tagSets.similarity(diary, connectedDiary);
                     similarityScores.put(connectedDiarySeq, similarity);
                 }
             }
@@ -116,22 +123,4 @@ public class MSTService {
         }
         return limitedConnections;
     }
-
-    private List<String> getDiaryTags(Diary diary) {
-        List<DiaryTag> diaryTags = diaryTagRepository.findByDiary(diary);
-        return diaryTags.stream()
-                .map(diaryTag -> diaryTag.getTag().getName())
-                .collect(Collectors.toList());
-    }
-
-    private double calculateTagSimilarity(List<String> tags1, List<String> tags2) {
-        if (tags1.isEmpty() || tags2.isEmpty()) {
-            return 0.0;
-        }
-        Set<String> union = new HashSet<>(tags1);
-        union.addAll(tags2);
-        Set<String> intersection = new HashSet<>(tags1);
-        intersection.retainAll(tags2);
-        return (double) intersection.size() / union.size();
-    }
 }
@@ -0,0 +1,15 @@
+package com.c202.diary.util.coordinate.service;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+// 증분 배치만으로는 별자리를 잘 유지할 수 없어 사용자 전체 재배치가 필요하다는 알림
+// (ConstellationAssignmentService·LegacyLayoutEngine → RelayoutScheduler, 빈끼리 서로를 직접 참조하지 않도록 이벤트로 전달)
+@Getter
+@RequiredArgsConstructor
+public class RelayoutNeededEvent {
+
+    private final Integer userSeq;
+    // 로그용 사유
+    private final String reason;
+}
@@ -0,0 +1,186 @@
+package com.c202.diary.util.coordinate.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// 사용자별 우주 재배치 작업을 비동기로 모아서 실행하는 스케줄러
+// - 일기 작성·수정·삭제마다 재배치하지 않고, 증분 배치로 별자리를 유지할 수 없을 때(RelayoutNeededEvent)와 사용자가 직접 요청할 때만 실행합니다.
+// - 요청 트랜잭션이 커밋된 뒤에만 작업을 큐에 넣습니다.
+// - 대기 시간 동안 들어온 같은 사용자의 요청은 한 번의 재배치로 합칩니다.
+// - 한 사용자에 대해 동시에 하나의 재배치만 실행합니다. 실행 중 들어온 요청은 끝난 뒤 한 번 더 실행합니다.
+@Slf4j
+@Component
+public class RelayoutScheduler {
+
+    private final CoordinateService coordinateService;
+    private final ScheduledExecutorService executor;
+    private final long debounceMillis;
+
+    private final Map<Integer, UserRelayoutState> states = new ConcurrentHashMap<>();
+    private final AtomicInteger queueDepth = new AtomicInteger();
+    private final Timer lagTimer;
+    private final Timer runTimer;
+
+    public RelayoutScheduler(CoordinateService coordinateService,
+                             MeterRegistry meterRegistry,
+                             @Value("${diary.relayout.debounce-ms:3000}") long debounceMillis,
+                             @Value("${diary.relayout.threads:2}") int threads) {
+        this.coordinateService = coordinateService;
+        this.debounceMillis = debounceMillis;
+
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.executor = Executors.newScheduledThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "relayout-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        Gauge.builder("diary.relayout.queue.depth", queueDepth, AtomicInteger::get)
+                .description("재배치를 기다리는 사용자 수")
+                .register(meterRegistry);
+        this.lagTimer = Timer.builder("diary.relayout.lag")
+                .description("첫 재배치 요청부터 실행 시작까지 걸린 시간")
+                .register(meterRegistry);
+        this.runTimer = Timer.builder("diary.relayout.duration")
+                .description("사용자 우주 재배치 실행 시간")
+                .register(meterRegistry);
+    }
+
+    // 사용자 우주 재배치를 요청합니다.
+    // 트랜잭션 안에서 호출되면 커밋 이후에 큐에 넣고, 롤백되면 요청을 버립니다.
+    // @param userSeq 사용자 시퀀스
+    public void requestRelayout(Integer userSeq) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(userSeq);
+                }
+            });
+            return;
+        }
+        enqueue(userSeq);
+    }
+
+    // 증분 배치가 보낸 재배치 필요 알림 (배정 트랜잭션이 커밋된 뒤에 큐에 넣음)
+    @EventListener
+    public void onRelayoutNeeded(RelayoutNeededEvent event) {
+        log.debug("재배치 필요: user={}, reason={}", event.getUserSeq(), event.getReason());
+        requestRelayout(event.getUserSeq());
+    }
+
+    private void enqueue(Integer userSeq) {
+        while (true) {
+            UserRelayoutState state = states.computeIfAbsent(userSeq, key -> new UserRelayoutState());
+            synchronized (state) {
+                if (state.removed) {
+                    // 방금 정리된 상태 객체면 새로 만들어 다시 시도
+                    continue;
+                }
+                if (state.pending) {
+                    // 이미 대기 중인 작업에 합침
+                    return;
+                }
+                state.pending = true;
+                state.requestedAt = System.nanoTime();
+                queueDepth.incrementAndGet();
+
+                if (!state.running) {
+                    schedule(userSeq, state);
+                }
+                // 실행 중이면 끝난 뒤 run()에서 다시 예약
+                return;
+            }
+        }
+    }
+
+    private void schedule(Integer userSeq, UserRelayoutState state) {
+        executor.schedule(() -> run(userSeq, state), debounceMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void run(Integer userSeq, UserRelayoutState state) {
+        synchronized (state) {
+            if (state.running || !state.pending) {
+                return;
+            }
+            state.pending = false;
+            state.running = true;
+            queueDepth.decrementAndGet();
+            lagTimer.record(System.nanoTime() - state.requestedAt, TimeUnit.NANOSECONDS);
+        }
+
+        try {
+            runTimer.record(() -> coordinateService.relayoutUniverse(userSeq));
+        } catch (Exception e) {
+            log.error("사용자 {} 우주 재배치 실패", userSeq, e);
+        } finally {
+            finish(userSeq, state);
+        }
+    }
+
+    // 호출 스레드에서 바로 재배치합니다. (전체 재배치 작업용)
+    // 같은 사용자의 예약된 재배치와 동시에 실행되지 않도록 같은 상태를 사용하고, 이미 실행 중이면 건너뜁니다.
+    // 실패하면 예외를 그대로 던집니다.
+    // @return 재배치했으면 true, 이미 실행 중이라 건너뛰었으면 false
+    public boolean relayoutNow(Integer userSeq) {
+        UserRelayoutState state;
+        while (true) {
+            state = states.computeIfAbsent(userSeq, key -> new UserRelayoutState());
+            synchronized (state) {
+                if (state.removed) {
+                    continue;
+                }
+                if (state.running) {
+                    return false;
+                }
+                state.running = true;
+                break;
+            }
+        }
+
+        try {
+            runTimer.record(() -> coordinateService.relayoutUniverse(userSeq));
+            return true;
+        } finally {
+            finish(userSeq, state);
+        }
+    }
+
+    private void finish(Integer userSeq, UserRelayoutState state) {
+        synchronized (state) {
+            state.running = false;
+            if (state.pending) {
+                // 실행 중에 들어온 요청 처리
+                schedule(userSeq, state);
+            } else {
+                state.removed = true;
+                states.remove(userSeq, state);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    // 사용자별 재배치 상태
+    private static class UserRelayoutState {
+        private boolean pending;
+        private boolean running;
+        private long requestedAt;
+        private boolean removed;
+    }
+}
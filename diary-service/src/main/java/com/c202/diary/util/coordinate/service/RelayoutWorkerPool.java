@@ -0,0 +1,79 @@
+package com.c202.diary.util.coordinate.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+// 재배치의 서로 독립적인 계산(감정별 클러스터링·배치·연결 최적화)을 나눠 실행하는 작업 풀
+// 요청 스레드 수와 관계없이 전체 동시 실행 수를 diary.relayout.parallelism으로 제한합니다.
+// DB 작업은 트랜잭션 스레드에서만 해야 하므로 여기에는 순수 계산만 넘깁니다.
+@Component
+public class RelayoutWorkerPool {
+
+    // null이면 병렬 모드를 끈 것 (호출 스레드에서 순서대로 실행)
+    private final ForkJoinPool pool;
+
+    public RelayoutWorkerPool(@Value("${diary.relayout.parallel:true}") boolean parallel,
+                              @Value("${diary.relayout.parallelism:0}") int parallelism) {
+        if (!parallel) {
+            this.pool = null;
+            return;
+        }
+        int size = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.pool = new ForkJoinPool(size, forkJoinPool -> {
+            var thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+            thread.setName("relayout-worker-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, null, false);
+    }
+
+    // 각 항목에 작업을 적용한 결과를 입력 순서대로 반환합니다.
+    // 작업 하나라도 실패하면 그 예외를 그대로 던집니다.
+    public <T, R> List<R> map(List<T> items, Function<T, R> task) {
+        List<R> results = new ArrayList<>(items.size());
+        if (pool == null || items.size() <= 1) {
+            for (T item : items) {
+                results.add(task.apply(item));
+            }
+            return results;
+        }
+
+        List<ForkJoinTask<R>> submitted = new ArrayList<>(items.size());
+        for (T item : items) {
+            submitted.add(pool.submit(() -> task.apply(item)));
+        }
+        for (ForkJoinTask<R> future : submitted) {
+            try {
+                results.add(future.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                submitted.forEach(f -> f.cancel(true));
+                throw new IllegalStateException("재배치 작업이 중단되었습니다.", e);
+            } catch (ExecutionException e) {
+                submitted.forEach(f -> f.cancel(true));
+                if (e.getCause() instanceof RuntimeException runtimeException) {
+                    throw runtimeException;
+                }
+                throw new IllegalStateException("재배치 작업이 실패했습니다.", e.getCause());
+            }
+        }
+        return results;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (pool != null) {
+            pool.shutdownNow();
+        }
+    }
+}
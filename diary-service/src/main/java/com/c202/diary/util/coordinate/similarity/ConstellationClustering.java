@@ -0,0 +1,249 @@
+package com.c202.diary.util.coordinate.similarity;
+
+import java.util.*;
+
+/**
+ * 태그 유사도 기반 별자리 클러스터링 (크기 제한 union-find + 우선순위 큐 병합)
+ * 1. 태그 집합이 같은 노드끼리 최대 크기까지 묶은 뒤, 후보 그래프의 간선을 유사도 내림차순으로 보며
+ *    임계값 이상이고 합친 크기가 최대 크기 이하인 두 클러스터를 합칩니다.
+ * 2. 최소 크기보다 작은 클러스터는 태그를 공유하는 클러스터와의 유사도(클러스터 태그 합집합의 자카드)를
+ *    우선순위 큐에 넣고 높은 것부터 합칩니다. 태그를 공유하는 대상이 없으면 들어갈 수 있는 가장 작은 클러스터에 합칩니다.
+ * 모든 쌍을 비교하지 않으므로 노드당 후보 쌍이 k개일 때 O(n·k log n)입니다.
+ */
+public final class ConstellationClustering {
+
+    // 병합 대상을 찾을 때 태그 하나당 살펴보는 최대 클러스터 수 (아주 흔한 태그 대비)
+    private static final int MAX_POSTING_SCAN = 64;
+
+    private ConstellationClustering() {
+    }
+
+    /**
+     * 노드들을 클러스터로 나눕니다.
+     * @param table 태그 집합 테이블
+     * @param setIds 노드(인덱스)별 태그 집합 ID
+     * @param minSize 최소 클러스터 크기 (합칠 대상이 없으면 더 작은 클러스터가 남을 수 있음)
+     * @param maxSize 최대 클러스터 크기
+     * @param threshold 1단계에서 합치는 유사도 임계값
+     * @return 클러스터별 노드 인덱스 (클러스터 안은 오름차순, 클러스터는 가장 작은 노드 순)
+     */
+    public static int[][] cluster(TagSetTable table, int[] setIds, int minSize, int maxSize, double threshold) {
+        int n = setIds.length;
+        UnionFind clusters = new UnionFind(n);
+        TagCandidateGraph graph = TagCandidateGraph.build(table, setIds);
+
+        // 1-1. 태그 집합이 같은 노드(유사도 1.0)를 최대 크기 단위로 묶음
+        // open[g]: 그룹에서 아직 다 차지 않았을 수 있는 마지막 묶음의 노드
+        int[] open = new int[graph.groupCount()];
+        for (int group = 0; group < graph.groupCount(); group++) {
+            int[] members = graph.membersOf(group);
+            int head = members[0];
+            for (int k = 1; k < members.length; k++) {
+                if (clusters.sizeOf(head) >= maxSize) {
+                    head = members[k];
+                } else {
+                    clusters.union(head, members[k]);
+                }
+            }
+            open[group] = head;
+        }
+
+        // 1-2. 유사도가 높은 후보 쌍부터 크기 제한 안에서 합침
+        for (int edge : graph.edgesBySimilarityDesc()) {
+            if (graph.edgeSimilarity(edge) < threshold) {
+                break;
+            }
+            int a = open[graph.edgeFrom(edge)];
+            int b = open[graph.edgeTo(edge)];
+            if (!clusters.connected(a, b) && clusters.sizeOf(a) + clusters.sizeOf(b) <= maxSize) {
+                clusters.union(a, b);
+            }
+        }
+
+        // 2. 작은 클러스터 병합
+        new SmallClusterMerger(table, setIds, clusters, minSize, maxSize).run();
+
+        Map<Integer, List<Integer>> membersByRoot = new LinkedHashMap<>();
+        for (int node = 0; node < n; node++) {
+            membersByRoot.computeIfAbsent(clusters.find(node), key -> new ArrayList<>()).add(node);
+        }
+        int[][] result = new int[membersByRoot.size()][];
+        int c = 0;
+        for (List<Integer> members : membersByRoot.values()) {
+            result[c++] = members.stream().mapToInt(Integer::intValue).toArray();
+        }
+        return result;
+    }
+
+    /**
+     * 최소 크기보다 작은 클러스터를 우선순위 큐로 합치는 단계
+     * 클러스터는 union-find의 대표 노드로 구분하고, 합쳐질 때마다 버전을 올려 큐에 남은 오래된 후보를 걸러냅니다.
+     */
+    private static final class SmallClusterMerger {
+        private final UnionFind clusters;
+        private final int minSize;
+        private final int maxSize;
+
+        // 대표 노드별 클러스터 태그 합집합과 버전
+        private final int[][] tags;
+        private final int[] version;
+        // 대표 노드별 큐에 남은 후보 수
+        private final int[] pending;
+        // 태그 → 그 태그를 가진 클러스터의 대표 노드 (합쳐진 뒤에는 find로 현재 대표를 구함)
+        private final Map<Integer, List<Integer>> postings = new HashMap<>();
+        // 크기별 대표 노드 (들어갈 수 있는 가장 작은 클러스터 찾기용)
+        private final List<Set<Integer>> bySize;
+        private final PriorityQueue<Candidate> queue = new PriorityQueue<>();
+
+        private SmallClusterMerger(TagSetTable table, int[] setIds, UnionFind clusters, int minSize, int maxSize) {
+            int n = setIds.length;
+            this.clusters = clusters;
+            this.minSize = minSize;
+            this.maxSize = maxSize;
+            this.tags = new int[n][];
+            this.version = new int[n];
+            this.pending = new int[n];
+            this.bySize = new ArrayList<>(maxSize + 1);
+            for (int size = 0; size <= maxSize; size++) {
+                bySize.add(new LinkedHashSet<>());
+            }
+
+            for (int node = 0; node < n; node++) {
+                int root = clusters.find(node);
+                int[] nodeTags = table.tagsOf(setIds[node]);
+                tags[root] = tags[root] == null ? nodeTags : TagSimilarity.union(tags[root], nodeTags);
+            }
+            for (int node = 0; node < n; node++) {
+                if (clusters.find(node) == node) {
+                    for (int tag : tags[node]) {
+                        postings.computeIfAbsent(tag, key -> new ArrayList<>()).add(node);
+                    }
+                    bySize.get(clusters.sizeOf(node)).add(node);
+                }
+            }
+        }
+
+        private void run() {
+            for (int size = 1; size < minSize && size <= maxSize; size++) {
+                for (int root : new ArrayList<>(bySize.get(size))) {
+                    addCandidates(root);
+                }
+            }
+
+            while (!queue.isEmpty()) {
+                Candidate candidate = queue.poll();
+                int small = candidate.small;
+                int target = candidate.target;
+                pending[small]--;
+
+                boolean smallCurrent = isRoot(small) && version[small] == candidate.smallVersion;
+                if (!smallCurrent) {
+                    // 작은 클러스터가 이미 합쳐짐 (합친 결과가 여전히 작으면 merge에서 다시 후보를 찾음)
+                    continue;
+                }
+                if (isRoot(target) && version[target] == candidate.targetVersion) {
+                    merge(small, target);
+                    continue;
+                }
+
+                // 대상 클러스터가 그 사이 커졌으면 현재 모습으로 다시 평가
+                int current = clusters.find(target);
+                if (current != small && fits(small, current)) {
+                    push(small, current, TagSimilarity.jaccard(tags[small], tags[current]));
+                }
+                if (pending[small] == 0) {
+                    addCandidates(small);
+                }
+            }
+        }
+
+        // 태그를 공유하는 클러스터를 후보로 넣고, 없으면 들어갈 수 있는 가장 작은 클러스터를 넣음
+        private void addCandidates(int small) {
+            Set<Integer> seen = new HashSet<>();
+            for (int tag : tags[small]) {
+                List<Integer> posting = postings.get(tag);
+                int scanned = 0;
+                for (int i = posting.size() - 1; i >= 0 && scanned < MAX_POSTING_SCAN; i--, scanned++) {
+                    int target = clusters.find(posting.get(i));
+                    if (target != small && seen.add(target) && fits(small, target)) {
+                        push(small, target, TagSimilarity.jaccard(tags[small], tags[target]));
+                    }
+                }
+            }
+            if (pending[small] > 0) {
+                return;
+            }
+            int smallSize = clusters.sizeOf(small);
+            for (int size = 1; size <= maxSize - smallSize; size++) {
+                for (int target : bySize.get(size)) {
+                    if (target != small) {
+                        push(small, target, 0.0);
+                        return;
+                    }
+                }
+            }
+        }
+
+        private void merge(int small, int target) {
+            bySize.get(clusters.sizeOf(small)).remove(small);
+            bySize.get(clusters.sizeOf(target)).remove(target);
+
+            int[] merged = TagSimilarity.union(tags[small], tags[target]);
+            clusters.union(small, target);
+            int root = clusters.find(small);
+            int absorbed = root == small ? target : small;
+
+            for (int tag : tags[absorbed]) {
+                postings.get(tag).add(root);
+            }
+            tags[root] = merged;
+            tags[absorbed] = null;
+            version[root]++;
+            version[absorbed]++;
+            bySize.get(clusters.sizeOf(root)).add(root);
+
+            if (clusters.sizeOf(root) < minSize) {
+                addCandidates(root);
+            }
+        }
+
+        private void push(int small, int target, double similarity) {
+            queue.add(new Candidate(similarity, small, target, version[small], version[target]));
+            pending[small]++;
+        }
+
+        private boolean fits(int a, int b) {
+            return clusters.sizeOf(a) + clusters.sizeOf(b) <= maxSize;
+        }
+
+        private boolean isRoot(int node) {
+            return clusters.find(node) == node;
+        }
+    }
+
+    // 병합 후보 (유사도 내림차순, 같으면 노드 번호 순)
+    private static final class Candidate implements Comparable<Candidate> {
+        private final double similarity;
+        private final int small;
+        private final int target;
+        private final int smallVersion;
+        private final int targetVersion;
+
+        private Candidate(double similarity, int small, int target, int smallVersion, int targetVersion) {
+            this.similarity = similarity;
+            this.small = small;
+            this.target = target;
+            this.smallVersion = smallVersion;
+            this.targetVersion = targetVersion;
+        }
+
+        @Override
+        public int compareTo(Candidate other) {
+            int bySimilarity = Double.compare(other.similarity, similarity);
+            if (bySimilarity != 0) {
+                return bySimilarity;
+            }
+            return small != other.small ? Integer.compare(small, other.small) : Integer.compare(target, other.target);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.c202.diary.util.coordinate.similarity;
+
+import com.c202.diary.diary.entity.Diary;
+import com.c202.diary.util.coordinate.entity.DiaryEmbedding;
+import com.c202.diary.util.coordinate.repository.DiaryEmbeddingRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// 일기 임베딩 계산과 저장
+// 벡터는 일기를 작성·수정한 트랜잭션에서 함께 저장하고, 색인을 만들 때는 저장된 값을 한 번에 읽습니다.
+// 저장된 벡터가 없거나 이전 버전인 일기는 색인을 만들며 계산한 값을 나중에 한 번 저장하고, 일기를 삭제하면 벡터도 지웁니다.
+@Service
+public class DiaryEmbeddingService {
+
+    private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMdd HHmmss");
+
+    private final DiaryEmbeddingRepository embeddingRepository;
+    // 유사도에서 태그가 차지하는 비중 (나머지는 제목·본문)
+    private final double tagWeight;
+
+    public DiaryEmbeddingService(DiaryEmbeddingRepository embeddingRepository,
+                                 @Value("${diary.embedding.tag-weight:0.5}") double tagWeight) {
+        this.embeddingRepository = embeddingRepository;
+        this.tagWeight = tagWeight;
+    }
+
+    // 일기의 현재 제목·본문과 태그로 벡터를 계산합니다. (저장하지 않음)
+    // @param tagSeqs 정렬된 태그 ID 배열
+    public float[] embed(Diary diary, int[] tagSeqs) {
+        return TextEmbedder.embed(diary.getTitle(), diary.getContent(), tagSeqs, tagWeight);
+    }
+
+    // 벡터를 계산해 저장하고 반환합니다.
+    @Transactional
+    public float[] refresh(Diary diary, int[] tagSeqs) {
+        float[] vector = embed(diary, tagSeqs);
+        byte[] encoded = encode(vector);
+        String now = LocalDateTime.now().format(DATE_TIME_FORMATTER);
+
+        DiaryEmbedding embedding = embeddingRepository.findById(diary.getDiarySeq()).orElse(null);
+        if (embedding == null) {
+            embeddingRepository.save(DiaryEmbedding.builder()
+                    .diarySeq(diary.getDiarySeq())
+                    .userSeq(diary.getUserSeq())
+                    .modelVersion(TextEmbedder.MODEL_VERSION)
+                    .vector(encoded)
+                    .updatedAt(now)
+                    .build());
+        } else {
+            embedding.update(encoded, TextEmbedder.MODEL_VERSION, now);
+        }
+        return vector;
+    }
+
+    // 색인을 만들며 계산한 벡터를 저장합니다.
+    // 그 사이 일기 수정으로 현재 버전 벡터가 저장된 일기는 덮어쓰지 않습니다.
+    // @param vectors 일기 ID → 벡터
+    @Transactional
+    public void saveMissing(Integer userSeq, Map<Integer, float[]> vectors) {
+        String now = LocalDateTime.now().format(DATE_TIME_FORMATTER);
+        Map<Integer, DiaryEmbedding> existing = new HashMap<>();
+        for (DiaryEmbedding embedding : embeddingRepository.findAllById(vectors.keySet())) {
+            existing.put(embedding.getDiarySeq(), embedding);
+        }
+
+        List<DiaryEmbedding> created = new ArrayList<>();
+        for (Map.Entry<Integer, float[]> entry : vectors.entrySet()) {
+            DiaryEmbedding embedding = existing.get(entry.getKey());
+            if (embedding == null) {
+                created.add(DiaryEmbedding.builder()
+                        .diarySeq(entry.getKey())
+                        .userSeq(userSeq)
+                        .modelVersion(TextEmbedder.MODEL_VERSION)
+                        .vector(encode(entry.getValue()))
+                        .updatedAt(now)
+                        .build());
+            } else if (embedding.getModelVersion() != TextEmbedder.MODEL_VERSION) {
+                embedding.update(encode(entry.getValue()), TextEmbedder.MODEL_VERSION, now);
+            }
+        }
+        embeddingRepository.saveAll(created);
+    }
+
+    // 삭제된 일기의 벡터를 지웁니다.
+    @Transactional
+    public void delete(Integer diarySeq) {
+        embeddingRepository.findById(diarySeq).ifPresent(embeddingRepository::delete);
+    }
+
+    // 여러 일기의 벡터를 한 번에 지웁니다. (벡터를 지우기 전에 삭제된 일기 등)
+    @Transactional
+    public void deleteAll(Collection<Integer> diarySeqs) {
+        if (!diarySeqs.isEmpty()) {
+            embeddingRepository.deleteAllByIdInBatch(diarySeqs);
+        }
+    }
+
+    // 사용자의 저장된 벡터를 한 번에 조회합니다.
+    // 계산 방식이 다른(이전 버전) 벡터는 빼고 반환하므로 호출하는 쪽에서 다시 계산해야 합니다.
+    // @return 일기 ID → 벡터 (삭제된 일기 포함)
+    @Transactional(readOnly = true)
+    public Map<Integer, float[]> loadUser(Integer userSeq) {
+        Map<Integer, float[]> vectors = new HashMap<>();
+        for (DiaryEmbedding embedding : embeddingRepository.findByUserSeq(userSeq)) {
+            if (embedding.getModelVersion() == TextEmbedder.MODEL_VERSION
+                    && embedding.getVector().length == TextEmbedder.DIMENSION * Float.BYTES) {
+                vectors.put(embedding.getDiarySeq(), decode(embedding.getVector()));
+            }
+        }
+        return vectors;
+    }
+
+    private static byte[] encode(float[] vector) {
+        ByteBuffer buffer = ByteBuffer.allocate(vector.length * Float.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.asFloatBuffer().put(vector);
+        return buffer.array();
+    }
+
+    private static float[] decode(byte[] bytes) {
+        float[] vector = new float[bytes.length / Float.BYTES];
+        ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer().get(vector);
+        return vector;
+    }
+}
@@ -0,0 +1,429 @@
+package com.c202.diary.util.coordinate.similarity;
+
+import java.util.*;
+import java.util.function.IntPredicate;
+
+/**
+ * HNSW(Hierarchical Navigable Small World) 근사 최근접 이웃 색인 (내적 유사도)
+ * 점마다 층을 무작위로 정하고(위층일수록 드묾) 층마다 가까운 점끼리 이웃으로 잇습니다.
+ * 검색은 맨 위층에서 탐욕적으로 내려오다가 0층에서 후보 ef개를 유지하며 넓혀 가므로,
+ * 점 n개에서 거의 O(log n)개의 점만 비교합니다.
+ * 삭제는 표시만 하고(탐색 경로로는 계속 사용), 삭제된 점이 절반을 넘으면 남은 점으로 다시 만듭니다.
+ * 스레드 안전하지 않으므로 공유할 때는 호출하는 쪽에서 동기화해야 합니다.
+ */
+public final class HnswIndex {
+
+    // 이 수보다 적게 삭제됐으면 다시 만들지 않음
+    private static final int COMPACT_MIN_DELETED = 64;
+
+    private final int m;
+    private final int maxM0;
+    private final int efConstruction;
+    private final double levelMultiplier;
+    private final Random random;
+
+    private final List<Node> nodes = new ArrayList<>();
+    private final Map<Integer, Integer> nodeById = new HashMap<>();
+    private int entryPoint = -1;
+    private int maxLevel = -1;
+    private int deletedCount;
+
+    // 방문 표시 (탐색마다 세대 번호를 올려 배열을 지우지 않고 재사용)
+    private int[] visited = new int[16];
+    private int visitGeneration;
+
+    /**
+     * @param m 위층의 점당 최대 이웃 수 (0층은 2m)
+     * @param efConstruction 삽입 시 유지하는 후보 수 (클수록 정확하고 느림)
+     * @param seed 층 선택 난수 시드
+     */
+    public HnswIndex(int m, int efConstruction, long seed) {
+        if (m < 2) {
+            throw new IllegalArgumentException("m은 2 이상이어야 합니다: " + m);
+        }
+        this.m = m;
+        this.maxM0 = 2 * m;
+        this.efConstruction = Math.max(efConstruction, m);
+        this.levelMultiplier = 1.0 / Math.log(m);
+        this.random = new Random(seed);
+    }
+
+    /**
+     * 삭제되지 않은 점 수
+     */
+    public int size() {
+        return nodeById.size();
+    }
+
+    public boolean contains(int id) {
+        return nodeById.containsKey(id);
+    }
+
+    /**
+     * 점을 추가하거나 이미 있으면 새 벡터로 바꿉니다.
+     */
+    public void put(int id, float[] vector) {
+        remove(id);
+        if (deletedCount >= COMPACT_MIN_DELETED && deletedCount * 2 > nodes.size()) {
+            compact();
+        }
+        insert(id, vector);
+    }
+
+    /**
+     * 점을 삭제 표시합니다.
+     */
+    public boolean remove(int id) {
+        Integer index = nodeById.remove(id);
+        if (index == null) {
+            return false;
+        }
+        nodes.get(index).deleted = true;
+        deletedCount++;
+        return true;
+    }
+
+    /**
+     * 질의 벡터와 내적이 큰 순으로 최대 k개를 찾습니다.
+     * 필터를 통과한 결과가 k개보다 적으면 ef를 넓혀 다시 탐색합니다. (모든 점을 볼 때까지)
+     * @param ef 0층에서 유지할 후보 수 (k보다 작으면 k)
+     * @param filter 결과에 포함할 점 ID 조건 (null이면 모두)
+     * @return 유사도 내림차순 (같으면 ID 오름차순)
+     */
+    public List<Result> search(float[] query, int k, int ef, IntPredicate filter) {
+        if (entryPoint < 0 || k <= 0 || nodeById.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        int current = entryPoint;
+        for (int level = maxLevel; level > 0; level--) {
+            current = greedy(query, current, level);
+        }
+
+        int width = Math.max(ef, k);
+        while (true) {
+            List<Result> results = new ArrayList<>(k);
+            for (Candidate candidate : searchLayer(query, current, width, 0)) {
+                Node node = nodes.get(candidate.node);
+                if (!node.deleted && (filter == null || filter.test(node.id))) {
+                    results.add(new Result(node.id, candidate.similarity));
+                }
+            }
+            results.sort(Comparator.comparingDouble(Result::getSimilarity).reversed()
+                    .thenComparingInt(Result::getId));
+            if (results.size() >= k || width >= nodes.size()) {
+                return results.size() > k ? new ArrayList<>(results.subList(0, k)) : results;
+            }
+            width = Math.min(nodes.size(), width * 4);
+        }
+    }
+
+    private void insert(int id, float[] vector) {
+        int level = (int) (-Math.log(1.0 - random.nextDouble()) * levelMultiplier);
+        int index = nodes.size();
+        Node node = new Node(id, vector, level, m, maxM0);
+        nodes.add(node);
+        nodeById.put(id, index);
+
+        if (entryPoint < 0) {
+            entryPoint = index;
+            maxLevel = level;
+            return;
+        }
+
+        int current = entryPoint;
+        for (int l = maxLevel; l > level; l--) {
+            current = greedy(vector, current, l);
+        }
+        for (int l = Math.min(level, maxLevel); l >= 0; l--) {
+            List<Candidate> found = searchLayer(vector, current, efConstruction, l);
+            current = found.get(0).node;
+
+            // 삭제된 점은 탐색 경로로만 쓰고 새 이웃으로는 고르지 않음
+            found.removeIf(candidate -> nodes.get(candidate.node).deleted);
+            for (int neighbor : selectNeighbors(found, m)) {
+                node.addLink(l, neighbor);
+                link(neighbor, index, l);
+            }
+        }
+
+        if (level > maxLevel) {
+            maxLevel = level;
+            entryPoint = index;
+        }
+    }
+
+    // from의 이웃으로 to를 추가하고, 이웃 수가 넘치면 다시 골라 줄임
+    private void link(int from, int to, int level) {
+        Node node = nodes.get(from);
+        int max = level == 0 ? maxM0 : m;
+        if (node.linkCount[level] < max) {
+            node.addLink(level, to);
+            return;
+        }
+
+        List<Candidate> candidates = new ArrayList<>(max + 1);
+        candidates.add(new Candidate(to, TextEmbedder.similarity(node.vector, nodes.get(to).vector)));
+        for (int i = 0; i < node.linkCount[level]; i++) {
+            int neighbor = node.links[level][i];
+            candidates.add(new Candidate(neighbor, TextEmbedder.similarity(node.vector, nodes.get(neighbor).vector)));
+        }
+        candidates.sort(Candidate.BY_SIMILARITY_DESC);
+
+        int[] selected = selectNeighbors(candidates, max);
+        node.linkCount[level] = 0;
+        for (int neighbor : selected) {
+            node.addLink(level, neighbor);
+        }
+    }
+
+    // 이웃 선택 휴리스틱: 이미 고른 이웃보다 기준점에 더 가까운 후보만 골라 여러 방향으로 이웃을 퍼뜨림
+    // 그래도 자리가 남으면 버린 후보를 가까운 순으로 채움
+    // @param candidates 기준점과의 유사도 내림차순
+    private int[] selectNeighbors(List<Candidate> candidates, int max) {
+        int[] selected = new int[Math.min(max, candidates.size())];
+        int count = 0;
+        List<Candidate> pruned = new ArrayList<>();
+        for (Candidate candidate : candidates) {
+            if (count == selected.length) {
+                break;
+            }
+            float[] vector = nodes.get(candidate.node).vector;
+            boolean diverse = true;
+            for (int i = 0; i < count; i++) {
+                if (TextEmbedder.similarity(vector, nodes.get(selected[i]).vector) > candidate.similarity) {
+                    diverse = false;
+                    break;
+                }
+            }
+            if (diverse) {
+                selected[count++] = candidate.node;
+            } else {
+                pruned.add(candidate);
+            }
+        }
+        for (int i = 0; i < pruned.size() && count < selected.length; i++) {
+            selected[count++] = pruned.get(i).node;
+        }
+        return count == selected.length ? selected : Arrays.copyOf(selected, count);
+    }
+
+    // 한 층에서 더 가까운 이웃이 없을 때까지 이동
+    private int greedy(float[] query, int entry, int level) {
+        int current = entry;
+        double best = TextEmbedder.similarity(query, nodes.get(current).vector);
+        boolean moved = true;
+        while (moved) {
+            moved = false;
+            Node node = nodes.get(current);
+            for (int i = 0; i < node.linkCount[level]; i++) {
+                int neighbor = node.links[level][i];
+                double similarity = TextEmbedder.similarity(query, nodes.get(neighbor).vector);
+                if (similarity > best) {
+                    best = similarity;
+                    current = neighbor;
+                    moved = true;
+                }
+            }
+        }
+        return current;
+    }
+
+    // 한 층에서 후보 ef개를 유지하며 탐색하고 유사도 내림차순으로 반환
+    private List<Candidate> searchLayer(float[] query, int entry, int ef, int level) {
+        int generation = nextVisitGeneration();
+        // frontier: 아직 이웃을 보지 않은 후보 (가까운 순), best: 지금까지 가장 가까운 ef개 (가장 먼 것이 맨 위)
+        CandidateHeap frontier = new CandidateHeap(true, ef);
+        CandidateHeap best = new CandidateHeap(false, ef + 1);
+
+        double startSimilarity = TextEmbedder.similarity(query, nodes.get(entry).vector);
+        visited[entry] = generation;
+        frontier.push(entry, startSimilarity);
+        best.push(entry, startSimilarity);
+
+        while (frontier.size > 0) {
+            double similarity = frontier.topSimilarity();
+            int current = frontier.pop();
+            if (best.size >= ef && similarity < best.topSimilarity()) {
+                break;
+            }
+            Node node = nodes.get(current);
+            if (level > node.level) {
+                continue;
+            }
+            for (int i = 0; i < node.linkCount[level]; i++) {
+                int neighbor = node.links[level][i];
+                if (visited[neighbor] == generation) {
+                    continue;
+                }
+                visited[neighbor] = generation;
+                double neighborSimilarity = TextEmbedder.similarity(query, nodes.get(neighbor).vector);
+                if (best.size < ef || neighborSimilarity > best.topSimilarity()) {
+                    frontier.push(neighbor, neighborSimilarity);
+                    best.push(neighbor, neighborSimilarity);
+                    if (best.size > ef) {
+                        best.pop();
+                    }
+                }
+            }
+        }
+
+        List<Candidate> result = new ArrayList<>(best.size);
+        for (int i = 0; i < best.size; i++) {
+            result.add(new Candidate(best.nodes[i], best.similarities[i]));
+        }
+        result.sort(Candidate.BY_SIMILARITY_DESC);
+        return result;
+    }
+
+    private int nextVisitGeneration() {
+        if (visited.length < nodes.size()) {
+            visited = Arrays.copyOf(visited, Math.max(nodes.size(), visited.length * 2));
+        }
+        if (++visitGeneration == Integer.MAX_VALUE) {
+            Arrays.fill(visited, 0);
+            visitGeneration = 1;
+        }
+        return visitGeneration;
+    }
+
+    // 삭제되지 않은 점만으로 다시 만듦
+    private void compact() {
+        List<Node> live = new ArrayList<>(nodeById.size());
+        for (Node node : nodes) {
+            if (!node.deleted) {
+                live.add(node);
+            }
+        }
+        nodes.clear();
+        nodeById.clear();
+        entryPoint = -1;
+        maxLevel = -1;
+        deletedCount = 0;
+        for (Node node : live) {
+            insert(node.id, node.vector);
+        }
+    }
+
+    private static final class Node {
+        private final int id;
+        private final float[] vector;
+        private final int level;
+        private final int[][] links;
+        private final int[] linkCount;
+        private boolean deleted;
+
+        private Node(int id, float[] vector, int level, int m, int maxM0) {
+            this.id = id;
+            this.vector = vector;
+            this.level = level;
+            this.links = new int[level + 1][];
+            this.linkCount = new int[level + 1];
+            for (int l = 0; l <= level; l++) {
+                links[l] = new int[l == 0 ? maxM0 : m];
+            }
+        }
+
+        private void addLink(int level, int neighbor) {
+            links[level][linkCount[level]++] = neighbor;
+        }
+    }
+
+    // 점 번호와 유사도를 기본형 배열로 담는 이진 힙 (탐색마다 객체를 만들지 않도록)
+    private static final class CandidateHeap {
+        private final boolean maxFirst;
+        private int[] nodes;
+        private double[] similarities;
+        private int size;
+
+        private CandidateHeap(boolean maxFirst, int capacity) {
+            this.maxFirst = maxFirst;
+            this.nodes = new int[Math.max(4, capacity)];
+            this.similarities = new double[nodes.length];
+        }
+
+        private double topSimilarity() {
+            return similarities[0];
+        }
+
+        private void push(int node, double similarity) {
+            if (size == nodes.length) {
+                nodes = Arrays.copyOf(nodes, size * 2);
+                similarities = Arrays.copyOf(similarities, size * 2);
+            }
+            int i = size++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (!before(similarity, similarities[parent])) {
+                    break;
+                }
+                nodes[i] = nodes[parent];
+                similarities[i] = similarities[parent];
+                i = parent;
+            }
+            nodes[i] = node;
+            similarities[i] = similarity;
+        }
+
+        private int pop() {
+            int top = nodes[0];
+            int lastNode = nodes[--size];
+            double lastSimilarity = similarities[size];
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) {
+                    break;
+                }
+                if (child + 1 < size && before(similarities[child + 1], similarities[child])) {
+                    child++;
+                }
+                if (!before(similarities[child], lastSimilarity)) {
+                    break;
+                }
+                nodes[i] = nodes[child];
+                similarities[i] = similarities[child];
+                i = child;
+            }
+            nodes[i] = lastNode;
+            similarities[i] = lastSimilarity;
+            return top;
+        }
+
+        private boolean before(double a, double b) {
+            return maxFirst ? a > b : a < b;
+        }
+    }
+
+    private static final class Candidate {
+        private static final Comparator<Candidate> BY_SIMILARITY_DESC =
+                (a, b) -> Double.compare(b.similarity, a.similarity);
+
+        private final int node;
+        private final double similarity;
+
+        private Candidate(int node, double similarity) {
+            this.node = node;
+            this.similarity = similarity;
+        }
+    }
+
+    // 검색 결과
+    public static final class Result {
+        private final int id;
+        private final double similarity;
+
+        public Result(int id, double similarity) {
+            this.id = id;
+            this.similarity = similarity;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public double getSimilarity() {
+            return similarity;
+        }
+    }
+}
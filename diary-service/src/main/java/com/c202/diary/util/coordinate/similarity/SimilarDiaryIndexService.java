@@ -0,0 +1,492 @@
+package com.c202.diary.util.coordinate.similarity;
+
+import com.c202.diary.diary.entity.Diary;
+import com.c202.diary.diary.model.DiaryCoordinateView;
+import com.c202.diary.diary.repository.DiaryRepository;
+import com.c202.diary.tag.service.DiaryTagService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.IntPredicate;
+
+// 사용자별 유사 일기 색인을 메모리에 유지하며 유사한 일기 top-k를 찾는 서비스
+// 기본은 제목·본문·태그 임베딩(TextEmbedder)의 유사도로 찾아, 태그가 겹치지 않아도 내용이 비슷한 일기를 찾습니다.
+// 일기가 diary.embedding.hnsw.min-size개 이상인 사용자는 HNSW 근사 색인으로, 그보다 적으면 전체를 비교합니다.
+// diary.embedding.enabled=false이면 태그 → 일기 역색인으로 태그를 공유하는 일기만 점수를 계산합니다.
+// 일기의 내용·태그·감정이 바뀌면 커밋 이후 색인에 반영하고, 다른 인스턴스의 변경을 놓치지 않도록 일정 시간마다 새로 만듭니다.
+// 색인을 만들 때 저장된 임베딩이 없어 계산한 벡터는 별도 스레드에서 저장하므로, 다음에 만들 때는 다시 계산하지 않습니다.
+// 같은 사용자의 색인은 한 요청만 만들고, 만드는 동안 커밋된 변경은 모아 두었다가 다 만든 색인에 반영합니다.
+@Slf4j
+@Service
+public class SimilarDiaryIndexService {
+
+    private final DiaryRepository diaryRepository;
+    private final DiaryTagService diaryTagService;
+    private final DiaryEmbeddingService embeddingService;
+    private final long ttlMillis;
+    private final boolean embeddingEnabled;
+    // 임베딩 유사도가 이보다 낮은 일기는 결과에서 제외
+    private final double minSimilarity;
+    private final HnswSettings hnswSettings;
+
+    // 사용자 → 색인, 오래 쓰지 않은 사용자부터 제거
+    private final Map<Integer, UserSimilarIndex> indexByUser;
+    // 사용자 → 만드는 중인 색인 (이 맵으로 동기화)
+    private final Map<Integer, PendingIndex> loadingByUser = new HashMap<>();
+    // 계산한 임베딩 저장 (밀리면 버리고 다음에 색인을 만들 때 다시 시도)
+    private final ThreadPoolExecutor embeddingWriter;
+
+    public SimilarDiaryIndexService(DiaryRepository diaryRepository,
+                                    DiaryTagService diaryTagService,
+                                    DiaryEmbeddingService embeddingService,
+                                    @Value("${diary.similar-index.max-users:10000}") int maxUsers,
+                                    @Value("${diary.similar-index.ttl-ms:600000}") long ttlMillis,
+                                    @Value("${diary.embedding.enabled:true}") boolean embeddingEnabled,
+                                    @Value("${diary.embedding.min-similarity:0.2}") double minSimilarity,
+                                    @Value("${diary.embedding.hnsw.min-size:1000}") int hnswMinSize,
+                                    @Value("${diary.embedding.hnsw.m:16}") int hnswM,
+                                    @Value("${diary.embedding.hnsw.ef-construction:100}") int hnswEfConstruction,
+                                    @Value("${diary.embedding.hnsw.ef-search:64}") int hnswEfSearch) {
+        this.diaryRepository = diaryRepository;
+        this.diaryTagService = diaryTagService;
+        this.embeddingService = embeddingService;
+        this.ttlMillis = ttlMillis;
+        this.embeddingEnabled = embeddingEnabled;
+        this.minSimilarity = minSimilarity;
+        this.hnswSettings = new HnswSettings(hnswMinSize, hnswM, hnswEfConstruction, hnswEfSearch);
+        this.indexByUser = Collections.synchronizedMap(
+                new LinkedHashMap<Integer, UserSimilarIndex>(16, 0.75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<Integer, UserSimilarIndex> eldest) {
+                        return size() > maxUsers;
+                    }
+                });
+        this.embeddingWriter = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(100), runnable -> {
+            Thread thread = new Thread(runnable, "embedding-writer");
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.DiscardPolicy());
+    }
+
+    // 같은 사용자·같은 감정의 일기 중 유사도가 높은 순으로 최대 k개를 반환합니다.
+    // 임베딩을 쓰면 제목·본문·태그 임베딩 유사도가 min-similarity 이상인 일기를, 아니면 태그 자카드 유사도로 찾습니다.
+    // 기준 일기의 내용·감정·태그는 호출하는 쪽에서 넘겨받아 아직 커밋되지 않은 변경도 반영합니다.
+    public List<Integer> findSimilar(Diary diary, int[] tagSeqs, int k) {
+        if (!embeddingEnabled) {
+            return findSimilar(diary.getUserSeq(), diary.getDiarySeq(), diary.getEmotionSeq(), tagSeqs, k);
+        }
+        if (diary.getUserSeq() == null || diary.getDiarySeq() == null || k <= 0) {
+            return Collections.emptyList();
+        }
+        float[] query = embeddingService.embed(diary, tagSeqs);
+        UserSimilarIndex index = indexOf(diary.getUserSeq());
+        synchronized (index) {
+            return index.topKByEmbedding(diary.getDiarySeq(), diary.getEmotionSeq(), query, k, minSimilarity);
+        }
+    }
+
+    // 같은 사용자·같은 감정의 일기 중 태그 자카드 유사도가 높은 순으로 최대 k개를 반환합니다.
+    // 유사도가 같으면 일기 ID 오름차순이며, 태그를 하나도 공유하지 않는 일기는 포함하지 않습니다.
+    // 기준 일기의 감정·태그는 호출하는 쪽에서 넘겨받아 아직 커밋되지 않은 변경도 반영합니다.
+    public List<Integer> findSimilar(Integer userSeq, Integer diarySeq, Integer emotionSeq, int[] tagSeqs, int k) {
+        if (userSeq == null || diarySeq == null || tagSeqs.length == 0 || k <= 0) {
+            return Collections.emptyList();
+        }
+        UserSimilarIndex index = indexOf(userSeq);
+        synchronized (index) {
+            return index.topK(diarySeq, emotionSeq, tagSeqs, k);
+        }
+    }
+
+    // 일기의 내용·태그·감정이 바뀐 것을 색인에 반영합니다. (트랜잭션 안이면 커밋 이후에 반영)
+    // 임베딩은 현재 트랜잭션에서 다시 계산해 저장하므로 diary에는 바뀐 제목·본문이 반영되어 있어야 합니다.
+    public void onDiaryChanged(Diary diary, Integer emotionSeq, int[] tagSeqs) {
+        Integer userSeq = diary.getUserSeq();
+        Integer diarySeq = diary.getDiarySeq();
+        if (userSeq == null || diarySeq == null) {
+            return;
+        }
+        float[] vector = embeddingEnabled ? embeddingService.refresh(diary, tagSeqs) : null;
+        afterCommit(() -> applyChange(userSeq, index -> index.put(diarySeq, emotionSeq, tagSeqs, vector)));
+    }
+
+    // 일기를 색인에서 제거합니다. (삭제된 일기는 onDiaryDeleted로 임베딩까지 지움)
+    public void onDiaryRemoved(Integer userSeq, Integer diarySeq) {
+        afterCommit(() -> applyChange(userSeq, index -> index.remove(diarySeq)));
+    }
+
+    // 삭제된 일기의 임베딩을 현재 트랜잭션에서 지웁니다.
+    public void onDiaryDeleted(Integer userSeq, Integer diarySeq) {
+        if (embeddingEnabled) {
+            embeddingService.delete(diarySeq);
+        }
+        onDiaryRemoved(userSeq, diarySeq);
+    }
+
+    public void invalidateUser(Integer userSeq) {
+        afterCommit(() -> {
+            synchronized (loadingByUser) {
+                // 만드는 중인 색인은 바뀌기 전 좌표·구성을 읽었을 수 있으므로 저장하지 않음
+                PendingIndex pending = loadingByUser.get(userSeq);
+                if (pending != null) {
+                    pending.invalidated = true;
+                }
+                indexByUser.remove(userSeq);
+            }
+        });
+    }
+
+    // 색인 변경을 반영합니다. (커밋 이후에 호출)
+    // 아직 만들어지지 않은 색인은 다음 조회 때 DB에서 새로 만들고, 만드는 중인 색인에는 다 만든 뒤에 반영합니다.
+    private void applyChange(Integer userSeq, Consumer<UserSimilarIndex> change) {
+        synchronized (loadingByUser) {
+            PendingIndex pending = loadingByUser.get(userSeq);
+            if (pending != null) {
+                pending.changes.add(change);
+            }
+        }
+        UserSimilarIndex index = indexByUser.get(userSeq);
+        if (index != null) {
+            synchronized (index) {
+                change.accept(index);
+            }
+        }
+    }
+
+    // 사용자의 색인 (만든 지 ttl이 지났으면 새로 만듦)
+    // 다른 요청이 만드는 중이면 이전 색인을 쓰고, 이전 색인도 없으면 다 만들 때까지 기다립니다.
+    private UserSimilarIndex indexOf(Integer userSeq) {
+        UserSimilarIndex index = indexByUser.get(userSeq);
+        if (index != null && System.currentTimeMillis() - index.loadedAt < ttlMillis) {
+            return index;
+        }
+
+        PendingIndex pending = new PendingIndex();
+        PendingIndex running;
+        synchronized (loadingByUser) {
+            running = loadingByUser.putIfAbsent(userSeq, pending);
+        }
+        if (running != null) {
+            return index != null ? index : running.await();
+        }
+
+        try {
+            UserSimilarIndex loaded = loadIndex(userSeq);
+            synchronized (loadingByUser) {
+                // DB를 읽은 뒤 커밋된 변경 반영 (먼저 커밋된 변경이 이미 반영되어 있어도 결과는 같음)
+                synchronized (loaded) {
+                    for (Consumer<UserSimilarIndex> change : pending.changes) {
+                        change.accept(loaded);
+                    }
+                }
+                if (!pending.invalidated) {
+                    indexByUser.put(userSeq, loaded);
+                }
+                loadingByUser.remove(userSeq);
+            }
+            pending.result.complete(loaded);
+            return loaded;
+        } catch (RuntimeException e) {
+            synchronized (loadingByUser) {
+                loadingByUser.remove(userSeq);
+            }
+            pending.result.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private UserSimilarIndex loadIndex(Integer userSeq) {
+        List<DiaryCoordinateView> diaries = diaryRepository.findByUserSeqAndIsDeleted(
+                userSeq, "N", DiaryCoordinateView.class);
+        List<Integer> diarySeqs = new ArrayList<>(diaries.size());
+        for (DiaryCoordinateView diary : diaries) {
+            diarySeqs.add(diary.getDiarySeq());
+        }
+        Map<Integer, int[]> tagSeqsByDiary = diaryTagService.preloadTagSeqs(diarySeqs);
+        Map<Integer, float[]> vectors = embeddingEnabled
+                ? loadVectors(userSeq, diarySeqs, tagSeqsByDiary)
+                : Collections.emptyMap();
+
+        UserSimilarIndex index = new UserSimilarIndex(System.currentTimeMillis(), hnswSettings, userSeq);
+        for (DiaryCoordinateView diary : diaries) {
+            index.put(diary.getDiarySeq(), diary.getEmotionSeq(),
+                    tagSeqsByDiary.getOrDefault(diary.getDiarySeq(), TagSimilarity.EMPTY),
+                    vectors.get(diary.getDiarySeq()));
+        }
+        log.debug("유사 일기 색인 생성: user={}, diaries={}, hnsw={}", userSeq, diaries.size(), index.usesHnsw());
+        return index;
+    }
+
+    // 저장된 임베딩을 읽고, 없는 일기(기능 도입 전에 쓴 일기 등)는 계산해서 씁니다.
+    // 계산한 벡터와 삭제된 일기의 남은 벡터 정리는 조회 경로 밖에서 저장합니다.
+    private Map<Integer, float[]> loadVectors(Integer userSeq, List<Integer> diarySeqs,
+                                             Map<Integer, int[]> tagSeqsByDiary) {
+        Map<Integer, float[]> stored = embeddingService.loadUser(userSeq);
+        Map<Integer, float[]> vectors = new HashMap<>(diarySeqs.size());
+        List<Integer> missing = new ArrayList<>();
+        for (Integer diarySeq : diarySeqs) {
+            float[] vector = stored.get(diarySeq);
+            if (vector != null) {
+                vectors.put(diarySeq, vector);
+            } else {
+                missing.add(diarySeq);
+            }
+        }
+        // 색인에 없는 벡터는 삭제된 일기일 수 있으므로 저장 스레드에서 확인 후 지움
+        Set<Integer> orphaned = new HashSet<>(stored.keySet());
+        orphaned.removeAll(vectors.keySet());
+
+        Map<Integer, float[]> computed = new HashMap<>();
+        if (!missing.isEmpty()) {
+            for (Diary diary : diaryRepository.findAllById(missing)) {
+                computed.put(diary.getDiarySeq(), embeddingService.embed(diary,
+                        tagSeqsByDiary.getOrDefault(diary.getDiarySeq(), TagSimilarity.EMPTY)));
+            }
+            vectors.putAll(computed);
+            log.debug("저장되지 않은 임베딩 계산: user={}, diaries={}", userSeq, missing.size());
+        }
+        if (!computed.isEmpty() || !orphaned.isEmpty()) {
+            embeddingWriter.execute(() -> writeVectors(userSeq, computed, orphaned));
+        }
+        return vectors;
+    }
+
+    private void writeVectors(Integer userSeq, Map<Integer, float[]> computed, Set<Integer> orphaned) {
+        try {
+            embeddingService.saveMissing(userSeq, computed);
+
+            // 일기 목록을 읽은 뒤에 작성된 일기는 남김
+            Set<Integer> deleted = new HashSet<>(orphaned);
+            for (Diary diary : diaryRepository.findAllById(orphaned)) {
+                if ("N".equals(diary.getIsDeleted())) {
+                    deleted.remove(diary.getDiarySeq());
+                }
+            }
+            embeddingService.deleteAll(deleted);
+            log.debug("임베딩 저장: user={}, saved={}, deleted={}", userSeq, computed.size(), deleted.size());
+        } catch (RuntimeException e) {
+            // 다음에 색인을 만들 때 다시 계산해 저장함
+            log.warn("임베딩 저장 실패: user={}", userSeq, e);
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+            return;
+        }
+        action.run();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        embeddingWriter.shutdownNow();
+    }
+
+    // 한 사용자의 유사 일기 색인 (스레드 안전하지 않으므로 호출하는 쪽에서 동기화)
+    // 태그 역색인은 항상 유지하고, 임베딩 근사 색인은 일기 수가 hnsw.min-size 이상이 되면 만듭니다.
+    private static final class UserSimilarIndex {
+        private final long loadedAt;
+        private final HnswSettings settings;
+        private final long seed;
+        private final Map<Integer, Entry> entries = new HashMap<>();
+        private final Map<Integer, Set<Integer>> postings = new HashMap<>();
+        // null이면 전체 비교
+        private HnswIndex hnsw;
+
+        private UserSimilarIndex(long loadedAt, HnswSettings settings, long seed) {
+            this.loadedAt = loadedAt;
+            this.settings = settings;
+            this.seed = seed;
+        }
+
+        private boolean usesHnsw() {
+            return hnsw != null;
+        }
+
+        private void put(Integer diarySeq, Integer emotionSeq, int[] tagSeqs, float[] vector) {
+            remove(diarySeq);
+            entries.put(diarySeq, new Entry(emotionSeq, tagSeqs, vector));
+            for (int tagSeq : tagSeqs) {
+                postings.computeIfAbsent(tagSeq, key -> new HashSet<>()).add(diarySeq);
+            }
+            if (vector == null) {
+                return;
+            }
+            if (hnsw != null) {
+                hnsw.put(diarySeq, vector);
+            } else if (entries.size() >= settings.minSize) {
+                buildHnsw();
+            }
+        }
+
+        private void remove(Integer diarySeq) {
+            Entry entry = entries.remove(diarySeq);
+            if (entry == null) {
+                return;
+            }
+            for (int tagSeq : entry.tagSeqs) {
+                Set<Integer> posting = postings.get(tagSeq);
+                if (posting != null) {
+                    posting.remove(diarySeq);
+                    if (posting.isEmpty()) {
+                        postings.remove(tagSeq);
+                    }
+                }
+            }
+            if (hnsw != null) {
+                hnsw.remove(diarySeq);
+            }
+        }
+
+        private void buildHnsw() {
+            hnsw = new HnswIndex(settings.m, settings.efConstruction, seed);
+            for (Map.Entry<Integer, Entry> entry : entries.entrySet()) {
+                if (entry.getValue().vector != null) {
+                    hnsw.put(entry.getKey(), entry.getValue().vector);
+                }
+            }
+        }
+
+        private List<Integer> topKByEmbedding(Integer diarySeq, Integer emotionSeq, float[] query, int k,
+                                              double minSimilarity) {
+            List<Scored> ranked = new ArrayList<>();
+            if (hnsw != null) {
+                IntPredicate sameEmotion = id -> id != diarySeq
+                        && Objects.equals(entries.get(id).emotionSeq, emotionSeq);
+                for (HnswIndex.Result found : hnsw.search(query, k, Math.max(k, settings.efSearch), sameEmotion)) {
+                    ranked.add(new Scored(found.getId(), found.getSimilarity()));
+                }
+            } else {
+                for (Map.Entry<Integer, Entry> entry : entries.entrySet()) {
+                    Entry other = entry.getValue();
+                    if (entry.getKey().equals(diarySeq) || other.vector == null
+                            || !Objects.equals(other.emotionSeq, emotionSeq)) {
+                        continue;
+                    }
+                    ranked.add(new Scored(entry.getKey(), TextEmbedder.similarity(query, other.vector)));
+                }
+            }
+
+            ranked.sort(Comparator.comparingDouble((Scored s) -> s.score).reversed()
+                    .thenComparing(s -> s.diarySeq));
+            List<Integer> result = new ArrayList<>(Math.min(k, ranked.size()));
+            for (Scored scored : ranked) {
+                if (result.size() == k || scored.score < minSimilarity) {
+                    break;
+                }
+                result.add(scored.diarySeq);
+            }
+            return result;
+        }
+
+        private List<Integer> topK(Integer diarySeq, Integer emotionSeq, int[] tagSeqs, int k) {
+            // 공유하는 태그 수 집계 (같은 감정의 일기만)
+            Map<Integer, Integer> overlaps = new HashMap<>();
+            for (int tagSeq : tagSeqs) {
+                for (Integer other : postings.getOrDefault(tagSeq, Collections.emptySet())) {
+                    if (other.equals(diarySeq) || !Objects.equals(entries.get(other).emotionSeq, emotionSeq)) {
+                        continue;
+                    }
+                    overlaps.merge(other, 1, Integer::sum);
+                }
+            }
+
+            // 크기 k의 최소 힙 (가장 낮은 점수가 맨 위)
+            Comparator<Scored> byScore = Comparator.comparingDouble((Scored s) -> s.score)
+                    .thenComparing((Scored s) -> s.diarySeq, Comparator.reverseOrder());
+            PriorityQueue<Scored> heap = new PriorityQueue<>(k + 1, byScore);
+            for (Map.Entry<Integer, Integer> overlap : overlaps.entrySet()) {
+                int otherSize = entries.get(overlap.getKey()).tagSeqs.length;
+                int shared = overlap.getValue();
+                Scored scored = new Scored(overlap.getKey(),
+                        (double) shared / (tagSeqs.length + otherSize - shared));
+                if (heap.size() < k) {
+                    heap.add(scored);
+                } else if (byScore.compare(scored, heap.peek()) > 0) {
+                    heap.poll();
+                    heap.add(scored);
+                }
+            }
+
+            List<Scored> ranked = new ArrayList<>(heap);
+            ranked.sort(byScore.reversed());
+            List<Integer> result = new ArrayList<>(ranked.size());
+            for (Scored scored : ranked) {
+                result.add(scored.diarySeq);
+            }
+            return result;
+        }
+    }
+
+    // 만드는 중인 색인과 그동안 커밋된 변경
+    private static final class PendingIndex {
+        private final CompletableFuture<UserSimilarIndex> result = new CompletableFuture<>();
+        private final List<Consumer<UserSimilarIndex>> changes = new ArrayList<>();
+        private boolean invalidated;
+
+        private UserSimilarIndex await() {
+            try {
+                return result.join();
+            } catch (CompletionException e) {
+                throw (RuntimeException) e.getCause();
+            }
+        }
+    }
+
+    private static final class Entry {
+        private final Integer emotionSeq;
+        private final int[] tagSeqs;
+        // 임베딩을 쓰지 않으면 null
+        private final float[] vector;
+
+        private Entry(Integer emotionSeq, int[] tagSeqs, float[] vector) {
+            this.emotionSeq = emotionSeq;
+            this.tagSeqs = tagSeqs;
+            this.vector = vector;
+        }
+    }
+
+    // 사용자별 HNSW 색인 설정
+    private static final class HnswSettings {
+        // 일기가 이보다 적으면 전체 비교가 더 빠름
+        private final int minSize;
+        private final int m;
+        private final int efConstruction;
+        private final int efSearch;
+
+        private HnswSettings(int minSize, int m, int efConstruction, int efSearch) {
+            this.minSize = minSize;
+            this.m = m;
+            this.efConstruction = efConstruction;
+            this.efSearch = efSearch;
+        }
+    }
+
+    private static final class Scored {
+        private final Integer diarySeq;
+        private final double score;
+
+        private Scored(Integer diarySeq, double score) {
+            this.diarySeq = diarySeq;
+            this.score = score;
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package com.c202.diary.util.coordinate.similarity;
+
+import java.util.*;
+
+/**
+ * 태그를 하나 이상 공유하는(유사도 > 0) 태그 집합 쌍만 담은 희소 후보 그래프
+ * 노드별 태그 집합 ID를 받아 같은 집합끼리 묶고, 태그 → 집합 역색인으로 후보 쌍을 만듭니다.
+ * 모든 쌍을 비교하지 않으므로 메모리는 O(후보 쌍 수)입니다.
+ * 아주 흔한 태그(역색인 목록이 MAX_FULL_POSTING보다 긴 태그)는 목록에서 인접한 POSTING_WINDOW개 집합과만
+ * 후보로 잇습니다. 이때 일부 쌍이 빠질 수 있지만 그 태그를 공유하는 집합들은 여전히 서로 이어집니다.
+ */
+public final class TagCandidateGraph {
+
+    private static final int MAX_FULL_POSTING = 256;
+    private static final int POSTING_WINDOW = 32;
+
+    // 그룹 = 태그 집합이 같은 노드 묶음 (빈 집합 노드는 그룹에 넣지 않음)
+    private final int[] groupSetIds;
+    private final int[][] groupMembers;
+
+    // 그룹 간 후보 간선
+    private int[] edgeFrom = new int[16];
+    private int[] edgeTo = new int[16];
+    private double[] edgeSimilarity = new double[16];
+    private int edgeCount;
+
+    private TagCandidateGraph(int[] groupSetIds, int[][] groupMembers) {
+        this.groupSetIds = groupSetIds;
+        this.groupMembers = groupMembers;
+    }
+
+    /**
+     * 후보 그래프를 만듭니다.
+     * @param table 태그 집합 테이블
+     * @param setIds 노드(인덱스)별 태그 집합 ID
+     */
+    public static TagCandidateGraph build(TagSetTable table, int[] setIds) {
+        // 태그 집합별로 노드 묶기 (처음 등장한 순서 유지)
+        Map<Integer, List<Integer>> membersBySet = new LinkedHashMap<>();
+        for (int node = 0; node < setIds.length; node++) {
+            if (setIds[node] != TagSetTable.EMPTY_SET_ID) {
+                membersBySet.computeIfAbsent(setIds[node], key -> new ArrayList<>()).add(node);
+            }
+        }
+
+        int groupCount = membersBySet.size();
+        int[] groupSetIds = new int[groupCount];
+        int[][] groupMembers = new int[groupCount][];
+        int g = 0;
+        for (Map.Entry<Integer, List<Integer>> entry : membersBySet.entrySet()) {
+            groupSetIds[g] = entry.getKey();
+            groupMembers[g] = entry.getValue().stream().mapToInt(Integer::intValue).toArray();
+            g++;
+        }
+
+        TagCandidateGraph graph = new TagCandidateGraph(groupSetIds, groupMembers);
+        graph.collectEdges(table);
+        return graph;
+    }
+
+    private void collectEdges(TagSetTable table) {
+        int groupCount = groupSetIds.length;
+
+        // 태그 → 그룹 역색인 (그룹 번호 오름차순)
+        Map<Integer, int[]> postings = new HashMap<>();
+        Map<Integer, Integer> postingSizes = new HashMap<>();
+        for (int group = 0; group < groupCount; group++) {
+            for (int tag : table.tagsOf(groupSetIds[group])) {
+                postingSizes.merge(tag, 1, Integer::sum);
+            }
+        }
+        for (Map.Entry<Integer, Integer> entry : postingSizes.entrySet()) {
+            postings.put(entry.getKey(), new int[entry.getValue()]);
+        }
+        Map<Integer, Integer> fill = new HashMap<>();
+        for (int group = 0; group < groupCount; group++) {
+            for (int tag : table.tagsOf(groupSetIds[group])) {
+                int position = fill.merge(tag, 1, Integer::sum) - 1;
+                postings.get(tag)[position] = group;
+            }
+        }
+
+        // 그룹마다 자신보다 번호가 큰 이웃 그룹을 한 번씩만 방문
+        int[] lastSeen = new int[groupCount];
+        Arrays.fill(lastSeen, -1);
+        for (int group = 0; group < groupCount; group++) {
+            int[] tags = table.tagsOf(groupSetIds[group]);
+            for (int tag : tags) {
+                int[] posting = postings.get(tag);
+                int start = Arrays.binarySearch(posting, group) + 1;
+                int end = posting.length > MAX_FULL_POSTING
+                        ? Math.min(posting.length, start + POSTING_WINDOW)
+                        : posting.length;
+                for (int p = start; p < end; p++) {
+                    int other = posting[p];
+                    if (lastSeen[other] == group) {
+                        continue;
+                    }
+                    lastSeen[other] = group;
+                    addEdge(group, other, TagSimilarity.jaccard(tags, table.tagsOf(groupSetIds[other])));
+                }
+            }
+        }
+    }
+
+    private void addEdge(int from, int to, double similarity) {
+        if (edgeCount == edgeFrom.length) {
+            int capacity = edgeCount * 2;
+            edgeFrom = Arrays.copyOf(edgeFrom, capacity);
+            edgeTo = Arrays.copyOf(edgeTo, capacity);
+            edgeSimilarity = Arrays.copyOf(edgeSimilarity, capacity);
+        }
+        edgeFrom[edgeCount] = from;
+        edgeTo[edgeCount] = to;
+        edgeSimilarity[edgeCount] = similarity;
+        edgeCount++;
+    }
+
+    /**
+     * 간선 번호를 유사도 내림차순으로 정렬해 반환합니다. (같으면 간선 번호 순)
+     * 정렬 키를 long 하나로 묶어 기본형 배열 정렬만 사용합니다.
+     */
+    public int[] edgesBySimilarityDesc() {
+        long[] keys = new long[edgeCount];
+        for (int e = 0; e < edgeCount; e++) {
+            // 0 이상의 float 비트는 크기 순서와 같음
+            long distanceBits = Float.floatToIntBits((float) (1.0 - edgeSimilarity[e]));
+            keys[e] = (distanceBits << 32) | e;
+        }
+        Arrays.sort(keys);
+
+        int[] order = new int[edgeCount];
+        for (int e = 0; e < edgeCount; e++) {
+            order[e] = (int) keys[e];
+        }
+        return order;
+    }
+
+    /**
+     * 그룹별로 유사도가 임계값 이상인 이웃 그룹을 오름차순으로 반환합니다.
+     */
+    public int[][] neighborsAtLeast(double threshold) {
+        int groupCount = groupSetIds.length;
+        int[] degree = new int[groupCount];
+        for (int e = 0; e < edgeCount; e++) {
+            if (edgeSimilarity[e] >= threshold) {
+                degree[edgeFrom[e]]++;
+                degree[edgeTo[e]]++;
+            }
+        }
+
+        int[][] neighbors = new int[groupCount][];
+        for (int group = 0; group < groupCount; group++) {
+            neighbors[group] = new int[degree[group]];
+        }
+        int[] fill = new int[groupCount];
+        for (int e = 0; e < edgeCount; e++) {
+            if (edgeSimilarity[e] >= threshold) {
+                neighbors[edgeFrom[e]][fill[edgeFrom[e]]++] = edgeTo[e];
+                neighbors[edgeTo[e]][fill[edgeTo[e]]++] = edgeFrom[e];
+            }
+        }
+        for (int[] list : neighbors) {
+            Arrays.sort(list);
+        }
+        return neighbors;
+    }
+
+    public int groupCount() {
+        return groupSetIds.length;
+    }
+
+    // 그룹에 속한 노드 인덱스들
+    public int[] membersOf(int group) {
+        return groupMembers[group];
+    }
+
+    public int groupSetId(int group) {
+        return groupSetIds[group];
+    }
+
+    public int edgeCount() {
+        return edgeCount;
+    }
+
+    public int edgeFrom(int edge) {
+        return edgeFrom[edge];
+    }
+
+    public int edgeTo(int edge) {
+        return edgeTo[edge];
+    }
+
+    public double edgeSimilarity(int edge) {
+        return edgeSimilarity[edge];
+    }
+}
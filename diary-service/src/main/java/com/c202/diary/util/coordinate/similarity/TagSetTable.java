@@ -0,0 +1,187 @@
+package com.c202.diary.util.coordinate.similarity;
+
+import com.c202.diary.diary.entity.Diary;
+
+import java.util.*;
+
+/**
+ * 한 번의 좌표 계산 동안 사용하는 태그 집합 테이블
+ * 일기별 태그 집합을 정수 ID로 인터닝하고, 서로 다른 태그 집합 쌍의 유사도를 메모이제이션합니다.
+ * 같은 태그 조합을 가진 일기가 많을수록 내부 루프에서 유사도 계산이 줄어듭니다.
+ * 계산 단위로 생성해서 사용하며 스레드 안전하지 않습니다.
+ */
+public class TagSetTable {
+
+    // 빈 태그 집합의 ID (항상 0)
+    public static final int EMPTY_SET_ID = 0;
+
+    // 메모 테이블 최대 크기 (이보다 많은 쌍은 캐시하지 않고 바로 계산)
+    private static final int MAX_MEMO_CAPACITY = 1 << 20;
+
+    private final Map<Integer, Integer> setIdByDiary = new HashMap<>();
+    private final List<int[]> tagSets = new ArrayList<>();
+    private final Map<TagSetKey, Integer> setIdByTags = new HashMap<>();
+
+    // 유사도 메모 (열린 주소법, 키는 두 집합 ID를 합친 long 값)
+    private long[] memoKeys = newKeyArray(1024);
+    private double[] memoValues = new double[1024];
+    private int memoSize = 0;
+
+    private TagSetTable() {
+        tagSets.add(TagSimilarity.EMPTY);
+        setIdByTags.put(new TagSetKey(TagSimilarity.EMPTY), EMPTY_SET_ID);
+    }
+
+    /**
+     * 일기 ID별 태그 ID 배열로 테이블을 생성합니다.
+     * @param tagSeqsByDiary 일기 ID → 정렬된 태그 ID 배열
+     * @return 태그 집합 테이블
+     */
+    public static TagSetTable of(Map<Integer, int[]> tagSeqsByDiary) {
+        TagSetTable table = new TagSetTable();
+        for (Map.Entry<Integer, int[]> entry : tagSeqsByDiary.entrySet()) {
+            table.setIdByDiary.put(entry.getKey(), table.intern(entry.getValue()));
+        }
+        return table;
+    }
+
+    /**
+     * 태그 집합을 인터닝하고 ID를 반환합니다.
+     */
+    public int intern(int[] tags) {
+        if (tags.length == 0) {
+            return EMPTY_SET_ID;
+        }
+        TagSetKey key = new TagSetKey(tags);
+        Integer setId = setIdByTags.get(key);
+        if (setId == null) {
+            setId = tagSets.size();
+            tagSets.add(tags);
+            setIdByTags.put(key, setId);
+        }
+        return setId;
+    }
+
+    /**
+     * 일기의 태그 집합 ID를 반환합니다. 테이블에 없는 일기는 빈 집합으로 취급합니다.
+     */
+    public int setIdOf(Diary diary) {
+        return setIdOf(diary.getDiarySeq());
+    }
+
+    public int setIdOf(Integer diarySeq) {
+        Integer setId = diarySeq != null ? setIdByDiary.get(diarySeq) : null;
+        return setId != null ? setId : EMPTY_SET_ID;
+    }
+
+    public int[] tagsOf(Diary diary) {
+        return tagSets.get(setIdOf(diary));
+    }
+
+    public int[] tagsOf(int setId) {
+        return tagSets.get(setId);
+    }
+
+    // 서로 다른 태그 집합의 수
+    public int distinctSetCount() {
+        return tagSets.size();
+    }
+
+    public double similarity(Diary diary1, Diary diary2) {
+        return similarity(setIdOf(diary1), setIdOf(diary2));
+    }
+
+    /**
+     * 두 태그 집합 ID의 유사도를 반환합니다. (메모이제이션 적용)
+     */
+    public double similarity(int setId1, int setId2) {
+        if (setId1 == EMPTY_SET_ID || setId2 == EMPTY_SET_ID) {
+            return 0.0;
+        }
+        if (setId1 == setId2) {
+            return 1.0;
+        }
+
+        long key = setId1 < setId2
+                ? ((long) setId1 << 32) | setId2
+                : ((long) setId2 << 32) | setId1;
+
+        int mask = memoKeys.length - 1;
+        int slot = mix(key) & mask;
+        while (memoKeys[slot] != -1L) {
+            if (memoKeys[slot] == key) {
+                return memoValues[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        double value = TagSimilarity.jaccard(tagSets.get(setId1), tagSets.get(setId2));
+        if (memoSize * 2 >= memoKeys.length) {
+            if (memoKeys.length >= MAX_MEMO_CAPACITY) {
+                return value;
+            }
+            growMemo();
+            mask = memoKeys.length - 1;
+            slot = mix(key) & mask;
+            while (memoKeys[slot] != -1L) {
+                slot = (slot + 1) & mask;
+            }
+        }
+        memoKeys[slot] = key;
+        memoValues[slot] = value;
+        memoSize++;
+        return value;
+    }
+
+    private void growMemo() {
+        long[] oldKeys = memoKeys;
+        double[] oldValues = memoValues;
+        memoKeys = newKeyArray(oldKeys.length * 2);
+        memoValues = new double[oldKeys.length * 2];
+
+        int mask = memoKeys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] == -1L) {
+                continue;
+            }
+            int slot = mix(oldKeys[i]) & mask;
+            while (memoKeys[slot] != -1L) {
+                slot = (slot + 1) & mask;
+            }
+            memoKeys[slot] = oldKeys[i];
+            memoValues[slot] = oldValues[i];
+        }
+    }
+
+    private static long[] newKeyArray(int capacity) {
+        long[] keys = new long[capacity];
+        Arrays.fill(keys, -1L);
+        return keys;
+    }
+
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    // 태그 배열을 값으로 비교하기 위한 키
+    private static final class TagSetKey {
+        private final int[] tags;
+        private final int hash;
+
+        private TagSetKey(int[] tags) {
+            this.tags = tags;
+            this.hash = Arrays.hashCode(tags);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof TagSetKey other && Arrays.equals(tags, other.tags);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
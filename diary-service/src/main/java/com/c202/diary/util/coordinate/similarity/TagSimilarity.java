@@ -0,0 +1,104 @@
+package com.c202.diary.util.coordinate.similarity;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * 태그 ID(tagSeq) 배열 기반의 자카드 유사도 계산기
+ * 모든 좌표 서비스가 같은 규칙으로 유사도를 계산하도록 한 곳에 모아둡니다.
+ * 입력 배열은 정렬되어 있고 중복이 없어야 합니다.
+ */
+public final class TagSimilarity {
+
+    public static final int[] EMPTY = new int[0];
+
+    private TagSimilarity() {
+    }
+
+    /**
+     * 두 태그 집합의 자카드 유사도를 계산합니다.
+     * 한쪽이라도 비어 있으면 0을 반환합니다. (태그가 없는 일기끼리는 유사하지 않음)
+     * @param tags1 정렬된 첫 번째 태그 ID 배열
+     * @param tags2 정렬된 두 번째 태그 ID 배열
+     * @return 유사도 (0~1)
+     */
+    public static double jaccard(int[] tags1, int[] tags2) {
+        if (tags1.length == 0 || tags2.length == 0) {
+            return 0.0;
+        }
+
+        int intersection = intersectionSize(tags1, tags2);
+        return (double) intersection / (tags1.length + tags2.length - intersection);
+    }
+
+    /**
+     * 정렬된 두 배열의 교집합 크기를 계산합니다. (병합 방식, 할당 없음)
+     */
+    public static int intersectionSize(int[] tags1, int[] tags2) {
+        int i = 0;
+        int j = 0;
+        int count = 0;
+        while (i < tags1.length && j < tags2.length) {
+            if (tags1[i] == tags2[j]) {
+                count++;
+                i++;
+                j++;
+            } else if (tags1[i] < tags2[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 정렬된 두 배열의 합집합을 정렬된 배열로 반환합니다.
+     * 별자리(클러스터) 단위의 태그 집합을 만들 때 사용합니다.
+     */
+    public static int[] union(int[] tags1, int[] tags2) {
+        if (tags1.length == 0) {
+            return tags2;
+        }
+        if (tags2.length == 0) {
+            return tags1;
+        }
+
+        int[] merged = new int[tags1.length + tags2.length];
+        int i = 0;
+        int j = 0;
+        int k = 0;
+        while (i < tags1.length && j < tags2.length) {
+            if (tags1[i] == tags2[j]) {
+                merged[k++] = tags1[i];
+                i++;
+                j++;
+            } else if (tags1[i] < tags2[j]) {
+                merged[k++] = tags1[i++];
+            } else {
+                merged[k++] = tags2[j++];
+            }
+        }
+        while (i < tags1.length) {
+            merged[k++] = tags1[i++];
+        }
+        while (j < tags2.length) {
+            merged[k++] = tags2[j++];
+        }
+        return k == merged.length ? merged : Arrays.copyOf(merged, k);
+    }
+
+    /**
+     * 태그 ID 목록을 정렬되고 중복 없는 배열로 변환합니다.
+     */
+    public static int[] toSortedSet(Collection<Integer> tagSeqs) {
+        if (tagSeqs.isEmpty()) {
+            return EMPTY;
+        }
+        return tagSeqs.stream()
+                .mapToInt(Integer::intValue)
+                .distinct()
+                .sorted()
+                .toArray();
+    }
+}
@@ -0,0 +1,126 @@
+package com.c202.diary.util.coordinate.similarity;
+
+import com.c202.diary.util.coordinate.spatial.DistanceKernels;
+
+import java.text.Normalizer;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 일기 제목·본문·태그를 고정 길이 벡터로 바꾸는 임베딩 (외부 모델 없이 프로세스 안에서 계산)
+ * 1. 텍스트: 글자 2-gram·3-gram을 해시해 TEXT_DIMENSION칸에 더합니다. (feature hashing)
+ *    한국어는 띄어쓰기·조사 때문에 단어 단위가 잘 맞지 않아 음절 n-gram을 씁니다.
+ *    n-gram 가중치는 1 + ln(빈도)이고, 제목은 본문보다 TITLE_WEIGHT배 무겁게 봅니다.
+ *    해시 충돌이 한쪽으로 쌓이지 않도록 해시 비트 하나로 부호(+/-)를 정합니다.
+ * 2. 태그: 태그 ID를 해시해 TAG_DIMENSION칸에 1씩 더합니다.
+ * 두 부분을 각각 단위 길이로 만든 뒤 √(1 - w), √w를 곱해 이어 붙이므로,
+ * 두 벡터의 내적은 (1 - w)·텍스트 코사인 + w·태그 코사인이 됩니다. (없는 쪽은 0)
+ * 벡터 길이나 계산 방식을 바꾸면 MODEL_VERSION을 올려 저장된 벡터를 다시 계산하게 해야 합니다.
+ */
+public final class TextEmbedder {
+
+    public static final int MODEL_VERSION = 1;
+    public static final int TEXT_DIMENSION = 256;
+    public static final int TAG_DIMENSION = 64;
+    public static final int DIMENSION = TEXT_DIMENSION + TAG_DIMENSION;
+
+    private static final double TITLE_WEIGHT = 2.0;
+
+    private TextEmbedder() {
+    }
+
+    /**
+     * @param title 제목 (null 가능)
+     * @param content 본문 (null 가능)
+     * @param tagSeqs 정렬된 태그 ID 배열 (음수 ID는 아직 저장되지 않은 태그라 무시)
+     * @param tagWeight 태그 부분의 가중치 w (0~1)
+     * @return 길이 DIMENSION의 벡터 (길이 1 이하)
+     */
+    public static float[] embed(String title, String content, int[] tagSeqs, double tagWeight) {
+        double[] text = new double[TEXT_DIMENSION];
+        Map<String, Integer> counts = new HashMap<>();
+        countNgrams(title, counts);
+        addNgrams(counts, TITLE_WEIGHT, text);
+        counts.clear();
+        countNgrams(content, counts);
+        addNgrams(counts, 1.0, text);
+
+        double[] tags = new double[TAG_DIMENSION];
+        for (int tagSeq : tagSeqs) {
+            if (tagSeq < 0) {
+                continue;
+            }
+            int hash = mix(tagSeq);
+            tags[Math.floorMod(hash >> 1, TAG_DIMENSION)] += (hash & 1) == 0 ? 1 : -1;
+        }
+
+        double weight = Math.min(1.0, Math.max(0.0, tagWeight));
+        float[] vector = new float[DIMENSION];
+        write(text, Math.sqrt(1.0 - weight), vector, 0);
+        write(tags, Math.sqrt(weight), vector, TEXT_DIMENSION);
+        return vector;
+    }
+
+    /**
+     * 두 벡터의 내적 (embed 결과끼리는 가중 코사인 유사도)
+     */
+    public static double similarity(float[] a, float[] b) {
+        return DistanceKernels.get().dot(a, b);
+    }
+
+    // 공백·기호로 나눈 토큰마다 앞뒤 경계 표시를 붙여 2-gram, 3-gram을 셉니다.
+    private static void countNgrams(String text, Map<String, Integer> counts) {
+        if (text == null || text.isBlank()) {
+            return;
+        }
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFC).toLowerCase();
+        StringBuilder token = new StringBuilder();
+        for (int i = 0; i <= normalized.length(); i++) {
+            char c = i < normalized.length() ? normalized.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                token.append(c);
+            } else if (token.length() > 0) {
+                String bounded = "^" + token + "$";
+                for (int n = 2; n <= 3; n++) {
+                    for (int start = 0; start + n <= bounded.length(); start++) {
+                        counts.merge(bounded.substring(start, start + n), 1, Integer::sum);
+                    }
+                }
+                token.setLength(0);
+            }
+        }
+    }
+
+    private static void addNgrams(Map<String, Integer> counts, double weight, double[] out) {
+        for (Map.Entry<String, Integer> entry : counts.entrySet()) {
+            int hash = mix(entry.getKey().hashCode());
+            double value = weight * (1.0 + Math.log(entry.getValue()));
+            out[Math.floorMod(hash >> 1, out.length)] += (hash & 1) == 0 ? value : -value;
+        }
+    }
+
+    // 단위 길이로 만든 뒤 scale을 곱해 out[offset..]에 씁니다. (모두 0이면 0 그대로)
+    private static void write(double[] values, double scale, float[] out, int offset) {
+        double norm = 0;
+        for (double value : values) {
+            norm += value * value;
+        }
+        if (norm == 0) {
+            return;
+        }
+        double factor = scale / Math.sqrt(norm);
+        for (int i = 0; i < values.length; i++) {
+            out[offset + i] = (float) (values[i] * factor);
+        }
+    }
+
+    // 비슷한 입력(연속된 태그 ID 등)이 이웃 칸에 몰리지 않도록 비트를 섞음 (murmur3 finalizer)
+    private static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+}
@@ -0,0 +1,64 @@
+package com.c202.diary.util.coordinate.similarity;
+
+/**
+ * 0..n-1 정수 원소에 대한 서로소 집합 (union-find)
+ * 크기 기준 합치기와 경로 절반 압축으로 연산당 거의 상수 시간입니다.
+ */
+public final class UnionFind {
+
+    private final int[] parent;
+    private final int[] size;
+    private int componentCount;
+
+    public UnionFind(int n) {
+        parent = new int[n];
+        size = new int[n];
+        for (int i = 0; i < n; i++) {
+            parent[i] = i;
+            size[i] = 1;
+        }
+        componentCount = n;
+    }
+
+    public int find(int x) {
+        while (parent[x] != x) {
+            parent[x] = parent[parent[x]];
+            x = parent[x];
+        }
+        return x;
+    }
+
+    /**
+     * 두 원소가 속한 집합을 합칩니다.
+     * @return 서로 다른 집합이었으면 true
+     */
+    public boolean union(int a, int b) {
+        int rootA = find(a);
+        int rootB = find(b);
+        if (rootA == rootB) {
+            return false;
+        }
+        if (size[rootA] < size[rootB]) {
+            int tmp = rootA;
+            rootA = rootB;
+            rootB = tmp;
+        }
+        parent[rootB] = rootA;
+        size[rootA] += size[rootB];
+        componentCount--;
+        return true;
+    }
+
+    public boolean connected(int a, int b) {
+        return find(a) == find(b);
+    }
+
+    // 원소가 속한 집합의 크기
+    public int sizeOf(int x) {
+        return size[find(x)];
+    }
+
+    public int componentCount() {
+        return componentCount;
+    }
+}
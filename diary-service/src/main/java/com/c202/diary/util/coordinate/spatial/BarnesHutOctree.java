@@ -0,0 +1,230 @@
+package com.c202.diary.util.coordinate.spatial;
+
+import java.util.Arrays;
+
+/**
+ * 반발력 근사를 위한 Barnes–Hut 팔진 트리
+ * 노드를 배열 풀로 관리하고, 점 좌표는 x/y/z 배열(SoA)을 그대로 참조합니다.
+ * 멀리 있는 노드(크기 / 거리 < θ)는 질량 중심 하나로 취급해 점 하나당 O(log n)으로 힘을 계산합니다.
+ * 생성 후에는 읽기만 하므로 여러 스레드에서 동시에 힘을 계산할 수 있습니다.
+ */
+public final class BarnesHutOctree {
+
+    // 좌표가 거의 같은 점들이 끝없이 나뉘지 않도록 하는 최대 깊이 (이후에는 한 잎에 모아둠)
+    private static final int MAX_DEPTH = 24;
+
+    // 반복 탐색용 스택 크기 (깊이마다 최대 7개 형제 노드가 쌓임)
+    private static final int STACK_SIZE = 8 * MAX_DEPTH + 16;
+
+    private final double[] xs, ys, zs;
+
+    // 노드 정보 (인덱스 = 노드 번호)
+    private double[] centerX, centerY, centerZ, halfSize;
+    private double[] mass, sumX, sumY, sumZ;
+    private int[] firstChild;   // 8개 자식의 시작 번호 (-1이면 잎)
+    private int[] firstPoint;   // 잎에 담긴 점 목록의 첫 점 (-1이면 비어 있음)
+    private int nodeCount;
+
+    // 잎 안의 점 연결 목록
+    private final int[] nextPoint;
+
+    private BarnesHutOctree(double[] xs, double[] ys, double[] zs, int n) {
+        this.xs = xs;
+        this.ys = ys;
+        this.zs = zs;
+        this.nextPoint = new int[n];
+        allocate(Math.max(16, 2 * n));
+    }
+
+    /**
+     * 점 n개로 트리를 만듭니다.
+     */
+    public static BarnesHutOctree build(double[] xs, double[] ys, double[] zs, int n) {
+        BarnesHutOctree tree = new BarnesHutOctree(xs, ys, zs, n);
+        if (n == 0) {
+            return tree;
+        }
+
+        double minX = Double.MAX_VALUE, minY = Double.MAX_VALUE, minZ = Double.MAX_VALUE;
+        double maxX = -Double.MAX_VALUE, maxY = -Double.MAX_VALUE, maxZ = -Double.MAX_VALUE;
+        for (int i = 0; i < n; i++) {
+            minX = Math.min(minX, xs[i]);
+            minY = Math.min(minY, ys[i]);
+            minZ = Math.min(minZ, zs[i]);
+            maxX = Math.max(maxX, xs[i]);
+            maxY = Math.max(maxY, ys[i]);
+            maxZ = Math.max(maxZ, zs[i]);
+        }
+        double half = Math.max(Math.max(maxX - minX, maxY - minY), maxZ - minZ) / 2 + 1e-9;
+
+        int root = tree.newNode((minX + maxX) / 2, (minY + maxY) / 2, (minZ + maxZ) / 2, half);
+        for (int i = 0; i < n; i++) {
+            tree.insert(root, i, 0);
+        }
+        return tree;
+    }
+
+    /**
+     * 점 i가 받는 반발력을 계산해 out[0..2]에 더합니다.
+     * 거리 d에서의 반발력 크기는 constant * 질량 / d² 이며, d는 minDistance 이상으로 제한합니다.
+     * @param theta 근사 기준 (0이면 정확 계산과 동일)
+     */
+    public void accumulateRepulsion(int i, double theta, double constant, double minDistance, double[] out) {
+        if (nodeCount == 0) {
+            return;
+        }
+
+        double x = xs[i], y = ys[i], z = zs[i];
+        double fx = 0, fy = 0, fz = 0;
+        int[] stack = new int[STACK_SIZE];
+        int top = 0;
+        stack[top++] = 0;
+
+        while (top > 0) {
+            int node = stack[--top];
+            if (mass[node] == 0) {
+                continue;
+            }
+
+            if (firstChild[node] < 0) {
+                // 잎: 담긴 점들과 정확히 계산
+                for (int p = firstPoint[node]; p >= 0; p = nextPoint[p]) {
+                    if (p == i) continue;
+                    double dx = x - xs[p], dy = y - ys[p], dz = z - zs[p];
+                    double distance = Math.max(Math.sqrt(dx * dx + dy * dy + dz * dz), minDistance);
+                    double repulsion = constant / (distance * distance);
+                    fx += dx / distance * repulsion;
+                    fy += dy / distance * repulsion;
+                    fz += dz / distance * repulsion;
+                }
+                continue;
+            }
+
+            double comX = sumX[node] / mass[node];
+            double comY = sumY[node] / mass[node];
+            double comZ = sumZ[node] / mass[node];
+            double dx = x - comX, dy = y - comY, dz = z - comZ;
+            double distance = Math.sqrt(dx * dx + dy * dy + dz * dz);
+
+            // 자기 자신이 들어 있는 노드는 항상 펼침 (자기 자신과의 힘 방지)
+            boolean containsSelf = Math.abs(x - centerX[node]) <= halfSize[node]
+                    && Math.abs(y - centerY[node]) <= halfSize[node]
+                    && Math.abs(z - centerZ[node]) <= halfSize[node];
+
+            if (!containsSelf && 2 * halfSize[node] < theta * distance) {
+                distance = Math.max(distance, minDistance);
+                double repulsion = constant * mass[node] / (distance * distance);
+                fx += dx / distance * repulsion;
+                fy += dy / distance * repulsion;
+                fz += dz / distance * repulsion;
+            } else {
+                int child = firstChild[node];
+                for (int c = 0; c < 8; c++) {
+                    if (mass[child + c] > 0) {
+                        stack[top++] = child + c;
+                    }
+                }
+            }
+        }
+
+        out[0] += fx;
+        out[1] += fy;
+        out[2] += fz;
+    }
+
+    private void insert(int node, int i, int depth) {
+        while (true) {
+            mass[node] += 1;
+            sumX[node] += xs[i];
+            sumY[node] += ys[i];
+            sumZ[node] += zs[i];
+
+            if (firstChild[node] < 0) {
+                if (firstPoint[node] < 0 || depth >= MAX_DEPTH) {
+                    nextPoint[i] = firstPoint[node];
+                    firstPoint[node] = i;
+                    return;
+                }
+
+                // 점이 이미 있는 잎이면 나누고 기존 점을 자식으로 내림
+                int existing = firstPoint[node];
+                firstPoint[node] = -1;
+                subdivide(node);
+                while (existing >= 0) {
+                    int next = nextPoint[existing];
+                    insert(childFor(node, existing), existing, depth + 1);
+                    existing = next;
+                }
+            }
+
+            node = childFor(node, i);
+            depth++;
+        }
+    }
+
+    private void subdivide(int node) {
+        double quarter = halfSize[node] / 2;
+        // 새 노드 할당 중 배열이 바뀔 수 있으므로 값을 먼저 읽어 둠
+        double cx = centerX[node], cy = centerY[node], cz = centerZ[node];
+        int first = -1;
+        for (int c = 0; c < 8; c++) {
+            int child = newNode(
+                    cx + ((c & 1) != 0 ? quarter : -quarter),
+                    cy + ((c & 2) != 0 ? quarter : -quarter),
+                    cz + ((c & 4) != 0 ? quarter : -quarter),
+                    quarter);
+            if (c == 0) {
+                first = child;
+            }
+        }
+        firstChild[node] = first;
+    }
+
+    private int childFor(int node, int i) {
+        int octant = (xs[i] >= centerX[node] ? 1 : 0)
+                | (ys[i] >= centerY[node] ? 2 : 0)
+                | (zs[i] >= centerZ[node] ? 4 : 0);
+        return firstChild[node] + octant;
+    }
+
+    private int newNode(double cx, double cy, double cz, double half) {
+        if (nodeCount == centerX.length) {
+            grow();
+        }
+        int node = nodeCount++;
+        centerX[node] = cx;
+        centerY[node] = cy;
+        centerZ[node] = cz;
+        halfSize[node] = half;
+        firstChild[node] = -1;
+        firstPoint[node] = -1;
+        return node;
+    }
+
+    private void allocate(int capacity) {
+        centerX = new double[capacity];
+        centerY = new double[capacity];
+        centerZ = new double[capacity];
+        halfSize = new double[capacity];
+        mass = new double[capacity];
+        sumX = new double[capacity];
+        sumY = new double[capacity];
+        sumZ = new double[capacity];
+        firstChild = new int[capacity];
+        firstPoint = new int[capacity];
+    }
+
+    private void grow() {
+        int capacity = centerX.length * 2;
+        centerX = Arrays.copyOf(centerX, capacity);
+        centerY = Arrays.copyOf(centerY, capacity);
+        centerZ = Arrays.copyOf(centerZ, capacity);
+        halfSize = Arrays.copyOf(halfSize, capacity);
+        mass = Arrays.copyOf(mass, capacity);
+        sumX = Arrays.copyOf(sumX, capacity);
+        sumY = Arrays.copyOf(sumY, capacity);
+        sumZ = Arrays.copyOf(sumZ, capacity);
+        firstChild = Arrays.copyOf(firstChild, capacity);
+        firstPoint = Arrays.copyOf(firstPoint, capacity);
+    }
+}
@@ -0,0 +1,116 @@
+package com.c202.diary.util.coordinate.spatial;
+
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+
+/**
+ * 새 별이 기존 별과 너무 가깝지 않도록 좌표를 밀어내는 계산기
+ * 매 반복마다 공간 인덱스로 최소 거리 안의 이웃만 조회하므로 전체 별 수와 무관하게 동작합니다.
+ */
+public final class CollisionResolver {
+
+    // 반복 종료 기준 (한 번의 반복에서 총 이동량이 이보다 작으면 종료)
+    private static final double TOLERANCE = 0.01;
+
+    private CollisionResolver() {
+    }
+
+    /**
+     * 최소 거리 안의 이웃들로부터 겹친 거리의 절반씩 밀어내는 과정을 반복합니다.
+     * @param start 시작 좌표 [x, y, z]
+     * @param minDistance 별 간 최소 거리
+     * @param maxIterations 최대 반복 횟수
+     * @param neighborsWithin 좌표와 반경을 받아 반경 안의 이웃 좌표를 반환하는 검색 함수
+     * @param random 이웃과 좌표가 완전히 같을 때 방향을 정할 난수 생성기
+     * @return 조정된 좌표
+     */
+    public static double[] resolve(double[] start, double minDistance, int maxIterations,
+                                   Function<double[], List<double[]>> neighborsWithin, Random random) {
+        double[] adjusted = start.clone();
+
+        for (int iter = 0; iter < maxIterations; iter++) {
+            List<double[]> neighbors = neighborsWithin.apply(adjusted);
+            if (neighbors.isEmpty()) {
+                break;
+            }
+
+            double totalAdjustment = 0.0;
+            for (double[] other : neighbors) {
+                totalAdjustment += pushAway(adjusted, other[0], other[1], other[2], minDistance, random);
+            }
+
+            if (totalAdjustment < TOLERANCE) {
+                break;
+            }
+        }
+        return adjusted;
+    }
+
+    /**
+     * 공간 인덱스 없이 좌표 버퍼 전체를 훑어 같은 방식으로 밀어냅니다.
+     * 한 번만 쓰는 좌표 목록이면 격자를 만드는 것보다 거리 커널로 전체를 훑는 편이 빠릅니다.
+     * 이웃은 반복을 시작할 때의 좌표로 고르고, 밀어내는 방향은 그때그때 움직인 좌표로 계산합니다.
+     * @param existing 기존 별 좌표
+     * @return 조정된 좌표
+     */
+    public static double[] resolve(double[] start, double minDistance, int maxIterations,
+                                   CoordinateBuffer existing, Random random) {
+        double[] adjusted = start.clone();
+        DistanceKernels kernels = DistanceKernels.get();
+        double minDistanceSq = minDistance * minDistance;
+        double[] distancesSq = null;
+        double[] xs = existing.xs(), ys = existing.ys(), zs = existing.zs();
+
+        for (int iter = 0; iter < maxIterations; iter++) {
+            // 충돌이 없는 경우(대부분)는 거리 배열 없이 한 번 훑고 끝냄
+            if (!kernels.anyWithin(adjusted[0], adjusted[1], adjusted[2], existing, minDistance)) {
+                break;
+            }
+            if (distancesSq == null) {
+                distancesSq = new double[existing.size()];
+            }
+            kernels.squaredDistances(adjusted[0], adjusted[1], adjusted[2], existing, distancesSq);
+
+            double totalAdjustment = 0.0;
+            for (int j = 0; j < distancesSq.length; j++) {
+                if (distancesSq[j] < minDistanceSq) {
+                    totalAdjustment += pushAway(adjusted, xs[j], ys[j], zs[j], minDistance, random);
+                }
+            }
+
+            if (totalAdjustment < TOLERANCE) {
+                break;
+            }
+        }
+        return adjusted;
+    }
+
+    // 이웃 하나와 겹친 거리의 절반만큼 좌표를 밀어내고 이동량을 반환합니다.
+    private static double pushAway(double[] adjusted, double otherX, double otherY, double otherZ,
+                                   double minDistance, Random random) {
+        double dx = adjusted[0] - otherX;
+        double dy = adjusted[1] - otherY;
+        double dz = adjusted[2] - otherZ;
+        double dist = Math.sqrt(dx * dx + dy * dy + dz * dz);
+        if (dist >= minDistance) {
+            return 0.0;
+        }
+
+        double overlap = minDistance - dist;
+        // 좌표가 완전히 같으면 무작위 방향 선택
+        if (dist == 0) {
+            dx = random.nextDouble() - 0.5;
+            dy = random.nextDouble() - 0.5;
+            dz = random.nextDouble() - 0.5;
+            dist = Math.sqrt(dx * dx + dy * dy + dz * dz);
+        }
+
+        // 전체 겹침의 절반만 이동 (점진적 조정)
+        double adjustment = overlap * 0.5;
+        adjusted[0] += dx / dist * adjustment;
+        adjusted[1] += dy / dist * adjustment;
+        adjusted[2] += dz / dist * adjustment;
+        return adjustment;
+    }
+}
@@ -0,0 +1,106 @@
+package com.c202.diary.util.coordinate.spatial;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * 축별 배열(SoA) 좌표 버퍼
+ * double[n][3] 대신 x/y/z를 따로 연속 배열에 담아 거리·힘 커널이 순차적으로(벡터 단위로) 읽을 수 있게 합니다.
+ * 배열 길이는 size보다 클 수 있으며, 커널은 [0, size) 구간만 읽습니다.
+ * 스레드 안전하지 않습니다. (읽기만 할 때는 공유 가능)
+ */
+public final class CoordinateBuffer {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private double[] xs, ys, zs;
+    private int size;
+
+    public CoordinateBuffer() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public CoordinateBuffer(int capacity) {
+        int length = Math.max(1, capacity);
+        this.xs = new double[length];
+        this.ys = new double[length];
+        this.zs = new double[length];
+    }
+
+    /**
+     * [n][3] 형태의 좌표 배열을 복사해 버퍼를 만듭니다.
+     */
+    public static CoordinateBuffer of(double[][] points) {
+        CoordinateBuffer buffer = new CoordinateBuffer(points.length);
+        for (double[] point : points) {
+            buffer.add(point[0], point[1], point[2]);
+        }
+        return buffer;
+    }
+
+    /**
+     * [x, y, z] 좌표 목록을 복사해 버퍼를 만듭니다.
+     */
+    public static CoordinateBuffer of(List<double[]> points) {
+        CoordinateBuffer buffer = new CoordinateBuffer(points.size());
+        for (double[] point : points) {
+            buffer.add(point[0], point[1], point[2]);
+        }
+        return buffer;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void add(double x, double y, double z) {
+        if (size == xs.length) {
+            int capacity = xs.length * 2;
+            xs = Arrays.copyOf(xs, capacity);
+            ys = Arrays.copyOf(ys, capacity);
+            zs = Arrays.copyOf(zs, capacity);
+        }
+        xs[size] = x;
+        ys[size] = y;
+        zs[size] = z;
+        size++;
+    }
+
+    public void set(int index, double x, double y, double z) {
+        Objects.checkIndex(index, size);
+        xs[index] = x;
+        ys[index] = y;
+        zs[index] = z;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * 축별 배열을 그대로 반환합니다. (복사하지 않으므로 커널·트리가 직접 읽고 씀, 길이는 size 이상)
+     */
+    public double[] xs() {
+        return xs;
+    }
+
+    public double[] ys() {
+        return ys;
+    }
+
+    public double[] zs() {
+        return zs;
+    }
+
+    /**
+     * 좌표를 [n][3] 형태의 배열에 다시 씁니다.
+     */
+    public void copyTo(double[][] points) {
+        for (int i = 0; i < size; i++) {
+            points[i][0] = xs[i];
+            points[i][1] = ys[i];
+            points[i][2] = zs[i];
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.c202.diary.util.coordinate.spatial;
+
+/**
+ * 좌표 버퍼 전체를 한 번에 훑는 거리·충돌·힘 계산 커널 (일기 임베딩 내적 포함)
+ * jdk.incubator.vector 모듈이 켜져 있으면(--add-modules jdk.incubator.vector) Vector API 구현을,
+ * 아니면 스칼라 구현을 실행 시점에 고릅니다. 두 구현은 합산 순서 차이로 마지막 자리 정도만 다를 수 있습니다.
+ * 구현은 상태가 없으므로 여러 스레드에서 동시에 사용할 수 있습니다.
+ */
+public interface DistanceKernels {
+
+    /**
+     * 실행 환경에 맞는 구현을 반환합니다.
+     * -Ddiary.simd.enabled=false로 스칼라 구현을 강제할 수 있습니다.
+     */
+    static DistanceKernels get() {
+        return KernelSelector.SELECTED;
+    }
+
+    /**
+     * 구현 이름 (scalar 또는 vector-레인 수)
+     */
+    String name();
+
+    /**
+     * 질의점에서 버퍼의 각 점까지의 거리 제곱을 out[0..size)에 씁니다.
+     */
+    void squaredDistances(double x, double y, double z, CoordinateBuffer points, double[] out);
+
+    /**
+     * 질의점에서 반경 미만 거리에 점이 하나라도 있는지 확인합니다. (충돌 검사)
+     */
+    boolean anyWithin(double x, double y, double z, CoordinateBuffer points, double radius);
+
+    /**
+     * 점 index가 버퍼의 다른 모든 점에게서 받는 반발력을 out[0..2]에 더합니다.
+     * 거리 d에서의 힘 크기는 constant / d² 이며, d는 minDistance(0보다 커야 함) 이상으로 제한합니다.
+     */
+    void accumulateRepulsion(int index, CoordinateBuffer points, double constant, double minDistance,
+                             double[] out);
+
+    /**
+     * 길이가 같은 두 float 벡터의 내적 (임베딩 유사도)
+     */
+    double dot(float[] a, float[] b);
+}
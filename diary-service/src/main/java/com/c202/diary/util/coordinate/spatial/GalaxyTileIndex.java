@@ -0,0 +1,375 @@
+package com.c202.diary.util.coordinate.spatial;
+
+import java.util.*;
+
+/**
+ * 공개 은하(모든 사용자의 공개 일기)를 위한 8진 트리 타일 피라미드
+ * 은하 공간 [-HALF_SIZE, HALF_SIZE]³을 레벨 L에서 축마다 2^L칸으로 나누고, 칸마다 별 수·좌표 합·감정별 별 수를 미리 집계합니다.
+ * 별을 넣고 뺄 때 루트부터 가장 깊은 칸까지의 경로만 갱신하므로 쓰기 비용은 레벨 수에 비례합니다.
+ * 타일(레벨 L의 칸)은 별이 starLimit 이하이거나 가장 깊은 레벨이면 별을 그대로, 아니면 CLUSTER_DEPTH 레벨 아래 칸들의
+ * 무게중심과 별 수를 돌려줍니다.
+ * 칸마다 마지막으로 바뀐 버전을 기록하므로 버전이 같으면 이전에 만든 타일 응답을 그대로 쓸 수 있습니다.
+ * 스레드 안전하지 않으므로 공유할 때는 호출하는 쪽에서 동기화해야 합니다.
+ */
+public class GalaxyTileIndex {
+
+    // 감정 영역 중심(반지름 150)과 영역 반지름(최대 72)을 모두 담는 정육면체의 절반 크기
+    public static final double HALF_SIZE = 256.0;
+
+    // 타일을 요청할 수 있는 가장 깊은 레벨 (이 레벨의 타일은 항상 별을 그대로 담음, 한 변 4.0)
+    public static final int MAX_TILE_LEVEL = 7;
+
+    // 군집 타일은 이만큼 아래 레벨의 칸 하나를 군집 하나로 보냄 (타일당 최대 8³개)
+    public static final int CLUSTER_DEPTH = 3;
+
+    private static final int MAX_CELL_LEVEL = MAX_TILE_LEVEL - 1 + CLUSTER_DEPTH;
+    private static final int AXIS_BITS = 16;
+    private static final long AXIS_MASK = (1L << AXIS_BITS) - 1;
+
+    // 레벨별 칸 집계 (별이 없는 칸은 두지 않음)
+    private final List<Map<Long, Cell>> cellsByLevel = new ArrayList<>(MAX_CELL_LEVEL + 1);
+    // 가장 깊은 타일 칸별 별 목록
+    private final Map<Long, Map<Integer, Star>> starsByLeaf = new HashMap<>();
+    private final Map<Integer, Star> stars = new HashMap<>();
+
+    private long version;
+
+    public GalaxyTileIndex() {
+        for (int level = 0; level <= MAX_CELL_LEVEL; level++) {
+            cellsByLevel.add(new HashMap<>());
+        }
+    }
+
+    public int size() {
+        return stars.size();
+    }
+
+    /**
+     * 별을 추가하거나 이미 있으면 새 위치·감정으로 옮깁니다.
+     */
+    public void put(int diarySeq, int userSeq, int emotionSeq, double x, double y, double z) {
+        Star previous = stars.get(diarySeq);
+        if (previous != null && previous.userSeq == userSeq && previous.emotionSeq == emotionSeq
+                && previous.x == x && previous.y == y && previous.z == z) {
+            return;
+        }
+        remove(diarySeq);
+
+        Star star = new Star(diarySeq, userSeq, emotionSeq, x, y, z);
+        long changed = ++version;
+        stars.put(diarySeq, star);
+        for (int level = 0; level <= MAX_CELL_LEVEL; level++) {
+            cellsByLevel.get(level).computeIfAbsent(keyOf(level, x, y, z), k -> new Cell()).add(star, changed);
+        }
+        starsByLeaf.computeIfAbsent(keyOf(MAX_TILE_LEVEL, x, y, z), k -> new HashMap<>()).put(diarySeq, star);
+    }
+
+    /**
+     * 별을 제거합니다.
+     */
+    public void remove(int diarySeq) {
+        Star star = stars.remove(diarySeq);
+        if (star == null) {
+            return;
+        }
+        long changed = ++version;
+        for (int level = 0; level <= MAX_CELL_LEVEL; level++) {
+            Map<Long, Cell> cells = cellsByLevel.get(level);
+            long key = keyOf(level, star.x, star.y, star.z);
+            Cell cell = cells.get(key);
+            if (cell != null && cell.remove(star, changed)) {
+                cells.remove(key);
+            }
+        }
+        long leafKey = keyOf(MAX_TILE_LEVEL, star.x, star.y, star.z);
+        Map<Integer, Star> leaf = starsByLeaf.get(leafKey);
+        if (leaf != null) {
+            leaf.remove(diarySeq);
+            if (leaf.isEmpty()) {
+                starsByLeaf.remove(leafKey);
+            }
+        }
+    }
+
+    /**
+     * 타일의 버전을 반환합니다. 별이 없는 타일은 0입니다.
+     */
+    public long tileVersion(int level, int ix, int iy, int iz) {
+        Cell cell = cellsByLevel.get(level).get(key(level, ix, iy, iz));
+        return cell != null ? cell.version : 0L;
+    }
+
+    /**
+     * 타일 하나를 만듭니다.
+     * @param starLimit 별이 이 수 이하이면 군집 대신 별을 그대로 담음
+     * @return 별이 없는 타일이면 null
+     */
+    public Tile tile(int level, int ix, int iy, int iz, int starLimit) {
+        checkLevel(level);
+        Cell cell = cellsByLevel.get(level).get(key(level, ix, iy, iz));
+        if (cell == null) {
+            return null;
+        }
+
+        if (level == MAX_TILE_LEVEL || cell.count <= starLimit) {
+            List<Star> tileStars = new ArrayList<>(cell.count);
+            collectStars(level, ix, iy, iz, tileStars);
+            tileStars.sort(Comparator.comparingInt(Star::getDiarySeq));
+            return new Tile(level, ix, iy, iz, cell.version, cell.count, Collections.emptyList(), tileStars);
+        }
+
+        List<Cluster> clusters = new ArrayList<>();
+        collectClusters(level, ix, iy, iz, level + CLUSTER_DEPTH, clusters);
+        return new Tile(level, ix, iy, iz, cell.version, cell.count, clusters, Collections.emptyList());
+    }
+
+    /**
+     * 경계 상자와 겹치는 레벨 L 타일의 칸 번호 범위를 반환합니다.
+     * @return {minX, minY, minZ, maxX, maxY, maxZ} (양 끝 포함)
+     */
+    public static int[] tileRange(int level, double[] min, double[] max) {
+        checkLevel(level);
+        int[] range = new int[6];
+        for (int axis = 0; axis < 3; axis++) {
+            range[axis] = indexOf(level, Math.min(min[axis], max[axis]));
+            range[3 + axis] = indexOf(level, Math.max(min[axis], max[axis]));
+        }
+        return range;
+    }
+
+    // 타일 아래 가장 깊은 타일 칸까지 별이 있는 칸만 따라 내려가며 별을 모음
+    private void collectStars(int level, int ix, int iy, int iz, List<Star> out) {
+        if (level == MAX_TILE_LEVEL) {
+            Map<Integer, Star> leaf = starsByLeaf.get(key(level, ix, iy, iz));
+            if (leaf != null) {
+                out.addAll(leaf.values());
+            }
+            return;
+        }
+        if (!cellsByLevel.get(level).containsKey(key(level, ix, iy, iz))) {
+            return;
+        }
+        for (int child = 0; child < 8; child++) {
+            collectStars(level + 1, 2 * ix + (child & 1), 2 * iy + ((child >> 1) & 1), 2 * iz + (child >> 2), out);
+        }
+    }
+
+    private void collectClusters(int level, int ix, int iy, int iz, int targetLevel, List<Cluster> out) {
+        Cell cell = cellsByLevel.get(level).get(key(level, ix, iy, iz));
+        if (cell == null) {
+            return;
+        }
+        if (level == targetLevel) {
+            out.add(new Cluster(cell.sumX / cell.count, cell.sumY / cell.count, cell.sumZ / cell.count,
+                    cell.count, cell.dominantEmotion()));
+            return;
+        }
+        for (int child = 0; child < 8; child++) {
+            collectClusters(level + 1, 2 * ix + (child & 1), 2 * iy + ((child >> 1) & 1), 2 * iz + (child >> 2),
+                    targetLevel, out);
+        }
+    }
+
+    private static void checkLevel(int level) {
+        if (level < 0 || level > MAX_TILE_LEVEL) {
+            throw new IllegalArgumentException("타일 레벨은 0 ~ " + MAX_TILE_LEVEL + " 사이여야 합니다: " + level);
+        }
+    }
+
+    // 좌표가 속한 레벨 L 칸 번호 (은하 밖의 좌표는 가장자리 칸으로)
+    private static int indexOf(int level, double coordinate) {
+        int cells = 1 << level;
+        int index = (int) Math.floor((coordinate + HALF_SIZE) / (2 * HALF_SIZE) * cells);
+        return Math.max(0, Math.min(cells - 1, index));
+    }
+
+    private static long keyOf(int level, double x, double y, double z) {
+        return key(level, indexOf(level, x), indexOf(level, y), indexOf(level, z));
+    }
+
+    // 타일을 구분하는 키 (레벨과 칸 번호를 하나로 묶음)
+    public static long tileKey(int level, int ix, int iy, int iz) {
+        return key(level, ix, iy, iz);
+    }
+
+    private static long key(int level, int ix, int iy, int iz) {
+        return ((long) level << (3 * AXIS_BITS))
+                | ((ix & AXIS_MASK) << (2 * AXIS_BITS))
+                | ((iy & AXIS_MASK) << AXIS_BITS)
+                | (iz & AXIS_MASK);
+    }
+
+    // 칸 집계
+    private static final class Cell {
+        private int count;
+        private double sumX, sumY, sumZ;
+        private int[] emotionCounts = new int[8];
+        private long version;
+
+        private void add(Star star, long changed) {
+            count++;
+            sumX += star.x;
+            sumY += star.y;
+            sumZ += star.z;
+            if (star.emotionSeq >= emotionCounts.length) {
+                emotionCounts = Arrays.copyOf(emotionCounts, star.emotionSeq + 1);
+            }
+            if (star.emotionSeq >= 0) {
+                emotionCounts[star.emotionSeq]++;
+            }
+            version = changed;
+        }
+
+        // @return 칸이 비었으면 true
+        private boolean remove(Star star, long changed) {
+            count--;
+            sumX -= star.x;
+            sumY -= star.y;
+            sumZ -= star.z;
+            if (star.emotionSeq >= 0 && star.emotionSeq < emotionCounts.length) {
+                emotionCounts[star.emotionSeq]--;
+            }
+            version = changed;
+            return count <= 0;
+        }
+
+        // 별이 가장 많은 감정 (같으면 번호가 작은 감정)
+        private int dominantEmotion() {
+            int best = -1;
+            for (int emotion = 0; emotion < emotionCounts.length; emotion++) {
+                if (emotionCounts[emotion] > 0 && (best < 0 || emotionCounts[emotion] > emotionCounts[best])) {
+                    best = emotion;
+                }
+            }
+            return best;
+        }
+    }
+
+    public static final class Star {
+        private final int diarySeq;
+        private final int userSeq;
+        private final int emotionSeq;
+        private final double x, y, z;
+
+        public Star(int diarySeq, int userSeq, int emotionSeq, double x, double y, double z) {
+            this.diarySeq = diarySeq;
+            this.userSeq = userSeq;
+            this.emotionSeq = emotionSeq;
+            this.x = x;
+            this.y = y;
+            this.z = z;
+        }
+
+        public int getDiarySeq() {
+            return diarySeq;
+        }
+
+        public int getUserSeq() {
+            return userSeq;
+        }
+
+        public int getEmotionSeq() {
+            return emotionSeq;
+        }
+
+        public double getX() {
+            return x;
+        }
+
+        public double getY() {
+            return y;
+        }
+
+        public double getZ() {
+            return z;
+        }
+    }
+
+    public static final class Cluster {
+        private final double x, y, z;
+        private final int count;
+        private final int emotionSeq;
+
+        public Cluster(double x, double y, double z, int count, int emotionSeq) {
+            this.x = x;
+            this.y = y;
+            this.z = z;
+            this.count = count;
+            this.emotionSeq = emotionSeq;
+        }
+
+        public double getX() {
+            return x;
+        }
+
+        public double getY() {
+            return y;
+        }
+
+        public double getZ() {
+            return z;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        // 군집에서 가장 많은 감정
+        public int getEmotionSeq() {
+            return emotionSeq;
+        }
+    }
+
+    public static final class Tile {
+        private final int level;
+        private final int x, y, z;
+        private final long version;
+        private final int count;
+        private final List<Cluster> clusters;
+        private final List<Star> stars;
+
+        public Tile(int level, int x, int y, int z, long version, int count, List<Cluster> clusters,
+                    List<Star> stars) {
+            this.level = level;
+            this.x = x;
+            this.y = y;
+            this.z = z;
+            this.version = version;
+            this.count = count;
+            this.clusters = clusters;
+            this.stars = stars;
+        }
+
+        public int getLevel() {
+            return level;
+        }
+
+        public int getX() {
+            return x;
+        }
+
+        public int getY() {
+            return y;
+        }
+
+        public int getZ() {
+            return z;
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        public List<Cluster> getClusters() {
+            return clusters;
+        }
+
+        public List<Star> getStars() {
+            return stars;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.c202.diary.util.coordinate.spatial;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 거리 커널 구현 선택
+ * Vector API 구현은 모듈이 있을 때만 이름으로 불러오므로, 모듈 없이 실행해도 incubator 클래스가 연결되지 않습니다.
+ */
+@Slf4j
+final class KernelSelector {
+
+    private static final String VECTOR_MODULE = "jdk.incubator.vector";
+    private static final String VECTOR_KERNELS = "com.c202.diary.util.coordinate.spatial.VectorDistanceKernels";
+
+    static final DistanceKernels SELECTED = select();
+
+    private KernelSelector() {
+    }
+
+    private static DistanceKernels select() {
+        if (!Boolean.parseBoolean(System.getProperty("diary.simd.enabled", "true"))) {
+            log.info("거리 커널: scalar (diary.simd.enabled=false)");
+            return ScalarDistanceKernels.INSTANCE;
+        }
+        if (ModuleLayer.boot().findModule(VECTOR_MODULE).isEmpty()) {
+            log.info("거리 커널: scalar ({} 모듈 없음, --add-modules {}로 활성화)", VECTOR_MODULE, VECTOR_MODULE);
+            return ScalarDistanceKernels.INSTANCE;
+        }
+        try {
+            DistanceKernels kernels = (DistanceKernels) Class.forName(VECTOR_KERNELS)
+                    .getDeclaredConstructor().newInstance();
+            // 레인이 1개면 벡터 연산이 스칼라보다 느림
+            if (kernels.name().endsWith("-1")) {
+                log.info("거리 커널: scalar (이 CPU에서 double 벡터 레인이 1개)");
+                return ScalarDistanceKernels.INSTANCE;
+            }
+            log.info("거리 커널: {}", kernels.name());
+            return kernels;
+        } catch (ReflectiveOperationException | LinkageError e) {
+            log.warn("Vector API 커널을 불러오지 못해 스칼라 커널을 사용합니다.", e);
+            return ScalarDistanceKernels.INSTANCE;
+        }
+    }
+}
@@ -0,0 +1,300 @@
+package com.c202.diary.util.coordinate.spatial;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+
+/**
+ * 감정 영역(구) 안에 미리 뿌려 둔 별 자리 후보 (Bridson 방식 Poisson-disk 샘플링)
+ * 모든 후보는 서로 minDistance 이상 떨어져 있으므로, 빈 후보에만 별을 놓으면 별끼리 겹치지 않습니다.
+ * 후보 좌표는 만든 뒤 바뀌지 않으므로 여러 스레드가 공유할 수 있고, 사용 여부는 StarSlotPool이 따로 관리합니다.
+ * 가까운 후보 검색용으로 minDistance의 2배 크기 격자에 후보 번호를 칸별로 모아 둡니다. (CSR 배열)
+ */
+public final class PoissonDiskSlots {
+
+    // 활성 후보 하나에서 새 후보를 만들어 보는 횟수 (Bridson 논문의 k)
+    private static final int CANDIDATES_PER_SAMPLE = 30;
+    // 검색 격자 칸 크기 (minDistance 배수)
+    private static final double LOOKUP_CELL_FACTOR = 2.0;
+
+    private final double centerX, centerY, centerZ;
+    private final double radius;
+    private final double minDistance;
+    private final CoordinateBuffer slots;
+
+    // 검색 격자: 칸 (cx, cy, cz)의 후보 번호는 cellSlots[cellStart[c] .. cellStart[c + 1])
+    private final double cellSize;
+    private final int cellsPerAxis;
+    private final double originX, originY, originZ;
+    private final int[] cellStart;
+    private final int[] cellSlots;
+
+    private PoissonDiskSlots(double centerX, double centerY, double centerZ, double radius, double minDistance,
+                             CoordinateBuffer slots) {
+        this.centerX = centerX;
+        this.centerY = centerY;
+        this.centerZ = centerZ;
+        this.radius = radius;
+        this.minDistance = minDistance;
+        this.slots = slots;
+
+        this.cellSize = minDistance * LOOKUP_CELL_FACTOR;
+        this.cellsPerAxis = Math.max(1, (int) Math.ceil(2 * radius / cellSize));
+        this.originX = centerX - radius;
+        this.originY = centerY - radius;
+        this.originZ = centerZ - radius;
+
+        int cellCount = cellsPerAxis * cellsPerAxis * cellsPerAxis;
+        int[] cellOf = new int[slots.size()];
+        this.cellStart = new int[cellCount + 1];
+        double[] xs = slots.xs(), ys = slots.ys(), zs = slots.zs();
+        for (int i = 0; i < slots.size(); i++) {
+            cellOf[i] = cellIndex(cell(xs[i], originX), cell(ys[i], originY), cell(zs[i], originZ));
+            cellStart[cellOf[i] + 1]++;
+        }
+        for (int c = 0; c < cellCount; c++) {
+            cellStart[c + 1] += cellStart[c];
+        }
+        this.cellSlots = new int[slots.size()];
+        int[] fill = new int[cellCount];
+        for (int i = 0; i < slots.size(); i++) {
+            cellSlots[cellStart[cellOf[i]] + fill[cellOf[i]]++] = i;
+        }
+    }
+
+    /**
+     * 구 안에 서로 minDistance 이상 떨어진 후보를 더 넣을 수 없을 때까지 채웁니다.
+     * 후보 수는 대략 0.3 × 구 부피 / (π/6 · minDistance³)입니다. (반경 60, 간격 3이면 약 2만 개)
+     * @param centerX 구 중심 x
+     * @param centerY 구 중심 y
+     * @param centerZ 구 중심 z
+     * @param radius 구 반경
+     * @param minDistance 후보 간 최소 거리
+     * @param seed 난수 시드 (같으면 항상 같은 후보)
+     * @return 후보 집합
+     */
+    public static PoissonDiskSlots generate(double centerX, double centerY, double centerZ, double radius,
+                                            double minDistance, long seed) {
+        if (radius <= 0 || minDistance <= 0) {
+            throw new IllegalArgumentException("radius와 minDistance는 0보다 커야 합니다: " + radius + ", " + minDistance);
+        }
+        Random random = new Random(seed);
+
+        // 배경 격자 칸 크기를 minDistance/√3으로 두면 칸마다 후보가 최대 하나
+        double cell = minDistance / Math.sqrt(3);
+        int n = Math.max(1, (int) Math.ceil(2 * radius / cell));
+        int[] grid = new int[n * n * n];
+        Arrays.fill(grid, -1);
+        double ox = centerX - radius, oy = centerY - radius, oz = centerZ - radius;
+        double minDistanceSq = minDistance * minDistance;
+        double radiusSq = radius * radius;
+
+        CoordinateBuffer samples = new CoordinateBuffer();
+        List<Integer> active = new ArrayList<>();
+        addSample(samples, active, grid, n, cell, ox, oy, oz, centerX, centerY, centerZ);
+
+        double[] xs, ys, zs;
+        while (!active.isEmpty()) {
+            int activeIndex = random.nextInt(active.size());
+            int from = active.get(activeIndex);
+            xs = samples.xs();
+            ys = samples.ys();
+            zs = samples.zs();
+            double fx = xs[from], fy = ys[from], fz = zs[from];
+
+            boolean placed = false;
+            for (int attempt = 0; attempt < CANDIDATES_PER_SAMPLE && !placed; attempt++) {
+                // [minDistance, 2·minDistance] 구각 안의 부피 균등 점
+                double r = minDistance * Math.cbrt(1 + 7 * random.nextDouble());
+                double cosPhi = 2 * random.nextDouble() - 1;
+                double sinPhi = Math.sqrt(1 - cosPhi * cosPhi);
+                double theta = 2 * Math.PI * random.nextDouble();
+                double x = fx + r * sinPhi * Math.cos(theta);
+                double y = fy + r * sinPhi * Math.sin(theta);
+                double z = fz + r * cosPhi;
+
+                double dx = x - centerX, dy = y - centerY, dz = z - centerZ;
+                if (dx * dx + dy * dy + dz * dz > radiusSq) {
+                    continue;
+                }
+                int gx = clamp((int) ((x - ox) / cell), n);
+                int gy = clamp((int) ((y - oy) / cell), n);
+                int gz = clamp((int) ((z - oz) / cell), n);
+                if (grid[(gx * n + gy) * n + gz] >= 0 || tooClose(samples, grid, n, gx, gy, gz, x, y, z, minDistanceSq)) {
+                    continue;
+                }
+                addSample(samples, active, grid, n, cell, ox, oy, oz, x, y, z);
+                placed = true;
+            }
+
+            if (!placed) {
+                // 순서는 상관없으므로 마지막 원소로 덮어써 O(1)로 제거
+                active.set(activeIndex, active.get(active.size() - 1));
+                active.remove(active.size() - 1);
+            }
+        }
+        return new PoissonDiskSlots(centerX, centerY, centerZ, radius, minDistance, samples);
+    }
+
+    public int size() {
+        return slots.size();
+    }
+
+    public double minDistance() {
+        return minDistance;
+    }
+
+    public double x(int slot) {
+        return slots.xs()[slot];
+    }
+
+    public double y(int slot) {
+        return slots.ys()[slot];
+    }
+
+    public double z(int slot) {
+        return slots.zs()[slot];
+    }
+
+    /**
+     * 기준점에서 가장 가까운 빈 후보를 찾습니다.
+     * 기준점 칸에서 시작해 한 겹씩 넓혀 가며, 찾은 후보보다 가까운 후보가 더 바깥 겹에 있을 수 없으면 멈춥니다.
+     * 주변에 빈 후보가 남아 있으면 몇 칸만 보므로 후보 수와 무관하게 거의 상수 시간입니다.
+     * @param free 후보 번호를 받아 빈 후보인지 판단하는 조건
+     * @return 후보 번호 (빈 후보가 없으면 -1)
+     */
+    public int nearestFree(double x, double y, double z, IntPredicate free) {
+        // 구 밖의 기준점은 격자 범위로 당겨서 시작 칸을 정함 (거리는 원래 좌표로 계산)
+        int cx = clamp(cell(x, originX), cellsPerAxis);
+        int cy = clamp(cell(y, originY), cellsPerAxis);
+        int cz = clamp(cell(z, originZ), cellsPerAxis);
+        double[] xs = slots.xs(), ys = slots.ys(), zs = slots.zs();
+
+        int best = -1;
+        double bestDistanceSq = Double.MAX_VALUE;
+        for (int ring = 0; ring < cellsPerAxis; ring++) {
+            for (int ix = cx - ring; ix <= cx + ring; ix++) {
+                for (int iy = cy - ring; iy <= cy + ring; iy++) {
+                    for (int iz = cz - ring; iz <= cz + ring; iz++) {
+                        boolean onShell = Math.abs(ix - cx) == ring || Math.abs(iy - cy) == ring
+                                || Math.abs(iz - cz) == ring;
+                        if (!onShell || !inGrid(ix, iy, iz)) {
+                            continue;
+                        }
+                        int c = cellIndex(ix, iy, iz);
+                        for (int k = cellStart[c]; k < cellStart[c + 1]; k++) {
+                            int slot = cellSlots[k];
+                            if (!free.test(slot)) {
+                                continue;
+                            }
+                            double dx = xs[slot] - x, dy = ys[slot] - y, dz = zs[slot] - z;
+                            double distanceSq = dx * dx + dy * dy + dz * dz;
+                            if (distanceSq < bestDistanceSq || (distanceSq == bestDistanceSq && slot < best)) {
+                                bestDistanceSq = distanceSq;
+                                best = slot;
+                            }
+                        }
+                    }
+                }
+            }
+            // 다음 겹의 점은 기준점에서 적어도 ring 칸만큼 떨어져 있음
+            double reach = ring * cellSize;
+            if (best >= 0 && bestDistanceSq <= reach * reach) {
+                break;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * 좌표에서 반경 안에 있는 후보 번호를 모두 넘깁니다. (격자에 없는 별이 막는 후보 찾기용)
+     */
+    public void forEachWithin(double x, double y, double z, double range, IntConsumer action) {
+        int minX = Math.max(0, cell(x - range, originX)), maxX = Math.min(cellsPerAxis - 1, cell(x + range, originX));
+        int minY = Math.max(0, cell(y - range, originY)), maxY = Math.min(cellsPerAxis - 1, cell(y + range, originY));
+        int minZ = Math.max(0, cell(z - range, originZ)), maxZ = Math.min(cellsPerAxis - 1, cell(z + range, originZ));
+        double rangeSq = range * range;
+        double[] xs = slots.xs(), ys = slots.ys(), zs = slots.zs();
+
+        for (int ix = minX; ix <= maxX; ix++) {
+            for (int iy = minY; iy <= maxY; iy++) {
+                for (int iz = minZ; iz <= maxZ; iz++) {
+                    int c = cellIndex(ix, iy, iz);
+                    for (int k = cellStart[c]; k < cellStart[c + 1]; k++) {
+                        int slot = cellSlots[k];
+                        double dx = xs[slot] - x, dy = ys[slot] - y, dz = zs[slot] - z;
+                        if (dx * dx + dy * dy + dz * dz < rangeSq) {
+                            action.accept(slot);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * 좌표와 거의 같은 위치의 후보 번호 (없으면 -1)
+     * 후보 위에 놓인 별을 DB에서 다시 읽었을 때 어느 후보인지 찾는 데 씁니다.
+     */
+    public int slotAt(double x, double y, double z, double tolerance) {
+        int[] found = {-1};
+        forEachWithin(x, y, z, tolerance, slot -> found[0] = slot);
+        return found[0];
+    }
+
+    public boolean matches(double centerX, double centerY, double centerZ, double radius, double minDistance) {
+        return this.centerX == centerX && this.centerY == centerY && this.centerZ == centerZ
+                && this.radius == radius && this.minDistance == minDistance;
+    }
+
+    private int cell(double value, double origin) {
+        return (int) Math.floor((value - origin) / cellSize);
+    }
+
+    private int cellIndex(int ix, int iy, int iz) {
+        return (ix * cellsPerAxis + iy) * cellsPerAxis + iz;
+    }
+
+    private boolean inGrid(int ix, int iy, int iz) {
+        return ix >= 0 && iy >= 0 && iz >= 0 && ix < cellsPerAxis && iy < cellsPerAxis && iz < cellsPerAxis;
+    }
+
+    private static int clamp(int value, int size) {
+        return Math.max(0, Math.min(size - 1, value));
+    }
+
+    private static void addSample(CoordinateBuffer samples, List<Integer> active, int[] grid, int n, double cell,
+                                  double ox, double oy, double oz, double x, double y, double z) {
+        int index = samples.size();
+        samples.add(x, y, z);
+        active.add(index);
+        int gx = clamp((int) ((x - ox) / cell), n);
+        int gy = clamp((int) ((y - oy) / cell), n);
+        int gz = clamp((int) ((z - oz) / cell), n);
+        grid[(gx * n + gy) * n + gz] = index;
+    }
+
+    // 배경 격자에서 주변 5×5×5 칸(최소 거리 안에 들 수 있는 범위)의 후보와 거리 비교
+    private static boolean tooClose(CoordinateBuffer samples, int[] grid, int n, int gx, int gy, int gz,
+                                    double x, double y, double z, double minDistanceSq) {
+        double[] xs = samples.xs(), ys = samples.ys(), zs = samples.zs();
+        for (int ix = Math.max(0, gx - 2); ix <= Math.min(n - 1, gx + 2); ix++) {
+            for (int iy = Math.max(0, gy - 2); iy <= Math.min(n - 1, gy + 2); iy++) {
+                for (int iz = Math.max(0, gz - 2); iz <= Math.min(n - 1, gz + 2); iz++) {
+                    int other = grid[(ix * n + iy) * n + iz];
+                    if (other < 0) {
+                        continue;
+                    }
+                    double dx = xs[other] - x, dy = ys[other] - y, dz = zs[other] - z;
+                    if (dx * dx + dy * dy + dz * dz < minDistanceSq) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+}
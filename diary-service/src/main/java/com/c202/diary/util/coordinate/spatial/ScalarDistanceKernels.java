@@ -0,0 +1,80 @@
+package com.c202.diary.util.coordinate.spatial;
+
+/**
+ * 스칼라 거리 커널 (Vector API를 쓸 수 없을 때의 기본 구현)
+ */
+final class ScalarDistanceKernels implements DistanceKernels {
+
+    static final ScalarDistanceKernels INSTANCE = new ScalarDistanceKernels();
+
+    private ScalarDistanceKernels() {
+    }
+
+    @Override
+    public String name() {
+        return "scalar";
+    }
+
+    @Override
+    public void squaredDistances(double x, double y, double z, CoordinateBuffer points, double[] out) {
+        double[] xs = points.xs(), ys = points.ys(), zs = points.zs();
+        for (int j = 0, n = points.size(); j < n; j++) {
+            double dx = xs[j] - x, dy = ys[j] - y, dz = zs[j] - z;
+            out[j] = dx * dx + dy * dy + dz * dz;
+        }
+    }
+
+    @Override
+    public boolean anyWithin(double x, double y, double z, CoordinateBuffer points, double radius) {
+        double radiusSq = radius * radius;
+        double[] xs = points.xs(), ys = points.ys(), zs = points.zs();
+        for (int j = 0, n = points.size(); j < n; j++) {
+            double dx = xs[j] - x, dy = ys[j] - y, dz = zs[j] - z;
+            if (dx * dx + dy * dy + dz * dz < radiusSq) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void accumulateRepulsion(int index, CoordinateBuffer points, double constant, double minDistance,
+                                    double[] out) {
+        double[] xs = points.xs(), ys = points.ys(), zs = points.zs();
+        double x = xs[index], y = ys[index], z = zs[index];
+        double forceX = 0, forceY = 0, forceZ = 0;
+        for (int j = 0, n = points.size(); j < n; j++) {
+            if (j == index) continue;
+            double dx = x - xs[j];
+            double dy = y - ys[j];
+            double dz = z - zs[j];
+            double distance = Math.sqrt(dx * dx + dy * dy + dz * dz);
+            if (distance < minDistance) distance = minDistance;
+            // 방향(d / |d|) × 크기(constant / |d|²)를 나눗셈 한 번으로 계산
+            double scale = constant / (distance * distance * distance);
+            forceX += dx * scale;
+            forceY += dy * scale;
+            forceZ += dz * scale;
+        }
+        out[0] += forceX;
+        out[1] += forceY;
+        out[2] += forceZ;
+    }
+
+    @Override
+    public double dot(float[] a, float[] b) {
+        // 누산기 4개로 나눠 덧셈 의존성을 끊음
+        float s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+        int i = 0;
+        for (int bound = a.length & ~3; i < bound; i += 4) {
+            s0 += a[i] * b[i];
+            s1 += a[i + 1] * b[i + 1];
+            s2 += a[i + 2] * b[i + 2];
+            s3 += a[i + 3] * b[i + 3];
+        }
+        for (; i < a.length; i++) {
+            s0 += a[i] * b[i];
+        }
+        return (s0 + s1) + (s2 + s3);
+    }
+}
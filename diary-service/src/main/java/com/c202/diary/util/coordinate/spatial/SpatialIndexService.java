@@ -0,0 +1,234 @@
+package com.c202.diary.util.coordinate.spatial;
+
+import com.c202.diary.diary.entity.Diary;
+import com.c202.diary.diary.model.DiaryCoordinateView;
+import com.c202.diary.diary.repository.DiaryRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+// 사용자·감정 영역별 별 좌표 공간 인덱스를 메모리에 유지하는 서비스
+// 처음 조회할 때 DB에서 만들고, 이후 좌표 변경은 커밋 뒤에 인덱스에 반영합니다.
+// 다른 인스턴스의 변경을 놓치지 않도록 일정 시간(diary.spatial-index.ttl-ms)마다 새로 만듭니다.
+// 격자는 잠금 밖에서 한 요청만 만들고, 만드는 동안 커밋된 변경은 모아 두었다가 다 만든 격자에 반영합니다.
+@Slf4j
+@Service
+public class SpatialIndexService {
+
+    // 격자 칸 크기 (별 간 최소 간격보다 조금 크게)
+    private static final double CELL_SIZE = 10.0;
+
+    private final DiaryRepository diaryRepository;
+    private final long ttlMillis;
+
+    // 사용자 → 감정별 격자, 오래 쓰지 않은 사용자부터 제거
+    private final Map<Integer, UserGrids> gridsByUser;
+
+    public SpatialIndexService(DiaryRepository diaryRepository,
+                               @Value("${diary.spatial-index.max-users:10000}") int maxUsers,
+                               @Value("${diary.spatial-index.ttl-ms:600000}") long ttlMillis) {
+        this.diaryRepository = diaryRepository;
+        this.ttlMillis = ttlMillis;
+        this.gridsByUser = Collections.synchronizedMap(
+                new LinkedHashMap<Integer, UserGrids>(16, 0.75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<Integer, UserGrids> eldest) {
+                        return size() > maxUsers;
+                    }
+                });
+    }
+
+    // 가장 가까운 별 k개를 찾습니다. (같은 사용자, 같은 감정 영역 안에서)
+    // @return 가까운 순 이웃 목록 (자기 자신 제외)
+    public List<UniformGrid.Neighbor> findNearest(Diary diary, int k) {
+        if (diary.getX() == null || diary.getEmotionSeq() == null) {
+            return Collections.emptyList();
+        }
+        return withGrid(diary.getUserSeq(), diary.getEmotionSeq(),
+                grid -> grid.nearest(diary.getX(), diary.getY(), diary.getZ(), k, diary.getDiarySeq()));
+    }
+
+    // 반경 안에 다른 별이 있는지 확인합니다. (충돌 검사용)
+    public boolean hasStarWithin(Integer userSeq, Integer emotionSeq, double[] point, double radius, Integer excludeSeq) {
+        return withGrid(userSeq, emotionSeq,
+                grid -> grid.hasWithin(point[0], point[1], point[2], radius, excludeSeq));
+    }
+
+    // 반경 안의 별 좌표를 모두 반환합니다. (충돌 회피 방향 계산용)
+    public List<double[]> findStarsWithin(Integer userSeq, Integer emotionSeq, double[] point, double radius,
+                                          Integer excludeSeq) {
+        return withGrid(userSeq, emotionSeq,
+                grid -> grid.within(point[0], point[1], point[2], radius, excludeSeq));
+    }
+
+    // 일기 좌표 변경을 인덱스에 반영합니다. (트랜잭션 안이면 커밋 이후에 반영)
+    public void onDiaryMoved(Diary diary) {
+        Integer userSeq = diary.getUserSeq();
+        Integer diarySeq = diary.getDiarySeq();
+        Integer emotionSeq = diary.getEmotionSeq();
+        Double x = diary.getX(), y = diary.getY(), z = diary.getZ();
+        if (userSeq == null || diarySeq == null) {
+            return;
+        }
+
+        boolean placed = emotionSeq != null && x != null && y != null && z != null;
+        afterCommit(() -> applyChange(userSeq, (gridEmotionSeq, grid) -> {
+            grid.remove(diarySeq);
+            if (placed && emotionSeq.equals(gridEmotionSeq)) {
+                grid.put(diarySeq, x, y, z);
+            }
+        }));
+    }
+
+    // 삭제된 일기를 인덱스에서 제거합니다.
+    public void onDiaryRemoved(Diary diary) {
+        Integer userSeq = diary.getUserSeq();
+        Integer diarySeq = diary.getDiarySeq();
+        afterCommit(() -> applyChange(userSeq, (gridEmotionSeq, grid) -> grid.remove(diarySeq)));
+    }
+
+    // 사용자 전체 좌표가 바뀐 경우(전체 재배치) 인덱스를 버립니다.
+    public void invalidateUser(Integer userSeq) {
+        afterCommit(() -> gridsByUser.remove(userSeq));
+    }
+
+    // 감정 영역별 격자 변경을 반영합니다. (커밋 이후에 호출)
+    // 아직 만들어지지 않은 격자는 다음 조회 때 DB에서 새로 만들고, 만드는 중인 격자에는 다 만든 뒤에 반영합니다.
+    private void applyChange(Integer userSeq, GridChange change) {
+        UserGrids user = gridsByUser.get(userSeq);
+        if (user == null) {
+            return;
+        }
+        synchronized (user) {
+            for (Map.Entry<Integer, UniformGrid> grid : user.grids.entrySet()) {
+                change.apply(grid.getKey(), grid.getValue());
+            }
+            for (Map.Entry<Integer, PendingGrid> pending : user.loading.entrySet()) {
+                Integer emotionSeq = pending.getKey();
+                pending.getValue().changes.add(grid -> change.apply(emotionSeq, grid));
+            }
+        }
+    }
+
+    private <T> T withGrid(Integer userSeq, Integer emotionSeq, Function<UniformGrid, T> query) {
+        UserGrids user = gridsOf(userSeq);
+        UniformGrid grid = gridOf(user, userSeq, emotionSeq);
+        synchronized (user) {
+            return query.apply(grid);
+        }
+    }
+
+    // 사용자의 감정별 격자 (만든 지 ttl이 지났으면 비우고 다음 조회 때 감정별로 다시 만듦)
+    private UserGrids gridsOf(Integer userSeq) {
+        synchronized (gridsByUser) {
+            long now = System.currentTimeMillis();
+            UserGrids user = gridsByUser.get(userSeq);
+            if (user == null || now - user.loadedAt >= ttlMillis) {
+                user = new UserGrids(now);
+                gridsByUser.put(userSeq, user);
+            }
+            return user;
+        }
+    }
+
+    // 감정 영역의 격자 (없으면 DB에서 만듦)
+    // DB 조회는 잠금 밖에서 한 요청만 하고, 같은 격자를 원하는 다른 요청은 다 만들 때까지 기다립니다.
+    private UniformGrid gridOf(UserGrids user, Integer userSeq, Integer emotionSeq) {
+        PendingGrid pending = new PendingGrid();
+        PendingGrid running;
+        synchronized (user) {
+            UniformGrid grid = user.grids.get(emotionSeq);
+            if (grid != null) {
+                return grid;
+            }
+            running = user.loading.putIfAbsent(emotionSeq, pending);
+        }
+        if (running != null) {
+            return running.await();
+        }
+
+        try {
+            UniformGrid grid = loadGrid(userSeq, emotionSeq);
+            synchronized (user) {
+                // DB를 읽은 뒤 커밋된 변경 반영 (먼저 커밋된 변경이 이미 반영되어 있어도 결과는 같음)
+                for (Consumer<UniformGrid> change : pending.changes) {
+                    change.accept(grid);
+                }
+                user.grids.put(emotionSeq, grid);
+                user.loading.remove(emotionSeq);
+            }
+            pending.result.complete(grid);
+            return grid;
+        } catch (RuntimeException e) {
+            synchronized (user) {
+                user.loading.remove(emotionSeq);
+            }
+            pending.result.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private UniformGrid loadGrid(Integer userSeq, Integer emotionSeq) {
+        UniformGrid grid = new UniformGrid(CELL_SIZE);
+        for (DiaryCoordinateView diary : diaryRepository.findByUserSeqAndEmotionSeqAndIsDeleted(
+                userSeq, emotionSeq, "N", DiaryCoordinateView.class)) {
+            if (diary.getX() != null && diary.getY() != null && diary.getZ() != null) {
+                grid.put(diary.getDiarySeq(), diary.getX(), diary.getY(), diary.getZ());
+            }
+        }
+        log.debug("공간 인덱스 생성: user={}, emotion={}, stars={}", userSeq, emotionSeq, grid.size());
+        return grid;
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+            return;
+        }
+        action.run();
+    }
+
+    // 한 사용자의 감정별 격자와 만든 시각 (이 객체로 동기화)
+    private static final class UserGrids {
+        private final long loadedAt;
+        private final Map<Integer, UniformGrid> grids = new HashMap<>();
+        // 감정 → 만드는 중인 격자
+        private final Map<Integer, PendingGrid> loading = new HashMap<>();
+
+        private UserGrids(long loadedAt) {
+            this.loadedAt = loadedAt;
+        }
+    }
+
+    // 만드는 중인 격자와 그동안 커밋된 변경
+    private static final class PendingGrid {
+        private final CompletableFuture<UniformGrid> result = new CompletableFuture<>();
+        private final List<Consumer<UniformGrid>> changes = new ArrayList<>();
+
+        private UniformGrid await() {
+            try {
+                return result.join();
+            } catch (CompletionException e) {
+                throw (RuntimeException) e.getCause();
+            }
+        }
+    }
+
+    // 감정 영역 격자 하나에 적용할 변경
+    private interface GridChange {
+        void apply(Integer emotionSeq, UniformGrid grid);
+    }
+}
@@ -0,0 +1,106 @@
+package com.c202.diary.util.coordinate.spatial;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 한 사용자·감정 영역의 별 자리 후보 사용 현황
+ * 후보 위에 놓인 별은 그 후보를 차지하고, 후보 밖에 놓인 별(별자리 템플릿 배치 등)은
+ * 최소 거리 안의 후보를 막아 두므로 빈 후보에 놓은 새 별은 어느 별과도 겹치지 않습니다.
+ * 후보 좌표(PoissonDiskSlots)는 감정별로 모든 사용자가 공유하고, 여기에는 별이 차지하거나 막은 후보만
+ * 희소하게 담으므로 메모리는 후보 수가 아니라 이 영역의 별 수에 비례합니다.
+ * 스레드 안전하지 않으므로 공유할 때는 호출하는 쪽에서 동기화해야 합니다.
+ */
+final class StarSlotPool {
+
+    // DB에서 다시 읽은 좌표를 후보와 같은 위치로 볼 오차
+    private static final double SNAP_TOLERANCE = 1e-6;
+    private static final int[] NONE = new int[0];
+
+    private final PoissonDiskSlots slots;
+    // 일기 → 차지하거나 막고 있는 후보 목록
+    private final Map<Integer, int[]> slotsByDiary = new HashMap<>();
+    // 후보 → 차지하거나 막고 있는 별 수 (없으면 빈 후보)
+    private final Map<Integer, Integer> usage = new HashMap<>();
+
+    StarSlotPool(PoissonDiskSlots slots) {
+        this.slots = slots;
+    }
+
+    PoissonDiskSlots slots() {
+        return slots;
+    }
+
+    int freeCount() {
+        return slots.size() - usage.size();
+    }
+
+    /**
+     * 기준점에서 가장 가까운 빈 후보를 찾습니다. (사용 현황은 바꾸지 않음)
+     * 일기가 이 영역에서 이미 차지하거나 막고 있는 후보는 빈 것으로 보므로 옮길 때 같은 자리를 다시 받을 수 있습니다.
+     * @param diarySeq 배치할 일기 (새 일기면 null)
+     * @return 후보 번호 (빈 후보가 없으면 -1)
+     */
+    int nearestFree(Integer diarySeq, double x, double y, double z) {
+        int[] own = diarySeq != null ? slotsByDiary.getOrDefault(diarySeq, NONE) : NONE;
+        if (own.length == 0 && usage.size() >= slots.size()) {
+            return -1;
+        }
+        return slots.nearestFree(x, y, z, slot -> {
+            Integer count = usage.get(slot);
+            return count == null || (count == 1 && contains(own, slot));
+        });
+    }
+
+    /**
+     * 저장된 좌표의 별을 반영합니다. (DB에서 읽은 별, 새로 배치되거나 옮겨진 별)
+     * 좌표가 빈 후보 위면 그 후보를 차지하고, 아니면 최소 거리 안의 후보를 막습니다.
+     */
+    void occupy(Integer diarySeq, double x, double y, double z) {
+        remove(diarySeq);
+        int slot = slots.slotAt(x, y, z, SNAP_TOLERANCE);
+        if (slot >= 0 && !usage.containsKey(slot)) {
+            use(diarySeq, new int[]{slot});
+            return;
+        }
+
+        List<Integer> blocked = new ArrayList<>();
+        slots.forEachWithin(x, y, z, slots.minDistance(), blocked::add);
+        int[] blockedSlots = new int[blocked.size()];
+        for (int i = 0; i < blockedSlots.length; i++) {
+            blockedSlots[i] = blocked.get(i);
+        }
+        use(diarySeq, blockedSlots);
+    }
+
+    /**
+     * 일기가 차지하거나 막고 있던 후보를 돌려놓습니다.
+     */
+    void remove(Integer diarySeq) {
+        int[] used = slotsByDiary.remove(diarySeq);
+        if (used == null) {
+            return;
+        }
+        for (int slot : used) {
+            usage.computeIfPresent(slot, (key, count) -> count > 1 ? count - 1 : null);
+        }
+    }
+
+    private void use(Integer diarySeq, int[] used) {
+        slotsByDiary.put(diarySeq, used);
+        for (int slot : used) {
+            usage.merge(slot, 1, Integer::sum);
+        }
+    }
+
+    private static boolean contains(int[] values, int value) {
+        for (int v : values) {
+            if (v == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,224 @@
+package com.c202.diary.util.coordinate.spatial;
+
+import com.c202.diary.diary.entity.Diary;
+import com.c202.diary.diary.model.DiaryCoordinateView;
+import com.c202.diary.diary.repository.DiaryRepository;
+import com.c202.diary.emotion.entity.Emotion;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+// 감정 영역마다 미리 뿌려 둔 별 자리 후보(PoissonDiskSlots)에서 새 별의 자리를 꺼내 주는 서비스
+// 후보끼리는 최소 거리 이상 떨어져 있으므로 충돌을 고치는 반복 없이 가까운 빈 후보 하나만 찾으면 됩니다.
+// 후보 좌표는 감정별로 한 번 만들어 모든 사용자가 같이 쓰고, 사용 현황만 사용자·감정별로 메모리에 유지합니다.
+// 처음 조회할 때 DB에서 만들고, 이후 좌표 변경·삭제는 커밋 뒤에 반영합니다. (삭제된 별의 자리는 다시 빈 후보가 됨)
+// 자리 찾기(nearestFree)는 사용 현황을 바꾸지 않고, 좌표를 일기에 적용한 뒤 claim으로 반영합니다.
+// 다른 인스턴스의 변경을 놓치지 않도록 사용 현황은 일정 시간마다 DB에서 새로 만듭니다.
+@Slf4j
+@Service
+public class StarSlotService {
+
+    private final DiaryRepository diaryRepository;
+    // 후보 간 최소 거리 (= 후보에 놓인 별 간 최소 거리)
+    private final double minDistance;
+    private final long ttlMillis;
+
+    // 감정 → 후보 좌표 (감정 영역이 바뀌면 새로 만듦)
+    private final Map<Integer, PoissonDiskSlots> slotsByEmotion = new ConcurrentHashMap<>();
+    // 사용자 → 감정별 사용 현황, 오래 쓰지 않은 사용자부터 제거
+    private final Map<Integer, UserPools> poolsByUser;
+
+    public StarSlotService(DiaryRepository diaryRepository,
+                           @Value("${diary.star-slots.min-distance:3.0}") double minDistance,
+                           @Value("${diary.star-slots.max-users:1000}") int maxUsers,
+                           @Value("${diary.star-slots.ttl-ms:600000}") long ttlMillis) {
+        this.diaryRepository = diaryRepository;
+        this.minDistance = minDistance;
+        this.ttlMillis = ttlMillis;
+        this.poolsByUser = Collections.synchronizedMap(
+                new LinkedHashMap<Integer, UserPools>(16, 0.75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<Integer, UserPools> eldest) {
+                        return size() > maxUsers;
+                    }
+                });
+    }
+
+    // 기준점에서 가장 가까운 빈 후보의 좌표를 찾습니다. (사용 현황은 바꾸지 않음)
+    // 빈 후보가 없으면 null을 반환하므로 호출하는 쪽에서 다른 방식으로 배치해야 합니다.
+    // @param diarySeq 옮기는 일기 (이 일기가 지금 차지한 자리는 빈 것으로 봄, 새 일기면 null)
+    public double[] nearestFree(Integer userSeq, Emotion emotion, double[] target, Integer diarySeq) {
+        UserPools user = poolsOf(userSeq);
+        synchronized (user) {
+            StarSlotPool pool = poolOf(user, userSeq, emotion);
+            int slot = pool.nearestFree(diarySeq, target[0], target[1], target[2]);
+            if (slot < 0) {
+                log.warn("빈 별 자리 없음: user={}, emotion={}", userSeq, emotion.getEmotionSeq());
+                return null;
+            }
+            PoissonDiskSlots slots = pool.slots();
+            return new double[]{slots.x(slot), slots.y(slot), slots.z(slot)};
+        }
+    }
+
+    // 좌표를 적용한 일기의 자리를 바로 차지합니다. (같은 사용자의 다음 배치가 같은 자리를 받지 않도록)
+    // 트랜잭션이 롤백되면 사용자의 사용 현황을 버리고 다음 조회 때 DB에서 다시 만듭니다.
+    public void claim(Diary diary) {
+        Integer userSeq = diary.getUserSeq();
+        if (userSeq == null || diary.getDiarySeq() == null) {
+            return;
+        }
+        UserPools user = poolsByUser.get(userSeq);
+        if (user != null) {
+            move(user, diary.getDiarySeq(), diary.getEmotionSeq(), diary.getX(), diary.getY(), diary.getZ());
+            onRollback(() -> poolsByUser.remove(userSeq));
+        }
+        // 커밋 전에 사용 현황을 새로 만들었으면 이 일기가 빠져 있으므로 커밋 뒤에 한 번 더 반영
+        onDiaryMoved(diary);
+    }
+
+    // 일기 좌표 변경을 반영합니다. (트랜잭션 안이면 커밋 이후에 반영)
+    public void onDiaryMoved(Diary diary) {
+        Integer userSeq = diary.getUserSeq();
+        Integer diarySeq = diary.getDiarySeq();
+        Integer emotionSeq = diary.getEmotionSeq();
+        Double x = diary.getX(), y = diary.getY(), z = diary.getZ();
+        if (userSeq == null || diarySeq == null) {
+            return;
+        }
+
+        afterCommit(() -> {
+            UserPools user = poolsByUser.get(userSeq);
+            if (user != null) {
+                // 아직 만들어지지 않은 사용 현황은 다음 조회 때 DB에서 새로 만듦
+                move(user, diarySeq, emotionSeq, x, y, z);
+            }
+        });
+    }
+
+    // 삭제된 일기의 자리를 비웁니다.
+    public void onDiaryRemoved(Diary diary) {
+        Integer userSeq = diary.getUserSeq();
+        Integer diarySeq = diary.getDiarySeq();
+        afterCommit(() -> {
+            UserPools user = poolsByUser.get(userSeq);
+            if (user == null) {
+                return;
+            }
+            synchronized (user) {
+                for (StarSlotPool pool : user.pools.values()) {
+                    pool.remove(diarySeq);
+                }
+            }
+        });
+    }
+
+    // 사용자 전체 좌표가 바뀐 경우(전체 재배치) 사용 현황을 버립니다.
+    public void invalidateUser(Integer userSeq) {
+        afterCommit(() -> poolsByUser.remove(userSeq));
+    }
+
+    // 일기를 감정 영역의 새 좌표로 옮김 (감정이 바뀐 일기는 이전 감정 영역의 자리를 비움)
+    private void move(UserPools user, Integer diarySeq, Integer emotionSeq, Double x, Double y, Double z) {
+        synchronized (user) {
+            for (StarSlotPool pool : user.pools.values()) {
+                pool.remove(diarySeq);
+            }
+            StarSlotPool target = emotionSeq != null ? user.pools.get(emotionSeq) : null;
+            if (target != null && x != null && y != null && z != null) {
+                target.occupy(diarySeq, x, y, z);
+            }
+        }
+    }
+
+    // 사용자의 사용 현황 (만든 지 ttl이 지났으면 비우고 감정별로 다시 만듦)
+    private UserPools poolsOf(Integer userSeq) {
+        synchronized (poolsByUser) {
+            UserPools user = poolsByUser.get(userSeq);
+            if (user == null || System.currentTimeMillis() - user.loadedAt >= ttlMillis) {
+                user = new UserPools(System.currentTimeMillis());
+                poolsByUser.put(userSeq, user);
+            }
+            return user;
+        }
+    }
+
+    // 호출 전에 user로 동기화해야 함
+    private StarSlotPool poolOf(UserPools user, Integer userSeq, Emotion emotion) {
+        PoissonDiskSlots slots = slotsOf(emotion);
+        StarSlotPool pool = user.pools.get(emotion.getEmotionSeq());
+        if (pool == null || pool.slots() != slots) {
+            pool = loadPool(userSeq, emotion.getEmotionSeq(), slots);
+            user.pools.put(emotion.getEmotionSeq(), pool);
+        }
+        return pool;
+    }
+
+    // 감정 영역의 후보 좌표 (감정 번호를 시드로 써서 인스턴스가 달라도 같은 후보)
+    private PoissonDiskSlots slotsOf(Emotion emotion) {
+        return slotsByEmotion.compute(emotion.getEmotionSeq(), (emotionSeq, slots) -> {
+            if (slots != null && slots.matches(emotion.getBaseX(), emotion.getBaseY(), emotion.getBaseZ(),
+                    emotion.getBaseRadius(), minDistance)) {
+                return slots;
+            }
+            PoissonDiskSlots generated = PoissonDiskSlots.generate(emotion.getBaseX(), emotion.getBaseY(),
+                    emotion.getBaseZ(), emotion.getBaseRadius(), minDistance, emotionSeq);
+            log.info("별 자리 후보 생성: emotion={}, slots={}", emotionSeq, generated.size());
+            return generated;
+        });
+    }
+
+    private StarSlotPool loadPool(Integer userSeq, Integer emotionSeq, PoissonDiskSlots slots) {
+        StarSlotPool pool = new StarSlotPool(slots);
+        for (DiaryCoordinateView diary : diaryRepository.findByUserSeqAndEmotionSeqAndIsDeleted(
+                userSeq, emotionSeq, "N", DiaryCoordinateView.class)) {
+            if (diary.getX() != null && diary.getY() != null && diary.getZ() != null) {
+                pool.occupy(diary.getDiarySeq(), diary.getX(), diary.getY(), diary.getZ());
+            }
+        }
+        log.debug("별 자리 사용 현황 생성: user={}, emotion={}, free={}/{}",
+                userSeq, emotionSeq, pool.freeCount(), slots.size());
+        return pool;
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+            return;
+        }
+        action.run();
+    }
+
+    private static final class UserPools {
+        private final long loadedAt;
+        // 감정 → 사용 현황
+        private final Map<Integer, StarSlotPool> pools = new HashMap<>();
+
+        private UserPools(long loadedAt) {
+            this.loadedAt = loadedAt;
+        }
+    }
+
+    private void onRollback(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        action.run();
+                    }
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package com.c202.diary.util.coordinate.spatial;
+
+import java.util.*;
+
+/**
+ * 3D 균등 격자 공간 인덱스
+ * 점을 cellSize 크기의 정육면체 칸에 나눠 담아 반경 검색과 k-최근접 검색을 주변 칸만 보고 처리합니다.
+ * 별 밀도가 일정한 감정 영역에서는 두 검색 모두 점 개수와 무관하게 거의 상수 시간입니다.
+ * 스레드 안전하지 않으므로 공유할 때는 호출하는 쪽에서 동기화해야 합니다.
+ */
+public class UniformGrid {
+
+    // 칸 좌표 하나에 쓰는 비트 수 (부호 포함 21비트 → ±100만 칸)
+    private static final int CELL_BITS = 21;
+    private static final long CELL_MASK = (1L << CELL_BITS) - 1;
+
+    private final double cellSize;
+    private final Map<Long, List<Point>> cells = new HashMap<>();
+    private final Map<Integer, Point> points = new HashMap<>();
+
+    // 점이 있는 칸 좌표의 범위 (k-최근접 검색 종료 조건)
+    private int minCellX = Integer.MAX_VALUE, minCellY = Integer.MAX_VALUE, minCellZ = Integer.MAX_VALUE;
+    private int maxCellX = Integer.MIN_VALUE, maxCellY = Integer.MIN_VALUE, maxCellZ = Integer.MIN_VALUE;
+
+    public UniformGrid(double cellSize) {
+        if (cellSize <= 0) {
+            throw new IllegalArgumentException("cellSize는 0보다 커야 합니다: " + cellSize);
+        }
+        this.cellSize = cellSize;
+    }
+
+    public int size() {
+        return points.size();
+    }
+
+    public boolean contains(int id) {
+        return points.containsKey(id);
+    }
+
+    /**
+     * 점을 추가하거나 이미 있으면 새 위치로 옮깁니다.
+     */
+    public void put(int id, double x, double y, double z) {
+        remove(id);
+
+        int cx = cellOf(x), cy = cellOf(y), cz = cellOf(z);
+        Point point = new Point(id, x, y, z, key(cx, cy, cz));
+        points.put(id, point);
+        cells.computeIfAbsent(point.cellKey, k -> new ArrayList<>(4)).add(point);
+
+        minCellX = Math.min(minCellX, cx);
+        minCellY = Math.min(minCellY, cy);
+        minCellZ = Math.min(minCellZ, cz);
+        maxCellX = Math.max(maxCellX, cx);
+        maxCellY = Math.max(maxCellY, cy);
+        maxCellZ = Math.max(maxCellZ, cz);
+    }
+
+    /**
+     * 점을 제거합니다. (범위 정보는 줄이지 않으며 검색 결과에는 영향이 없습니다)
+     */
+    public boolean remove(int id) {
+        Point point = points.remove(id);
+        if (point == null) {
+            return false;
+        }
+        List<Point> cell = cells.get(point.cellKey);
+        cell.remove(point);
+        if (cell.isEmpty()) {
+            cells.remove(point.cellKey);
+        }
+        return true;
+    }
+
+    /**
+     * 반경 안에 다른 점이 하나라도 있는지 확인합니다.
+     * @param excludeId 제외할 점 ID (없으면 null)
+     */
+    public boolean hasWithin(double x, double y, double z, double radius, Integer excludeId) {
+        double radiusSq = radius * radius;
+        int span = (int) Math.ceil(radius / cellSize);
+        int cx = cellOf(x), cy = cellOf(y), cz = cellOf(z);
+
+        for (int ix = cx - span; ix <= cx + span; ix++) {
+            for (int iy = cy - span; iy <= cy + span; iy++) {
+                for (int iz = cz - span; iz <= cz + span; iz++) {
+                    List<Point> cell = cells.get(key(ix, iy, iz));
+                    if (cell == null) continue;
+                    for (Point point : cell) {
+                        if (excludeId != null && point.id == excludeId) continue;
+                        if (point.distanceSq(x, y, z) < radiusSq) {
+                            return true;
+                        }
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 반경 안의 점 좌표를 모두 반환합니다.
+     * @return 각 원소는 [x, y, z]
+     */
+    public List<double[]> within(double x, double y, double z, double radius, Integer excludeId) {
+        List<double[]> result = new ArrayList<>();
+        double radiusSq = radius * radius;
+        int span = (int) Math.ceil(radius / cellSize);
+        int cx = cellOf(x), cy = cellOf(y), cz = cellOf(z);
+
+        for (int ix = cx - span; ix <= cx + span; ix++) {
+            for (int iy = cy - span; iy <= cy + span; iy++) {
+                for (int iz = cz - span; iz <= cz + span; iz++) {
+                    List<Point> cell = cells.get(key(ix, iy, iz));
+                    if (cell == null) continue;
+                    for (Point point : cell) {
+                        if (excludeId != null && point.id == excludeId) continue;
+                        if (point.distanceSq(x, y, z) < radiusSq) {
+                            result.add(new double[]{point.x, point.y, point.z});
+                        }
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 가장 가까운 k개의 점을 가까운 순으로 반환합니다.
+     * 질의 칸에서부터 한 겹씩 넓혀 가며, 남은 칸이 현재 k번째보다 가까울 수 없으면 멈춥니다.
+     * @param excludeId 제외할 점 ID (없으면 null)
+     * @return 점 ID 목록 (가까운 순)
+     */
+    public List<Neighbor> nearest(double x, double y, double z, int k, Integer excludeId) {
+        if (k <= 0 || points.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        // 최대 힙 (가장 먼 후보가 맨 위)
+        PriorityQueue<Neighbor> heap = new PriorityQueue<>(k + 1,
+                Comparator.comparingDouble(Neighbor::getDistance).reversed());
+
+        int cx = cellOf(x), cy = cellOf(y), cz = cellOf(z);
+        int maxRing = Math.max(
+                Math.max(Math.abs(cx - minCellX), Math.abs(cx - maxCellX)),
+                Math.max(Math.max(Math.abs(cy - minCellY), Math.abs(cy - maxCellY)),
+                        Math.max(Math.abs(cz - minCellZ), Math.abs(cz - maxCellZ))));
+
+        for (int ring = 0; ring <= maxRing; ring++) {
+            visitRing(cx, cy, cz, ring, x, y, z, k, excludeId, heap);
+
+            // ring+1 겹에 있는 점은 질의점에서 최소 ring * cellSize 이상 떨어져 있음
+            if (heap.size() == k && heap.peek().getDistance() <= ring * cellSize) {
+                break;
+            }
+        }
+
+        List<Neighbor> result = new ArrayList<>(heap);
+        result.sort(Comparator.comparingDouble(Neighbor::getDistance));
+        return result;
+    }
+
+    // 질의 칸에서 체비셰프 거리가 정확히 ring인 칸들만 방문
+    private void visitRing(int cx, int cy, int cz, int ring, double x, double y, double z,
+                           int k, Integer excludeId, PriorityQueue<Neighbor> heap) {
+        for (int ix = cx - ring; ix <= cx + ring; ix++) {
+            for (int iy = cy - ring; iy <= cy + ring; iy++) {
+                boolean edge = Math.abs(ix - cx) == ring || Math.abs(iy - cy) == ring;
+                // 가장자리가 아니면 z 방향 양 끝 칸만 ring에 속함
+                int step = edge ? 1 : Math.max(1, 2 * ring);
+                for (int iz = cz - ring; iz <= cz + ring; iz += step) {
+                    List<Point> cell = cells.get(key(ix, iy, iz));
+                    if (cell == null) continue;
+                    for (Point point : cell) {
+                        if (excludeId != null && point.id == excludeId) continue;
+                        double distance = Math.sqrt(point.distanceSq(x, y, z));
+                        if (heap.size() < k) {
+                            heap.add(new Neighbor(point.id, distance));
+                        } else if (distance < heap.peek().getDistance()) {
+                            heap.poll();
+                            heap.add(new Neighbor(point.id, distance));
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private int cellOf(double coordinate) {
+        return (int) Math.floor(coordinate / cellSize);
+    }
+
+    private static long key(int cx, int cy, int cz) {
+        return ((cx & CELL_MASK) << (2 * CELL_BITS)) | ((cy & CELL_MASK) << CELL_BITS) | (cz & CELL_MASK);
+    }
+
+    private static final class Point {
+        private final int id;
+        private final double x, y, z;
+        private final long cellKey;
+
+        private Point(int id, double x, double y, double z, long cellKey) {
+            this.id = id;
+            this.x = x;
+            this.y = y;
+            this.z = z;
+            this.cellKey = cellKey;
+        }
+
+        private double distanceSq(double qx, double qy, double qz) {
+            double dx = x - qx, dy = y - qy, dz = z - qz;
+            return dx * dx + dy * dy + dz * dz;
+        }
+    }
+
+    // k-최근접 검색 결과
+    public static final class Neighbor {
+        private final int id;
+        private final double distance;
+
+        public Neighbor(int id, double distance) {
+            this.id = id;
+            this.distance = distance;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public double getDistance() {
+            return distance;
+        }
+    }
+}
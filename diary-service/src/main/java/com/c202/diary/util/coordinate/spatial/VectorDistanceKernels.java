@@ -0,0 +1,129 @@
+package com.c202.diary.util.coordinate.spatial;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Vector API 거리 커널
+ * CPU가 지원하는 가장 넓은 double 벡터(AVX2 4개, AVX-512 8개)로 점 여러 개를 한 번에 계산하고,
+ * 벡터 폭으로 나누어떨어지지 않는 나머지는 스칼라로 처리합니다.
+ * jdk.incubator.vector 모듈이 있을 때만 KernelSelector가 이름으로 불러옵니다.
+ */
+final class VectorDistanceKernels implements DistanceKernels {
+
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Float> FLOAT_SPECIES = FloatVector.SPECIES_PREFERRED;
+
+    VectorDistanceKernels() {
+    }
+
+    @Override
+    public String name() {
+        return "vector-" + SPECIES.length();
+    }
+
+    @Override
+    public void squaredDistances(double x, double y, double z, CoordinateBuffer points, double[] out) {
+        double[] xs = points.xs(), ys = points.ys(), zs = points.zs();
+        int n = points.size();
+        int bound = SPECIES.loopBound(n);
+        int j = 0;
+        for (; j < bound; j += SPECIES.length()) {
+            DoubleVector dx = DoubleVector.fromArray(SPECIES, xs, j).sub(x);
+            DoubleVector dy = DoubleVector.fromArray(SPECIES, ys, j).sub(y);
+            DoubleVector dz = DoubleVector.fromArray(SPECIES, zs, j).sub(z);
+            dx.mul(dx).add(dy.mul(dy)).add(dz.mul(dz)).intoArray(out, j);
+        }
+        for (; j < n; j++) {
+            double dx = xs[j] - x, dy = ys[j] - y, dz = zs[j] - z;
+            out[j] = dx * dx + dy * dy + dz * dz;
+        }
+    }
+
+    @Override
+    public boolean anyWithin(double x, double y, double z, CoordinateBuffer points, double radius) {
+        double radiusSq = radius * radius;
+        double[] xs = points.xs(), ys = points.ys(), zs = points.zs();
+        int n = points.size();
+        int bound = SPECIES.loopBound(n);
+        int j = 0;
+        for (; j < bound; j += SPECIES.length()) {
+            DoubleVector dx = DoubleVector.fromArray(SPECIES, xs, j).sub(x);
+            DoubleVector dy = DoubleVector.fromArray(SPECIES, ys, j).sub(y);
+            DoubleVector dz = DoubleVector.fromArray(SPECIES, zs, j).sub(z);
+            DoubleVector distanceSq = dx.mul(dx).add(dy.mul(dy)).add(dz.mul(dz));
+            if (distanceSq.compare(VectorOperators.LT, radiusSq).anyTrue()) {
+                return true;
+            }
+        }
+        for (; j < n; j++) {
+            double dx = xs[j] - x, dy = ys[j] - y, dz = zs[j] - z;
+            if (dx * dx + dy * dy + dz * dz < radiusSq) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void accumulateRepulsion(int index, CoordinateBuffer points, double constant, double minDistance,
+                                    double[] out) {
+        double[] xs = points.xs(), ys = points.ys(), zs = points.zs();
+        int n = points.size();
+        double x = xs[index], y = ys[index], z = zs[index];
+        DoubleVector sumX = DoubleVector.zero(SPECIES);
+        DoubleVector sumY = DoubleVector.zero(SPECIES);
+        DoubleVector sumZ = DoubleVector.zero(SPECIES);
+
+        // 자기 자신은 dx = dy = dz = 0이라 힘이 0이므로 따로 제외하지 않음
+        int bound = SPECIES.loopBound(n);
+        int j = 0;
+        for (; j < bound; j += SPECIES.length()) {
+            DoubleVector dx = DoubleVector.fromArray(SPECIES, xs, j).neg().add(x);
+            DoubleVector dy = DoubleVector.fromArray(SPECIES, ys, j).neg().add(y);
+            DoubleVector dz = DoubleVector.fromArray(SPECIES, zs, j).neg().add(z);
+            DoubleVector distance = dx.mul(dx).add(dy.mul(dy)).add(dz.mul(dz)).sqrt().max(minDistance);
+            DoubleVector scale = DoubleVector.broadcast(SPECIES, constant)
+                    .div(distance.mul(distance).mul(distance));
+            sumX = dx.fma(scale, sumX);
+            sumY = dy.fma(scale, sumY);
+            sumZ = dz.fma(scale, sumZ);
+        }
+
+        double forceX = sumX.reduceLanes(VectorOperators.ADD);
+        double forceY = sumY.reduceLanes(VectorOperators.ADD);
+        double forceZ = sumZ.reduceLanes(VectorOperators.ADD);
+        for (; j < n; j++) {
+            if (j == index) continue;
+            double dx = x - xs[j];
+            double dy = y - ys[j];
+            double dz = z - zs[j];
+            double distance = Math.sqrt(dx * dx + dy * dy + dz * dz);
+            if (distance < minDistance) distance = minDistance;
+            double scale = constant / (distance * distance * distance);
+            forceX += dx * scale;
+            forceY += dy * scale;
+            forceZ += dz * scale;
+        }
+        out[0] += forceX;
+        out[1] += forceY;
+        out[2] += forceZ;
+    }
+
+    @Override
+    public double dot(float[] a, float[] b) {
+        FloatVector sum = FloatVector.zero(FLOAT_SPECIES);
+        int bound = FLOAT_SPECIES.loopBound(a.length);
+        int i = 0;
+        for (; i < bound; i += FLOAT_SPECIES.length()) {
+            sum = FloatVector.fromArray(FLOAT_SPECIES, a, i).fma(FloatVector.fromArray(FLOAT_SPECIES, b, i), sum);
+        }
+        float dot = sum.reduceLanes(VectorOperators.ADD);
+        for (; i < a.length; i++) {
+            dot += a[i] * b[i];
+        }
+        return dot;
+    }
+}
@@ -0,0 +1,141 @@
+package com.c202.diary.util.coordinate.service;
+
+import com.c202.diary.emotion.entity.Emotion;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConstellationLayoutCacheTest {
+
+    private final ConstellationLayoutService layoutService = new ConstellationLayoutService(null);
+
+    private final Emotion emotion = Emotion.builder()
+            .emotionSeq(1)
+            .name("행복")
+            .baseX(100.0)
+            .baseY(-50.0)
+            .baseZ(20.0)
+            .baseRadius(80.0)
+            .diaryCount(0)
+            .build();
+
+    @Test
+    void keyIgnoresMemberOrder() {
+        assertEquals(
+                ConstellationLayoutCache.keyOf(1, new int[]{5, 3, 9}, 3),
+                ConstellationLayoutCache.keyOf(1, new int[]{9, 5, 3}, 3));
+    }
+
+    @Test
+    void keyDependsOnMembersEmotionAndTemplateSize() {
+        long key = ConstellationLayoutCache.keyOf(1, new int[]{3, 5, 9}, 3);
+
+        assertNotEquals(key, ConstellationLayoutCache.keyOf(1, new int[]{3, 5, 10}, 3));
+        assertNotEquals(key, ConstellationLayoutCache.keyOf(1, new int[]{3, 5}, 3));
+        assertNotEquals(key, ConstellationLayoutCache.keyOf(2, new int[]{3, 5, 9}, 3));
+        assertNotEquals(key, ConstellationLayoutCache.keyOf(1, new int[]{3, 5, 9}, 4));
+    }
+
+    // 다른 인스턴스·재시작 뒤에도 같은 구성·같은 기존 중심이면 같은 배치 (그룹 순서·수는 키에 들어가지 않음)
+    @Test
+    void sameMembersReproduceSameLayout() {
+        ConstellationLayoutCache first = new ConstellationLayoutCache(true, 100);
+        ConstellationLayoutCache second = new ConstellationLayoutCache(true, 100);
+        List<double[]> centers = List.of(new double[]{100.0, -50.0, 20.0});
+
+        ConstellationLayoutCache.Layout a = first.compute(
+                ConstellationLayoutCache.keyOf(1, new int[]{11, 12, 13, 14}, 4),
+                random -> layoutService.constellationLayout(emotion, 4, centers, random));
+        ConstellationLayoutCache.Layout b = second.compute(
+                ConstellationLayoutCache.keyOf(1, new int[]{14, 13, 12, 11}, 4),
+                random -> layoutService.constellationLayout(emotion, 4, centers, random));
+
+        assertNotSame(a, b);
+        assertLayoutEquals(a, b, 4);
+    }
+
+    @Test
+    void computedLayoutIsCached() {
+        ConstellationLayoutCache cache = new ConstellationLayoutCache(true, 100);
+        long key = ConstellationLayoutCache.keyOf(1, new int[]{1, 2, 3}, 3);
+        assertNull(cache.get(key));
+
+        ConstellationLayoutCache.Layout layout = cache.compute(key,
+                random -> layoutService.constellationLayout(emotion, 3, List.of(), random));
+
+        assertSame(layout, cache.get(key));
+    }
+
+    @Test
+    void nonDeterministicModeDoesNotCache() {
+        ConstellationLayoutCache cache = new ConstellationLayoutCache(false, 100);
+        long key = ConstellationLayoutCache.keyOf(1, new int[]{1, 2, 3}, 3);
+
+        cache.compute(key, random -> layoutService.constellationLayout(emotion, 3, List.of(), random));
+
+        assertNull(cache.get(key));
+    }
+
+    @Test
+    void layoutStaysInsideEmotionRegion() {
+        Random random = new Random(42L);
+        List<double[]> centers = List.of(new double[]{100.0, -50.0, 20.0});
+        for (int i = 0; i < 200; i++) {
+            ConstellationLayoutCache.Layout layout = layoutService.constellationLayout(emotion, 5, centers, random);
+            double dx = layout.getCenterX() - emotion.getBaseX();
+            double dy = layout.getCenterY() - emotion.getBaseY();
+            double dz = layout.getCenterZ() - emotion.getBaseZ();
+            assertTrue(Math.sqrt(dx * dx + dy * dy + dz * dz) <= emotion.getBaseRadius() * 0.7 + 1e-9);
+        }
+    }
+
+    // 같은 감정 영역에 차례로 놓은 별자리끼리는 중심이 최소 거리 이상 떨어짐
+    @Test
+    void constellationCentersKeepMinimumDistance() {
+        for (long seed = 0; seed < 20; seed++) {
+            Random random = new Random(seed);
+            List<double[]> centers = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                ConstellationLayoutCache.Layout layout = layoutService.constellationLayout(emotion, 4, centers, random);
+                double[] center = {layout.getCenterX(), layout.getCenterY(), layout.getCenterZ()};
+                assertTrue(layoutService.isSeparated(center[0], center[1], center[2], centers));
+                centers.add(center);
+            }
+
+            for (int i = 0; i < centers.size(); i++) {
+                for (int j = i + 1; j < centers.size(); j++) {
+                    double dx = centers.get(i)[0] - centers.get(j)[0];
+                    double dy = centers.get(i)[1] - centers.get(j)[1];
+                    double dz = centers.get(i)[2] - centers.get(j)[2];
+                    assertTrue(Math.sqrt(dx * dx + dy * dy + dz * dz)
+                                    >= ConstellationLayoutService.MIN_CONSTELLATION_DISTANCE,
+                            "seed=" + seed + ", " + i + "-" + j);
+                }
+            }
+        }
+    }
+
+    @Test
+    void seedDependsOnUser() {
+        assertNotEquals(
+                ConstellationLayoutCache.seedOf(1, 1, 0),
+                ConstellationLayoutCache.seedOf(2, 1, 0));
+    }
+
+    private static void assertLayoutEquals(ConstellationLayoutCache.Layout expected,
+                                           ConstellationLayoutCache.Layout actual, int slotCount) {
+        assertEquals(expected.getCenterX(), actual.getCenterX(), 0.0);
+        assertEquals(expected.getCenterY(), actual.getCenterY(), 0.0);
+        assertEquals(expected.getCenterZ(), actual.getCenterZ(), 0.0);
+        assertEquals(expected.getScale(), actual.getScale(), 0.0);
+        for (int slot = 0; slot < slotCount; slot++) {
+            assertEquals(expected.slotX(slot), actual.slotX(slot), 0.0);
+            assertEquals(expected.slotY(slot), actual.slotY(slot), 0.0);
+            assertEquals(expected.slotZ(slot), actual.slotZ(slot), 0.0);
+        }
+    }
+}
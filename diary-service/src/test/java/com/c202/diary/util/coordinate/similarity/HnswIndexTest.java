@@ -0,0 +1,187 @@
+package com.c202.diary.util.coordinate.similarity;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.IntPredicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HnswIndexTest {
+
+    private static final int DIMENSION = 32;
+
+    @Test
+    void recallMatchesBruteForce() {
+        Random random = new Random(42L);
+        float[][] vectors = randomVectors(random, 2000);
+        HnswIndex index = indexOf(vectors);
+
+        int found = 0, total = 0;
+        for (int query = 0; query < 50; query++) {
+            float[] q = randomUnit(random);
+            Set<Integer> expected = new HashSet<>(bruteForce(vectors, q, 10, id -> true));
+            for (HnswIndex.Result result : index.search(q, 10, 64, null)) {
+                if (expected.contains(result.getId())) {
+                    found++;
+                }
+            }
+            total += expected.size();
+        }
+        assertTrue((double) found / total >= 0.9, "recall@10: " + (double) found / total);
+    }
+
+    @Test
+    void smallIndexIsExact() {
+        Random random = new Random(7L);
+        float[][] vectors = randomVectors(random, 50);
+        HnswIndex index = indexOf(vectors);
+
+        float[] q = randomUnit(random);
+        List<HnswIndex.Result> results = index.search(q, 5, 100, null);
+
+        assertEquals(bruteForce(vectors, q, 5, id -> true), ids(results));
+        for (int i = 1; i < results.size(); i++) {
+            assertTrue(results.get(i - 1).getSimilarity() >= results.get(i).getSimilarity());
+        }
+    }
+
+    @Test
+    void removedPointsAreNotReturned() {
+        Random random = new Random(3L);
+        float[][] vectors = randomVectors(random, 500);
+        HnswIndex index = indexOf(vectors);
+
+        // 자기 자신이 가장 가까운 점이므로 지운 뒤에는 나오지 않아야 함
+        for (int id = 0; id < 300; id++) {
+            assertTrue(index.remove(id));
+        }
+        assertFalse(index.remove(0));
+        assertEquals(200, index.size());
+        assertFalse(index.contains(10));
+
+        for (int id = 0; id < 300; id += 37) {
+            for (HnswIndex.Result result : index.search(vectors[id], 10, 64, null)) {
+                assertTrue(result.getId() >= 300, "삭제된 점 반환: " + result.getId());
+            }
+        }
+    }
+
+    @Test
+    void searchKeepsWorkingAfterCompaction() {
+        Random random = new Random(5L);
+        float[][] vectors = randomVectors(random, 400);
+        HnswIndex index = indexOf(vectors);
+        for (int id = 0; id < 300; id++) {
+            index.remove(id);
+        }
+        // 삭제가 절반을 넘은 상태에서 추가하면 다시 만들어짐
+        float[] extra = randomUnit(random);
+        index.put(1000, extra);
+
+        assertEquals(101, index.size());
+        assertEquals(1000, index.search(extra, 1, 64, null).get(0).getId());
+    }
+
+    @Test
+    void filterIsApplied() {
+        Random random = new Random(11L);
+        float[][] vectors = randomVectors(random, 1000);
+        HnswIndex index = indexOf(vectors);
+
+        float[] q = randomUnit(random);
+        List<HnswIndex.Result> results = index.search(q, 10, 64, id -> id % 7 == 0);
+
+        assertEquals(10, results.size());
+        for (HnswIndex.Result result : results) {
+            assertEquals(0, result.getId() % 7);
+        }
+    }
+
+    @Test
+    void filterWithFewMatchesStillFindsThem() {
+        Random random = new Random(13L);
+        float[][] vectors = randomVectors(random, 1000);
+        HnswIndex index = indexOf(vectors);
+
+        // 통과하는 점이 3개뿐이면 ef를 넓혀 모두 찾음
+        List<HnswIndex.Result> results = index.search(randomUnit(random), 10, 16,
+                id -> id == 5 || id == 500 || id == 999);
+
+        Set<Integer> expected = Set.of(5, 500, 999);
+        assertEquals(expected, new HashSet<>(ids(results)));
+    }
+
+    @Test
+    void putReplacesVector() {
+        Random random = new Random(17L);
+        float[][] vectors = randomVectors(random, 200);
+        HnswIndex index = indexOf(vectors);
+
+        float[] moved = randomUnit(random);
+        index.put(3, moved);
+
+        assertEquals(200, index.size());
+        assertEquals(3, index.search(moved, 1, 64, null).get(0).getId());
+    }
+
+    @Test
+    void rejectsTooSmallM() {
+        assertThrows(IllegalArgumentException.class, () -> new HnswIndex(1, 10, 0L));
+    }
+
+    private static HnswIndex indexOf(float[][] vectors) {
+        HnswIndex index = new HnswIndex(16, 100, 42L);
+        for (int id = 0; id < vectors.length; id++) {
+            index.put(id, vectors[id]);
+        }
+        return index;
+    }
+
+    private static List<Integer> bruteForce(float[][] vectors, float[] query, int k, IntPredicate filter) {
+        List<Integer> ids = new ArrayList<>();
+        for (int id = 0; id < vectors.length; id++) {
+            if (filter.test(id)) {
+                ids.add(id);
+            }
+        }
+        ids.sort(Comparator.comparingDouble((Integer id) -> -TextEmbedder.similarity(query, vectors[id]))
+                .thenComparing(id -> id));
+        return ids.subList(0, Math.min(k, ids.size()));
+    }
+
+    private static List<Integer> ids(List<HnswIndex.Result> results) {
+        List<Integer> ids = new ArrayList<>(results.size());
+        for (HnswIndex.Result result : results) {
+            ids.add(result.getId());
+        }
+        return ids;
+    }
+
+    private static float[][] randomVectors(Random random, int count) {
+        float[][] vectors = new float[count][];
+        for (int i = 0; i < count; i++) {
+            vectors[i] = randomUnit(random);
+        }
+        return vectors;
+    }
+
+    private static float[] randomUnit(Random random) {
+        float[] vector = new float[DIMENSION];
+        double norm = 0;
+        for (int i = 0; i < DIMENSION; i++) {
+            vector[i] = (float) random.nextGaussian();
+            norm += vector[i] * vector[i];
+        }
+        float scale = (float) (1.0 / Math.sqrt(norm));
+        for (int i = 0; i < DIMENSION; i++) {
+            vector[i] *= scale;
+        }
+        return vector;
+    }
+}
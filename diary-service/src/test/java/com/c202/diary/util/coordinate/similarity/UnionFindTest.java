@@ -0,0 +1,84 @@
+package com.c202.diary.util.coordinate.similarity;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UnionFindTest {
+
+    @Test
+    void startsWithSingletons() {
+        UnionFind sets = new UnionFind(5);
+
+        assertEquals(5, sets.componentCount());
+        for (int i = 0; i < 5; i++) {
+            assertEquals(i, sets.find(i));
+            assertEquals(1, sets.sizeOf(i));
+        }
+        assertFalse(sets.connected(0, 1));
+    }
+
+    @Test
+    void unionJoinsSetsAndTracksSize() {
+        UnionFind sets = new UnionFind(6);
+
+        assertTrue(sets.union(0, 1));
+        assertTrue(sets.union(2, 3));
+        assertTrue(sets.union(1, 3));
+
+        assertTrue(sets.connected(0, 2));
+        assertFalse(sets.connected(0, 4));
+        assertEquals(4, sets.sizeOf(3));
+        assertEquals(1, sets.sizeOf(5));
+        assertEquals(3, sets.componentCount());
+    }
+
+    @Test
+    void unionOfAlreadyJoinedPairReturnsFalse() {
+        UnionFind sets = new UnionFind(3);
+        sets.union(0, 1);
+        sets.union(1, 2);
+
+        assertFalse(sets.union(0, 2));
+        assertFalse(sets.union(1, 1));
+        assertEquals(1, sets.componentCount());
+        assertEquals(3, sets.sizeOf(0));
+    }
+
+    @Test
+    void matchesNaiveLabelling() {
+        int n = 200;
+        Random random = new Random(42L);
+        UnionFind sets = new UnionFind(n);
+        int[] label = new int[n];
+        for (int i = 0; i < n; i++) {
+            label[i] = i;
+        }
+
+        for (int step = 0; step < 150; step++) {
+            int a = random.nextInt(n), b = random.nextInt(n);
+            boolean expected = label[a] != label[b];
+            if (expected) {
+                int from = label[b], to = label[a];
+                for (int i = 0; i < n; i++) {
+                    if (label[i] == from) label[i] = to;
+                }
+            }
+            assertEquals(expected, sets.union(a, b));
+        }
+
+        int components = 0;
+        for (int i = 0; i < n; i++) {
+            if (label[i] == i) components++;
+            int size = 0;
+            for (int j = 0; j < n; j++) {
+                if (label[j] == label[i]) size++;
+                assertEquals(label[i] == label[j], sets.connected(i, j));
+            }
+            assertEquals(size, sets.sizeOf(i));
+        }
+        assertEquals(components, sets.componentCount());
+    }
+}
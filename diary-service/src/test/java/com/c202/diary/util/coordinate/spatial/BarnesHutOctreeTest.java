@@ -0,0 +1,115 @@
+package com.c202.diary.util.coordinate.spatial;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BarnesHutOctreeTest {
+
+    private static final double CONSTANT = 500.0;
+    private static final double MIN_DISTANCE = 1.0;
+
+    @Test
+    void zeroThetaMatchesExactSum() {
+        double[][] points = randomPoints(new Random(42L), 300, 200.0);
+        BarnesHutOctree tree = treeOf(points);
+
+        for (int i = 0; i < points[0].length; i++) {
+            double[] approx = new double[3];
+            tree.accumulateRepulsion(i, 0.0, CONSTANT, MIN_DISTANCE, approx);
+            double[] exact = exactRepulsion(points, i);
+
+            assertArrayEquals(exact, approx, 1e-9 * (1 + norm(exact)));
+        }
+    }
+
+    @Test
+    void smallThetaStaysCloseToExactSum() {
+        double[][] points = randomPoints(new Random(7L), 1000, 300.0);
+        BarnesHutOctree tree = treeOf(points);
+
+        double errorSum = 0, forceSum = 0;
+        for (int i = 0; i < points[0].length; i++) {
+            double[] approx = new double[3];
+            tree.accumulateRepulsion(i, 0.5, CONSTANT, MIN_DISTANCE, approx);
+            double[] exact = exactRepulsion(points, i);
+
+            errorSum += norm(new double[]{approx[0] - exact[0], approx[1] - exact[1], approx[2] - exact[2]});
+            forceSum += norm(exact);
+        }
+        assertTrue(errorSum / forceSum < 0.05, "평균 상대 오차: " + errorSum / forceSum);
+    }
+
+    @Test
+    void accumulatesIntoExistingForce() {
+        double[][] points = {{0, 10}, {0, 0}, {0, 0}};
+        BarnesHutOctree tree = treeOf(points);
+
+        double[] out = {1.0, 2.0, 3.0};
+        tree.accumulateRepulsion(0, 0.5, CONSTANT, MIN_DISTANCE, out);
+
+        // 점 1이 +x 방향 10 떨어져 있으므로 점 0은 -x 방향으로 constant / 10² 만큼 밀림
+        assertArrayEquals(new double[]{1.0 - CONSTANT / 100, 2.0, 3.0}, out, 1e-9);
+    }
+
+    @Test
+    void coincidentPointsUseMinDistance() {
+        double[][] points = {{5, 5}, {5, 5}, {5, 5}};
+        BarnesHutOctree tree = treeOf(points);
+
+        double[] out = new double[3];
+        tree.accumulateRepulsion(0, 0.5, CONSTANT, MIN_DISTANCE, out);
+
+        for (double component : out) {
+            assertFalse(Double.isNaN(component));
+            assertFalse(Double.isInfinite(component));
+        }
+    }
+
+    @Test
+    void emptyTreeAddsNothing() {
+        BarnesHutOctree tree = BarnesHutOctree.build(new double[0], new double[0], new double[0], 0);
+
+        double[] out = {1.0, 1.0, 1.0};
+        tree.accumulateRepulsion(0, 0.5, CONSTANT, MIN_DISTANCE, out);
+
+        assertArrayEquals(new double[]{1.0, 1.0, 1.0}, out, 0.0);
+    }
+
+    private static BarnesHutOctree treeOf(double[][] points) {
+        return BarnesHutOctree.build(points[0], points[1], points[2], points[0].length);
+    }
+
+    // points[축][점]
+    private static double[][] randomPoints(Random random, int count, double extent) {
+        double[][] points = new double[3][count];
+        for (int i = 0; i < count; i++) {
+            for (int axis = 0; axis < 3; axis++) {
+                points[axis][i] = (random.nextDouble() - 0.5) * extent;
+            }
+        }
+        return points;
+    }
+
+    private static double[] exactRepulsion(double[][] points, int i) {
+        double[] force = new double[3];
+        for (int j = 0; j < points[0].length; j++) {
+            if (j == i) continue;
+            double dx = points[0][i] - points[0][j];
+            double dy = points[1][i] - points[1][j];
+            double dz = points[2][i] - points[2][j];
+            double distance = Math.max(Math.sqrt(dx * dx + dy * dy + dz * dz), MIN_DISTANCE);
+            double repulsion = CONSTANT / (distance * distance);
+            force[0] += dx / distance * repulsion;
+            force[1] += dy / distance * repulsion;
+            force[2] += dz / distance * repulsion;
+        }
+        return force;
+    }
+
+    private static double norm(double[] v) {
+        return Math.sqrt(v[0] * v[0] + v[1] * v[1] + v[2] * v[2]);
+    }
+}
@@ -0,0 +1,105 @@
+package com.c202.diary.util.coordinate.spatial;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// 스칼라·Vector API 커널이 같은 결과를 내는지 확인 (벡터 폭으로 나누어떨어지지 않는 길이 포함)
+// Vector API 커널은 --add-modules jdk.incubator.vector로 실행해야 불러올 수 있습니다. (pom의 surefire argLine)
+class DistanceKernelsTest {
+
+    // 0, 레인 수 미만, 레인 수 ± 1, 1024 - 1 등 나머지 처리가 필요한 길이
+    private static final int[] LENGTHS = {0, 1, 2, 3, 5, 7, 8, 9, 15, 16, 17, 33, 64, 65, 1023};
+
+    private final DistanceKernels scalar = ScalarDistanceKernels.INSTANCE;
+    private final DistanceKernels vector = new VectorDistanceKernels();
+
+    @Test
+    void squaredDistancesMatch() {
+        Random random = new Random(42L);
+        for (int n : LENGTHS) {
+            CoordinateBuffer points = randomBuffer(random, n);
+            double x = random.nextGaussian() * 100, y = random.nextGaussian() * 100, z = random.nextGaussian() * 100;
+
+            double[] expected = new double[n];
+            double[] actual = new double[n];
+            scalar.squaredDistances(x, y, z, points, expected);
+            vector.squaredDistances(x, y, z, points, actual);
+
+            for (int j = 0; j < n; j++) {
+                assertEquals(expected[j], actual[j], 1e-12 * Math.max(1.0, expected[j]), "n=" + n + ", j=" + j);
+            }
+        }
+    }
+
+    @Test
+    void squaredDistancesLeaveRestOfOutputUntouched() {
+        CoordinateBuffer points = randomBuffer(new Random(1L), 5);
+        double[] out = new double[8];
+        Arrays.fill(out, -1.0);
+
+        vector.squaredDistances(0, 0, 0, points, out);
+
+        for (int j = 5; j < out.length; j++) {
+            assertEquals(-1.0, out[j], 0.0);
+        }
+    }
+
+    @Test
+    void anyWithinMatches() {
+        Random random = new Random(7L);
+        for (int n : LENGTHS) {
+            CoordinateBuffer points = randomBuffer(random, n);
+            for (int query = 0; query < 20; query++) {
+                double x = random.nextGaussian() * 100, y = random.nextGaussian() * 100, z = random.nextGaussian() * 100;
+                double radius = random.nextDouble() * 80;
+                assertEquals(scalar.anyWithin(x, y, z, points, radius), vector.anyWithin(x, y, z, points, radius),
+                        "n=" + n);
+            }
+        }
+    }
+
+    @Test
+    void accumulateRepulsionMatches() {
+        Random random = new Random(3L);
+        for (int n : LENGTHS) {
+            if (n == 0) continue;
+            CoordinateBuffer points = randomBuffer(random, n);
+            for (int index : new int[]{0, n / 2, n - 1}) {
+                double[] expected = new double[3];
+                double[] actual = new double[3];
+                scalar.accumulateRepulsion(index, points, 500.0, 1.0, expected);
+                vector.accumulateRepulsion(index, points, 500.0, 1.0, actual);
+
+                double scale = Math.max(1.0, Math.abs(expected[0]) + Math.abs(expected[1]) + Math.abs(expected[2]));
+                assertArrayEquals(expected, actual, 1e-9 * scale);
+            }
+        }
+    }
+
+    @Test
+    void dotMatches() {
+        Random random = new Random(11L);
+        for (int n : LENGTHS) {
+            float[] a = new float[n];
+            float[] b = new float[n];
+            for (int i = 0; i < n; i++) {
+                a[i] = (float) random.nextGaussian();
+                b[i] = (float) random.nextGaussian();
+            }
+            // float 합산 순서가 달라 길이에 비례하는 오차는 허용
+            assertEquals(scalar.dot(a, b), vector.dot(a, b), 1e-5 * Math.max(1, n), "n=" + n);
+        }
+    }
+
+    private static CoordinateBuffer randomBuffer(Random random, int n) {
+        CoordinateBuffer buffer = new CoordinateBuffer(n);
+        for (int i = 0; i < n; i++) {
+            buffer.add(random.nextGaussian() * 100, random.nextGaussian() * 100, random.nextGaussian() * 100);
+        }
+        return buffer;
+    }
+}
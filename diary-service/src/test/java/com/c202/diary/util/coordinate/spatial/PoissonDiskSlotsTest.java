@@ -0,0 +1,118 @@
+package com.c202.diary.util.coordinate.spatial;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.IntPredicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PoissonDiskSlotsTest {
+
+    private static final double MIN_DISTANCE = 3.0;
+
+    private final PoissonDiskSlots slots = PoissonDiskSlots.generate(10, -20, 5, 20, MIN_DISTANCE, 42L);
+
+    @Test
+    void slotsKeepMinimumDistance() {
+        assertTrue(slots.size() > 100, "후보 수: " + slots.size());
+        for (int i = 0; i < slots.size(); i++) {
+            for (int j = i + 1; j < slots.size(); j++) {
+                assertTrue(distance(slots, i, slots.x(j), slots.y(j), slots.z(j)) >= MIN_DISTANCE - 1e-9,
+                        "slot " + i + ", " + j);
+            }
+        }
+    }
+
+    @Test
+    void slotsStayInsideSphere() {
+        for (int i = 0; i < slots.size(); i++) {
+            assertTrue(distance(slots, i, 10, -20, 5) <= 20 + 1e-9, "slot " + i);
+        }
+    }
+
+    @Test
+    void sameSeedGivesSameSlots() {
+        PoissonDiskSlots again = PoissonDiskSlots.generate(10, -20, 5, 20, MIN_DISTANCE, 42L);
+
+        assertEquals(slots.size(), again.size());
+        for (int i = 0; i < slots.size(); i++) {
+            assertEquals(slots.x(i), again.x(i), 0.0);
+            assertEquals(slots.y(i), again.y(i), 0.0);
+            assertEquals(slots.z(i), again.z(i), 0.0);
+        }
+    }
+
+    @Test
+    void nearestFreeMatchesBruteForce() {
+        Random random = new Random(7L);
+        for (int query = 0; query < 200; query++) {
+            // 구 밖의 기준점도 포함
+            double x = 10 + random.nextGaussian() * 15;
+            double y = -20 + random.nextGaussian() * 15;
+            double z = 5 + random.nextGaussian() * 15;
+            Set<Integer> used = new HashSet<>();
+            int usedCount = random.nextInt(slots.size());
+            for (int i = 0; i < usedCount; i++) {
+                used.add(random.nextInt(slots.size()));
+            }
+            IntPredicate free = slot -> !used.contains(slot);
+
+            assertEquals(bruteForce(x, y, z, free), slots.nearestFree(x, y, z, free), "query " + query);
+        }
+    }
+
+    @Test
+    void nearestFreeReturnsMinusOneWhenAllUsed() {
+        assertEquals(-1, slots.nearestFree(10, -20, 5, slot -> false));
+    }
+
+    @Test
+    void slotAtFindsExactSlot() {
+        for (int i = 0; i < slots.size(); i += 17) {
+            assertEquals(i, slots.slotAt(slots.x(i), slots.y(i), slots.z(i), 1e-6));
+        }
+        // 후보 사이 거리의 절반 안쪽이지만 오차보다 먼 좌표
+        assertEquals(-1, slots.slotAt(slots.x(0) + 1.0, slots.y(0), slots.z(0), 1e-6));
+    }
+
+    @Test
+    void forEachWithinMatchesBruteForce() {
+        Set<Integer> expected = new HashSet<>();
+        for (int i = 0; i < slots.size(); i++) {
+            if (distance(slots, i, 12, -18, 3) < 7.5) {
+                expected.add(i);
+            }
+        }
+        Set<Integer> actual = new HashSet<>();
+        slots.forEachWithin(12, -18, 3, 7.5, actual::add);
+
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void rejectsInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> PoissonDiskSlots.generate(0, 0, 0, 0, 3, 1L));
+        assertThrows(IllegalArgumentException.class, () -> PoissonDiskSlots.generate(0, 0, 0, 10, -1, 1L));
+    }
+
+    private int bruteForce(double x, double y, double z, IntPredicate free) {
+        int best = -1;
+        double bestDistance = Double.MAX_VALUE;
+        for (int i = 0; i < slots.size(); i++) {
+            double d = distance(slots, i, x, y, z);
+            if (free.test(i) && d < bestDistance) {
+                bestDistance = d;
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    private static double distance(PoissonDiskSlots slots, int slot, double x, double y, double z) {
+        double dx = slots.x(slot) - x, dy = slots.y(slot) - y, dz = slots.z(slot) - z;
+        return Math.sqrt(dx * dx + dy * dy + dz * dz);
+    }
+}
@@ -0,0 +1,85 @@
+package com.c202.diary.util.coordinate.spatial;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StarSlotPoolTest {
+
+    private final PoissonDiskSlots slots = PoissonDiskSlots.generate(0, 0, 0, 15, 3.0, 1L);
+
+    @Test
+    void nearestFreeDoesNotChangeUsage() {
+        StarSlotPool pool = new StarSlotPool(slots);
+        int first = pool.nearestFree(null, 0, 0, 0);
+
+        assertEquals(first, pool.nearestFree(null, 0, 0, 0));
+        assertEquals(slots.size(), pool.freeCount());
+    }
+
+    @Test
+    void occupiedSlotIsSkippedUntilRemoved() {
+        StarSlotPool pool = new StarSlotPool(slots);
+        int first = pool.nearestFree(null, 0, 0, 0);
+        pool.occupy(1, slots.x(first), slots.y(first), slots.z(first));
+
+        assertEquals(slots.size() - 1, pool.freeCount());
+        assertNotEquals(first, pool.nearestFree(null, 0, 0, 0));
+
+        pool.remove(1);
+        assertEquals(slots.size(), pool.freeCount());
+        assertEquals(first, pool.nearestFree(null, 0, 0, 0));
+    }
+
+    @Test
+    void diaryMayReuseItsOwnSlot() {
+        StarSlotPool pool = new StarSlotPool(slots);
+        int first = pool.nearestFree(null, 0, 0, 0);
+        pool.occupy(1, slots.x(first), slots.y(first), slots.z(first));
+
+        assertEquals(first, pool.nearestFree(1, 0, 0, 0));
+        assertNotEquals(first, pool.nearestFree(2, 0, 0, 0));
+    }
+
+    @Test
+    void starOffSlotsBlocksNearbySlots() {
+        StarSlotPool pool = new StarSlotPool(slots);
+        // 후보 사이에 놓인 별 (별자리 템플릿 배치 등)
+        double x = slots.x(0) + 0.5, y = slots.y(0), z = slots.z(0);
+        pool.occupy(1, x, y, z);
+
+        int slot = pool.nearestFree(null, x, y, z);
+        double dx = slots.x(slot) - x, dy = slots.y(slot) - y, dz = slots.z(slot) - z;
+        assertTrue(Math.sqrt(dx * dx + dy * dy + dz * dz) >= slots.minDistance());
+    }
+
+    @Test
+    void sharedBlockedSlotStaysUsedUntilAllRemoved() {
+        StarSlotPool pool = new StarSlotPool(slots);
+        double x = slots.x(0) + 0.5, y = slots.y(0), z = slots.z(0);
+        pool.occupy(1, x, y, z);
+        pool.occupy(2, x, y, z);
+        int blocked = slots.size() - pool.freeCount();
+        // 다른 별도 막고 있는 후보는 자기 자리로 보지 않음
+        assertNotEquals(0, pool.nearestFree(2, slots.x(0), slots.y(0), slots.z(0)));
+
+        pool.remove(1);
+        assertEquals(blocked, slots.size() - pool.freeCount());
+        assertEquals(0, pool.nearestFree(2, slots.x(0), slots.y(0), slots.z(0)));
+
+        pool.remove(2);
+        assertEquals(slots.size(), pool.freeCount());
+    }
+
+    @Test
+    void fullPoolReturnsMinusOne() {
+        StarSlotPool pool = new StarSlotPool(slots);
+        for (int i = 0; i < slots.size(); i++) {
+            pool.occupy(i, slots.x(i), slots.y(i), slots.z(i));
+        }
+
+        assertEquals(0, pool.freeCount());
+        assertEquals(-1, pool.nearestFree(null, 0, 0, 0));
+        assertEquals(5, pool.nearestFree(5, slots.x(5), slots.y(5), slots.z(5)));
+    }
+}
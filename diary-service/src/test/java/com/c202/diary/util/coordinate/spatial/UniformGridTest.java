@@ -0,0 +1,129 @@
+package com.c202.diary.util.coordinate.spatial;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UniformGridTest {
+
+    private static final double CELL_SIZE = 10.0;
+
+    @Test
+    void nearestMatchesBruteForce() {
+        Random random = new Random(42L);
+        double[][] points = randomPoints(random, 500, 200.0);
+        UniformGrid grid = gridOf(points);
+
+        for (int query = 0; query < 50; query++) {
+            double x = (random.nextDouble() - 0.5) * 300;
+            double y = (random.nextDouble() - 0.5) * 300;
+            double z = (random.nextDouble() - 0.5) * 300;
+
+            List<UniformGrid.Neighbor> found = grid.nearest(x, y, z, 5, null);
+            List<Integer> expected = bruteForceNearest(points, x, y, z, 5, -1);
+
+            assertEquals(expected.size(), found.size());
+            for (int i = 0; i < expected.size(); i++) {
+                assertEquals(expected.get(i).intValue(), found.get(i).getId());
+            }
+        }
+    }
+
+    @Test
+    void nearestExcludesGivenIdAndRemovedPoints() {
+        double[][] points = randomPoints(new Random(7L), 100, 50.0);
+        UniformGrid grid = gridOf(points);
+        grid.remove(3);
+
+        List<UniformGrid.Neighbor> found = grid.nearest(points[0][0], points[0][1], points[0][2], 10, 0);
+
+        assertEquals(10, found.size());
+        for (UniformGrid.Neighbor neighbor : found) {
+            assertNotEquals(0, neighbor.getId());
+            assertNotEquals(3, neighbor.getId());
+        }
+        assertFalse(grid.contains(3));
+        assertEquals(99, grid.size());
+    }
+
+    @Test
+    void withinMatchesBruteForce() {
+        Random random = new Random(3L);
+        double[][] points = randomPoints(random, 400, 100.0);
+        UniformGrid grid = gridOf(points);
+
+        for (int query = 0; query < 30; query++) {
+            double x = (random.nextDouble() - 0.5) * 100;
+            double y = (random.nextDouble() - 0.5) * 100;
+            double z = (random.nextDouble() - 0.5) * 100;
+            double radius = 5 + random.nextDouble() * 25;
+
+            int expected = 0;
+            for (double[] point : points) {
+                if (distance(point, x, y, z) < radius) {
+                    expected++;
+                }
+            }
+            assertEquals(expected, grid.within(x, y, z, radius, null).size());
+            assertEquals(expected > 0, grid.hasWithin(x, y, z, radius, null));
+        }
+    }
+
+    @Test
+    void putMovesExistingPoint() {
+        UniformGrid grid = new UniformGrid(CELL_SIZE);
+        grid.put(1, 0, 0, 0);
+        grid.put(1, 100, 100, 100);
+
+        assertEquals(1, grid.size());
+        assertFalse(grid.hasWithin(0, 0, 0, 1.0, null));
+        assertTrue(grid.hasWithin(100, 100, 100, 1.0, null));
+    }
+
+    @Test
+    void rejectsNonPositiveCellSize() {
+        assertThrows(IllegalArgumentException.class, () -> new UniformGrid(0));
+    }
+
+    private static UniformGrid gridOf(double[][] points) {
+        UniformGrid grid = new UniformGrid(CELL_SIZE);
+        for (int i = 0; i < points.length; i++) {
+            grid.put(i, points[i][0], points[i][1], points[i][2]);
+        }
+        return grid;
+    }
+
+    private static double[][] randomPoints(Random random, int count, double extent) {
+        double[][] points = new double[count][];
+        for (int i = 0; i < count; i++) {
+            points[i] = new double[]{
+                    (random.nextDouble() - 0.5) * extent,
+                    (random.nextDouble() - 0.5) * extent,
+                    (random.nextDouble() - 0.5) * extent
+            };
+        }
+        return points;
+    }
+
+    private static List<Integer> bruteForceNearest(double[][] points, double x, double y, double z, int k,
+                                                   int excludeId) {
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 0; i < points.length; i++) {
+            if (i != excludeId) {
+                ids.add(i);
+            }
+        }
+        ids.sort(Comparator.comparingDouble(i -> distance(points[i], x, y, z)));
+        return ids.subList(0, Math.min(k, ids.size()));
+    }
+
+    private static double distance(double[] point, double x, double y, double z) {
+        double dx = point[0] - x, dy = point[1] - y, dz = point[2] - z;
+        return Math.sqrt(dx * dx + dy * dy + dz * dz);
+    }
+}